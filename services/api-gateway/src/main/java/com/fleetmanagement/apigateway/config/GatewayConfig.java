@@ -1,17 +1,28 @@
 package com.fleetmanagement.apigateway.config;
 
+import com.fleetmanagement.apigateway.ratelimit.LeasedRateLimiter;
+import com.fleetmanagement.apigateway.routing.RouteMatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 import reactor.core.publisher.Mono;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 
 
 /**
@@ -26,6 +37,10 @@ import java.util.Arrays;
 @Slf4j
 public class GatewayConfig {
 
+    private static final int DEFAULT_REPLENISH_RATE = 10;
+    private static final int DEFAULT_BURST_CAPACITY = 20;
+    private static final int DEFAULT_REQUESTED_TOKENS = 1;
+
     /**
      * CORS Configuration for Frontend Applications
      */
@@ -147,18 +162,12 @@ public class GatewayConfig {
      * Rate Limiting Key Resolver - Rate limit by API endpoint
      */
     @Bean
-    public KeyResolver endpointKeyResolver() {
+    public KeyResolver endpointKeyResolver(RouteMatcher routeMatcher) {
         log.info("🎯 Configuring rate limiting by API endpoint");
 
-        return exchange -> {
-            String path = exchange.getRequest().getPath().value();
-            String method = exchange.getRequest().getMethod().name();
-
-            // Create a key based on HTTP method and path pattern
-            String endpointKey = method + ":" + normalizePathForRateLimit(path);
-
-            return Mono.just("endpoint:" + endpointKey);
-        };
+        // Key on HTTP method and normalized route template (IDs and UUIDs replaced with placeholders)
+        return exchange -> Mono.just(routeMatcher.resolve(exchange)
+                .getEndpointKey(exchange.getRequest().getMethod()));
     }
 
     /**
@@ -166,7 +175,39 @@ public class GatewayConfig {
      */
     @Bean
     public RedisRateLimiter redisRateLimiter() {
-        return new RedisRateLimiter(10, 20, 1);
+        return new RedisRateLimiter(DEFAULT_REPLENISH_RATE, DEFAULT_BURST_CAPACITY, DEFAULT_REQUESTED_TOKENS);
+    }
+
+    /**
+     * Rate limiter used by RequestRateLimiter filters: admits requests from tokens
+     * leased from the Redis bucket, so most requests do not touch Redis
+     */
+    @Bean
+    @Primary
+    public LeasedRateLimiter leasedRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                               RedisRateLimiter redisRateLimiter,
+                                               ConfigurationService configurationService,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${gateway.rate-limit.lease.enabled:true}") boolean enabled,
+                                               @Value("${gateway.rate-limit.lease.fraction:0.1}") double leaseFraction,
+                                               @Value("${gateway.rate-limit.lease.ttl-ms:1000}") long leaseTtlMs,
+                                               @Value("${gateway.rate-limit.lease.max-buckets:100000}") long maxBuckets) {
+        log.info("⚡ Configuring leased rate limiter (enabled: {}, lease fraction: {}, lease TTL: {}ms)",
+                enabled, leaseFraction, leaseTtlMs);
+
+        DefaultRedisScript<List<Long>> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("scripts/rate_limiter_lease.lua")));
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<List<Long>> resultType = (Class) List.class;
+        script.setResultType(resultType);
+
+        RedisRateLimiter.Config defaultConfig = new RedisRateLimiter.Config()
+                .setReplenishRate(DEFAULT_REPLENISH_RATE)
+                .setBurstCapacity(DEFAULT_BURST_CAPACITY)
+                .setRequestedTokens(DEFAULT_REQUESTED_TOKENS);
+
+        return new LeasedRateLimiter(redisTemplate, script, redisRateLimiter, defaultConfig, configurationService,
+                meterRegistry, enabled, leaseFraction, Duration.ofMillis(leaseTtlMs), maxBuckets);
     }
 
     /**
@@ -190,16 +231,4 @@ public class GatewayConfig {
 
         return clientIP;
     }
-
-    /**
-     * Helper method to normalize paths for rate limiting
-     */
-    private String normalizePathForRateLimit(String path) {
-        // Replace IDs and UUIDs with placeholders for rate limiting
-        return path
-                .replaceAll("/\\d+", "/{id}")                    // Replace numeric IDs
-                .replaceAll("/[a-fA-F0-9-]{36}", "/{uuid}")      // Replace UUIDs
-                .replaceAll("/[a-fA-F0-9-]{32}", "/{id}")        // Replace 32-char IDs
-                .toLowerCase();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+package com.fleetmanagement.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leased Rate Limiter
+ *
+ * Token bucket limiter that keeps the global bucket in Redis (same keys and
+ * refill rules as {@link RedisRateLimiter}) but takes tokens from it in leases
+ * of a fraction of the burst capacity. Requests are admitted from the node's
+ * leased tokens, so only about one request per lease goes to Redis. Tokens are
+ * debited in Redis when leased, which keeps the limit across replicas correct
+ * up to the unused part of the outstanding leases; leases expire after a short
+ * TTL so unused tokens cannot be hoarded. When Redis says the bucket is empty
+ * the key is denied locally until a token could have been refilled.
+ * Requests that queue behind a lease and find it used up take out another
+ * one, sized to the demand that queued, so a burst is only denied once Redis
+ * itself runs out of tokens.
+ *
+ * Route configuration uses the regular "redis-rate-limiter.*" filter args.
+ * Like RedisRateLimiter it fails open (with a bounded local lease) when Redis
+ * is unavailable.
+ *
+ * @author Fleet Management Team
+ */
+@Slf4j
+public class LeasedRateLimiter extends AbstractRateLimiter<RedisRateLimiter.Config> {
+
+    private static final long LEASE_NEEDED = -1;
+    private static final long DENIED = -2;
+    // Leases one request may wait for before it is denied
+    private static final int MAX_LEASE_ROUNDS = 3;
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<List<Long>> script;
+    private final RedisRateLimiter delegate;
+    private final RedisRateLimiter.Config defaultConfig;
+    private final boolean enabled;
+    private final double leaseFraction;
+    private final long leaseTtlNanos;
+    private final Cache<BucketKey, Bucket> buckets;
+    private final Counter localDecisions;
+    private final Counter leasesGranted;
+    private final Counter leasesDenied;
+    private final Counter leaseErrors;
+
+    public LeasedRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                             RedisScript<List<Long>> script,
+                             RedisRateLimiter delegate,
+                             RedisRateLimiter.Config defaultConfig,
+                             ConfigurationService configurationService,
+                             MeterRegistry meterRegistry,
+                             boolean enabled,
+                             double leaseFraction,
+                             Duration leaseTtl,
+                             long maxBuckets) {
+        super(RedisRateLimiter.Config.class, RedisRateLimiter.CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.redisTemplate = redisTemplate;
+        this.script = script;
+        this.delegate = delegate;
+        this.defaultConfig = defaultConfig;
+        this.enabled = enabled;
+        this.leaseFraction = leaseFraction;
+        this.leaseTtlNanos = leaseTtl.toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(leaseTtl.multipliedBy(2).plusSeconds(30))
+                .build();
+
+        this.localDecisions = Counter.builder("gateway.ratelimit.local.decisions")
+                .description("Rate limit decisions made from locally leased tokens")
+                .register(meterRegistry);
+        this.leasesGranted = leaseCounter(meterRegistry, "granted");
+        this.leasesDenied = leaseCounter(meterRegistry, "denied");
+        this.leaseErrors = leaseCounter(meterRegistry, "error");
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        if (!enabled) {
+            return delegate.isAllowed(routeId, id);
+        }
+        return isAllowed(routeId, id, MAX_LEASE_ROUNDS);
+    }
+
+    private Mono<Response> isAllowed(String routeId, String id, int leaseRounds) {
+        RedisRateLimiter.Config config = loadConfiguration(routeId);
+        int requested = config.getRequestedTokens();
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(new BucketKey(routeId, id), key -> new Bucket(now));
+
+        long remaining = bucket.tryConsume(requested, now);
+        if (remaining != LEASE_NEEDED || leaseRounds == 0) {
+            localDecisions.increment();
+            return Mono.just(response(config, remaining, bucket));
+        }
+
+        // Requests arriving while a lease is in flight wait for it instead of calling Redis themselves
+        Mono<Void> lease;
+        synchronized (bucket) {
+            if (bucket.pendingLease == null) {
+                bucket.pendingLease = lease(id, config, bucket, bucket.takeDemand()).cache();
+            }
+            bucket.waitingTokens += requested;
+            lease = bucket.pendingLease;
+        }
+        // If other waiters used up the lease, take out another one sized to everyone who waited
+        return lease.then(Mono.defer(() -> isAllowed(routeId, id, leaseRounds - 1)));
+    }
+
+    private Mono<Void> lease(String id, RedisRateLimiter.Config config, Bucket bucket, long demand) {
+        int leaseSize = leaseSize(config, demand);
+        List<String> keys = List.of(
+                "request_rate_limiter.{" + id + "}.tokens",
+                "request_rate_limiter.{" + id + "}.timestamp");
+        List<String> args = List.of(
+                String.valueOf(config.getReplenishRate()),
+                String.valueOf(config.getBurstCapacity()),
+                String.valueOf(config.getRequestedTokens()),
+                String.valueOf(leaseSize));
+
+        return redisTemplate.execute(script, keys, args)
+                .next()
+                .doOnNext(result -> {
+                    long granted = result.get(0);
+                    (granted > 0 ? leasesGranted : leasesDenied).increment();
+                    bucket.deposit(granted, result.get(1), System.nanoTime(), leaseTtlNanos, denyNanos(config));
+                })
+                .onErrorResume(e -> {
+                    // Fail open like RedisRateLimiter, but only for one lease worth of tokens
+                    leaseErrors.increment();
+                    log.warn("⚠️ Rate limiter lease failed for {}, admitting locally: {}", id, e.getMessage());
+                    bucket.deposit(leaseSize, -1, System.nanoTime(), leaseTtlNanos, 0);
+                    return Mono.empty();
+                })
+                // Before the waiters resume, so the ones that miss out start a new lease
+                .doOnTerminate(bucket::finishLease)
+                .then();
+    }
+
+    private RedisRateLimiter.Config loadConfiguration(String routeId) {
+        return getConfig().getOrDefault(routeId, defaultConfig);
+    }
+
+    /**
+     * The configured fraction of the burst capacity, or the queued demand if larger, at most the burst capacity
+     */
+    private int leaseSize(RedisRateLimiter.Config config, long demand) {
+        long size = Math.max((long) Math.ceil(config.getBurstCapacity() * leaseFraction), demand);
+        return (int) Math.max(config.getRequestedTokens(), Math.min(size, config.getBurstCapacity()));
+    }
+
+    /**
+     * How long an empty global bucket needs to refill the requested tokens, capped by the lease TTL
+     */
+    private long denyNanos(RedisRateLimiter.Config config) {
+        long refill = TimeUnit.SECONDS.toNanos(config.getRequestedTokens()) / Math.max(1, config.getReplenishRate());
+        return Math.min(refill, leaseTtlNanos);
+    }
+
+    private Response response(RedisRateLimiter.Config config, long remaining, Bucket bucket) {
+        boolean allowed = remaining >= 0;
+        if (!delegate.isIncludeHeaders()) {
+            return new Response(allowed, Map.of());
+        }
+        Map<String, String> headers = new HashMap<>(8);
+        headers.put(delegate.getRemainingHeader(), String.valueOf(Math.max(0, remaining) + bucket.remoteRemaining()));
+        headers.put(delegate.getReplenishRateHeader(), String.valueOf(config.getReplenishRate()));
+        headers.put(delegate.getBurstCapacityHeader(), String.valueOf(config.getBurstCapacity()));
+        headers.put(delegate.getRequestedTokensHeader(), String.valueOf(config.getRequestedTokens()));
+        return new Response(allowed, headers);
+    }
+
+    private static Counter leaseCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gateway.ratelimit.leases")
+                .description("Token leases requested from Redis")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record BucketKey(String routeId, String id) {
+    }
+
+    /**
+     * Tokens leased by this node for one route and key
+     */
+    private static final class Bucket {
+        private long tokens;
+        private long expiresAt;
+        private long deniedUntil;
+        private long remoteRemaining;
+        private Mono<Void> pendingLease;
+        // Tokens requested by the waiters of the pending lease, then of the last one
+        private long waitingTokens;
+        private long lastDemand;
+
+        private Bucket(long now) {
+            this.expiresAt = now;
+            this.deniedUntil = now;
+        }
+
+        /**
+         * Remaining local tokens after consuming, LEASE_NEEDED, or DENIED while the global bucket is known to be empty
+         */
+        private synchronized long tryConsume(int requested, long now) {
+            if (now - expiresAt >= 0) {
+                tokens = 0;
+            }
+            if (tokens >= requested) {
+                tokens -= requested;
+                return tokens;
+            }
+            return now - deniedUntil < 0 ? DENIED : LEASE_NEEDED;
+        }
+
+        private synchronized void deposit(long granted, long remote, long now, long ttlNanos, long denyNanos) {
+            if (now - expiresAt >= 0) {
+                tokens = 0;
+            }
+            tokens += granted;
+            expiresAt = now + ttlNanos;
+            remoteRemaining = Math.max(0, remote);
+            if (granted == 0) {
+                deniedUntil = now + denyNanos;
+            }
+        }
+
+        private synchronized void finishLease() {
+            pendingLease = null;
+            lastDemand = waitingTokens;
+            waitingTokens = 0;
+        }
+
+        private synchronized long takeDemand() {
+            long demand = lastDemand;
+            lastDemand = 0;
+            return demand;
+        }
+
+        private synchronized long remoteRemaining() {
+            return remoteRemaining;
+        }
+    }
+}
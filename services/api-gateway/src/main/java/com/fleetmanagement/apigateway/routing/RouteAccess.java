@@ -0,0 +1,20 @@
+package com.fleetmanagement.apigateway.routing;
+
+/**
+ * Route Access
+ *
+ * How the gateway treats requests to a route
+ *
+ * @author Fleet Management Team
+ */
+public enum RouteAccess {
+
+    /** No token required */
+    PUBLIC,
+
+    /** Valid JWT required */
+    AUTHENTICATED,
+
+    /** Service-to-service only; rejected at the gateway */
+    INTERNAL
+}
@@ -0,0 +1,38 @@
+package com.fleetmanagement.apigateway.routing;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Route Access Properties
+ *
+ * Bound from "gateway.routes". Patterns use "/" separated segments where
+ * "*" or "{name}" matches one segment and a trailing "**" matches the rest
+ * of the path (including nothing). Paths matched by no pattern get the
+ * default access.
+ *
+ * @author Fleet Management Team
+ */
+@Data
+public class RouteAccessProperties {
+
+    private RouteAccess defaultAccess = RouteAccess.AUTHENTICATED;
+
+    private List<String> publicPaths = new ArrayList<>();
+
+    private List<String> authenticatedPaths = new ArrayList<>();
+
+    private List<String> internalPaths = new ArrayList<>();
+
+    /**
+     * Upper bound on distinct route templates learned from traffic, so random paths cannot grow memory
+     */
+    private int maxTemplates = 10000;
+
+    /**
+     * Path segments beyond this depth are folded into "**" in the template
+     */
+    private int maxDepth = 12;
+}
@@ -0,0 +1,56 @@
+package com.fleetmanagement.apigateway.routing;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * Route Match
+ *
+ * Normalized route template of a request path (IDs replaced with "{id}" and
+ * UUIDs with "{uuid}", lower-cased) and its access classification. Instances
+ * are shared by all requests with the same template, so derived keys are
+ * computed once.
+ *
+ * @author Fleet Management Team
+ */
+public final class RouteMatch {
+
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+
+    private final String template;
+    private final RouteAccess access;
+    private final String[] endpointKeys = new String[METHODS.length];
+
+    RouteMatch(String template, RouteAccess access) {
+        this.template = template;
+        this.access = access;
+    }
+
+    public String getTemplate() { return template; }
+    public RouteAccess getAccess() { return access; }
+
+    public boolean isPublic() {
+        return access == RouteAccess.PUBLIC;
+    }
+
+    public boolean isInternal() {
+        return access == RouteAccess.INTERNAL;
+    }
+
+    /**
+     * Rate limiting key for this template and method, e.g. "endpoint:GET:/api/vehicles/{uuid}"
+     */
+    public String getEndpointKey(HttpMethod method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i] == method) {
+                String key = endpointKeys[i];
+                if (key == null) {
+                    // Benign race: concurrent callers compute the same value
+                    key = "endpoint:" + method.name() + ":" + template;
+                    endpointKeys[i] = key;
+                }
+                return key;
+            }
+        }
+        return "endpoint:" + method.name() + ":" + template;
+    }
+}
@@ -0,0 +1,84 @@
+package com.fleetmanagement.apigateway.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Route Matcher
+ *
+ * Classifies request paths as public, authenticated or internal and gives
+ * their normalized route template, shared by authentication and rate limiting.
+ * The patterns under "gateway.routes" are compiled once and recompiled when
+ * the environment changes (e.g. a config refresh), without a restart.
+ *
+ * @author Fleet Management Team
+ */
+@Component
+@Slf4j
+public class RouteMatcher {
+
+    public static final String ROUTE_MATCH_ATTR = RouteMatcher.class.getName() + ".routeMatch";
+
+    private static final String PROPERTIES_PREFIX = "gateway.routes";
+
+    private final Environment environment;
+    private volatile RouteTemplateTrie trie;
+
+    @Autowired
+    public RouteMatcher(Environment environment) {
+        this.environment = environment;
+        this.trie = compile();
+    }
+
+    public RouteMatch resolve(String path) {
+        return trie.resolve(path);
+    }
+
+    /**
+     * Resolve the request path once per exchange
+     */
+    public RouteMatch resolve(ServerWebExchange exchange) {
+        RouteMatch match = exchange.getAttribute(ROUTE_MATCH_ATTR);
+        if (match == null) {
+            match = resolve(exchange.getRequest().getPath().value());
+            exchange.getAttributes().put(ROUTE_MATCH_ATTR, match);
+        }
+        return match;
+    }
+
+    /**
+     * Recompile the route patterns; the current ones stay in effect if the new configuration is invalid
+     */
+    public synchronized void reload() {
+        try {
+            trie = compile();
+        } catch (RuntimeException e) {
+            log.error("❌ Invalid route access configuration, keeping previous patterns: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PROPERTIES_PREFIX))) {
+            reload();
+        }
+    }
+
+    private RouteTemplateTrie compile() {
+        RouteAccessProperties properties = Binder.get(environment)
+                .bind(PROPERTIES_PREFIX, RouteAccessProperties.class)
+                .orElseGet(RouteAccessProperties::new);
+        RouteTemplateTrie compiled = new RouteTemplateTrie(RoutePatternTrie.compile(properties),
+                properties.getMaxTemplates(), properties.getMaxDepth());
+        log.info("🧭 Compiled route access patterns: {} public, {} authenticated, {} internal (default {})",
+                properties.getPublicPaths().size(), properties.getAuthenticatedPaths().size(),
+                properties.getInternalPaths().size(), properties.getDefaultAccess());
+        return compiled;
+    }
+}
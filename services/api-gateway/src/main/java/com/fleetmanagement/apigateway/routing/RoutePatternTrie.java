@@ -0,0 +1,102 @@
+package com.fleetmanagement.apigateway.routing;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route Pattern Trie
+ *
+ * Access patterns compiled into a segment trie. A literal segment is preferred
+ * over a one-segment wildcard, and a deeper "**" over a shallower one, so the
+ * most specific pattern decides. Only consulted when a new route template is
+ * created, never per request.
+ *
+ * @author Fleet Management Team
+ */
+final class RoutePatternTrie {
+
+    private final Node root = new Node();
+    private final RouteAccess defaultAccess;
+
+    private RoutePatternTrie(RouteAccess defaultAccess) {
+        this.defaultAccess = defaultAccess != null ? defaultAccess : RouteAccess.AUTHENTICATED;
+    }
+
+    /**
+     * Compile the configured patterns; for an identical pattern internal wins over public, public over authenticated
+     */
+    static RoutePatternTrie compile(RouteAccessProperties properties) {
+        RoutePatternTrie trie = new RoutePatternTrie(properties.getDefaultAccess());
+        properties.getAuthenticatedPaths().forEach(pattern -> trie.add(pattern, RouteAccess.AUTHENTICATED));
+        properties.getPublicPaths().forEach(pattern -> trie.add(pattern, RouteAccess.PUBLIC));
+        properties.getInternalPaths().forEach(pattern -> trie.add(pattern, RouteAccess.INTERNAL));
+        return trie;
+    }
+
+    /**
+     * Classify a path given as segments; a null segment is an ID placeholder and only matches wildcards
+     */
+    RouteAccess classify(List<String> segments) {
+        RouteAccess access = match(root, segments, 0);
+        return access != null ? access : defaultAccess;
+    }
+
+    private void add(String pattern, RouteAccess access) {
+        String[] segments = pattern.trim().split("/");
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' is only supported as the last segment: " + pattern);
+                }
+                node.subtree = access;
+                return;
+            }
+            if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        node.exact = access;
+    }
+
+    private static RouteAccess match(Node node, List<String> segments, int index) {
+        if (index == segments.size()) {
+            return node.exact != null ? node.exact : node.subtree;
+        }
+
+        String segment = segments.get(index);
+        if (segment != null) {
+            Node literal = node.literals.get(segment);
+            if (literal != null) {
+                RouteAccess access = match(literal, segments, index + 1);
+                if (access != null) {
+                    return access;
+                }
+            }
+        }
+        if (node.wildcard != null) {
+            RouteAccess access = match(node.wildcard, segments, index + 1);
+            if (access != null) {
+                return access;
+            }
+        }
+        return node.subtree;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node wildcard;
+        private RouteAccess exact;
+        private RouteAccess subtree;
+    }
+}
@@ -0,0 +1,279 @@
+package com.fleetmanagement.apigateway.routing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Route Template Trie
+ *
+ * Maps request paths to shared {@link RouteMatch} instances by walking the
+ * path segment by segment. Numeric and 32-hex segments go to an "{id}" child,
+ * UUIDs to a "{uuid}" child, anything else to a literal child found by hashing
+ * the segment in place, so resolving a known template allocates nothing.
+ * Unknown templates are learned on first sight (access is classified once,
+ * then) up to a fixed number; beyond that, or beyond the maximum depth, the
+ * rest of the path is folded into "**" under the deepest known template.
+ *
+ * @author Fleet Management Team
+ */
+@Slf4j
+final class RouteTemplateTrie {
+
+    private static final int LITERAL = 0;
+    private static final int ID = 1;
+    private static final int UUID = 2;
+
+    private final RoutePatternTrie patterns;
+    private final int maxTemplates;
+    private final int maxDepth;
+    private final AtomicInteger templates = new AtomicInteger();
+    private final AtomicBoolean capacityWarned = new AtomicBoolean();
+    private final Node root;
+
+    RouteTemplateTrie(RoutePatternTrie patterns, int maxTemplates, int maxDepth) {
+        this.patterns = patterns;
+        this.maxTemplates = maxTemplates;
+        this.maxDepth = maxDepth;
+        this.root = new Node(null, "", Collections.emptyList(), new RouteMatch("/", patterns.classify(Collections.emptyList())));
+    }
+
+    RouteMatch resolve(String path) {
+        Node node = root;
+        int length = path.length();
+        int depth = 0;
+        int start = 0;
+        while (start < length) {
+            if (path.charAt(start) == '/') {
+                start++;
+                continue;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (depth == maxDepth) {
+                return overflow(node, path);
+            }
+            int kind = kind(path, start, end);
+            Node child = node.child(kind, path, start, end);
+            if (child == null) {
+                child = learn(node, kind, path, start, end);
+                if (child == null) {
+                    return overflow(node, path);
+                }
+            }
+            node = child;
+            depth++;
+            start = end;
+        }
+        return node.match;
+    }
+
+    int size() {
+        return templates.get();
+    }
+
+    private Node learn(Node parent, int kind, String path, int start, int end) {
+        synchronized (parent) {
+            Node existing = parent.child(kind, path, start, end);
+            if (existing != null) {
+                return existing;
+            }
+            if (templates.incrementAndGet() > maxTemplates) {
+                templates.decrementAndGet();
+                if (capacityWarned.compareAndSet(false, true)) {
+                    log.warn("Route template limit of {} reached; new paths are folded into their deepest known template", maxTemplates);
+                }
+                return null;
+            }
+
+            String segment = kind == LITERAL ? path.substring(start, end) : null;
+            String piece = kind == ID ? "{id}" : kind == UUID ? "{uuid}" : segment.toLowerCase(Locale.ROOT);
+            List<String> segments = new ArrayList<>(parent.segments.size() + 1);
+            segments.addAll(parent.segments);
+            segments.add(segment);
+            String template = parent.template + "/" + piece;
+
+            Node child = new Node(segment, template, segments, new RouteMatch(template, patterns.classify(segments)));
+            if (kind == ID) {
+                parent.idChild = child;
+            } else if (kind == UUID) {
+                parent.uuidChild = child;
+            } else {
+                parent.literals = parent.literals.with(child);
+            }
+            return child;
+        }
+    }
+
+    /**
+     * Match for a path that has no template of its own; access is still classified on the full path
+     */
+    private RouteMatch overflow(Node node, String path) {
+        RouteAccess access = patterns.classify(segments(path));
+        RouteMatch match = node.overflow[access.ordinal()];
+        if (match == null) {
+            match = new RouteMatch(node.template + "/**", access);
+            node.overflow[access.ordinal()] = match;
+        }
+        return match;
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        int length = path.length();
+        int start = 0;
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                segments.add(kind(path, start, end) == LITERAL ? path.substring(start, end) : null);
+            }
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private static int kind(String path, int start, int end) {
+        int length = end - start;
+        boolean digits = true;
+        boolean hex = true;
+        for (int i = start; i < end && (digits || hex); i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                digits = false;
+            }
+            if (!isHex(c)) {
+                hex = false;
+            }
+        }
+        if (digits || (hex && length == 32)) {
+            return ID;
+        }
+        return length == 36 && isUuid(path, start) ? UUID : LITERAL;
+    }
+
+    private static boolean isUuid(String path, int start) {
+        for (int i = 0; i < 36; i++) {
+            char c = path.charAt(start + i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : !isHex(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static int hash(String path, int start, int end) {
+        // Same as String.hashCode, so it can be compared with the cached hash of a segment
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + path.charAt(i);
+        }
+        return hash;
+    }
+
+    private static final class Node {
+        private final String segment;
+        private final int hash;
+        private final String template;
+        private final List<String> segments;
+        private final RouteMatch match;
+        private final RouteMatch[] overflow = new RouteMatch[RouteAccess.values().length];
+        private volatile LiteralTable literals = LiteralTable.EMPTY;
+        private volatile Node idChild;
+        private volatile Node uuidChild;
+
+        private Node(String segment, String template, List<String> segments, RouteMatch match) {
+            this.segment = segment;
+            this.hash = segment != null ? segment.hashCode() : 0;
+            this.template = template;
+            this.segments = segments;
+            this.match = match;
+        }
+
+        private Node child(int kind, String path, int start, int end) {
+            if (kind == ID) {
+                return idChild;
+            }
+            if (kind == UUID) {
+                return uuidChild;
+            }
+            return literals.get(path, start, end);
+        }
+    }
+
+    /**
+     * Immutable open-addressing table of literal children, replaced on insert
+     */
+    private static final class LiteralTable {
+        private static final LiteralTable EMPTY = new LiteralTable(new Node[0], 0);
+
+        private final Node[] slots;
+        private final int size;
+
+        private LiteralTable(Node[] slots, int size) {
+            this.slots = slots;
+            this.size = size;
+        }
+
+        private Node get(String path, int start, int end) {
+            if (size == 0) {
+                return null;
+            }
+            int length = end - start;
+            int hash = hash(path, start, end);
+            int mask = slots.length - 1;
+            for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+                Node node = slots[i];
+                if (node == null) {
+                    return null;
+                }
+                if (node.hash == hash && node.segment.length() == length
+                        && path.regionMatches(start, node.segment, 0, length)) {
+                    return node;
+                }
+            }
+        }
+
+        private LiteralTable with(Node node) {
+            int capacity = Math.max(4, slots.length);
+            while (capacity < (size + 1) * 2) {
+                capacity <<= 1;
+            }
+            Node[] table = new Node[capacity];
+            for (Node existing : slots) {
+                if (existing != null) {
+                    insert(table, existing);
+                }
+            }
+            insert(table, node);
+            return new LiteralTable(table, size + 1);
+        }
+
+        private static void insert(Node[] table, Node node) {
+            int mask = table.length - 1;
+            int i = spread(node.hash) & mask;
+            while (table[i] != null) {
+                i = (i + 1) & mask;
+            }
+            table[i] = node;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.fleetmanagement.apigateway.security;
 
+import com.fleetmanagement.apigateway.routing.RouteMatch;
+import com.fleetmanagement.apigateway.routing.RouteMatcher;
+import com.fleetmanagement.common.security.GatewayHeaderSigner;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
@@ -12,9 +16,6 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * JWT Authentication Filter for API Gateway
  *
@@ -27,26 +28,10 @@ import java.util.Map;
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
     @Autowired
-    private JwtUtil jwtUtil;
-
-    // Public endpoints that don't require authentication
-    private static final List<String> PUBLIC_ENDPOINTS = List.of(
-            "/api/auth/login",
-            "/api/auth/register",
-            "/api/auth/forgot-password",
-            "/api/auth/reset-password",
-            "/api/auth/verify-email",
-            "/api/auth/test-login",
-            "/api/auth/test-token",
-            "/api/auth/validate-token",
-            "/actuator",
-            "/health",
-            "/api-docs",
-            "/swagger-ui",
-            "/api/gateway/health",
-            "/api/gateway/info",
-            "/fallback"
-    );
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private RouteMatcher routeMatcher;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -56,8 +41,16 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
         log.debug("🔍 Processing request: {} {}", method, path);
 
+        RouteMatch route = routeMatcher.resolve(exchange);
+
+        // Service-to-service endpoints are not reachable from outside
+        if (route.isInternal()) {
+            log.warn("⛔ Internal endpoint requested through the gateway: {}", path);
+            return onError(exchange, "Endpoint is not available through the gateway", HttpStatus.FORBIDDEN);
+        }
+
         // Skip authentication for public endpoints
-        if (isPublicEndpoint(path)) {
+        if (route.isPublic()) {
             log.debug("✅ Public endpoint, skipping authentication: {}", path);
             return addBasicHeaders(exchange, chain);
         }
@@ -70,52 +63,34 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
             return onError(exchange, "Missing authentication token", HttpStatus.UNAUTHORIZED);
         }
 
-        // Validate JWT token
-        if (!jwtUtil.isTokenValid(token)) {
+        // Validate JWT token (signature checked once per token, then served from cache)
+        VerifiedToken verified = tokenCache.verify(token);
+        if (verified == null) {
             log.warn("🚫 Invalid JWT token for endpoint: {}", path);
             return onError(exchange, "Invalid authentication token", HttpStatus.UNAUTHORIZED);
         }
 
-        try {
-            // Extract user information from token
-            Map<String, String> userDetails = jwtUtil.extractUserDetails(token);
-
-            String userId = userDetails.get("userId");
-            String username = userDetails.get("username");
-            String companyId = userDetails.get("companyId");
-            String role = userDetails.get("role");
-            String email = userDetails.get("email");
-
-            log.debug("✅ Authenticated user: {} (ID: {}, Company: {}, Role: {})",
-                    username, userId, companyId, role);
-
-            // Validate required fields
-            if (userId == null || username == null) {
-                log.warn("🚫 Invalid token data - missing required fields");
-                return onError(exchange, "Invalid token data", HttpStatus.UNAUTHORIZED);
-            }
-
-            // Add user information to request headers for downstream services
-            ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-User-ID", userId)
-                    .header("X-Username", username)
-                    .header("X-Company-ID", companyId != null ? companyId : "")
-                    .header("X-User-Role", role != null ? role : "VIEWER")
-                    .header("X-User-Email", email != null ? email : "")
-                    .header("X-Authenticated", "true")
-                    .header("X-Gateway", "fleet-management-gateway")
-                    .header("X-Timestamp", String.valueOf(System.currentTimeMillis()))
-                    .header("X-Request-ID", java.util.UUID.randomUUID().toString())
-                    .header("X-Original-Token", token) // Pass original token for service-to-service calls
-                    .build();
-
-            // Continue with modified request
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
-
-        } catch (Exception e) {
-            log.error("🔥 JWT token processing failed for {}: {}", path, e.getMessage());
-            return onError(exchange, "Authentication processing failed", HttpStatus.UNAUTHORIZED);
+        // Validate required fields
+        if (!verified.hasRequiredClaims()) {
+            log.warn("🚫 Invalid token data - missing required fields");
+            return onError(exchange, "Invalid token data", HttpStatus.UNAUTHORIZED);
         }
+
+        log.debug("✅ Authenticated user: {} (ID: {}, Company: {}, Role: {})",
+                verified.getUsername(), verified.getUserId(), verified.getCompanyId(), verified.getRole());
+
+        // Add user information to request headers for downstream services
+        ServerHttpRequest modifiedRequest = request.mutate()
+                .headers(headers -> {
+                    stripSignedHeaders(headers);
+                    headers.putAll(verified.getHeaders());
+                    headers.set("X-Timestamp", String.valueOf(System.currentTimeMillis()));
+                    headers.set("X-Request-ID", RequestIdGenerator.next());
+                })
+                .build();
+
+        // Continue with modified request
+        return chain.filter(exchange.mutate().request(modifiedRequest).build());
     }
 
     /**
@@ -125,16 +100,29 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         ServerHttpRequest request = exchange.getRequest();
 
         ServerHttpRequest modifiedRequest = request.mutate()
-                .header("X-Gateway", "fleet-management-gateway")
-                .header("X-Timestamp", String.valueOf(System.currentTimeMillis()))
-                .header("X-Request-ID", java.util.UUID.randomUUID().toString())
-                .header("X-Public-Endpoint", "true")
-                .header("X-Authenticated", "false")
+                .headers(headers -> {
+                    stripSignedHeaders(headers);
+                    headers.set("X-Gateway", VerifiedToken.GATEWAY_NAME);
+                    headers.set("X-Timestamp", String.valueOf(System.currentTimeMillis()));
+                    headers.set("X-Request-ID", RequestIdGenerator.next());
+                    headers.set("X-Public-Endpoint", "true");
+                    headers.set("X-Authenticated", "false");
+                })
                 .build();
 
         return chain.filter(exchange.mutate().request(modifiedRequest).build());
     }
 
+    /**
+     * Drop client-supplied signature headers; only the gateway may set them
+     */
+    private void stripSignedHeaders(HttpHeaders headers) {
+        headers.remove(GatewayHeaderSigner.SIGNATURE);
+        headers.remove(GatewayHeaderSigner.EXPIRES);
+        headers.remove(GatewayHeaderSigner.SESSION_ID);
+        headers.remove(GatewayHeaderSigner.TOKEN_TYPE);
+    }
+
     /**
      * Extract JWT token from Authorization header or query parameter
      */
@@ -160,14 +148,6 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         return null;
     }
 
-    /**
-     * Check if the endpoint is public (doesn't require authentication)
-     */
-    private boolean isPublicEndpoint(String path) {
-        return PUBLIC_ENDPOINTS.stream()
-                .anyMatch(endpoint -> path.startsWith(endpoint));
-    }
-
     /**
      * Handle authentication errors with detailed response
      */
@@ -193,7 +173,7 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
                 java.time.Instant.now().toString(),
                 exchange.getRequest().getPath().value(),
                 status.value(),
-                java.util.UUID.randomUUID().toString()
+                RequestIdGenerator.next()
         );
 
         org.springframework.core.io.buffer.DataBuffer buffer =
@@ -44,14 +44,31 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400}") // Default: 24 hours in seconds
     private Long jwtExpiration;
 
+    // Built once; both are immutable and thread-safe
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+
     /**
-     * Creates the signing key from the jwtSecret string.
+     * Returns the signing key derived from the jwtSecret string.
      * This method is called internally for token creation and validation.
      * @return a SecretKey instance
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = this.jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(this.jwtSecret.getBytes(StandardCharsets.UTF_8));
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parser().verifyWith(getSigningKey()).build();
+            parser = jwtParser;
+        }
+        return jwtParser;
     }
 
     /**
@@ -102,12 +119,7 @@ public class JwtUtil {
      */
     public boolean isTokenValid(String token) {
         try {
-            // Jwts.parser() is the new builder factory method in 0.12.x
-            // verifyWith() sets the key, and parseSignedClaims() replaces the deprecated parseClaimsJws()
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            getParser().parseSignedClaims(token);
             return true;
         } catch (SecurityException | MalformedJwtException e) {
             log.error("Invalid JWT Token: {}", e.getMessage());
@@ -142,13 +154,24 @@ public class JwtUtil {
      * @return The Claims object containing all data from the token payload.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    /**
+     * Verifies the signature and expiration of a token and returns its claims
+     * in a single parse. Intended for callers that cache the result.
+     *
+     * @param token The JWT token string.
+     * @return The verified claims.
+     * @throws JwtException if the token is invalid or expired
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public Claims parseVerifiedClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -0,0 +1,45 @@
+package com.fleetmanagement.apigateway.security;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request ID Generator
+ *
+ * Produces random version-4 UUID strings from ThreadLocalRandom instead of
+ * the shared SecureRandom behind UUID.randomUUID(), which is contended and
+ * may block. Request IDs only need to be unique for tracing, not unguessable.
+ *
+ * @author Fleet Management Team
+ */
+public final class RequestIdGenerator {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private RequestIdGenerator() {
+    }
+
+    public static String next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L; // version 4
+        long low = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;  // IETF variant
+
+        char[] chars = new char[36];
+        writeHex(chars, 0, high >>> 32, 8);
+        chars[8] = '-';
+        writeHex(chars, 9, high >>> 16, 4);
+        chars[13] = '-';
+        writeHex(chars, 14, high, 4);
+        chars[18] = '-';
+        writeHex(chars, 19, low >>> 48, 4);
+        chars[23] = '-';
+        writeHex(chars, 24, low, 12);
+        return new String(chars);
+    }
+
+    private static void writeHex(char[] chars, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = HEX[(int) (value & 0xf)];
+            value >>>= 4;
+        }
+    }
+}
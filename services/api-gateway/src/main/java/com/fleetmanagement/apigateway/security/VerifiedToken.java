@@ -0,0 +1,113 @@
+package com.fleetmanagement.apigateway.security;
+
+import com.fleetmanagement.common.security.GatewayHeaderSigner;
+import com.fleetmanagement.common.security.VerifiedPrincipal;
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Date;
+
+/**
+ * Verified Token
+ *
+ * Claims of a token whose signature has been checked, together with the
+ * identity headers forwarded to downstream services. The header set is built
+ * once per token and is read-only, and only for access tokens: a refresh
+ * token verifies but carries no identity downstream. When a signer is configured the headers
+ * carry an HMAC signature bound to the token's expiry, so services can trust
+ * them without parsing the token again.
+ *
+ * @author Fleet Management Team
+ */
+public final class VerifiedToken {
+
+    static final String GATEWAY_NAME = "fleet-management-gateway";
+
+    private final String userId;
+    private final String username;
+    private final String companyId;
+    private final String role;
+    private final String email;
+    private final String tokenType;
+    private final long expiresAtMillis;
+    private final HttpHeaders headers;
+
+    private VerifiedToken(String userId, String username, String companyId, String role, String email,
+                          String tokenType, long expiresAtMillis, HttpHeaders headers) {
+        this.userId = userId;
+        this.username = username;
+        this.companyId = companyId;
+        this.role = role;
+        this.email = email;
+        this.tokenType = tokenType;
+        this.expiresAtMillis = expiresAtMillis;
+        this.headers = headers;
+    }
+
+    static VerifiedToken from(Claims claims, String token, GatewayHeaderSigner signer) {
+        String userId = claims.get("userId", String.class);
+        String usernameClaim = claims.get("username", String.class);
+        String username = usernameClaim != null ? usernameClaim : claims.getSubject();
+        String companyId = claims.get("companyId", String.class);
+        String role = claims.get("role", String.class);
+        String email = claims.get("email", String.class);
+        String sessionId = claims.get("sessionId", String.class);
+        String tokenType = claims.get("tokenType", String.class);
+        Date expiration = claims.getExpiration();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (VerifiedPrincipal.ACCESS_TOKEN.equals(tokenType) && userId != null && username != null) {
+            headers.set("X-User-ID", userId);
+            headers.set("X-Username", username);
+            headers.set("X-Company-ID", companyId != null ? companyId : "");
+            headers.set("X-User-Role", role != null ? role : "VIEWER");
+            headers.set("X-User-Email", email != null ? email : "");
+            headers.set("X-Authenticated", "true");
+            headers.set("X-Gateway", GATEWAY_NAME);
+            headers.set("X-Original-Token", token); // Pass original token for service-to-service calls
+            if (signer != null && expiration != null) {
+                long expiresAtSeconds = expiration.getTime() / 1000;
+                headers.set(GatewayHeaderSigner.SESSION_ID, sessionId != null ? sessionId : "");
+                headers.set(GatewayHeaderSigner.TOKEN_TYPE, tokenType);
+                headers.set(GatewayHeaderSigner.EXPIRES, String.valueOf(expiresAtSeconds));
+                headers.set(GatewayHeaderSigner.SIGNATURE, signer.sign(
+                        headers.getFirst(GatewayHeaderSigner.USER_ID),
+                        headers.getFirst(GatewayHeaderSigner.USERNAME),
+                        headers.getFirst(GatewayHeaderSigner.COMPANY_ID),
+                        headers.getFirst(GatewayHeaderSigner.ROLE),
+                        headers.getFirst(GatewayHeaderSigner.EMAIL),
+                        headers.getFirst(GatewayHeaderSigner.SESSION_ID),
+                        tokenType,
+                        expiresAtSeconds));
+            }
+        }
+
+        return new VerifiedToken(userId, username, companyId, role, email, tokenType,
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE,
+                HttpHeaders.readOnlyHttpHeaders(headers));
+    }
+
+    /**
+     * Whether the token is an access token carrying the claims downstream services rely on
+     */
+    public boolean hasRequiredClaims() {
+        return VerifiedPrincipal.ACCESS_TOKEN.equals(tokenType) && userId != null && username != null;
+    }
+
+    public boolean isExpiredAt(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    public String getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getCompanyId() { return companyId; }
+    public String getRole() { return role; }
+    public String getEmail() { return email; }
+    public String getTokenType() { return tokenType; }
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+
+    /**
+     * Identity headers for downstream requests (read-only)
+     */
+    public HttpHeaders getHeaders() { return headers; }
+}
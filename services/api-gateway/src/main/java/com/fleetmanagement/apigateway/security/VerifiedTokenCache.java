@@ -0,0 +1,145 @@
+package com.fleetmanagement.apigateway.security;
+
+import com.fleetmanagement.common.security.GatewayHeaderSigner;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verified Token Cache
+ *
+ * Bounded cache from the SHA-256 digest of a token to its verified claims,
+ * so each token's signature is checked once per gateway node for as long as
+ * it is valid. Entries expire with the token (capped by max-ttl-seconds).
+ * Concurrent first requests with the same token share one verification.
+ * Invalid tokens are not cached. Identity headers are signed for downstream
+ * services when gateway.security.header-signing.secret is set.
+ *
+ * Metrics: cache gets/hits/evictions under "gateway.jwt.verified" and the
+ * verification latency timer "gateway.jwt.verification" (tag outcome).
+ *
+ * @author Fleet Management Team
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtUtil jwtUtil;
+    private final GatewayHeaderSigner headerSigner;
+    private final Cache<TokenKey, VerifiedToken> cache;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+    private final Timer expiredTimer;
+
+    @Autowired
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              MeterRegistry meterRegistry,
+                              @Value("${gateway.jwt.cache.maximum-size:100000}") long maximumSize,
+                              @Value("${gateway.jwt.cache.max-ttl-seconds:900}") long maxTtlSeconds,
+                              @Value("${gateway.security.header-signing.secret:}") String headerSigningSecret) {
+        this.jwtUtil = jwtUtil;
+        this.headerSigner = headerSigningSecret.isEmpty() ? null : new GatewayHeaderSigner(headerSigningSecret);
+
+        long maxTtlNanos = TimeUnit.SECONDS.toNanos(maxTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<TokenKey, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(TokenKey key, VerifiedToken token, long currentTime) {
+                        long untilExpiry = TimeUnit.MILLISECONDS.toNanos(token.getExpiresAtMillis() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenKey key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenKey key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.jwt.verified");
+        this.validTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTimer = verificationTimer(meterRegistry, "invalid");
+        this.expiredTimer = verificationTimer(meterRegistry, "expired");
+    }
+
+    /**
+     * Return the verified token, or null if the token is invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken verified = cache.get(TokenKey.of(token), key -> load(token));
+        // The cache may hold an entry for up to one timer tick past the token's expiry
+        if (verified != null && verified.isExpiredAt(System.currentTimeMillis())) {
+            return null;
+        }
+        return verified;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private VerifiedToken load(String token) {
+        long start = System.nanoTime();
+        try {
+            VerifiedToken verified = VerifiedToken.from(jwtUtil.parseVerifiedClaims(token), token, headerSigner);
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return verified;
+        } catch (ExpiredJwtException e) {
+            expiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("Expired JWT Token: {}", e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("Invalid JWT Token: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("gateway.jwt.verification")
+                .description("JWT signature verification on cache miss")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Full 256-bit digest of a token; collisions are not a practical concern
+     */
+    private record TokenKey(long a, long b, long c, long d) {
+
+        static TokenKey of(String token) {
+            byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            return new TokenKey(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+    }
+}
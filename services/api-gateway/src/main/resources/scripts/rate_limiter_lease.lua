@@ -0,0 +1,41 @@
+-- Token bucket lease: takes up to ARGV[4] tokens at once (at least ARGV[3], or none)
+-- from the same bucket keys and refill rules as Spring Cloud Gateway's
+-- request_rate_limiter.lua, so both limiters can share a bucket.
+redis.replicate_commands()
+
+local tokens_key = KEYS[1]
+local timestamp_key = KEYS[2]
+
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+local desired = tonumber(ARGV[4])
+local now = tonumber(redis.call('TIME')[1])
+
+local fill_time = capacity / rate
+local ttl = math.floor(fill_time * 2)
+
+local last_tokens = tonumber(redis.call("get", tokens_key))
+if last_tokens == nil then
+  last_tokens = capacity
+end
+
+local last_refreshed = tonumber(redis.call("get", timestamp_key))
+if last_refreshed == nil then
+  last_refreshed = 0
+end
+
+local delta = math.max(0, now - last_refreshed)
+local filled_tokens = math.min(capacity, last_tokens + (delta * rate))
+local granted = 0
+if filled_tokens >= requested then
+  granted = math.floor(math.min(filled_tokens, desired))
+end
+local new_tokens = filled_tokens - granted
+
+if ttl > 0 then
+  redis.call("setex", tokens_key, ttl, new_tokens)
+  redis.call("setex", timestamp_key, ttl, now)
+end
+
+return { granted, math.floor(new_tokens) }
@@ -0,0 +1,87 @@
+package com.fleetmanagement.apigateway.security;
+
+import com.fleetmanagement.common.security.GatewayHeaderSigner;
+import com.fleetmanagement.common.security.VerifiedPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the identity headers the gateway builds from verified tokens
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Verified Token Tests")
+class VerifiedTokenTest {
+
+    private static final String SECRET = "gateway-header-secret-for-unit-tests-0123456789";
+
+    private final GatewayHeaderSigner signer = new GatewayHeaderSigner(SECRET);
+    private final String userId = UUID.randomUUID().toString();
+    private final String companyId = UUID.randomUUID().toString();
+    private final Date expiration = new Date(System.currentTimeMillis() + 3_600_000L);
+
+    @Test
+    @DisplayName("Access token gets signed headers that verify as an access token")
+    void accessTokenShouldGetSignedHeaders() {
+        Claims claims = Jwts.claims()
+                .subject("driver@example.com")
+                .add("userId", userId)
+                .add("username", "driver")
+                .add("companyId", companyId)
+                .add("role", "DRIVER")
+                .add("tokenType", "ACCESS")
+                .expiration(expiration)
+                .build();
+
+        VerifiedToken token = VerifiedToken.from(claims, "access-token", signer);
+
+        assertThat(token.hasRequiredClaims()).isTrue();
+        assertThat(token.getHeaders().getFirst(GatewayHeaderSigner.SIGNATURE)).isNotBlank();
+        assertThat(token.getHeaders().getFirst(GatewayHeaderSigner.TOKEN_TYPE)).isEqualTo("ACCESS");
+
+        VerifiedPrincipal principal = signer.verify(token.getHeaders()::getFirst, System.currentTimeMillis());
+        assertThat(principal).isNotNull();
+        assertThat(principal.getTokenType()).isEqualTo(VerifiedPrincipal.ACCESS_TOKEN);
+        assertThat(principal.getUserId()).hasToString(userId);
+    }
+
+    @Test
+    @DisplayName("Refresh token gets no identity or signed headers")
+    void refreshTokenShouldGetNoSignedHeaders() {
+        Claims claims = Jwts.claims()
+                .subject("driver@example.com")
+                .add("userId", userId)
+                .add("tokenType", "REFRESH")
+                .expiration(expiration)
+                .build();
+
+        VerifiedToken token = VerifiedToken.from(claims, "refresh-token", signer);
+
+        assertThat(token.hasRequiredClaims()).isFalse();
+        assertThat(token.getHeaders()).isEmpty();
+        assertThat(signer.verify(token.getHeaders()::getFirst, System.currentTimeMillis())).isNull();
+    }
+
+    @Test
+    @DisplayName("Token without a type gets no signed headers")
+    void untypedTokenShouldGetNoSignedHeaders() {
+        Claims claims = Jwts.claims()
+                .subject("driver@example.com")
+                .add("userId", userId)
+                .add("username", "driver")
+                .expiration(expiration)
+                .build();
+
+        VerifiedToken token = VerifiedToken.from(claims, "untyped-token", signer);
+
+        assertThat(token.hasRequiredClaims()).isFalse();
+        assertThat(token.getHeaders().getFirst(GatewayHeaderSigner.SIGNATURE)).isNull();
+    }
+}
@@ -0,0 +1,17 @@
+package com.fleetmanagement.bridgeservice.alert;
+
+import java.time.Duration;
+
+/**
+ * Detector settings of one company.
+ *
+ * @param overspeedLimitKmh     speed above which a device is overspeeding
+ * @param overspeedMinDuration  how long it must stay above the limit before an alert
+ * @param ignitionDebounce      how long a new ignition state must hold before it counts
+ * @param maxFixGap             longer gaps between fixes restart the overspeed window
+ */
+public record AlertRules(double overspeedLimitKmh,
+                         Duration overspeedMinDuration,
+                         Duration ignitionDebounce,
+                         Duration maxFixGap) {
+}
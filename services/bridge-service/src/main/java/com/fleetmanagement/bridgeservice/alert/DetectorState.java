@@ -0,0 +1,24 @@
+package com.fleetmanagement.bridgeservice.alert;
+
+import java.time.Instant;
+
+/**
+ * Detector state of one device; small and immutable so it can be
+ * checkpointed as is.
+ *
+ * @param lastFix               time of the last fix evaluated
+ * @param overspeedSince        start of the current run above the limit, null if not overspeeding
+ * @param overspeedMaxKmh       highest speed of the current run
+ * @param overspeedAlerted      whether the current run has already raised its alert
+ * @param ignition              debounced ignition state, null until first seen
+ * @param pendingIgnition       ignition state waiting out the debounce, null if none
+ * @param pendingIgnitionSince  first fix reporting the pending state
+ */
+public record DetectorState(Instant lastFix,
+                            Instant overspeedSince,
+                            double overspeedMaxKmh,
+                            boolean overspeedAlerted,
+                            Boolean ignition,
+                            Boolean pendingIgnition,
+                            Instant pendingIgnitionSince) {
+}
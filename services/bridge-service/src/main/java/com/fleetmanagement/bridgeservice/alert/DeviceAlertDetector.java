@@ -0,0 +1,181 @@
+package com.fleetmanagement.bridgeservice.alert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Device Alert Detector
+ *
+ * Per-device state machines run over the position stream: overspeed fires
+ * once a device has stayed above its company's limit for the configured
+ * duration, ignition fires when a changed ignition flag has held for the
+ * debounce time. Updates for one device are atomic and fixes older than the
+ * last one evaluated are ignored. Devices whose state changed are remembered
+ * until {@link #drainChanged()} so the state can be checkpointed in batches.
+ */
+public final class DeviceAlertDetector {
+
+    public enum Type { OVERSPEED, IGNITION_ON, IGNITION_OFF }
+
+    /**
+     * @param value     max speed of the run for OVERSPEED, unused for ignition
+     * @param duration  time above the limit, or time the new ignition state held
+     */
+    public record Alert(Type type, Instant fixTime, double value, Duration duration) {
+    }
+
+    private final Map<UUID, DetectorState> states = new ConcurrentHashMap<>();
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Evaluate one fix of a device and return the alerts it raises
+     *
+     * @param speedKmh  speed of the fix, null if unknown
+     * @param ignition  ignition flag of the fix, null if unknown
+     */
+    public List<Alert> update(UUID deviceId, Instant fixTime, Double speedKmh, Boolean ignition, AlertRules rules) {
+        List<Alert> alerts = new ArrayList<>(0);
+        states.compute(deviceId, (id, previous) -> {
+            if (previous != null && fixTime.isBefore(previous.lastFix())) {
+                return previous;
+            }
+            DetectorState next = evaluate(previous, fixTime, speedKmh, ignition, rules, alerts);
+            if (!next.equals(previous)) {
+                changed.add(id);
+            }
+            return next;
+        });
+        return alerts;
+    }
+
+    /**
+     * Seed a device with checkpointed state; live state is never overwritten
+     */
+    public void restore(UUID deviceId, DetectorState state) {
+        states.putIfAbsent(deviceId, state);
+    }
+
+    /**
+     * Current state of every device changed since the last call
+     */
+    public Map<UUID, DetectorState> drainChanged() {
+        Map<UUID, DetectorState> snapshot = new HashMap<>(changed.size() * 2);
+        for (UUID deviceId : changed) {
+            changed.remove(deviceId);
+            DetectorState state = states.get(deviceId);
+            if (state != null) {
+                snapshot.put(deviceId, state);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Mark devices changed again, e.g. after their checkpoint failed
+     */
+    public void markChanged(Set<UUID> deviceIds) {
+        changed.addAll(deviceIds);
+    }
+
+    public DetectorState stateOf(UUID deviceId) {
+        return states.get(deviceId);
+    }
+
+    public void forget(UUID deviceId) {
+        states.remove(deviceId);
+        changed.remove(deviceId);
+    }
+
+    /**
+     * Drop devices whose last evaluated fix is older than the cutoff
+     *
+     * @return the devices dropped
+     */
+    public List<UUID> forgetIdle(Instant cutoff) {
+        List<UUID> idle = new ArrayList<>();
+        for (Map.Entry<UUID, DetectorState> entry : states.entrySet()) {
+            DetectorState state = entry.getValue();
+            if ((state.lastFix() == null || state.lastFix().isBefore(cutoff)) && states.remove(entry.getKey(), state)) {
+                changed.remove(entry.getKey());
+                idle.add(entry.getKey());
+            }
+        }
+        return idle;
+    }
+
+    public int trackedDevices() {
+        return states.size();
+    }
+
+    private static DetectorState evaluate(DetectorState previous, Instant fixTime, Double speedKmh, Boolean ignition,
+                                          AlertRules rules, List<Alert> alerts) {
+        Instant overspeedSince = previous != null ? previous.overspeedSince() : null;
+        double overspeedMax = previous != null ? previous.overspeedMaxKmh() : 0;
+        boolean overspeedAlerted = previous != null && previous.overspeedAlerted();
+        Boolean confirmedIgnition = previous != null ? previous.ignition() : null;
+        Boolean pendingIgnition = previous != null ? previous.pendingIgnition() : null;
+        Instant pendingSince = previous != null ? previous.pendingIgnitionSince() : null;
+
+        // A run above the limit is only "consecutive" while fixes keep arriving
+        if (overspeedSince != null && previous.lastFix() != null
+                && Duration.between(previous.lastFix(), fixTime).compareTo(rules.maxFixGap()) > 0) {
+            overspeedSince = null;
+            overspeedMax = 0;
+            overspeedAlerted = false;
+        }
+
+        if (speedKmh != null) {
+            if (speedKmh > rules.overspeedLimitKmh()) {
+                if (overspeedSince == null) {
+                    overspeedSince = fixTime;
+                    overspeedMax = 0;
+                    overspeedAlerted = false;
+                }
+                overspeedMax = Math.max(overspeedMax, speedKmh);
+                Duration above = Duration.between(overspeedSince, fixTime);
+                if (!overspeedAlerted && above.compareTo(rules.overspeedMinDuration()) >= 0) {
+                    overspeedAlerted = true;
+                    alerts.add(new Alert(Type.OVERSPEED, fixTime, overspeedMax, above));
+                }
+            } else {
+                overspeedSince = null;
+                overspeedMax = 0;
+                overspeedAlerted = false;
+            }
+        }
+
+        if (ignition != null) {
+            if (confirmedIgnition == null) {
+                // First observation sets the baseline; there is no change to report
+                confirmedIgnition = ignition;
+                pendingIgnition = null;
+                pendingSince = null;
+            } else if (ignition.equals(confirmedIgnition)) {
+                pendingIgnition = null;
+                pendingSince = null;
+            } else {
+                if (!ignition.equals(pendingIgnition)) {
+                    pendingIgnition = ignition;
+                    pendingSince = fixTime;
+                }
+                Duration held = Duration.between(pendingSince, fixTime);
+                if (held.compareTo(rules.ignitionDebounce()) >= 0) {
+                    confirmedIgnition = ignition;
+                    pendingIgnition = null;
+                    pendingSince = null;
+                    alerts.add(new Alert(ignition ? Type.IGNITION_ON : Type.IGNITION_OFF, fixTime, 0, held));
+                }
+            }
+        }
+
+        return new DetectorState(fixTime, overspeedSince, overspeedMax, overspeedAlerted,
+                confirmedIgnition, pendingIgnition, pendingSince);
+    }
+}
@@ -6,7 +6,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 import java.util.UUID;
 
-@FeignClient(name = "device-service", path = "/devices")
+@FeignClient(name = "device-service", path = "/api/v1/devices")
 public interface DeviceServiceClient {
 
     @GetMapping("/traccar/{traccarId}/device-id")
@@ -18,6 +18,9 @@ public interface DeviceServiceClient {
     @GetMapping("/{deviceId}/active")
     boolean isDeviceActive(@PathVariable("deviceId") UUID deviceId);
 
+    @GetMapping("/{deviceId}/vehicle-id")
+    UUID getVehicleIdByDeviceId(@PathVariable("deviceId") UUID deviceId);
+
     @GetMapping("/traccar/{traccarId}/name")
     String getDeviceNameByTraccarId(@PathVariable("traccarId") Long traccarId);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.fleetmanagement.bridgeservice.client;
+
+import com.fleetmanagement.bridgeservice.model.domain.MileageIncrement;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.util.List;
+import java.util.UUID;
+
+@FeignClient(name = "vehicle-service", path = "/vehicle-service/api/vehicles")
+public interface VehicleServiceClient {
+
+    @PostMapping("/mileage/increments")
+    void incrementMileage(@RequestHeader("Idempotency-Key") UUID batchId,
+                          @RequestBody List<MileageIncrement> increments);
+}
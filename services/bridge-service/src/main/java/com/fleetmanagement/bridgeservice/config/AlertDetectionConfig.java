@@ -0,0 +1,69 @@
+package com.fleetmanagement.bridgeservice.config;
+
+import com.fleetmanagement.bridgeservice.alert.AlertRules;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Overspeed and ignition detection settings. Companies listed under
+ * "companies" override any of the default rules; unset values fall back to
+ * the defaults.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bridge.alerts")
+@Data
+public class AlertDetectionConfig {
+
+    private boolean enabled = true;
+
+    // Batched write of changed detector state to Redis
+    private Duration checkpointInterval = Duration.ofSeconds(5);
+
+    // Devices silent for longer are dropped from memory and from the Redis checkpoint
+    private Duration stateRetention = Duration.ofDays(7);
+
+    private Rules defaults = new Rules(120.0, Duration.ofSeconds(30), Duration.ofSeconds(10), Duration.ofMinutes(5));
+
+    private Map<UUID, Rules> companies = new HashMap<>();
+
+    @Data
+    public static class Rules {
+        private Double overspeedLimitKmh;
+        private Duration overspeedMinDuration;
+        private Duration ignitionDebounce;
+        private Duration maxFixGap;
+
+        public Rules() {
+        }
+
+        public Rules(Double overspeedLimitKmh, Duration overspeedMinDuration,
+                     Duration ignitionDebounce, Duration maxFixGap) {
+            this.overspeedLimitKmh = overspeedLimitKmh;
+            this.overspeedMinDuration = overspeedMinDuration;
+            this.ignitionDebounce = ignitionDebounce;
+            this.maxFixGap = maxFixGap;
+        }
+    }
+
+    /**
+     * Effective rules of a company
+     */
+    public AlertRules rulesFor(UUID companyId) {
+        Rules overrides = companyId != null ? companies.get(companyId) : null;
+        return merge(defaults, overrides != null ? overrides : defaults);
+    }
+
+    private static AlertRules merge(Rules defaults, Rules overrides) {
+        return new AlertRules(
+                overrides.getOverspeedLimitKmh() != null ? overrides.getOverspeedLimitKmh() : defaults.getOverspeedLimitKmh(),
+                overrides.getOverspeedMinDuration() != null ? overrides.getOverspeedMinDuration() : defaults.getOverspeedMinDuration(),
+                overrides.getIgnitionDebounce() != null ? overrides.getIgnitionDebounce() : defaults.getIgnitionDebounce(),
+                overrides.getMaxFixGap() != null ? overrides.getMaxFixGap() : defaults.getMaxFixGap());
+    }
+}
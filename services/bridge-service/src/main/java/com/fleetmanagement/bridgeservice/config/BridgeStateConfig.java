@@ -0,0 +1,74 @@
+package com.fleetmanagement.bridgeservice.config;
+
+import lombok.Data;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bridge state settings. The state lives in memory and is written to a
+ * compacted topic, which holds the newest record per key and is replayed on
+ * startup; it is written as plain JSON strings by its own producer, apart
+ * from the event producer and its type headers.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bridge.state")
+@Data
+public class BridgeStateConfig {
+
+    private String topic = "bridge.state";
+    private int partitions = 3;
+    private int replicas = 1;
+
+    // Startup waits at most this long for the replay, then runs with what it has
+    private Duration restoreTimeout = Duration.ofSeconds(60);
+
+    // Batched write of changed devices to the topic
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    // How long a device-service active check is trusted
+    private Duration activeTtl = Duration.ofMinutes(5);
+
+    // Devices untouched for longer are deleted from the topic
+    private Duration deviceRetention = Duration.ofDays(30);
+
+    // Event sync window of the very first run, when there is no watermark
+    private Duration initialEventLookback = Duration.ofMinutes(5);
+
+    @Bean
+    public NewTopic bridgeStateTopic() {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                .config(TopicConfig.SEGMENT_MS_CONFIG, "3600000")
+                .build();
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> stateKafkaTemplate(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps));
+    }
+}
@@ -0,0 +1,79 @@
+package com.fleetmanagement.bridgeservice.config;
+
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
+import lombok.Data;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Splitting of the Traccar shards between bridge replicas. Each shard is one
+ * partition of the assignment topic, and the replicas join one consumer
+ * group on it, so Kafka hands every shard to exactly one live replica and
+ * moves the shards of a replica that leaves or stops heartbeating. The topic
+ * carries no records. Every shard is given its partition explicitly, so
+ * adding or renaming shards never moves the others to different partitions.
+ * Without sharding, the replica owns every shard.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bridge.sharding")
+@Data
+public class ShardingConfig {
+
+    private boolean enabled = false;
+
+    private String topic = "bridge.shard.assignment";
+    private int replicas = 1;
+    private String groupId = "bridge-shard-owners";
+
+    // Time after which the shards of a silent replica move to the others
+    private Duration sessionTimeout = Duration.ofSeconds(15);
+    private Duration heartbeatInterval = Duration.ofSeconds(3);
+
+    // Assignment partition of each shard id; may be left out when there is a single shard
+    private Map<String, Integer> partitions = new LinkedHashMap<>();
+
+    /**
+     * Shard id of each assignment partition
+     *
+     * @throws IllegalStateException if a shard has no partition or shares one
+     */
+    public Map<Integer, String> shardsByPartition(TraccarShards traccarShards) {
+        if (partitions.isEmpty() && traccarShards.size() == 1) {
+            return Map.of(0, traccarShards.ids().get(0));
+        }
+
+        Map<Integer, String> shards = new TreeMap<>();
+        for (String shardId : traccarShards.ids()) {
+            Integer partition = partitions.get(shardId);
+            if (partition == null || partition < 0) {
+                throw new IllegalStateException("Traccar shard " + shardId + " needs a bridge.sharding.partitions entry");
+            }
+            String other = shards.putIfAbsent(partition, shardId);
+            if (other != null) {
+                throw new IllegalStateException("Traccar shards " + other + " and " + shardId + " share partition " + partition);
+            }
+        }
+        return Collections.unmodifiableMap(shards);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "bridge.sharding", name = "enabled", havingValue = "true")
+    public NewTopic shardAssignmentTopic(TraccarShards traccarShards) {
+        // The admin client adds partitions when shards are added, it never removes any
+        int partitionCount = Collections.max(shardsByPartition(traccarShards).keySet()) + 1;
+        return TopicBuilder.name(topic)
+                .partitions(partitionCount)
+                .replicas(replicas)
+                .build();
+    }
+}
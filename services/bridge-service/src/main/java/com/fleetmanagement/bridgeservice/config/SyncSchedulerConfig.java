@@ -0,0 +1,50 @@
+package com.fleetmanagement.bridgeservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Traccar sync job settings. Each job starts at its base interval and adapts
+ * between base * min-factor and base * max-factor; the health job only
+ * backs off on errors, since the number of devices says nothing about how
+ * often to check them.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bridge.sync")
+@Data
+public class SyncSchedulerConfig {
+
+    private boolean enabled = true;
+
+    private Duration positionInterval = Duration.ofSeconds(5);
+    private Duration healthInterval = Duration.ofSeconds(30);
+    private Duration eventInterval = Duration.ofSeconds(10);
+
+    private Adaptive adaptive = new Adaptive();
+
+    @Data
+    public static class Adaptive {
+
+        // Interval factor after a cycle with new data, and after an empty one
+        private double speedup = 0.5;
+        private double slowdown = 1.5;
+
+        private double minFactor = 0.4;
+        private double maxFactor = 6.0;
+
+        // Longest wait while Traccar keeps failing
+        private Duration errorMaxInterval = Duration.ofMinutes(5);
+    }
+
+    public Duration minOf(Duration base) {
+        long min = Math.round(base.toMillis() * Math.min(1.0, adaptive.minFactor));
+        return Duration.ofMillis(Math.min(base.toMillis(), Math.max(100, min)));
+    }
+
+    public Duration maxOf(Duration base) {
+        return Duration.ofMillis(Math.round(base.toMillis() * Math.max(1.0, adaptive.maxFactor)));
+    }
+}
@@ -1,13 +1,20 @@
 package com.fleetmanagement.bridgeservice.config;
 
+import com.fleetmanagement.bridgeservice.shard.TraccarShard;
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @ConfigurationProperties(prefix = "bridge.traccar")
@@ -31,10 +38,50 @@ public class TraccarConfig {
 
     private Duration retryDelay = Duration.ofSeconds(1);
 
+    // Connection pool size per Traccar server
+    private int maxConnections = 50;
+
+    // Traccar servers by shard id; without any, the settings above are the single shard "default"
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
     // API endpoints
     private String positionsEndpoint = "/api/positions";
     private String devicesEndpoint = "/api/devices";
     private String eventsEndpoint = "/api/events";
     private String commandsEndpoint = "/api/commands";
     private String serverEndpoint = "/api/server";
+    private String geofencesEndpoint = "/api/geofences";
+
+    /**
+     * A Traccar server; unset credentials, timeout and pool size are taken
+     * from the top-level settings
+     */
+    @Data
+    public static class Shard {
+        private String baseUrl;
+        private String username;
+        private String password;
+        private Duration timeout;
+        private Integer maxConnections;
+
+        // Added to the server's device and geofence ids to keep them unique across shards
+        private long idOffset;
+    }
+
+    @Bean
+    public TraccarShards traccarShards() {
+        if (shards.isEmpty()) {
+            return new TraccarShards(List.of(new TraccarShard("default", baseUrl, username, password,
+                    timeout, maxConnections, 0)));
+        }
+
+        List<TraccarShard> configured = new ArrayList<>(shards.size());
+        shards.forEach((id, shard) -> configured.add(new TraccarShard(id, shard.getBaseUrl(),
+                shard.getUsername() != null ? shard.getUsername() : username,
+                shard.getPassword() != null ? shard.getPassword() : password,
+                shard.getTimeout() != null ? shard.getTimeout() : timeout,
+                shard.getMaxConnections() != null ? shard.getMaxConnections() : maxConnections,
+                shard.getIdOffset())));
+        return new TraccarShards(configured);
+    }
 }
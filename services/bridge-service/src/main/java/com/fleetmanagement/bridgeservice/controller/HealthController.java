@@ -1,6 +1,7 @@
 package com.fleetmanagement.bridgeservice.controller;
 
 import com.fleetmanagement.bridgeservice.service.TraccarApiClient;
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
 import com.fleetmanagement.bridgeservice.service.TraccarBridgeService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -20,14 +23,17 @@ import java.util.Map;
 public class HealthController {
 
     private final TraccarApiClient traccarApiClient;
+    private final TraccarShards traccarShards;
     private final TraccarBridgeService bridgeService;
     private final RedisTemplate<String, Object> redisTemplate;
 
     @Autowired
     public HealthController(TraccarApiClient traccarApiClient,
+                            TraccarShards traccarShards,
                             TraccarBridgeService bridgeService,
                             RedisTemplate<String, Object> redisTemplate) {
         this.traccarApiClient = traccarApiClient;
+        this.traccarShards = traccarShards;
         this.bridgeService = bridgeService;
         this.redisTemplate = redisTemplate;
     }
@@ -37,16 +43,26 @@ public class HealthController {
         Map<String, Object> health = new HashMap<>();
 
         try {
-            boolean isHealthy = traccarApiClient.isServerHealthy();
+            // Every shard is checked, not only those this replica owns, since ownership can move
+            Map<String, String> shards = new LinkedHashMap<>();
+            for (String shardId : traccarShards.ids()) {
+                shards.put(shardId, traccarApiClient.isServerHealthy(shardId) ? "UP" : "DOWN");
+            }
+            boolean isHealthy = !shards.containsValue("DOWN");
             health.put("status", isHealthy ? "UP" : "DOWN");
             health.put("timestamp", Instant.now());
             health.put("service", "traccar");
+            health.put("shards", shards);
 
             if (isHealthy) {
-                health.put("message", "Traccar server is responding");
+                health.put("message", "Traccar servers are responding");
                 return ResponseEntity.ok(health);
             } else {
-                health.put("message", "Traccar server is not responding");
+                List<String> down = shards.entrySet().stream()
+                        .filter(entry -> "DOWN".equals(entry.getValue()))
+                        .map(Map.Entry::getKey)
+                        .toList();
+                health.put("message", "Traccar shards not responding: " + down);
                 return ResponseEntity.status(503).body(health);
             }
 
@@ -1,7 +1,11 @@
 // SyncController.java
 package com.fleetmanagement.bridgeservice.controller;
 
+import com.fleetmanagement.bridgeservice.service.ShardOwnershipService;
+import com.fleetmanagement.bridgeservice.service.SyncSchedulerService;
 import com.fleetmanagement.bridgeservice.service.TraccarBridgeService;
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
+import com.fleetmanagement.bridgeservice.sync.SyncOutcome;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,10 +22,19 @@ import java.util.Map;
 public class SyncController {
 
     private final TraccarBridgeService bridgeService;
+    private final SyncSchedulerService syncSchedulerService;
+    private final ShardOwnershipService shardOwnershipService;
+    private final TraccarShards traccarShards;
 
     @Autowired
-    public SyncController(TraccarBridgeService bridgeService) {
+    public SyncController(TraccarBridgeService bridgeService,
+                          SyncSchedulerService syncSchedulerService,
+                          ShardOwnershipService shardOwnershipService,
+                          TraccarShards traccarShards) {
         this.bridgeService = bridgeService;
+        this.syncSchedulerService = syncSchedulerService;
+        this.shardOwnershipService = shardOwnershipService;
+        this.traccarShards = traccarShards;
     }
 
     @PostMapping("/trigger")
@@ -29,10 +43,11 @@ public class SyncController {
 
         try {
             log.info("Manual sync triggered via API");
-            bridgeService.triggerManualSync();
+            Map<String, SyncOutcome> outcomes = syncSchedulerService.runAllNow();
 
             response.put("status", "success");
             response.put("message", "Manual sync completed successfully");
+            response.put("jobs", outcomes);
             response.put("timestamp", Instant.now());
 
             return ResponseEntity.ok(response);
@@ -57,4 +72,32 @@ public class SyncController {
             return ResponseEntity.status(500).build();
         }
     }
-}
+
+    /**
+     * Traccar shards synced by this replica, out of all configured ones
+     */
+    @GetMapping("/shards")
+    public ResponseEntity<Map<String, Object>> getShards() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("replica", shardOwnershipService.memberId());
+        response.put("owned", shardOwnershipService.ownedShards());
+        response.put("all", traccarShards.ids());
+        response.put("timestamp", Instant.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<SyncSchedulerService.JobStatus>> getSyncJobs() {
+        return ResponseEntity.ok(syncSchedulerService.getJobStatuses());
+    }
+
+    /**
+     * Change a sync job's interval bounds or pause and resume it at runtime
+     */
+    @PutMapping("/jobs/{name}")
+    public ResponseEntity<SyncSchedulerService.JobStatus> updateSyncJob(@PathVariable String name,
+                                                                        @RequestBody SyncSchedulerService.JobUpdate update) {
+        log.info("Sync job {} reconfigured via API: {}", name, update);
+        return ResponseEntity.ok(syncSchedulerService.reconfigure(name, update));
+    }
+}
\ No newline at end of file
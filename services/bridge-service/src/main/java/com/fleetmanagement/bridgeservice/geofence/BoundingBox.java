@@ -0,0 +1,11 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+/**
+ * Latitude/longitude rectangle in degrees
+ */
+public record BoundingBox(double minLat, double minLon, double maxLat, double maxLon) {
+
+    public boolean contains(double lat, double lon) {
+        return lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon;
+    }
+}
@@ -0,0 +1,47 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+/**
+ * Circle given by center and radius in meters. Distances use an
+ * equirectangular projection around the center, accurate to well under a
+ * percent for fence-sized radii.
+ */
+public final class CircleShape implements GeofenceShape {
+
+    static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final double centerLat;
+    private final double centerLon;
+    private final double radiusSquared;
+    private final double metersPerDegreeLon;
+    private final BoundingBox bounds;
+
+    public CircleShape(double centerLat, double centerLon, double radiusMeters) {
+        if (!(radiusMeters > 0)) {
+            throw new IllegalArgumentException("Circle radius must be positive");
+        }
+        this.centerLat = centerLat;
+        this.centerLon = centerLon;
+        this.radiusSquared = radiusMeters * radiusMeters;
+        // Clamped so circles near the poles still get a finite box
+        this.metersPerDegreeLon = METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(centerLat)), 0.01);
+
+        double dLat = radiusMeters / METERS_PER_DEGREE;
+        double dLon = radiusMeters / metersPerDegreeLon;
+        this.bounds = new BoundingBox(centerLat - dLat, centerLon - dLon, centerLat + dLat, centerLon + dLon);
+    }
+
+    @Override
+    public BoundingBox bounds() {
+        return bounds;
+    }
+
+    @Override
+    public boolean contains(double lat, double lon) {
+        if (!bounds.contains(lat, lon)) {
+            return false;
+        }
+        double dy = (lat - centerLat) * METERS_PER_DEGREE;
+        double dx = (lon - centerLon) * metersPerDegreeLon;
+        return dx * dx + dy * dy <= radiusSquared;
+    }
+}
@@ -0,0 +1,9 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+import java.util.UUID;
+
+/**
+ * A tenant's geofence as evaluated by the bridge
+ */
+public record Geofence(UUID id, UUID companyId, String name, GeofenceShape shape) {
+}
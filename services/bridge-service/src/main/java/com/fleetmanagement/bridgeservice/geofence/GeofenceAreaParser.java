@@ -0,0 +1,62 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+import java.util.Locale;
+
+/**
+ * Parses geofence areas in the WKT dialect Traccar stores, with latitude
+ * before longitude: {@code CIRCLE (lat lon, radius)} and
+ * {@code POLYGON ((lat lon, lat lon, ...))}.
+ */
+public final class GeofenceAreaParser {
+
+    private GeofenceAreaParser() {
+    }
+
+    /**
+     * Shape of the area
+     *
+     * @throws IllegalArgumentException if the area is malformed or of an unsupported type
+     */
+    public static GeofenceShape parse(String area) {
+        if (area == null) {
+            throw new IllegalArgumentException("Geofence area is missing");
+        }
+        String text = area.trim();
+        int open = text.indexOf('(');
+        int close = text.lastIndexOf(')');
+        if (open < 0 || close < open) {
+            throw new IllegalArgumentException("Invalid geofence area: " + area);
+        }
+        String type = text.substring(0, open).trim().toUpperCase(Locale.ROOT);
+        String body = text.substring(open + 1, close).replace("(", "").replace(")", "").trim();
+
+        switch (type) {
+            case "CIRCLE": {
+                String[] parts = body.split(",");
+                double[] center = point(parts[0]);
+                return new CircleShape(center[0], center[1], Double.parseDouble(parts[1].trim()));
+            }
+            case "POLYGON": {
+                String[] points = body.split(",");
+                double[] lats = new double[points.length];
+                double[] lons = new double[points.length];
+                for (int i = 0; i < points.length; i++) {
+                    double[] point = point(points[i]);
+                    lats[i] = point[0];
+                    lons[i] = point[1];
+                }
+                return new PolygonShape(lats, lons);
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported geofence area type: " + type);
+        }
+    }
+
+    private static double[] point(String text) {
+        String[] coordinates = text.trim().split("\\s+");
+        if (coordinates.length != 2) {
+            throw new IllegalArgumentException("Invalid geofence point: " + text);
+        }
+        return new double[]{Double.parseDouble(coordinates[0]), Double.parseDouble(coordinates[1])};
+    }
+}
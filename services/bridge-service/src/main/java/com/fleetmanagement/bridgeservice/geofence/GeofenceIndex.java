@@ -0,0 +1,131 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Geofence Index
+ *
+ * Immutable spatial index over a set of geofences. Fences are registered in
+ * every cell of a uniform lat/lon grid that their bounding box touches; a
+ * query looks up the point's cell and runs the exact shape test only on the
+ * fences in it. Fences too large for the fine grid go to a coarse grid, and
+ * the few larger still to a list checked by bounding box. Built once per
+ * reload and shared by all threads without locking.
+ */
+public final class GeofenceIndex {
+
+    private static final int COARSE_FACTOR = 32;
+    private static final Geofence[] NONE = new Geofence[0];
+
+    private final Grid fine;
+    private final Grid coarse;
+    private final Geofence[] oversized;
+    private final Map<UUID, Geofence> byId;
+
+    /**
+     * @param cellSizeDegrees edge of a fine grid cell in degrees
+     * @param maxCellsPerFence fences covering more fine cells than this move to the coarse grid
+     */
+    public GeofenceIndex(Collection<Geofence> geofences, double cellSizeDegrees, int maxCellsPerFence) {
+        Map<Long, List<Geofence>> fineCells = new HashMap<>();
+        Map<Long, List<Geofence>> coarseCells = new HashMap<>();
+        List<Geofence> large = new ArrayList<>();
+        double coarseSize = cellSizeDegrees * COARSE_FACTOR;
+
+        this.byId = new HashMap<>(geofences.size() * 2);
+        for (Geofence geofence : geofences) {
+            byId.put(geofence.id(), geofence);
+            BoundingBox box = geofence.shape().bounds();
+            if (!register(fineCells, geofence, box, cellSizeDegrees, maxCellsPerFence)
+                    && !register(coarseCells, geofence, box, coarseSize, maxCellsPerFence)) {
+                large.add(geofence);
+            }
+        }
+
+        this.fine = new Grid(cellSizeDegrees, fineCells);
+        this.coarse = new Grid(coarseSize, coarseCells);
+        this.oversized = large.toArray(NONE);
+    }
+
+    /**
+     * Geofences containing the point
+     */
+    public List<Geofence> query(double lat, double lon) {
+        List<Geofence> result = null;
+        result = collect(fine.candidates(lat, lon), lat, lon, result);
+        result = collect(coarse.candidates(lat, lon), lat, lon, result);
+        result = collect(oversized, lat, lon, result);
+        return result != null ? result : List.of();
+    }
+
+    public Geofence get(UUID geofenceId) {
+        return byId.get(geofenceId);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private static List<Geofence> collect(Geofence[] candidates, double lat, double lon, List<Geofence> result) {
+        for (Geofence geofence : candidates) {
+            if (geofence.shape().contains(lat, lon)) {
+                if (result == null) {
+                    result = new ArrayList<>(2);
+                }
+                result.add(geofence);
+            }
+        }
+        return result;
+    }
+
+    private static boolean register(Map<Long, List<Geofence>> cells, Geofence geofence, BoundingBox box,
+                                    double cellSize, int maxCells) {
+        int minLatCell = cell(box.minLat(), cellSize);
+        int maxLatCell = cell(box.maxLat(), cellSize);
+        int minLonCell = cell(box.minLon(), cellSize);
+        int maxLonCell = cell(box.maxLon(), cellSize);
+        long cellCount = (long) (maxLatCell - minLatCell + 1) * (maxLonCell - minLonCell + 1);
+        if (cellCount > maxCells) {
+            return false;
+        }
+        for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (int lonCell = minLonCell; lonCell <= maxLonCell; lonCell++) {
+                cells.computeIfAbsent(key(latCell, lonCell), k -> new ArrayList<>(4)).add(geofence);
+            }
+        }
+        return true;
+    }
+
+    private static int cell(double degrees, double cellSize) {
+        return (int) Math.floor(degrees / cellSize);
+    }
+
+    private static long key(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    private static final class Grid {
+
+        private final double cellSize;
+        private final Map<Long, Geofence[]> cells;
+
+        Grid(double cellSize, Map<Long, List<Geofence>> cells) {
+            this.cellSize = cellSize;
+            this.cells = new HashMap<>(cells.size() * 2);
+            cells.forEach((key, fences) -> this.cells.put(key, fences.toArray(NONE)));
+        }
+
+        Geofence[] candidates(double lat, double lon) {
+            if (cells.isEmpty()) {
+                return NONE;
+            }
+            Geofence[] fences = cells.get(key(cell(lat, cellSize), cell(lon, cellSize)));
+            return fences != null ? fences : NONE;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+/**
+ * Area of a geofence. Implementations are immutable and precompute what
+ * they need at construction so {@link #contains} is safe to call from any
+ * thread and does no allocation.
+ */
+public interface GeofenceShape {
+
+    BoundingBox bounds();
+
+    boolean contains(double lat, double lon);
+}
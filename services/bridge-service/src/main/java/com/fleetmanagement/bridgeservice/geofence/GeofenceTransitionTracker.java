@@ -0,0 +1,111 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Geofence Transition Tracker
+ *
+ * Remembers which geofences each device is inside and turns the fences
+ * containing a new position into ENTER/EXIT transitions. Updates for one
+ * device are atomic, and a position older than the last one evaluated for
+ * the device is ignored, so batches processed in parallel or out of order
+ * cannot flip the state back. The state of a device can be taken as a
+ * {@link Snapshot} and restored, so another replica does not report the
+ * fences the device is already inside again.
+ */
+public final class GeofenceTransitionTracker {
+
+    public enum Type { ENTER, EXIT }
+
+    public record Transition(UUID geofenceId, Type type) {
+    }
+
+    /**
+     * Fences a device was inside at its last evaluated fix, as checkpointed
+     */
+    public record Snapshot(UUID deviceId, Instant lastFix, Set<UUID> inside) {
+    }
+
+    /**
+     * @param snapshot  state of the device after the fix
+     */
+    public record Update(List<Transition> transitions, Snapshot snapshot) {
+    }
+
+    private record DeviceState(Long traccarDeviceId, Instant lastFix, Set<UUID> inside) {
+    }
+
+    private final Map<UUID, DeviceState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Record the fences containing the device at fixTime and return what changed
+     */
+    public Update update(UUID deviceId, Long traccarDeviceId, Instant fixTime, List<Geofence> containing) {
+        List<Transition> transitions = new ArrayList<>(0);
+        DeviceState state = states.compute(deviceId, (id, previous) -> {
+            if (previous != null && fixTime.isBefore(previous.lastFix())) {
+                return previous;
+            }
+            Set<UUID> inside = new HashSet<>(containing.size() * 2);
+            for (Geofence geofence : containing) {
+                inside.add(geofence.id());
+            }
+            Set<UUID> before = previous != null ? previous.inside() : Set.of();
+            for (UUID geofenceId : inside) {
+                if (!before.contains(geofenceId)) {
+                    transitions.add(new Transition(geofenceId, Type.ENTER));
+                }
+            }
+            for (UUID geofenceId : before) {
+                if (!inside.contains(geofenceId)) {
+                    transitions.add(new Transition(geofenceId, Type.EXIT));
+                }
+            }
+            return new DeviceState(traccarDeviceId, fixTime, inside.isEmpty() ? Set.of() : inside);
+        });
+        return new Update(transitions, new Snapshot(deviceId, state.lastFix(), state.inside()));
+    }
+
+    /**
+     * Continue a device from a checkpoint; a device already tracked is left alone
+     */
+    public void restore(Long traccarDeviceId, Snapshot snapshot) {
+        states.putIfAbsent(snapshot.deviceId(), new DeviceState(traccarDeviceId, snapshot.lastFix(),
+                snapshot.inside() != null ? Set.copyOf(snapshot.inside()) : Set.of()));
+    }
+
+    /**
+     * Drop devices without reporting any transition, e.g. when another replica takes them over
+     *
+     * @return how many were dropped
+     */
+    public int forget(Predicate<Long> traccarDeviceIds) {
+        int before = states.size();
+        states.values().removeIf(state -> traccarDeviceIds.test(state.traccarDeviceId()));
+        return before - states.size();
+    }
+
+    /**
+     * Fences the device is currently inside
+     */
+    public Set<UUID> insideOf(UUID deviceId) {
+        DeviceState state = states.get(deviceId);
+        return state != null ? Set.copyOf(state.inside()) : Set.of();
+    }
+
+    public void forget(UUID deviceId) {
+        states.remove(deviceId);
+    }
+
+    public int trackedDevices() {
+        return states.size();
+    }
+}
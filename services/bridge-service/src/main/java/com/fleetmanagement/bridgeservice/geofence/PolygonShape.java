@@ -0,0 +1,117 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simple polygon (one ring, no holes) prepared for repeated point tests.
+ *
+ * The bounding box is split into horizontal latitude bands, each listing the
+ * edges that overlap it. A point is tested by ray casting against the edges
+ * of its band only, so the cost of a test grows with the edges crossing one
+ * band rather than with the vertex count. Polygons crossing the antimeridian
+ * are not supported.
+ */
+public final class PolygonShape implements GeofenceShape {
+
+    private static final int EDGES_PER_BAND = 4;
+    private static final int MAX_BANDS = 256;
+
+    // Edge i runs from vertex i to vertex i + 1; the ring is closed
+    private final double[] lats;
+    private final double[] lons;
+    private final BoundingBox bounds;
+    private final double bandHeight;
+    private final int[][] bandEdges;
+
+    /**
+     * @param lats vertex latitudes; the ring is closed implicitly
+     * @param lons vertex longitudes, same length as lats
+     */
+    public PolygonShape(double[] lats, double[] lons) {
+        if (lats.length != lons.length || lats.length < 3) {
+            throw new IllegalArgumentException("Polygon needs at least 3 vertices");
+        }
+        int n = lats.length;
+        // Drop an explicit closing vertex, the ring is closed anyway
+        if (lats[0] == lats[n - 1] && lons[0] == lons[n - 1]) {
+            n--;
+        }
+        this.lats = new double[n + 1];
+        this.lons = new double[n + 1];
+        System.arraycopy(lats, 0, this.lats, 0, n);
+        System.arraycopy(lons, 0, this.lons, 0, n);
+        this.lats[n] = lats[0];
+        this.lons[n] = lons[0];
+
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            minLat = Math.min(minLat, lats[i]);
+            maxLat = Math.max(maxLat, lats[i]);
+            minLon = Math.min(minLon, lons[i]);
+            maxLon = Math.max(maxLon, lons[i]);
+        }
+        this.bounds = new BoundingBox(minLat, minLon, maxLat, maxLon);
+
+        int bands = Math.max(1, Math.min(MAX_BANDS, n / EDGES_PER_BAND));
+        this.bandHeight = Math.max((maxLat - minLat) / bands, Double.MIN_NORMAL);
+        this.bandEdges = buildBands(bands, n, minLat);
+    }
+
+    @Override
+    public BoundingBox bounds() {
+        return bounds;
+    }
+
+    @Override
+    public boolean contains(double lat, double lon) {
+        if (!bounds.contains(lat, lon)) {
+            return false;
+        }
+        boolean inside = false;
+        for (int i : bandEdges[band(lat)]) {
+            double lat1 = lats[i], lat2 = lats[i + 1];
+            if ((lat1 > lat) != (lat2 > lat)) {
+                double crossLon = lons[i] + (lat - lat1) * (lons[i + 1] - lons[i]) / (lat2 - lat1);
+                if (lon < crossLon) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Number of vertices in the ring
+     */
+    public int vertexCount() {
+        return lats.length - 1;
+    }
+
+    private int band(double lat) {
+        int band = (int) ((lat - bounds.minLat()) / bandHeight);
+        return Math.min(Math.max(band, 0), bandEdges.length - 1);
+    }
+
+    private int[][] buildBands(int bands, int edges, double minLat) {
+        List<List<Integer>> lists = new ArrayList<>(bands);
+        for (int b = 0; b < bands; b++) {
+            lists.add(new ArrayList<>());
+        }
+        for (int i = 0; i < edges; i++) {
+            double low = Math.min(lats[i], lats[i + 1]);
+            double high = Math.max(lats[i], lats[i + 1]);
+            int first = Math.min(Math.max((int) ((low - minLat) / bandHeight), 0), bands - 1);
+            int last = Math.min(Math.max((int) ((high - minLat) / bandHeight), 0), bands - 1);
+            for (int b = first; b <= last; b++) {
+                lists.get(b).add(i);
+            }
+        }
+        int[][] result = new int[bands][];
+        for (int b = 0; b < bands; b++) {
+            result[b] = lists.get(b).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return result;
+    }
+}
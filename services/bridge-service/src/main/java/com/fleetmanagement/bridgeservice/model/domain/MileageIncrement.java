@@ -0,0 +1,22 @@
+package com.fleetmanagement.bridgeservice.model.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Distance a vehicle travelled since the last mileage push
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MileageIncrement {
+
+    private UUID vehicleId;
+    private UUID companyId;
+    private Integer kilometers;
+}
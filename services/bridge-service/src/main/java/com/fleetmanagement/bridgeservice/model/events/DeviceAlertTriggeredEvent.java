@@ -0,0 +1,41 @@
+package com.fleetmanagement.bridgeservice.model.events;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Alert raised by the bridge's stream detectors. The device service's sensor
+ * alerts share the topic with the same fields, adding the device's IMEI.
+ */
+@Data
+@Builder
+public class DeviceAlertTriggeredEvent {
+
+    private String eventId;
+    private String eventType;
+    private Instant timestamp;
+
+    // Device information
+    private UUID deviceId;
+    private Long traccarDeviceId;
+    private UUID companyId;
+
+    // Alert
+    private String alertType; // OVERSPEED, IGNITION_ON, IGNITION_OFF
+    private String alertLevel; // INFO, WARNING, CRITICAL
+    private String message;
+    private String details;
+
+    // Position that raised the alert
+    private Double latitude;
+    private Double longitude;
+    private Double speed;
+    private Instant fixTime;
+
+    // Event metadata
+    private String source;
+    private String version;
+}
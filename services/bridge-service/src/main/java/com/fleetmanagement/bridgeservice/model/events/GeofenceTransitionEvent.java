@@ -0,0 +1,40 @@
+package com.fleetmanagement.bridgeservice.model.events;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Device entered or left a geofence. Field names follow the device
+ * service's DeviceGeofenceViolationEvent so consumers can read either.
+ */
+@Data
+@Builder
+public class GeofenceTransitionEvent {
+
+    private String eventId;
+    private String eventType;
+    private Instant timestamp;
+
+    // Device information
+    private UUID deviceId;
+    private Long traccarDeviceId;
+    private UUID companyId;
+
+    // Geofence
+    private UUID geofenceId;
+    private String geofenceName;
+    private String violationType; // ENTER, EXIT
+
+    // Position that caused the transition
+    private Double latitude;
+    private Double longitude;
+    private String address;
+    private Instant fixTime;
+
+    // Event metadata
+    private String source;
+    private String version;
+}
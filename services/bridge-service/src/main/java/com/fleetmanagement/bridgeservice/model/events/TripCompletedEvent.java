@@ -0,0 +1,45 @@
+package com.fleetmanagement.bridgeservice.model.events;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A device finished a trip, as segmented by the bridge from its positions
+ */
+@Data
+@Builder
+public class TripCompletedEvent {
+
+    private String eventId;
+    private String eventType;
+    private Instant timestamp;
+
+    // Device information
+    private UUID deviceId;
+    private Long traccarDeviceId;
+    private UUID companyId;
+    private UUID vehicleId; // null when unassigned or not yet resolved
+
+    // Trip
+    private Instant startTime;
+    private Instant endTime;
+    private Double startLatitude;
+    private Double startLongitude;
+    private Double endLatitude;
+    private Double endLongitude;
+    private Double distanceKm;
+    private Long durationSeconds;
+    private Long idleSeconds;
+    private Double maxSpeedKmh;
+    private Double averageSpeedKmh;
+    private Double startOdometer;
+    private Double endOdometer;
+    private String endReason; // IGNITION_OFF, STOPPED, SIGNAL_LOST
+
+    // Event metadata
+    private String source;
+    private String version;
+}
@@ -0,0 +1,29 @@
+package com.fleetmanagement.bridgeservice.model.traccar;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TraccarGeofence {
+
+    private Long id;
+
+    private String name;
+
+    private String description;
+
+    // WKT with latitude first, e.g. "CIRCLE (52.52 13.40, 500)"
+    private String area;
+
+    private Long calendarId;
+
+    private Map<String, Object> attributes;
+
+    public String getAttributeAsString(String key) {
+        Object value = attributes != null ? attributes.get(key) : null;
+        return value != null ? value.toString() : null;
+    }
+}
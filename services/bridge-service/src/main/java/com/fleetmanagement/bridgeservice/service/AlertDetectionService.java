@@ -0,0 +1,285 @@
+package com.fleetmanagement.bridgeservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.bridgeservice.alert.AlertRules;
+import com.fleetmanagement.bridgeservice.alert.DetectorState;
+import com.fleetmanagement.bridgeservice.alert.DeviceAlertDetector;
+import com.fleetmanagement.bridgeservice.alert.DeviceAlertDetector.Alert;
+import com.fleetmanagement.bridgeservice.config.AlertDetectionConfig;
+import com.fleetmanagement.bridgeservice.model.domain.LocationData;
+import com.fleetmanagement.bridgeservice.model.events.DeviceAlertTriggeredEvent;
+import com.fleetmanagement.bridgeservice.shard.ShardOwnershipListener;
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Alert Detection Service
+ *
+ * Runs the overspeed and ignition detectors over every processed position
+ * and publishes their alerts to the alert topic, without any lookups. The
+ * detector state is checkpointed to one Redis hash per Traccar shard:
+ * devices that raised an alert are written right away, everything else in
+ * batches. A replica taking over a shard reads its hash back, so neither a
+ * restart nor a handover raises the same alerts again, and the replica
+ * giving it up writes its state and drops the shard's devices. Devices
+ * silent for longer than the state retention are removed from memory and
+ * from their hash, by a daily sweep and when a hash is read back.
+ */
+@Service
+@Slf4j
+public class AlertDetectionService implements ShardOwnershipListener {
+
+    private static final String STATE_KEY_PREFIX = "bridge:alerts:state:";
+
+    private final AlertDetectionConfig config;
+    private final EventPublishingService eventPublishingService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final TraccarShards traccarShards;
+    private final ShardOwnershipService shardOwnershipService;
+    private final DeviceAlertDetector detector = new DeviceAlertDetector();
+
+    // Device -> shard whose hash holds its state
+    private final Map<UUID, String> deviceShards = new ConcurrentHashMap<>();
+
+    private final Map<DeviceAlertDetector.Type, Counter> alertCounters = new EnumMap<>(DeviceAlertDetector.Type.class);
+    private final Counter checkpointFailures;
+
+    @Autowired
+    public AlertDetectionService(AlertDetectionConfig config,
+                                 EventPublishingService eventPublishingService,
+                                 RedisTemplate<String, Object> redisTemplate,
+                                 ObjectMapper objectMapper,
+                                 TraccarShards traccarShards,
+                                 ShardOwnershipService shardOwnershipService,
+                                 MeterRegistry meterRegistry) {
+        this.config = config;
+        this.eventPublishingService = eventPublishingService;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.traccarShards = traccarShards;
+        this.shardOwnershipService = shardOwnershipService;
+
+        for (DeviceAlertDetector.Type type : DeviceAlertDetector.Type.values()) {
+            alertCounters.put(type, Counter.builder("bridge.alerts.triggered")
+                    .tag("type", type.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.checkpointFailures = Counter.builder("bridge.alerts.checkpoint.failures")
+                .register(meterRegistry);
+        Gauge.builder("bridge.alerts.tracked.devices", detector, DeviceAlertDetector::trackedDevices)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        shardOwnershipService.addListener(this);
+    }
+
+    /**
+     * Seed the detectors of shards taken over with their last checkpoint
+     */
+    @Override
+    public void onShardsAssigned(Set<String> shardIds) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        for (String shardId : shardIds) {
+            try {
+                Map<Object, Object> checkpoint = redisTemplate.opsForHash().entries(STATE_KEY_PREFIX + shardId);
+                Instant cutoff = Instant.now().minus(config.getStateRetention());
+                List<Object> stale = new ArrayList<>();
+                int restored = 0;
+                for (Map.Entry<Object, Object> entry : checkpoint.entrySet()) {
+                    try {
+                        UUID deviceId = UUID.fromString((String) entry.getKey());
+                        DetectorState state = objectMapper.readValue((String) entry.getValue(), DetectorState.class);
+                        if (state.lastFix() == null || state.lastFix().isBefore(cutoff)) {
+                            stale.add(entry.getKey());
+                            continue;
+                        }
+                        detector.restore(deviceId, state);
+                        deviceShards.putIfAbsent(deviceId, shardId);
+                        restored++;
+                    } catch (Exception e) {
+                        log.warn("Dropping unreadable alert state of device {}: {}", entry.getKey(), e.getMessage());
+                        stale.add(entry.getKey());
+                    }
+                }
+                if (!stale.isEmpty()) {
+                    redisTemplate.opsForHash().delete(STATE_KEY_PREFIX + shardId, stale.toArray());
+                }
+                log.info("Restored alert detector state of {} devices of shard {}, pruned {}", restored, shardId, stale.size());
+            } catch (Exception e) {
+                // Starting empty only risks repeating an alert that was in progress
+                log.error("Failed to restore alert detector state of shard {}, starting empty", shardId, e);
+            }
+        }
+    }
+
+    /**
+     * Write the state of the shards given up and drop their devices
+     */
+    @Override
+    public void onShardsRevoked(Set<String> shardIds) {
+        checkpointChanged();
+        int dropped = 0;
+        for (Map.Entry<UUID, String> entry : deviceShards.entrySet()) {
+            if (shardIds.contains(entry.getValue())) {
+                detector.forget(entry.getKey());
+                deviceShards.remove(entry.getKey());
+                dropped++;
+            }
+        }
+        log.info("Dropped alert detector state of {} devices of shards {}", dropped, shardIds);
+    }
+
+    /**
+     * Evaluate a position and publish the alerts it raises
+     */
+    public void evaluate(LocationData location) {
+        if (!config.isEnabled() || location.getDeviceId() == null
+                || (location.getSpeed() == null && location.getIgnition() == null)) {
+            return;
+        }
+
+        deviceShards.put(location.getDeviceId(), traccarShards.ofDevice(location.getTraccarDeviceId()).id());
+        AlertRules rules = config.rulesFor(location.getCompanyId());
+        Instant fixTime = location.getDeviceTime() != null ? location.getDeviceTime() : Instant.now();
+        // Speed of an invalid fix is not trusted; its ignition flag still is
+        Double speed = Boolean.FALSE.equals(location.getValid()) ? null : location.getSpeed();
+
+        List<Alert> alerts = detector.update(location.getDeviceId(), fixTime, speed, location.getIgnition(), rules);
+        if (alerts.isEmpty()) {
+            return;
+        }
+
+        for (Alert alert : alerts) {
+            publish(location, alert, rules);
+        }
+        checkpoint(Map.of(location.getDeviceId(), detector.stateOf(location.getDeviceId())));
+    }
+
+    /**
+     * Write the state of devices changed since the last checkpoint
+     */
+    @Scheduled(fixedDelayString = "#{@alertDetectionConfig.checkpointInterval.toMillis()}", initialDelay = 5000)
+    public void checkpointChanged() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Map<UUID, DetectorState> changed = detector.drainChanged();
+        if (!changed.isEmpty()) {
+            checkpoint(changed);
+        }
+    }
+
+    /**
+     * Drop devices that stopped reporting, in memory and in their shard's hash
+     */
+    @Scheduled(cron = "0 45 2 * * *")
+    public void sweepIdleDevices() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        List<UUID> idle = detector.forgetIdle(Instant.now().minus(config.getStateRetention()));
+        Map<String, List<Object>> fieldsByShard = new HashMap<>();
+        for (UUID deviceId : idle) {
+            String shardId = deviceShards.remove(deviceId);
+            if (shardId != null) {
+                fieldsByShard.computeIfAbsent(shardId, id -> new ArrayList<>()).add(deviceId.toString());
+            }
+        }
+        try {
+            fieldsByShard.forEach((shardId, fields) ->
+                    redisTemplate.opsForHash().delete(STATE_KEY_PREFIX + shardId, fields.toArray()));
+        } catch (Exception e) {
+            // Left over fields are pruned when their shard's hash is next read back
+            log.warn("Failed to prune alert detector state of {} idle devices: {}", idle.size(), e.getMessage());
+        }
+        log.info("Dropped alert detector state of {} idle devices", idle.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpointChanged();
+    }
+
+    private void checkpoint(Map<UUID, DetectorState> states) {
+        try {
+            Map<String, Map<String, String>> entriesByShard = new HashMap<>();
+            for (Map.Entry<UUID, DetectorState> entry : states.entrySet()) {
+                String shardId = deviceShards.get(entry.getKey());
+                if (shardId != null) {
+                    entriesByShard.computeIfAbsent(shardId, id -> new HashMap<>())
+                            .put(entry.getKey().toString(), objectMapper.writeValueAsString(entry.getValue()));
+                }
+            }
+            entriesByShard.forEach((shardId, entries) -> redisTemplate.opsForHash().putAll(STATE_KEY_PREFIX + shardId, entries));
+            log.debug("Checkpointed alert detector state of {} devices", states.size());
+        } catch (Exception e) {
+            checkpointFailures.increment();
+            detector.markChanged(states.keySet());
+            log.warn("Failed to checkpoint alert detector state of {} devices: {}", states.size(), e.getMessage());
+        }
+    }
+
+    private void publish(LocationData location, Alert alert, AlertRules rules) {
+        String message;
+        String details;
+        String level;
+        if (alert.type() == DeviceAlertDetector.Type.OVERSPEED) {
+            level = "WARNING";
+            message = String.format("Speed above %.0f km/h for %d s", rules.overspeedLimitKmh(),
+                    alert.duration().toSeconds());
+            details = String.format("limitKmh=%.1f, maxSpeedKmh=%.1f, durationSeconds=%d",
+                    rules.overspeedLimitKmh(), alert.value(), alert.duration().toSeconds());
+        } else {
+            level = "INFO";
+            message = alert.type() == DeviceAlertDetector.Type.IGNITION_ON ? "Ignition switched on" : "Ignition switched off";
+            details = String.format("debounceSeconds=%d", rules.ignitionDebounce().toSeconds());
+        }
+
+        DeviceAlertTriggeredEvent event = DeviceAlertTriggeredEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("device.alert.triggered")
+                .timestamp(Instant.now())
+                .deviceId(location.getDeviceId())
+                .traccarDeviceId(location.getTraccarDeviceId())
+                .companyId(location.getCompanyId())
+                .alertType(alert.type().name())
+                .alertLevel(level)
+                .message(message)
+                .details(details)
+                .latitude(location.getLatitude())
+                .longitude(location.getLongitude())
+                .speed(location.getSpeed())
+                .fixTime(alert.fixTime())
+                .source("bridge-service")
+                .version("1.0")
+                .build();
+
+        eventPublishingService.publishAlert(event);
+        alertCounters.get(alert.type()).increment();
+        log.debug("Device {} raised {}", location.getDeviceId(), alert.type());
+    }
+}
@@ -4,6 +4,7 @@ ackage com.fleetmanagement.bridgeservice.service;
 
 import com.fleetmanagement.bridgeservice.client.DeviceServiceClient;
 import com.fleetmanagement.bridgeservice.exception.DeviceNotFoundException;
+import com.fleetmanagement.bridgeservice.state.BridgeStateStore;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -18,19 +19,21 @@ public class DeviceValidationService {
 
     private final DeviceServiceClient deviceServiceClient;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final BridgeStateStore bridgeStateStore;
 
     @Autowired
     public DeviceValidationService(DeviceServiceClient deviceServiceClient,
-                                   RedisTemplate<String, Object> redisTemplate) {
+                                   RedisTemplate<String, Object> redisTemplate,
+                                   BridgeStateStore bridgeStateStore) {
         this.deviceServiceClient = deviceServiceClient;
         this.redisTemplate = redisTemplate;
+        this.bridgeStateStore = bridgeStateStore;
     }
 
     public boolean isDeviceActive(Long traccarDeviceId) {
         try {
-            // Check cache first
-            String cacheKey = "device:active:" + traccarDeviceId;
-            Boolean cached = (Boolean) redisTemplate.opsForValue().get(cacheKey);
+            // Check the last answer first; it survives restarts with the bridge state
+            Boolean cached = bridgeStateStore.activeFlag(traccarDeviceId);
 
             if (cached != null) {
                 return cached;
@@ -40,8 +43,7 @@ public class DeviceValidationService {
             UUID deviceId = deviceServiceClient.getDeviceByTraccarId(traccarDeviceId);
             boolean isActive = deviceServiceClient.isDeviceActive(deviceId);
 
-            // Cache result for 5 minutes
-            redisTemplate.opsForValue().set(cacheKey, isActive, 5, TimeUnit.MINUTES);
+            bridgeStateStore.recordActiveFlag(traccarDeviceId, isActive);
 
             return isActive;
 
@@ -31,6 +31,15 @@ public class EventPublishingService {
     @Value("${bridge.kafka.topics.command-results:device.command.result}")
     private String commandTopic;
 
+    @Value("${bridge.kafka.topics.geofence-events:device.geofence.event}")
+    private String geofenceTopic;
+
+    @Value("${bridge.kafka.topics.alert-events:device.alert.triggered}")
+    private String alertTopic;
+
+    @Value("${bridge.kafka.topics.trip-events:device.trip.completed}")
+    private String tripTopic;
+
     @Autowired
     public EventPublishingService(KafkaTemplate<String, Object> kafkaTemplate) {
         this.kafkaTemplate = kafkaTemplate;
@@ -124,6 +133,70 @@ public class EventPublishingService {
         }
     }
 
+    public void publishGeofenceTransition(GeofenceTransitionEvent event) {
+        try {
+            String key = event.getDeviceId().toString();
+
+            CompletableFuture<SendResult<String, Object>> future =
+                    kafkaTemplate.send(geofenceTopic, key, event);
+
+            future.whenComplete((result, ex) -> {
+                if (ex == null) {
+                    log.debug("Geofence {} published for device: {} geofence: {}",
+                            event.getViolationType(), event.getDeviceId(), event.getGeofenceId());
+                } else {
+                    log.error("Failed to publish geofence transition for device: {}", event.getDeviceId(), ex);
+                }
+            });
+
+        } catch (Exception e) {
+            log.error("Error publishing geofence transition event", e);
+            throw new EventPublishingException("Failed to publish geofence transition", e);
+        }
+    }
+
+    public void publishAlert(DeviceAlertTriggeredEvent event) {
+        try {
+            String key = event.getDeviceId().toString();
+
+            CompletableFuture<SendResult<String, Object>> future =
+                    kafkaTemplate.send(alertTopic, key, event);
+
+            future.whenComplete((result, ex) -> {
+                if (ex == null) {
+                    log.debug("Alert {} published for device: {}", event.getAlertType(), event.getDeviceId());
+                } else {
+                    log.error("Failed to publish alert for device: {}", event.getDeviceId(), ex);
+                }
+            });
+
+        } catch (Exception e) {
+            log.error("Error publishing alert event", e);
+            throw new EventPublishingException("Failed to publish alert", e);
+        }
+    }
+
+    public void publishTripCompleted(TripCompletedEvent event) {
+        try {
+            String key = event.getDeviceId().toString();
+
+            CompletableFuture<SendResult<String, Object>> future =
+                    kafkaTemplate.send(tripTopic, key, event);
+
+            future.whenComplete((result, ex) -> {
+                if (ex == null) {
+                    log.debug("Trip completed published for device: {}", event.getDeviceId());
+                } else {
+                    log.error("Failed to publish trip completed for device: {}", event.getDeviceId(), ex);
+                }
+            });
+
+        } catch (Exception e) {
+            log.error("Error publishing trip completed event", e);
+            throw new EventPublishingException("Failed to publish trip completed", e);
+        }
+    }
+
     public void publishBatch(List<Object> events) {
         try {
             log.debug("Publishing batch of {} events", events.size());
@@ -137,6 +210,12 @@ public class EventPublishingService {
                     publishDeviceHeartbeat((DeviceHeartbeatEvent) event);
                 } else if (event instanceof CommandExecutedEvent) {
                     publishCommandResult((CommandExecutedEvent) event);
+                } else if (event instanceof GeofenceTransitionEvent) {
+                    publishGeofenceTransition((GeofenceTransitionEvent) event);
+                } else if (event instanceof DeviceAlertTriggeredEvent) {
+                    publishAlert((DeviceAlertTriggeredEvent) event);
+                } else if (event instanceof TripCompletedEvent) {
+                    publishTripCompleted((TripCompletedEvent) event);
                 } else {
                     log.warn("Unknown event type: {}", event.getClass().getSimpleName());
                 }
@@ -0,0 +1,271 @@
+package com.fleetmanagement.bridgeservice.service;
+
+import com.fleetmanagement.bridgeservice.geofence.Geofence;
+import com.fleetmanagement.bridgeservice.geofence.GeofenceAreaParser;
+import com.fleetmanagement.bridgeservice.geofence.GeofenceIndex;
+import com.fleetmanagement.bridgeservice.geofence.GeofenceTransitionTracker;
+import com.fleetmanagement.bridgeservice.geofence.GeofenceTransitionTracker.Transition;
+import com.fleetmanagement.bridgeservice.model.domain.LocationData;
+import com.fleetmanagement.bridgeservice.model.events.GeofenceTransitionEvent;
+import com.fleetmanagement.bridgeservice.model.traccar.TraccarGeofence;
+import com.fleetmanagement.bridgeservice.shard.ShardOwnershipListener;
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
+import com.fleetmanagement.bridgeservice.state.BridgeStateStore;
+import com.fleetmanagement.bridgeservice.state.DeviceState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Geofence Service
+ *
+ * Evaluates every processed position against the geofences of the device's
+ * company and publishes ENTER/EXIT transitions to the geofence topic. Fences
+ * are loaded from Traccar (company taken from the "companyId" attribute) into
+ * one spatial index per company, rebuilt periodically and swapped in whole so
+ * evaluation never waits on a reload. Fences come from every Traccar shard,
+ * as a company's devices may be spread over several; a shard that cannot be
+ * reached keeps its previously loaded fences. The fences each device is
+ * inside are checkpointed with its bridge state and restored by the replica
+ * that takes over its shard, so no transition is reported twice or lost.
+ */
+@Service
+@Slf4j
+public class GeofenceService implements ShardOwnershipListener {
+
+    private static final String COMPANY_ATTRIBUTE = "companyId";
+    private static final String GEOFENCE_ID_ATTRIBUTE = "geofenceId";
+
+    private final TraccarApiClient traccarApiClient;
+    private final TraccarShards traccarShards;
+    private final EventPublishingService eventPublishingService;
+    private final BridgeStateStore bridgeStateStore;
+    private final ShardOwnershipService shardOwnershipService;
+    private final GeofenceTransitionTracker tracker = new GeofenceTransitionTracker();
+
+    private final Timer evaluationTimer;
+    private final Counter enterCounter;
+    private final Counter exitCounter;
+
+    @Value("${bridge.geofence.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bridge.geofence.cell-size-degrees:0.05}")
+    private double cellSizeDegrees;
+
+    @Value("${bridge.geofence.max-cells-per-fence:64}")
+    private int maxCellsPerFence;
+
+    // Company -> index of its fences; replaced as a whole on reload
+    private volatile Map<UUID, GeofenceIndex> indexes = Map.of();
+
+    // Last successful load per shard
+    private final Map<String, List<TraccarGeofence>> loadedByShard = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GeofenceService(TraccarApiClient traccarApiClient,
+                           TraccarShards traccarShards,
+                           EventPublishingService eventPublishingService,
+                           BridgeStateStore bridgeStateStore,
+                           ShardOwnershipService shardOwnershipService,
+                           MeterRegistry meterRegistry) {
+        this.traccarApiClient = traccarApiClient;
+        this.traccarShards = traccarShards;
+        this.eventPublishingService = eventPublishingService;
+        this.bridgeStateStore = bridgeStateStore;
+        this.shardOwnershipService = shardOwnershipService;
+
+        this.evaluationTimer = Timer.builder("bridge.geofence.evaluation")
+                .description("Time to evaluate one position against the geofence index")
+                .register(meterRegistry);
+        this.enterCounter = Counter.builder("bridge.geofence.transitions")
+                .tag("type", "enter")
+                .register(meterRegistry);
+        this.exitCounter = Counter.builder("bridge.geofence.transitions")
+                .tag("type", "exit")
+                .register(meterRegistry);
+        Gauge.builder("bridge.geofence.fences", this, GeofenceService::fenceCount)
+                .description("Geofences in the index")
+                .register(meterRegistry);
+        Gauge.builder("bridge.geofence.tracked.devices", tracker, GeofenceTransitionTracker::trackedDevices)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        shardOwnershipService.addListener(this);
+    }
+
+    /**
+     * Continue tracking the devices of shards taken over from their checkpoints
+     */
+    @Override
+    public void onShardsAssigned(Set<String> shardIds) {
+        if (!enabled) {
+            return;
+        }
+        int restored = 0;
+        for (Map.Entry<Long, DeviceState> entry : bridgeStateStore.devicesOf(shardIds).entrySet()) {
+            if (entry.getValue().geofences() != null) {
+                tracker.restore(entry.getKey(), entry.getValue().geofences());
+                restored++;
+            }
+        }
+        log.info("Restored geofence state of {} devices of shards {}", restored, shardIds);
+    }
+
+    /**
+     * Drop the devices of shards given up without reporting transitions
+     */
+    @Override
+    public void onShardsRevoked(Set<String> shardIds) {
+        int dropped = tracker.forget(traccarDeviceId -> !shardOwnershipService.ownsDevice(traccarDeviceId));
+        log.info("Dropped geofence state of {} devices of shards {}", dropped, shardIds);
+    }
+
+    /**
+     * Reload the geofences of all Traccar shards and swap in the new indexes
+     */
+    @Scheduled(fixedDelayString = "${bridge.geofence.refresh-interval-ms:60000}", initialDelay = 5000)
+    public void reloadGeofences() {
+        if (!enabled) {
+            return;
+        }
+        for (String shardId : traccarShards.ids()) {
+            try {
+                loadedByShard.put(shardId, traccarApiClient.getAllGeofences(shardId));
+            } catch (Exception e) {
+                log.error("Failed to reload geofences of shard {}, keeping {} loaded fences of it",
+                        shardId, loadedByShard.getOrDefault(shardId, List.of()).size(), e);
+            }
+        }
+
+        try {
+            List<TraccarGeofence> traccarGeofences = new ArrayList<>();
+            loadedByShard.values().forEach(traccarGeofences::addAll);
+
+            Map<UUID, List<Geofence>> byCompany = new HashMap<>();
+            int skipped = 0;
+            for (TraccarGeofence traccarGeofence : traccarGeofences) {
+                Geofence geofence = toGeofence(traccarGeofence);
+                if (geofence == null) {
+                    skipped++;
+                    continue;
+                }
+                byCompany.computeIfAbsent(geofence.companyId(), id -> new ArrayList<>()).add(geofence);
+            }
+
+            Map<UUID, GeofenceIndex> rebuilt = new HashMap<>(byCompany.size() * 2);
+            byCompany.forEach((companyId, geofences) ->
+                    rebuilt.put(companyId, new GeofenceIndex(geofences, cellSizeDegrees, maxCellsPerFence)));
+            indexes = rebuilt;
+
+            log.info("Loaded {} geofences for {} companies ({} skipped)",
+                    traccarGeofences.size() - skipped, rebuilt.size(), skipped);
+
+        } catch (Exception e) {
+            // Keep evaluating against the previous indexes
+            log.error("Failed to rebuild geofence indexes, keeping {} loaded fences", fenceCount(), e);
+        }
+    }
+
+    /**
+     * Evaluate a position and publish the geofence transitions it causes
+     */
+    public void evaluate(LocationData location) {
+        if (!enabled || location.getDeviceId() == null || location.getCompanyId() == null
+                || location.getLatitude() == null || location.getLongitude() == null
+                || Boolean.FALSE.equals(location.getValid())) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        GeofenceIndex index = indexes.get(location.getCompanyId());
+        List<Geofence> containing = index != null
+                ? index.query(location.getLatitude(), location.getLongitude())
+                : List.of();
+
+        Instant fixTime = location.getDeviceTime() != null ? location.getDeviceTime() : Instant.now();
+        GeofenceTransitionTracker.Update update = tracker.update(location.getDeviceId(), location.getTraccarDeviceId(),
+                fixTime, containing);
+        sample.stop(evaluationTimer);
+        bridgeStateStore.recordGeofences(location.getTraccarDeviceId(), update.snapshot());
+
+        for (Transition transition : update.transitions()) {
+            Geofence geofence = index != null ? index.get(transition.geofenceId()) : null;
+            if (geofence == null) {
+                // Fence was deleted while the device was inside; there is nothing left to exit
+                continue;
+            }
+            publish(location, geofence, transition.type());
+        }
+    }
+
+    public int fenceCount() {
+        int count = 0;
+        for (GeofenceIndex index : indexes.values()) {
+            count += index.size();
+        }
+        return count;
+    }
+
+    private void publish(LocationData location, Geofence geofence, GeofenceTransitionTracker.Type type) {
+        GeofenceTransitionEvent event = GeofenceTransitionEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("device.geofence.event")
+                .timestamp(Instant.now())
+                .deviceId(location.getDeviceId())
+                .traccarDeviceId(location.getTraccarDeviceId())
+                .companyId(location.getCompanyId())
+                .geofenceId(geofence.id())
+                .geofenceName(geofence.name())
+                .violationType(type.name())
+                .latitude(location.getLatitude())
+                .longitude(location.getLongitude())
+                .address(location.getAddress())
+                .fixTime(location.getDeviceTime())
+                .source("bridge-service")
+                .version("1.0")
+                .build();
+
+        eventPublishingService.publishGeofenceTransition(event);
+        (type == GeofenceTransitionTracker.Type.ENTER ? enterCounter : exitCounter).increment();
+        log.debug("Device {} {} geofence {}", location.getDeviceId(), type, geofence.name());
+    }
+
+    private Geofence toGeofence(TraccarGeofence traccarGeofence) {
+        String companyId = traccarGeofence.getAttributeAsString(COMPANY_ATTRIBUTE);
+        if (companyId == null) {
+            log.debug("Skipping geofence {} without a company", traccarGeofence.getId());
+            return null;
+        }
+        try {
+            String geofenceId = traccarGeofence.getAttributeAsString(GEOFENCE_ID_ATTRIBUTE);
+            UUID id = geofenceId != null
+                    ? UUID.fromString(geofenceId)
+                    : UUID.nameUUIDFromBytes(("traccar-geofence:" + traccarGeofence.getId()).getBytes(StandardCharsets.UTF_8));
+            return new Geofence(id, UUID.fromString(companyId), traccarGeofence.getName(),
+                    GeofenceAreaParser.parse(traccarGeofence.getArea()));
+        } catch (RuntimeException e) {
+            log.warn("Skipping geofence {} with invalid definition: {}", traccarGeofence.getId(), e.getMessage());
+            return null;
+        }
+    }
+}
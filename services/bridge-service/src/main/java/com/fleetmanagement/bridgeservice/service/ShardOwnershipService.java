@@ -0,0 +1,267 @@
+package com.fleetmanagement.bridgeservice.service;
+
+import com.fleetmanagement.bridgeservice.config.ShardingConfig;
+import com.fleetmanagement.bridgeservice.shard.ShardOwnershipListener;
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shard Ownership Service
+ *
+ * Decides which Traccar shards this replica syncs. With sharding enabled the
+ * replica joins the shard assignment consumer group and owns the shards
+ * whose partitions it is assigned; the sticky assignor only moves shards
+ * when replicas join or leave. Listeners are told about every change in
+ * phase order, and a revocation completes before Kafka hands the shard to
+ * another replica.
+ */
+@Service
+@Slf4j
+public class ShardOwnershipService implements SmartLifecycle {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final ShardingConfig config;
+    private final TraccarShards traccarShards;
+    private final String bootstrapServers;
+    private final String memberId;
+
+    private final List<ShardOwnershipListener> listeners = new CopyOnWriteArrayList<>();
+    // Replaced as a whole under the lock, read without it
+    private volatile Set<String> owned = Collections.emptySet();
+    private volatile Map<Integer, String> shardsByPartition = Collections.emptyMap();
+
+    private volatile boolean running;
+    private volatile KafkaConsumer<String, String> consumer;
+    private Thread thread;
+
+    @Autowired
+    public ShardOwnershipService(ShardingConfig config,
+                                 TraccarShards traccarShards,
+                                 @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                                 @Value("${spring.application.name:bridge-service}") String applicationName,
+                                 MeterRegistry meterRegistry) {
+        this.config = config;
+        this.traccarShards = traccarShards;
+        this.bootstrapServers = bootstrapServers;
+        this.memberId = applicationName + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+        Gauge.builder("bridge.shards.owned", this, service -> service.owned.size())
+                .description("Traccar shards synced by this replica")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register a listener; it is told right away about shards already owned
+     */
+    public synchronized void addListener(ShardOwnershipListener listener) {
+        int position = 0;
+        while (position < listeners.size() && listeners.get(position).phase() <= listener.phase()) {
+            position++;
+        }
+        listeners.add(position, listener);
+        if (!owned.isEmpty()) {
+            listener.onShardsAssigned(owned);
+        }
+    }
+
+    public Set<String> ownedShards() {
+        return owned;
+    }
+
+    public boolean owns(String shardId) {
+        return owned.contains(shardId);
+    }
+
+    public boolean ownsDevice(Long traccarDeviceId) {
+        return owned.contains(traccarShards.ofDevice(traccarDeviceId).id());
+    }
+
+    public String memberId() {
+        return memberId;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!config.isEnabled()) {
+            assign(new TreeSet<>(traccarShards.ids()));
+            log.info("Sharding is disabled, this replica syncs all Traccar shards {}", owned);
+            return;
+        }
+
+        shardsByPartition = config.shardsByPartition(traccarShards);
+        thread = new Thread(this::pollAssignments, "bridge-shard-ownership");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Replica {} joining group {} for Traccar shards by partition {}", memberId, config.getGroupId(), shardsByPartition);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        KafkaConsumer<String, String> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (thread != null) {
+            try {
+                // Leaving the group revokes the shards, which waits for their cycles
+                thread.join(Duration.ofSeconds(90).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        revoke(owned);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void pollAssignments() {
+        while (running) {
+            try (KafkaConsumer<String, String> assignmentConsumer = new KafkaConsumer<>(consumerProps())) {
+                consumer = assignmentConsumer;
+                assignmentConsumer.subscribe(List.of(config.getTopic()), new AssignmentListener());
+                while (running) {
+                    // Nothing is ever written; polling keeps the membership and runs the rebalances
+                    assignmentConsumer.poll(Duration.ofSeconds(1));
+                }
+            } catch (WakeupException e) {
+                // Stopping
+            } catch (Exception e) {
+                log.error("Shard assignment consumer failed, rejoining in {} s", RETRY_DELAY.toSeconds(), e);
+                sleep(RETRY_DELAY);
+            } finally {
+                consumer = null;
+                // The group moves the shards on once the session has ended
+                revoke(owned);
+            }
+        }
+    }
+
+    private Map<String, Object> consumerProps() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, config.getGroupId());
+        props.put(ConsumerConfig.CLIENT_ID_CONFIG, memberId);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
+        props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, (int) config.getSessionTimeout().toMillis());
+        props.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, (int) config.getHeartbeatInterval().toMillis());
+        props.put(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false);
+        return props;
+    }
+
+    private synchronized void assign(Set<String> shardIds) {
+        Set<String> added = new TreeSet<>(shardIds);
+        added.removeAll(owned);
+        if (added.isEmpty()) {
+            return;
+        }
+
+        Set<String> updated = new TreeSet<>(owned);
+        updated.addAll(added);
+        owned = Collections.unmodifiableSet(updated);
+        log.info("Replica {} took over Traccar shards {}, now owns {}", memberId, added, owned);
+
+        for (ShardOwnershipListener listener : listeners) {
+            try {
+                listener.onShardsAssigned(added);
+            } catch (Exception e) {
+                log.error("Shard assignment listener failed for shards {}", added, e);
+            }
+        }
+    }
+
+    private synchronized void revoke(Set<String> shardIds) {
+        Set<String> removed = new TreeSet<>(shardIds);
+        removed.retainAll(owned);
+        if (removed.isEmpty()) {
+            return;
+        }
+
+        Set<String> updated = new TreeSet<>(owned);
+        updated.removeAll(removed);
+        owned = Collections.unmodifiableSet(updated);
+        log.info("Replica {} gave up Traccar shards {}, now owns {}", memberId, removed, owned);
+
+        for (int i = listeners.size() - 1; i >= 0; i--) {
+            ShardOwnershipListener listener = listeners.get(i);
+            try {
+                listener.onShardsRevoked(removed);
+            } catch (Exception e) {
+                log.error("Shard revocation listener failed for shards {}", removed, e);
+            }
+        }
+    }
+
+    /**
+     * Shards configured for the given assignment partitions; partitions of removed shards stand for nothing
+     */
+    private Set<String> shardsOf(Collection<TopicPartition> partitions) {
+        Set<String> shardIds = new TreeSet<>();
+        for (TopicPartition partition : partitions) {
+            String shardId = shardsByPartition.get(partition.partition());
+            if (shardId != null) {
+                shardIds.add(shardId);
+            }
+        }
+        return shardIds;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class AssignmentListener implements ConsumerRebalanceListener {
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            revoke(shardsOf(partitions));
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            assign(shardsOf(partitions));
+        }
+
+        @Override
+        public void onPartitionsLost(Collection<TopicPartition> partitions) {
+            // The session expired; another replica may already sync these shards
+            revoke(shardsOf(partitions));
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.fleetmanagement.bridgeservice.service;
+
+import com.fleetmanagement.bridgeservice.config.SyncSchedulerConfig;
+import com.fleetmanagement.bridgeservice.exception.SyncException;
+import com.fleetmanagement.bridgeservice.shard.ShardOwnershipListener;
+import com.fleetmanagement.bridgeservice.sync.AdaptiveInterval;
+import com.fleetmanagement.bridgeservice.sync.SyncOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sync Scheduler Service
+ *
+ * Runs the Traccar sync jobs. A job's next cycle is scheduled only when the
+ * current one has finished, so cycles never overlap; it starts one interval
+ * after the previous start, or right away if the cycle took longer. Each job
+ * adapts its interval to what it finds (see AdaptiveInterval), and its
+ * interval bounds can be changed or the job paused at runtime. Every Traccar
+ * shard owned by this replica has its own set of jobs, named
+ * "<type>:<shard>", so a slow or failing server only holds back its own.
+ */
+@Service
+@Slf4j
+public class SyncSchedulerService implements ShardOwnershipListener {
+
+    private static final Duration MANUAL_RUN_WAIT = Duration.ofSeconds(60);
+
+    private final SyncSchedulerConfig config;
+    private final TraccarBridgeService bridgeService;
+    private final ShardOwnershipService shardOwnershipService;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+
+    // Jobs of the owned shards by name
+    private final Map<String, Job> jobs = new ConcurrentSkipListMap<>();
+    // Runtime changes by job name, applied again when a shard comes back to this replica
+    private final Map<String, JobUpdate> updates = new ConcurrentHashMap<>();
+    private volatile boolean stopped;
+
+    @Autowired
+    public SyncSchedulerService(SyncSchedulerConfig config,
+                                TraccarBridgeService bridgeService,
+                                ShardOwnershipService shardOwnershipService,
+                                @Qualifier("bridgeTaskScheduler") TaskScheduler taskScheduler,
+                                MeterRegistry meterRegistry) {
+        this.config = config;
+        this.bridgeService = bridgeService;
+        this.shardOwnershipService = shardOwnershipService;
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config.isEnabled()) {
+            log.info("Traccar sync is disabled, jobs only run on demand");
+        }
+        shardOwnershipService.addListener(this);
+    }
+
+    /**
+     * Start the jobs of shards this replica took over; their state has been read again by now
+     */
+    @Override
+    public void onShardsAssigned(Set<String> shardIds) {
+        for (String shardId : shardIds) {
+            register(shardId, "positions", config.getPositionInterval(), true, Duration.ofSeconds(10),
+                    bridgeService::syncPositionData);
+            register(shardId, "health", config.getHealthInterval(), false, Duration.ofSeconds(15),
+                    bridgeService::syncDeviceHealth);
+            register(shardId, "events", config.getEventInterval(), true, Duration.ofSeconds(20),
+                    bridgeService::syncEvents);
+        }
+        log.info("Started Traccar sync jobs of shards {}", shardIds);
+    }
+
+    /**
+     * Stop the jobs of shards given up and wait for their running cycles, before any state is dropped or written
+     */
+    @Override
+    public void onShardsRevoked(Set<String> shardIds) {
+        for (Job job : new ArrayList<>(jobs.values())) {
+            if (!shardIds.contains(job.shard)) {
+                continue;
+            }
+            jobs.remove(job.name);
+            synchronized (job) {
+                job.retired = true;
+                if (job.next != null) {
+                    job.next.cancel(false);
+                    job.next = null;
+                }
+            }
+            try {
+                if (job.lock.tryLock(MANUAL_RUN_WAIT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    job.lock.unlock();
+                } else {
+                    log.warn("Sync job {} still running after its shard was given up", job.name);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            job.meters.forEach(meterRegistry::remove);
+        }
+        log.info("Stopped Traccar sync jobs of shards {}", shardIds);
+    }
+
+    @Override
+    public int phase() {
+        return SYNC_PHASE;
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        for (Job job : jobs.values()) {
+            synchronized (job) {
+                if (job.next != null) {
+                    job.next.cancel(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Run every job of the owned shards once now, waiting for cycles in progress to finish first
+     */
+    public Map<String, SyncOutcome> runAllNow() {
+        Map<String, SyncOutcome> outcomes = new LinkedHashMap<>();
+        for (Job job : new ArrayList<>(jobs.values())) {
+            try {
+                if (!job.lock.tryLock(MANUAL_RUN_WAIT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new SyncException("Sync job " + job.name + " is still running");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SyncException("Interrupted while waiting for sync job " + job.name);
+            }
+            try {
+                if (!job.retired) {
+                    outcomes.put(job.name, runCycle(job));
+                }
+            } finally {
+                job.lock.unlock();
+            }
+        }
+        return outcomes;
+    }
+
+    public List<JobStatus> getJobStatuses() {
+        List<JobStatus> statuses = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            statuses.add(statusOf(job));
+        }
+        return statuses;
+    }
+
+    /**
+     * Change a job's interval bounds or pause it; null values are kept.
+     * The new settings apply from the next cycle.
+     */
+    public JobStatus reconfigure(String name, JobUpdate update) {
+        Job job = jobs.get(name);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown sync job: " + name + ", this replica runs " + jobs.keySet());
+        }
+
+        synchronized (job) {
+            apply(job, update);
+            updates.merge(name, update, JobUpdate::then);
+
+            // Move the pending cycle to the new interval; a cycle in progress then finds it scheduled
+            if (job.next != null && job.next.cancel(false)) {
+                job.next = null;
+            }
+            if (job.enabled && config.isEnabled() && job.next == null) {
+                schedule(job, Instant.now().plus(job.interval.current()));
+            }
+        }
+        log.info("Reconfigured sync job {}: {}", name, statusOf(job));
+        return statusOf(job);
+    }
+
+    private void register(String shardId, String type, Duration base, boolean followVolume, Duration initialDelay,
+                          Function<String, SyncOutcome> task) {
+        String name = type + ":" + shardId;
+        if (jobs.containsKey(name)) {
+            return;
+        }
+
+        SyncSchedulerConfig.Adaptive adaptive = config.getAdaptive();
+        AdaptiveInterval interval = new AdaptiveInterval(base, config.minOf(base), config.maxOf(base),
+                adaptive.getErrorMaxInterval(), adaptive.getSpeedup(), adaptive.getSlowdown(), followVolume);
+        Job job = new Job(name, shardId, () -> task.apply(shardId), interval, initialDelay,
+                Timer.builder("bridge.sync.cycle")
+                        .description("Duration of sync cycles")
+                        .tag("job", type)
+                        .tag("shard", shardId)
+                        .register(meterRegistry),
+                Counter.builder("bridge.sync.cycle.errors")
+                        .tag("job", type)
+                        .tag("shard", shardId)
+                        .register(meterRegistry),
+                Counter.builder("bridge.sync.cycle.overruns")
+                        .description("Cycles that took longer than their interval")
+                        .tag("job", type)
+                        .tag("shard", shardId)
+                        .register(meterRegistry));
+
+        job.meters.add(job.cycleTimer);
+        job.meters.add(job.errors);
+        job.meters.add(job.overruns);
+        job.meters.add(Gauge.builder("bridge.sync.interval", job, j -> j.interval.current().toMillis() / 1000.0)
+                .description("Current poll interval in seconds")
+                .tag("job", type)
+                .tag("shard", shardId)
+                .register(meterRegistry));
+        job.meters.add(Gauge.builder("bridge.sync.lag", job, Job::lagSeconds)
+                .description("Age in seconds of the newest data the job has synced")
+                .tag("job", type)
+                .tag("shard", shardId)
+                .register(meterRegistry));
+
+        JobUpdate update = updates.get(name);
+        if (update != null) {
+            try {
+                apply(job, update);
+            } catch (IllegalArgumentException e) {
+                log.warn("Dropping runtime settings of sync job {}: {}", name, e.getMessage());
+                updates.remove(name);
+            }
+        }
+
+        jobs.put(name, job);
+        if (config.isEnabled()) {
+            schedule(job, Instant.now().plus(job.initialDelay));
+        }
+    }
+
+    private static void apply(Job job, JobUpdate update) {
+        synchronized (job) {
+            Duration base = update.baseIntervalMs() != null ? Duration.ofMillis(update.baseIntervalMs()) : job.interval.base();
+            Duration min = update.minIntervalMs() != null ? Duration.ofMillis(update.minIntervalMs()) : job.interval.min();
+            Duration max = update.maxIntervalMs() != null ? Duration.ofMillis(update.maxIntervalMs()) : job.interval.max();
+            if (!base.equals(job.interval.base()) || !min.equals(job.interval.min()) || !max.equals(job.interval.max())) {
+                job.interval.reconfigure(base, min, max);
+            }
+            if (update.enabled() != null) {
+                job.enabled = update.enabled();
+            }
+        }
+    }
+
+    private void run(Job job) {
+        synchronized (job) {
+            job.next = null;
+        }
+        if (stopped || job.retired || !job.enabled) {
+            return;
+        }
+
+        Instant started = Instant.now();
+        // Held only by a manual run; that run ends quickly, so try again a little later
+        if (!job.lock.tryLock()) {
+            schedule(job, started.plus(job.interval.min()));
+            return;
+        }
+        try {
+            // The shard may have been given up while this run waited
+            if (!job.retired) {
+                runCycle(job);
+            }
+        } catch (Exception e) {
+            // Already counted and logged by the cycle
+        } finally {
+            job.lock.unlock();
+            schedule(job, started.plus(job.interval.current()));
+        }
+    }
+
+    private SyncOutcome runCycle(Job job) {
+        long startedNanos = System.nanoTime();
+        job.lastRun = Instant.now();
+        try {
+            SyncOutcome outcome = job.task.get();
+            synchronized (job) {
+                job.interval.onSuccess(outcome.newItems());
+            }
+            job.lastSuccess = Instant.now();
+            job.lastItems = outcome.newItems();
+            if (outcome.dataTime() != null) {
+                job.dataTime = outcome.dataTime();
+            }
+            return outcome;
+        } catch (RuntimeException e) {
+            Duration backoff;
+            synchronized (job) {
+                backoff = job.interval.onError();
+            }
+            job.errors.increment();
+            log.warn("Sync job {} failed ({} in a row), next attempt in {} s: {}",
+                    job.name, job.interval.consecutiveErrors(), backoff.toSeconds(), e.getMessage());
+            throw e;
+        } finally {
+            long elapsedNanos = System.nanoTime() - startedNanos;
+            job.cycleTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            if (elapsedNanos > job.interval.current().toNanos()) {
+                job.overruns.increment();
+            }
+        }
+    }
+
+    private void schedule(Job job, Instant at) {
+        synchronized (job) {
+            if (stopped || job.retired || !job.enabled || job.next != null) {
+                return;
+            }
+            Instant now = Instant.now();
+            job.next = taskScheduler.schedule(() -> run(job), at.isBefore(now) ? now : at);
+        }
+    }
+
+    private static JobStatus statusOf(Job job) {
+        synchronized (job) {
+            return new JobStatus(job.name, job.shard, job.enabled, job.lock.isLocked(),
+                    job.interval.base().toMillis(), job.interval.min().toMillis(), job.interval.max().toMillis(),
+                    job.interval.current().toMillis(), job.interval.consecutiveErrors(),
+                    job.lastRun, job.lastSuccess, job.lastItems, job.lagSeconds());
+        }
+    }
+
+    /**
+     * State of a sync job as reported by the sync API
+     */
+    public record JobStatus(String name, String shard, boolean enabled, boolean running,
+                            long baseIntervalMs, long minIntervalMs, long maxIntervalMs, long currentIntervalMs,
+                            int consecutiveErrors, Instant lastRun, Instant lastSuccess, int lastItems,
+                            double lagSeconds) {
+    }
+
+    /**
+     * Runtime change of a sync job; null fields are left as they are
+     */
+    public record JobUpdate(Long baseIntervalMs, Long minIntervalMs, Long maxIntervalMs, Boolean enabled) {
+
+        /**
+         * This update followed by a later one
+         */
+        public JobUpdate then(JobUpdate later) {
+            return new JobUpdate(
+                    later.baseIntervalMs() != null ? later.baseIntervalMs() : baseIntervalMs,
+                    later.minIntervalMs() != null ? later.minIntervalMs() : minIntervalMs,
+                    later.maxIntervalMs() != null ? later.maxIntervalMs() : maxIntervalMs,
+                    later.enabled() != null ? later.enabled() : enabled);
+        }
+    }
+
+    private static final class Job {
+
+        private final String name;
+        private final String shard;
+        private final Supplier<SyncOutcome> task;
+        private final AdaptiveInterval interval;
+        private final Duration initialDelay;
+        private final Timer cycleTimer;
+        private final Counter errors;
+        private final Counter overruns;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Meter> meters = new ArrayList<>();
+
+        private volatile boolean enabled = true;
+        // Set when the shard was given up; the job is never scheduled again
+        private volatile boolean retired;
+        private volatile Instant lastRun;
+        private volatile Instant lastSuccess;
+        private volatile int lastItems;
+        private volatile Instant dataTime;
+        private ScheduledFuture<?> next;
+
+        private Job(String name, String shard, Supplier<SyncOutcome> task, AdaptiveInterval interval,
+                    Duration initialDelay, Timer cycleTimer, Counter errors, Counter overruns) {
+            this.name = name;
+            this.shard = shard;
+            this.task = task;
+            this.interval = interval;
+            this.initialDelay = initialDelay;
+            this.cycleTimer = cycleTimer;
+            this.errors = errors;
+            this.overruns = overruns;
+        }
+
+        private double lagSeconds() {
+            Instant reference = dataTime != null ? dataTime : lastSuccess;
+            return reference != null ? Math.max(0, Duration.between(reference, Instant.now()).toMillis() / 1000.0) : 0.0;
+        }
+    }
+}
@@ -3,96 +3,177 @@ package com.fleetmanagement.bridgeservice.service;
 import com.fleetmanagement.bridgeservice.config.TraccarConfig;
 import com.fleetmanagement.bridgeservice.exception.TraccarApiException;
 import com.fleetmanagement.bridgeservice.model.traccar.*;
+import com.fleetmanagement.bridgeservice.shard.TraccarShard;
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
 import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
+/**
+ * Traccar API Client
+ *
+ * Calls the Traccar servers, one per shard, each with its own credentials
+ * and connection pool. Ids in the responses are translated to the shard's
+ * id range and back for requests, see TraccarShard. Records whose raw ids do
+ * not fit below the next shard's offset are dropped and logged, since once
+ * offset they would be attributed to that other shard.
+ */
 @Service
 @Slf4j
 public class TraccarApiClient {
 
-    private final WebClient webClient;
     private final TraccarConfig traccarConfig;
+    private final TraccarShards traccarShards;
+    private final Map<String, WebClient> webClients = new LinkedHashMap<>();
+    private final Map<String, ConnectionProvider> connectionProviders = new LinkedHashMap<>();
 
     @Autowired
-    public TraccarApiClient(TraccarConfig traccarConfig) {
+    public TraccarApiClient(TraccarConfig traccarConfig, TraccarShards traccarShards) {
         this.traccarConfig = traccarConfig;
-        this.webClient = WebClient.builder()
-                .baseUrl(traccarConfig.getBaseUrl())
-                .defaultHeaders(headers -> headers.setBasicAuth(
-                        traccarConfig.getUsername(),
-                        traccarConfig.getPassword()))
-                .build();
-
-        log.info("Traccar API client initialized for: {}", traccarConfig.getBaseUrl());
+        this.traccarShards = traccarShards;
+
+        for (TraccarShard shard : traccarShards.all()) {
+            ConnectionProvider provider = ConnectionProvider.builder("traccar-" + shard.id())
+                    .maxConnections(shard.maxConnections())
+                    .pendingAcquireTimeout(shard.timeout())
+                    .metrics(true)
+                    .build();
+            connectionProviders.put(shard.id(), provider);
+            webClients.put(shard.id(), WebClient.builder()
+                    .baseUrl(shard.baseUrl())
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                    .defaultHeaders(headers -> headers.setBasicAuth(shard.username(), shard.password()))
+                    .build());
+
+            log.info("Traccar API client initialized for shard {}: {} (id offset {}, {} connections)",
+                    shard.id(), shard.baseUrl(), shard.idOffset(), shard.maxConnections());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProviders.values().forEach(ConnectionProvider::dispose);
     }
 
     @Retry(name = "traccarApi")
-    public List<TraccarPosition> getLatestPositions() {
+    public List<TraccarPosition> getLatestPositions(String shardId) {
+        TraccarShard shard = traccarShards.get(shardId);
         try {
-            log.debug("Fetching latest positions from Traccar");
+            log.debug("Fetching latest positions from Traccar shard {}", shardId);
 
-            List<TraccarPosition> positions = webClient.get()
+            List<TraccarPosition> positions = webClientOf(shard).get()
                     .uri(traccarConfig.getPositionsEndpoint())
                     .retrieve()
                     .onStatus(HttpStatus::isError, response ->
                             Mono.error(new TraccarApiException("Failed to fetch positions: " + response.statusCode())))
                     .bodyToFlux(TraccarPosition.class)
                     .collectList()
-                    .timeout(traccarConfig.getTimeout())
+                    .timeout(shard.timeout())
                     .block();
 
-            log.debug("Fetched {} positions from Traccar", positions != null ? positions.size() : 0);
-            return positions != null ? positions : List.of();
+            log.debug("Fetched {} positions from Traccar shard {}", positions != null ? positions.size() : 0, shardId);
+            if (positions == null) {
+                return List.of();
+            }
+            dropOutOfRange(shard, positions, "positions", TraccarPosition::getDeviceId);
+            positions.forEach(position -> position.setDeviceId(shard.toGlobalId(position.getDeviceId())));
+            return positions;
 
         } catch (WebClientResponseException e) {
-            log.error("Traccar API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            log.error("Traccar API error on shard {}: {} - {}", shardId, e.getStatusCode(), e.getResponseBodyAsString());
             throw new TraccarApiException("Traccar API error: " + e.getMessage(), e);
         } catch (Exception e) {
-            log.error("Error fetching positions from Traccar", e);
-            throw new TraccarApiException("Failed to fetch positions", e);
+            log.error("Error fetching positions from Traccar shard {}", shardId, e);
+            throw new TraccarApiException("Failed to fetch positions from shard " + shardId, e);
         }
     }
 
     @Retry(name = "traccarApi")
-    public List<TraccarDevice> getAllDevices() {
+    public List<TraccarDevice> getAllDevices(String shardId) {
+        TraccarShard shard = traccarShards.get(shardId);
         try {
-            log.debug("Fetching devices from Traccar");
+            log.debug("Fetching devices from Traccar shard {}", shardId);
 
-            List<TraccarDevice> devices = webClient.get()
+            List<TraccarDevice> devices = webClientOf(shard).get()
                     .uri(traccarConfig.getDevicesEndpoint())
                     .retrieve()
                     .onStatus(HttpStatus::isError, response ->
                             Mono.error(new TraccarApiException("Failed to fetch devices: " + response.statusCode())))
                     .bodyToFlux(TraccarDevice.class)
                     .collectList()
-                    .timeout(traccarConfig.getTimeout())
+                    .timeout(shard.timeout())
+                    .block();
+
+            log.debug("Fetched {} devices from Traccar shard {}", devices != null ? devices.size() : 0, shardId);
+            if (devices == null) {
+                return List.of();
+            }
+            dropOutOfRange(shard, devices, "devices", TraccarDevice::getId);
+            devices.forEach(device -> device.setId(shard.toGlobalId(device.getId())));
+            return devices;
+
+        } catch (Exception e) {
+            log.error("Error fetching devices from Traccar shard {}", shardId, e);
+            throw new TraccarApiException("Failed to fetch devices from shard " + shardId, e);
+        }
+    }
+
+    @Retry(name = "traccarApi")
+    public List<TraccarGeofence> getAllGeofences(String shardId) {
+        TraccarShard shard = traccarShards.get(shardId);
+        try {
+            log.debug("Fetching geofences from Traccar shard {}", shardId);
+
+            List<TraccarGeofence> geofences = webClientOf(shard).get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path(traccarConfig.getGeofencesEndpoint())
+                            .queryParam("all", true)
+                            .build())
+                    .retrieve()
+                    .onStatus(HttpStatus::isError, response ->
+                            Mono.error(new TraccarApiException("Failed to fetch geofences: " + response.statusCode())))
+                    .bodyToFlux(TraccarGeofence.class)
+                    .collectList()
+                    .timeout(shard.timeout())
                     .block();
 
-            log.debug("Fetched {} devices from Traccar", devices != null ? devices.size() : 0);
-            return devices != null ? devices : List.of();
+            log.debug("Fetched {} geofences from Traccar shard {}", geofences != null ? geofences.size() : 0, shardId);
+            if (geofences == null) {
+                return List.of();
+            }
+            dropOutOfRange(shard, geofences, "geofences", TraccarGeofence::getId);
+            geofences.forEach(geofence -> geofence.setId(shard.toGlobalId(geofence.getId())));
+            return geofences;
 
         } catch (Exception e) {
-            log.error("Error fetching devices from Traccar", e);
-            throw new TraccarApiException("Failed to fetch devices", e);
+            log.error("Error fetching geofences from Traccar shard {}", shardId, e);
+            throw new TraccarApiException("Failed to fetch geofences from shard " + shardId, e);
         }
     }
 
     @Retry(name = "traccarApi")
-    public List<TraccarEvent> getEvents(Instant from, Instant to) {
+    public List<TraccarEvent> getEvents(String shardId, Instant from, Instant to) {
+        TraccarShard shard = traccarShards.get(shardId);
         try {
-            log.debug("Fetching events from Traccar between {} and {}", from, to);
+            log.debug("Fetching events from Traccar shard {} between {} and {}", shardId, from, to);
 
-            List<TraccarEvent> events = webClient.get()
+            List<TraccarEvent> events = webClientOf(shard).get()
                     .uri(uriBuilder -> uriBuilder
                             .path(traccarConfig.getEventsEndpoint())
                             .queryParam("from", from.toString())
@@ -103,39 +184,52 @@ public class TraccarApiClient {
                             Mono.error(new TraccarApiException("Failed to fetch events: " + response.statusCode())))
                     .bodyToFlux(TraccarEvent.class)
                     .collectList()
-                    .timeout(traccarConfig.getTimeout())
+                    .timeout(shard.timeout())
                     .block();
 
-            log.debug("Fetched {} events from Traccar", events != null ? events.size() : 0);
-            return events != null ? events : List.of();
+            log.debug("Fetched {} events from Traccar shard {}", events != null ? events.size() : 0, shardId);
+            if (events == null) {
+                return List.of();
+            }
+            dropOutOfRange(shard, events, "events", TraccarEvent::getDeviceId);
+            dropOutOfRange(shard, events, "events", TraccarEvent::getGeofenceId);
+            events.forEach(event -> {
+                event.setDeviceId(shard.toGlobalId(event.getDeviceId()));
+                event.setGeofenceId(shard.toGlobalId(event.getGeofenceId()));
+            });
+            return events;
 
         } catch (Exception e) {
-            log.error("Error fetching events from Traccar", e);
-            throw new TraccarApiException("Failed to fetch events", e);
+            log.error("Error fetching events from Traccar shard {}", shardId, e);
+            throw new TraccarApiException("Failed to fetch events from shard " + shardId, e);
         }
     }
 
     @Retry(name = "traccarApi")
     public TraccarCommand sendCommand(Long deviceId, String commandType, String commandData) {
+        TraccarShard shard = traccarShards.ofDevice(deviceId);
         try {
-            log.debug("Sending command {} to device {}", commandType, deviceId);
+            log.debug("Sending command {} to device {} on shard {}", commandType, deviceId, shard.id());
 
             TraccarCommand command = new TraccarCommand();
-            command.setDeviceId(deviceId);
+            command.setDeviceId(shard.toLocalId(deviceId));
             command.setType(commandType);
             command.setDescription(commandData);
 
-            TraccarCommand result = webClient.post()
+            TraccarCommand result = webClientOf(shard).post()
                     .uri(traccarConfig.getCommandsEndpoint())
                     .bodyValue(command)
                     .retrieve()
                     .onStatus(HttpStatus::isError, response ->
                             Mono.error(new TraccarApiException("Failed to send command: " + response.statusCode())))
                     .bodyToMono(TraccarCommand.class)
-                    .timeout(traccarConfig.getTimeout())
+                    .timeout(shard.timeout())
                     .block();
 
             log.debug("Command sent successfully to device {}", deviceId);
+            if (result != null) {
+                result.setDeviceId(shard.toGlobalId(result.getDeviceId()));
+            }
             return result;
 
         } catch (Exception e) {
@@ -145,25 +239,51 @@ public class TraccarApiClient {
     }
 
     @Retry(name = "traccarApi")
-    public boolean isServerHealthy() {
+    public boolean isServerHealthy(String shardId) {
+        TraccarShard shard = traccarShards.get(shardId);
         try {
-            log.debug("Checking Traccar server health");
+            log.debug("Checking health of Traccar shard {}", shardId);
 
-            webClient.get()
+            webClientOf(shard).get()
                     .uri(traccarConfig.getServerEndpoint())
                     .retrieve()
                     .onStatus(HttpStatus::isError, response ->
                             Mono.error(new TraccarApiException("Server health check failed: " + response.statusCode())))
                     .bodyToMono(Object.class)
-                    .timeout(traccarConfig.getTimeout())
+                    .timeout(shard.timeout())
                     .block();
 
-            log.debug("Traccar server is healthy");
+            log.debug("Traccar shard {} is healthy", shardId);
             return true;
 
         } catch (Exception e) {
-            log.warn("Traccar server health check failed", e);
+            log.warn("Health check of Traccar shard {} failed", shardId, e);
             return false;
         }
     }
+
+    /**
+     * Drop records with a raw id at or past the shard's id range, logging them once per call
+     */
+    private <T> void dropOutOfRange(TraccarShard shard, List<T> records, String kind, Function<T, Long> rawId) {
+        long[] maxId = {-1};
+        int before = records.size();
+        records.removeIf(record -> {
+            Long id = rawId.apply(record);
+            if (traccarShards.inRange(shard, id)) {
+                return false;
+            }
+            maxId[0] = Math.max(maxId[0], id);
+            return true;
+        });
+        if (records.size() < before) {
+            log.error("Dropped {} {} of Traccar shard {} with ids up to {}: raw ids of this shard must stay below {}, "
+                            + "the next shard's id offset minus its own",
+                    before - records.size(), kind, shard.id(), maxId[0], traccarShards.idRangeOf(shard));
+        }
+    }
+
+    private WebClient webClientOf(TraccarShard shard) {
+        return webClients.get(shard.id());
+    }
 }
\ No newline at end of file
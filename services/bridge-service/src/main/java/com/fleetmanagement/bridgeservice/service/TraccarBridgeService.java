@@ -5,6 +5,9 @@ import com.fleetmanagement.bridgeservice.exception.SyncException;
 import com.fleetmanagement.bridgeservice.model.domain.*;
 import com.fleetmanagement.bridgeservice.model.events.*;
 import com.fleetmanagement.bridgeservice.model.traccar.*;
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
+import com.fleetmanagement.bridgeservice.state.BridgeStateStore;
+import com.fleetmanagement.bridgeservice.sync.SyncOutcome;
 import com.fleetmanagement.bridgeservice.utils.BatchProcessor;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -12,13 +15,13 @@ import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -27,11 +30,16 @@ import java.util.stream.Collectors;
 public class TraccarBridgeService {
 
     private final TraccarApiClient traccarApiClient;
+    private final TraccarShards traccarShards;
     private final DataTransformationService dataTransformationService;
     private final EventPublishingService eventPublishingService;
     private final DeviceValidationService deviceValidationService;
     private final ErrorRecoveryService errorRecoveryService;
     private final CacheManagementService cacheManagementService;
+    private final BridgeStateStore bridgeStateStore;
+    private final GeofenceService geofenceService;
+    private final AlertDetectionService alertDetectionService;
+    private final TripService tripService;
     private final BatchProcessor batchProcessor;
     private final RedisTemplate<String, Object> redisTemplate;
 
@@ -44,20 +52,30 @@ public class TraccarBridgeService {
 
     @Autowired
     public TraccarBridgeService(TraccarApiClient traccarApiClient,
+                                TraccarShards traccarShards,
                                 DataTransformationService dataTransformationService,
                                 EventPublishingService eventPublishingService,
                                 DeviceValidationService deviceValidationService,
                                 ErrorRecoveryService errorRecoveryService,
                                 CacheManagementService cacheManagementService,
+                                BridgeStateStore bridgeStateStore,
+                                GeofenceService geofenceService,
+                                AlertDetectionService alertDetectionService,
+                                TripService tripService,
                                 BatchProcessor batchProcessor,
                                 RedisTemplate<String, Object> redisTemplate,
                                 MeterRegistry meterRegistry) {
         this.traccarApiClient = traccarApiClient;
+        this.traccarShards = traccarShards;
         this.dataTransformationService = dataTransformationService;
         this.eventPublishingService = eventPublishingService;
         this.deviceValidationService = deviceValidationService;
         this.errorRecoveryService = errorRecoveryService;
         this.cacheManagementService = cacheManagementService;
+        this.bridgeStateStore = bridgeStateStore;
+        this.geofenceService = geofenceService;
+        this.alertDetectionService = alertDetectionService;
+        this.tripService = tripService;
         this.batchProcessor = batchProcessor;
         this.redisTemplate = redisTemplate;
 
@@ -80,71 +98,74 @@ public class TraccarBridgeService {
     }
 
     /**
-     * Main position synchronization job - runs every 5 seconds
+     * Position synchronization job of one Traccar shard, run by the SyncSchedulerService
+     *
+     * @return the number of positions published and the newest fix among them
      */
-    @Scheduled(fixedRate = 5000, initialDelay = 10000)
-    public void syncPositionData() {
+    public SyncOutcome syncPositionData(String shardId) {
         Timer.Sample sample = Timer.start();
 
         try {
-            log.debug("Starting position data synchronization");
+            log.debug("Starting position data synchronization of shard {}", shardId);
 
             // Get latest positions from Traccar
-            List<TraccarPosition> positions = traccarApiClient.getLatestPositions();
+            List<TraccarPosition> positions = traccarApiClient.getLatestPositions(shardId);
 
             if (positions.isEmpty()) {
                 log.debug("No new positions to process");
-                return;
+                return new SyncOutcome(0, null);
             }
 
-            log.info("Processing {} positions from Traccar", positions.size());
+            log.debug("Processing {} positions from Traccar shard {}", positions.size(), shardId);
 
             // Process positions in parallel batches
             List<List<TraccarPosition>> batches = batchProcessor.createBatches(positions, 50);
 
-            batches.parallelStream().forEach(batch -> {
+            int published = batches.parallelStream().mapToInt(batch -> {
                 try {
-                    processBatch(batch);
+                    return processBatch(batch);
                 } catch (Exception e) {
                     log.error("Error processing position batch", e);
                     errorRecoveryService.handleBatchError(batch, e);
+                    return 0;
                 }
-            });
+            }).sum();
 
-            // Update metrics and cache
+            // Update metrics and watermark
             updateSyncMetrics(positions.size());
-            cacheManagementService.updateLastSyncTime("positions");
+            bridgeStateStore.recordWatermark(shardId, "positions", Instant.now());
 
             syncSuccessCounter.increment();
-            log.info("Successfully processed {} positions", positions.size());
+            log.info("Published {} new of {} positions from shard {}", published, positions.size(), shardId);
+            return new SyncOutcome(published, published > 0 ? newestFix(positions) : null);
 
         } catch (Exception e) {
-            log.error("Error during position synchronization", e);
+            log.error("Error during position synchronization of shard {}", shardId, e);
             syncErrorCounter.increment();
             errorRecoveryService.handleSyncError("positions", e);
-            throw new SyncException("Position sync failed", e);
+            throw new SyncException("Position sync of shard " + shardId + " failed", e);
         } finally {
             sample.stop(syncDurationTimer);
         }
     }
 
     /**
-     * Device health monitoring job - runs every 30 seconds
+     * Device health monitoring job of one Traccar shard, run by the SyncSchedulerService
      */
-    @Scheduled(fixedRate = 30000, initialDelay = 15000)
-    public void syncDeviceHealth() {
+    public SyncOutcome syncDeviceHealth(String shardId) {
         try {
-            log.debug("Starting device health synchronization");
+            log.debug("Starting device health synchronization of shard {}", shardId);
+            Instant started = Instant.now();
 
             // Get all devices from Traccar
-            List<TraccarDevice> devices = traccarApiClient.getAllDevices();
+            List<TraccarDevice> devices = traccarApiClient.getAllDevices(shardId);
 
             if (devices.isEmpty()) {
                 log.debug("No devices to check");
-                return;
+                return new SyncOutcome(0, started);
             }
 
-            log.info("Checking health for {} devices", devices.size());
+            log.info("Checking health for {} devices of shard {}", devices.size(), shardId);
 
             // Process device health
             for (TraccarDevice device : devices) {
@@ -155,36 +176,40 @@ public class TraccarBridgeService {
                 }
             }
 
-            cacheManagementService.updateLastSyncTime("health");
+            bridgeStateStore.recordWatermark(shardId, "health", Instant.now());
             log.info("Successfully processed health for {} devices", devices.size());
+            return new SyncOutcome(devices.size(), started);
 
         } catch (Exception e) {
-            log.error("Error during device health synchronization", e);
+            log.error("Error during device health synchronization of shard {}", shardId, e);
             errorRecoveryService.handleSyncError("health", e);
+            throw new SyncException("Health sync of shard " + shardId + " failed", e);
         }
     }
 
     /**
-     * Event synchronization job - runs every 10 seconds
+     * Event synchronization job of one Traccar shard, run by the SyncSchedulerService
+     *
+     * @return the number of events processed and the end of the synced window
      */
-    @Scheduled(fixedRate = 10000, initialDelay = 20000)
-    public void syncEvents() {
+    public SyncOutcome syncEvents(String shardId) {
         try {
-            log.debug("Starting event synchronization");
+            log.debug("Starting event synchronization of shard {}", shardId);
 
             // Get last sync time
-            Instant lastSync = cacheManagementService.getLastSyncTime("events");
+            Instant lastSync = bridgeStateStore.watermark(shardId, "events");
             Instant now = Instant.now();
 
             // Get events from Traccar
-            List<TraccarEvent> events = traccarApiClient.getEvents(lastSync, now);
+            List<TraccarEvent> events = traccarApiClient.getEvents(shardId, lastSync, now);
 
             if (events.isEmpty()) {
                 log.debug("No new events to process");
-                return;
+                bridgeStateStore.recordWatermark(shardId, "events", now);
+                return new SyncOutcome(0, now);
             }
 
-            log.info("Processing {} events from Traccar", events.size());
+            log.info("Processing {} events from Traccar shard {}", events.size(), shardId);
 
             // Process events
             for (TraccarEvent event : events) {
@@ -196,12 +221,15 @@ public class TraccarBridgeService {
                 }
             }
 
-            cacheManagementService.updateLastSyncTime("events");
+            // The next window starts where this one ended, not when processing finished
+            bridgeStateStore.recordWatermark(shardId, "events", now);
             log.info("Successfully processed {} events", events.size());
+            return new SyncOutcome(events.size(), now);
 
         } catch (Exception e) {
-            log.error("Error during event synchronization", e);
+            log.error("Error during event synchronization of shard {}", shardId, e);
             errorRecoveryService.handleSyncError("events", e);
+            throw new SyncException("Event sync of shard " + shardId + " failed", e);
         }
     }
 
@@ -231,31 +259,37 @@ public class TraccarBridgeService {
 
     // Processing methods
 
-    @Async("bridgeAsyncExecutor")
-    private void processBatch(List<TraccarPosition> positions) {
+    private int processBatch(List<TraccarPosition> positions) {
+        int published = 0;
         for (TraccarPosition position : positions) {
             try {
-                processPosition(position);
+                if (processPosition(position)) {
+                    published++;
+                }
                 positionsProcessedCounter.increment();
             } catch (Exception e) {
                 log.error("Error processing position for device: {}", position.getDeviceId(), e);
                 errorRecoveryService.handlePositionError(position, e);
             }
         }
+        return published;
     }
 
-    private void processPosition(TraccarPosition position) {
+    /**
+     * Publish a position unless its device is inactive or it was published before
+     */
+    private boolean processPosition(TraccarPosition position) {
         try {
+            // Skip positions not newer than the last one published for the device
+            if (!bridgeStateStore.isNewPosition(position.getDeviceId(), position.getId(), fixTimeOf(position))) {
+                log.debug("Skipping duplicate position for device: {}", position.getDeviceId());
+                return false;
+            }
+
             // Validate device exists and is active
             if (!deviceValidationService.isDeviceActive(position.getDeviceId())) {
                 log.debug("Skipping position for inactive device: {}", position.getDeviceId());
-                return;
-            }
-
-            // Check if position is duplicate
-            if (cacheManagementService.isDuplicatePosition(position)) {
-                log.debug("Skipping duplicate position for device: {}", position.getDeviceId());
-                return;
+                return false;
             }
 
             // Get device information
@@ -268,6 +302,15 @@ public class TraccarBridgeService {
             LocationUpdatedEvent locationEvent = LocationUpdatedEvent.from(locationData);
             eventPublishingService.publishLocationUpdate(locationEvent);
 
+            // Publish geofence enter/exit transitions caused by this position
+            geofenceService.evaluate(locationData);
+
+            // Publish overspeed and ignition alerts detected on the position stream
+            alertDetectionService.evaluate(locationData);
+
+            // Segment trips and collect the distance driven for the vehicle's mileage
+            tripService.evaluate(locationData);
+
             // Process sensor data if available
             SensorData sensorData = dataTransformationService.convertToSensorData(position, device);
             if (sensorData != null) {
@@ -275,10 +318,14 @@ public class TraccarBridgeService {
                 eventPublishingService.publishSensorReading(sensorEvent);
             }
 
-            // Cache processed position
-            cacheManagementService.cacheProcessedPosition(position);
+            // Advance the device's position watermark; a concurrent cycle may already have moved it further
+            if (!bridgeStateStore.recordPublishedPosition(position.getDeviceId(), position.getId(), fixTimeOf(position),
+                    position.getLatitude(), position.getLongitude())) {
+                log.debug("Position watermark for device {} is already past position {}", position.getDeviceId(), position.getId());
+            }
 
             log.debug("Successfully processed position for device: {}", position.getDeviceId());
+            return true;
 
         } catch (Exception e) {
             log.error("Error processing position for device: {}", position.getDeviceId(), e);
@@ -303,6 +350,8 @@ public class TraccarBridgeService {
 
             // Cache device health
             cacheManagementService.cacheDeviceHealth(device);
+            bridgeStateStore.recordHealth(device.getId(), deviceHealth.getStatus(),
+                    deviceHealth.getHealthStatus(), deviceHealth.getHealthScore());
 
             log.debug("Successfully processed health for device: {}", device.getId());
 
@@ -348,6 +397,18 @@ public class TraccarBridgeService {
 
     // Helper methods
 
+    private static Instant fixTimeOf(TraccarPosition position) {
+        return position.getFixTime() != null ? position.getFixTime() : position.getDeviceTime();
+    }
+
+    private static Instant newestFix(List<TraccarPosition> positions) {
+        return positions.stream()
+                .map(TraccarBridgeService::fixTimeOf)
+                .filter(Objects::nonNull)
+                .max(Instant::compareTo)
+                .orElse(null);
+    }
+
     private TraccarDevice getDeviceInfo(Long deviceId) {
         // Try to get from cache first
         TraccarDevice cached = cacheManagementService.getCachedDevice(deviceId);
@@ -355,8 +416,8 @@ public class TraccarBridgeService {
             return cached;
         }
 
-        // Get from Traccar API
-        List<TraccarDevice> devices = traccarApiClient.getAllDevices();
+        // Get from the Traccar server the device belongs to
+        List<TraccarDevice> devices = traccarApiClient.getAllDevices(traccarShards.ofDevice(deviceId).id());
         return devices.stream()
                 .filter(d -> d.getId().equals(deviceId))
                 .findFirst()
@@ -364,15 +425,14 @@ public class TraccarBridgeService {
     }
 
     private void processGeofenceEvent(TraccarEvent event) {
-        // Process geofence entry/exit events
-        log.info("Processing geofence event for device: {}", event.getDeviceId());
-        // Implementation for geofence events
+        // Transitions are evaluated from positions by GeofenceService; publishing
+        // Traccar's own geofence events as well would report every transition twice
+        log.debug("Ignoring Traccar geofence event for device: {}", event.getDeviceId());
     }
 
     private void processOverspeedEvent(TraccarEvent event) {
-        // Process overspeed events
-        log.info("Processing overspeed event for device: {}", event.getDeviceId());
-        // Implementation for overspeed events
+        // Overspeed is detected from positions by AlertDetectionService with per-company limits
+        log.debug("Ignoring Traccar overspeed event for device: {}", event.getDeviceId());
     }
 
     private void processMaintenanceEvent(TraccarEvent event) {
@@ -382,9 +442,8 @@ public class TraccarBridgeService {
     }
 
     private void processIgnitionEvent(TraccarEvent event) {
-        // Process ignition on/off events
-        log.info("Processing ignition event for device: {}", event.getDeviceId());
-        // Implementation for ignition events
+        // Debounced ignition changes are detected from positions by AlertDetectionService
+        log.debug("Ignoring Traccar ignition event for device: {}", event.getDeviceId());
     }
 
     private void updateSyncMetrics(int positionsCount) {
@@ -405,23 +464,6 @@ public class TraccarBridgeService {
         log.info("Daily metrics reset");
     }
 
-    /**
-     * Manual sync trigger for testing/admin purposes
-     */
-    public void triggerManualSync() {
-        log.info("Manual sync triggered");
-
-        try {
-            syncPositionData();
-            syncDeviceHealth();
-            syncEvents();
-            log.info("Manual sync completed successfully");
-        } catch (Exception e) {
-            log.error("Manual sync failed", e);
-            throw new SyncException("Manual sync failed", e);
-        }
-    }
-
     /**
      * Get sync statistics
      */
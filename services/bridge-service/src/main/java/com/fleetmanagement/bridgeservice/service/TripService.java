@@ -0,0 +1,423 @@
+package com.fleetmanagement.bridgeservice.service;
+
+import com.fleetmanagement.bridgeservice.client.DeviceServiceClient;
+import com.fleetmanagement.bridgeservice.client.VehicleServiceClient;
+import com.fleetmanagement.bridgeservice.model.domain.LocationData;
+import com.fleetmanagement.bridgeservice.model.domain.MileageIncrement;
+import com.fleetmanagement.bridgeservice.model.events.TripCompletedEvent;
+import com.fleetmanagement.bridgeservice.shard.ShardOwnershipListener;
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
+import com.fleetmanagement.bridgeservice.state.BridgeStateStore;
+import com.fleetmanagement.bridgeservice.state.DeviceState;
+import com.fleetmanagement.bridgeservice.state.MileageBatch;
+import com.fleetmanagement.bridgeservice.trip.Trip;
+import com.fleetmanagement.bridgeservice.trip.TripRules;
+import com.fleetmanagement.bridgeservice.trip.TripTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trip Service
+ *
+ * Segments each device's positions into trips, publishes a trip-completed
+ * event per trip and credits the distance driven to the device's vehicle.
+ * Distance is collected per device and pushed to the vehicle service in one
+ * request per Traccar shard and flush, in whole kilometers; the remainder
+ * waits for the next flush so short hops are never rounded away. Each push
+ * carries a batch id the vehicle service applies at most once, and a push
+ * that fails is retried as the same batch before the shard gets a new one,
+ * so a push that did arrive despite the error is never counted twice. Trip
+ * state and pending meters are checkpointed with the device's bridge state,
+ * and each shard's unconfirmed batch is stored before it is pushed, so a
+ * restart or a replica taking over a shard carries on its trips and its
+ * mileage, and the replica giving it up drops them without ending them.
+ */
+@Service
+@Slf4j
+public class TripService implements ShardOwnershipListener {
+
+    private static final double METERS_PER_KILOMETER = 1000.0;
+
+    private final TripTracker tracker = new TripTracker();
+    private final EventPublishingService eventPublishingService;
+    private final DeviceServiceClient deviceServiceClient;
+    private final VehicleServiceClient vehicleServiceClient;
+    private final BridgeStateStore bridgeStateStore;
+    private final ShardOwnershipService shardOwnershipService;
+    private final TraccarShards traccarShards;
+
+    // Device -> meters driven and not yet pushed
+    private final Map<UUID, PendingMileage> pendingMileage = new ConcurrentHashMap<>();
+    // Device -> assigned vehicle, null vehicleId when unassigned
+    private final Map<UUID, VehicleLink> vehicleLinks = new ConcurrentHashMap<>();
+    // Shard -> last push whose outcome is unknown, resent unchanged until it is confirmed
+    private final Map<String, MileageBatch> unconfirmedBatches = new ConcurrentHashMap<>();
+
+    private final Counter tripCounter;
+    private final Counter pushedKilometers;
+    private final Counter unassignedKilometers;
+    private final Counter pushFailures;
+    private final Counter unresolvedVehicles;
+
+    @Value("${bridge.trips.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bridge.trips.moving-speed-kmh:5}")
+    private double movingSpeedKmh;
+
+    @Value("${bridge.trips.stop-dwell:5m}")
+    private Duration stopDwell;
+
+    @Value("${bridge.trips.max-fix-gap:10m}")
+    private Duration maxFixGap;
+
+    @Value("${bridge.trips.min-distance-meters:200}")
+    private double minTripDistanceMeters;
+
+    @Value("${bridge.trips.max-plausible-speed-kmh:250}")
+    private double maxPlausibleSpeedKmh;
+
+    @Value("${bridge.trips.vehicle-link-ttl:10m}")
+    private Duration vehicleLinkTtl;
+
+    private TripRules rules;
+
+    // batchId is the last batch that took whole kilometers from the device
+    private record PendingMileage(Long traccarDeviceId, UUID companyId, double meters, UUID batchId) {
+    }
+
+    private record VehicleLink(UUID vehicleId, Instant expiresAt) {
+    }
+
+    // Whole kilometers of one shard's devices, taken for one batch
+    private static final class ShardMileage {
+        private final Map<UUID, MileageIncrement> byVehicle = new HashMap<>();
+        private final Map<Long, Double> contributions = new HashMap<>();
+        private final Map<UUID, Double> taken = new HashMap<>();
+    }
+
+    @Autowired
+    public TripService(EventPublishingService eventPublishingService,
+                       DeviceServiceClient deviceServiceClient,
+                       VehicleServiceClient vehicleServiceClient,
+                       BridgeStateStore bridgeStateStore,
+                       ShardOwnershipService shardOwnershipService,
+                       TraccarShards traccarShards,
+                       MeterRegistry meterRegistry) {
+        this.eventPublishingService = eventPublishingService;
+        this.deviceServiceClient = deviceServiceClient;
+        this.vehicleServiceClient = vehicleServiceClient;
+        this.bridgeStateStore = bridgeStateStore;
+        this.shardOwnershipService = shardOwnershipService;
+        this.traccarShards = traccarShards;
+
+        this.tripCounter = Counter.builder("bridge.trips.completed")
+                .register(meterRegistry);
+        this.pushedKilometers = Counter.builder("bridge.trips.mileage.kilometers")
+                .tag("result", "pushed")
+                .register(meterRegistry);
+        this.unassignedKilometers = Counter.builder("bridge.trips.mileage.kilometers")
+                .tag("result", "unassigned")
+                .register(meterRegistry);
+        this.pushFailures = Counter.builder("bridge.trips.mileage.push.failures")
+                .register(meterRegistry);
+        this.unresolvedVehicles = Counter.builder("bridge.trips.vehicle.unresolved")
+                .register(meterRegistry);
+        Gauge.builder("bridge.trips.active", tracker, TripTracker::activeTrips)
+                .register(meterRegistry);
+        Gauge.builder("bridge.trips.tracked.devices", tracker, TripTracker::trackedDevices)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        rules = new TripRules(movingSpeedKmh, stopDwell, maxFixGap, minTripDistanceMeters, maxPlausibleSpeedKmh);
+        shardOwnershipService.addListener(this);
+    }
+
+    /**
+     * Carry on the trips and mileage of devices on shards taken over, from their checkpoints
+     */
+    @Override
+    public synchronized void onShardsAssigned(Set<String> shardIds) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, MileageBatch> batches = bridgeStateStore.mileageBatchesOf(shardIds);
+        int restored = 0;
+        int withMileage = 0;
+        for (Map.Entry<Long, DeviceState> entry : bridgeStateStore.devicesOf(shardIds).entrySet()) {
+            Long traccarDeviceId = entry.getKey();
+            DeviceState state = entry.getValue();
+            if (state.trip() != null) {
+                tracker.restore(traccarDeviceId, state.trip());
+                restored++;
+            }
+            if (state.mileage() != null && state.mileage().deviceId() != null) {
+                restoreMileage(traccarDeviceId, state.mileage(), batches.get(traccarShards.ofDevice(traccarDeviceId).id()));
+                withMileage++;
+            }
+        }
+        unconfirmedBatches.putAll(batches);
+        log.info("Restored trip state of {} devices, pending mileage of {} devices and {} unconfirmed mileage batches of shards {}",
+                restored, withMileage, batches.size(), shardIds);
+    }
+
+    /**
+     * Drop the devices of shards given up; their new owner ends their trips and pushes their mileage
+     */
+    @Override
+    public synchronized void onShardsRevoked(Set<String> shardIds) {
+        int dropped = tracker.forget(traccarDeviceId -> !shardOwnershipService.ownsDevice(traccarDeviceId));
+        pendingMileage.values().removeIf(pending -> !shardOwnershipService.ownsDevice(pending.traccarDeviceId()));
+        unconfirmedBatches.keySet().removeAll(shardIds);
+        log.info("Dropped trip state of {} devices of shards {}", dropped, shardIds);
+    }
+
+    /**
+     * Feed a position into trip segmentation
+     */
+    public void evaluate(LocationData location) {
+        if (!enabled || location.getDeviceId() == null
+                || location.getLatitude() == null || location.getLongitude() == null
+                || Boolean.FALSE.equals(location.getValid())) {
+            return;
+        }
+
+        Instant fixTime = location.getDeviceTime() != null ? location.getDeviceTime() : Instant.now();
+        TripTracker.Fix fix = new TripTracker.Fix(fixTime, location.getLatitude(), location.getLongitude(),
+                location.getSpeed(), location.getIgnition(), location.getOdometer());
+
+        TripTracker.Update update = tracker.update(location.getDeviceId(), location.getTraccarDeviceId(),
+                location.getCompanyId(), fix, rules);
+        bridgeStateStore.recordTrip(location.getTraccarDeviceId(), update.snapshot());
+        if (update.distanceMeters() > 0) {
+            pendingMileage.compute(location.getDeviceId(), (deviceId, pending) -> checkpoint(deviceId,
+                    new PendingMileage(location.getTraccarDeviceId(), location.getCompanyId(),
+                            (pending != null ? pending.meters() : 0) + update.distanceMeters(),
+                            pending != null ? pending.batchId() : lastBatchOf(location.getTraccarDeviceId()))));
+        }
+        if (update.completed() != null) {
+            publish(location.getDeviceId(), location.getTraccarDeviceId(), location.getCompanyId(), update.completed());
+        }
+    }
+
+    /**
+     * Close trips of devices that stopped reporting and forget idle devices
+     */
+    @Scheduled(fixedDelayString = "${bridge.trips.sweep-interval-ms:60000}", initialDelay = 60000)
+    public void sweepSilentDevices() {
+        if (!enabled) {
+            return;
+        }
+        // Devices of shards given up are dropped, not ended
+        TripTracker.Sweep sweep = tracker.sweep(Instant.now(), rules, shardOwnershipService::ownsDevice);
+        for (TripTracker.CompletedTrip completed : sweep.completed()) {
+            publish(completed.deviceId(), completed.traccarDeviceId(), completed.companyId(), completed.trip());
+        }
+        sweep.droppedDevices().forEach(traccarDeviceId -> bridgeStateStore.recordTrip(traccarDeviceId, null));
+        Instant now = Instant.now();
+        vehicleLinks.values().removeIf(link -> link.expiresAt().isBefore(now));
+    }
+
+    /**
+     * Push the whole kilometers driven since the last flush to the vehicle service
+     */
+    @Scheduled(fixedDelayString = "${bridge.trips.mileage-flush-interval-ms:60000}", initialDelay = 60000)
+    public synchronized void flushMileage() {
+        if (!enabled) {
+            return;
+        }
+        // A shard takes no new kilometers until its last batch is confirmed
+        unconfirmedBatches.entrySet().removeIf(entry ->
+                push(entry.getValue()) && bridgeStateStore.recordMileageBatch(entry.getKey(), null));
+        if (pendingMileage.isEmpty()) {
+            return;
+        }
+
+        // Take whole kilometers per device, leaving the remainder pending
+        Map<String, ShardMileage> byShard = new HashMap<>();
+        for (Map.Entry<UUID, PendingMileage> entry : pendingMileage.entrySet()) {
+            UUID deviceId = entry.getKey();
+            PendingMileage pending = entry.getValue();
+            int kilometers = (int) Math.floor(pending.meters() / METERS_PER_KILOMETER);
+            String shardId = traccarShards.ofDevice(pending.traccarDeviceId()).id();
+            if (kilometers < 1 || unconfirmedBatches.containsKey(shardId)) {
+                continue;
+            }
+
+            UUID vehicleId;
+            try {
+                vehicleId = vehicleOf(deviceId);
+            } catch (Exception e) {
+                // Keep the distance until the device service answers
+                log.warn("Could not resolve vehicle of device {}: {}", deviceId, e.getMessage());
+                continue;
+            }
+            double meters = kilometers * METERS_PER_KILOMETER;
+            if (vehicleId == null) {
+                unassignedKilometers.increment(kilometers);
+                log.debug("Dropping {} km of device {} without a vehicle", kilometers, deviceId);
+                take(deviceId, meters, pending.batchId());
+                continue;
+            }
+
+            ShardMileage shard = byShard.computeIfAbsent(shardId, id -> new ShardMileage());
+            shard.byVehicle.merge(vehicleId,
+                    new MileageIncrement(vehicleId, pending.companyId(), kilometers),
+                    (a, b) -> new MileageIncrement(vehicleId, a.getCompanyId(), a.getKilometers() + b.getKilometers()));
+            if (pending.traccarDeviceId() != null) {
+                shard.contributions.put(pending.traccarDeviceId(), meters);
+            }
+            shard.taken.put(deviceId, meters);
+        }
+
+        for (Map.Entry<String, ShardMileage> entry : byShard.entrySet()) {
+            String shardId = entry.getKey();
+            ShardMileage shard = entry.getValue();
+            MileageBatch batch = new MileageBatch(UUID.randomUUID(), new ArrayList<>(shard.byVehicle.values()),
+                    shard.contributions);
+            // Stored before the devices give up their meters, so a restart neither loses nor repeats them
+            if (!bridgeStateStore.recordMileageBatch(shardId, batch)) {
+                continue;
+            }
+            shard.taken.forEach((deviceId, meters) -> take(deviceId, meters, batch.id()));
+            if (!push(batch) || !bridgeStateStore.recordMileageBatch(shardId, null)) {
+                unconfirmedBatches.put(shardId, batch);
+            }
+        }
+    }
+
+    private boolean push(MileageBatch batch) {
+        try {
+            vehicleServiceClient.incrementMileage(batch.id(), batch.increments());
+            batch.increments().forEach(increment -> pushedKilometers.increment(increment.getKilometers()));
+            log.debug("Pushed mileage batch {} of {} vehicles", batch.id(), batch.increments().size());
+            return true;
+        } catch (Exception e) {
+            pushFailures.increment();
+            log.warn("Failed to push mileage batch {} of {} vehicles, retrying next flush: {}",
+                    batch.id(), batch.increments().size(), e.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushMileage();
+    }
+
+    private UUID vehicleOf(UUID deviceId) {
+        VehicleLink link = vehicleLinks.get(deviceId);
+        if (link == null || link.expiresAt().isBefore(Instant.now())) {
+            link = new VehicleLink(deviceServiceClient.getVehicleIdByDeviceId(deviceId), Instant.now().plus(vehicleLinkTtl));
+            vehicleLinks.put(deviceId, link);
+        }
+        return link.vehicleId();
+    }
+
+    /**
+     * Reduce a device's pending meters by what a batch took from them
+     */
+    private void take(UUID deviceId, double meters, UUID batchId) {
+        pendingMileage.computeIfPresent(deviceId, (id, pending) -> {
+            double remainder = pending.meters() - meters;
+            PendingMileage left = checkpoint(id, new PendingMileage(pending.traccarDeviceId(), pending.companyId(),
+                    remainder > 0 ? remainder : 0, batchId));
+            return remainder > 0 ? left : null;
+        });
+    }
+
+    /**
+     * Pending meters of a device from its checkpoint; if the checkpoint predates the
+     * shard's unconfirmed batch, the meters that batch took are still counted in it
+     */
+    private void restoreMileage(Long traccarDeviceId, DeviceState.Mileage mileage, MileageBatch unconfirmed) {
+        double meters = mileage.meters();
+        UUID batchId = mileage.batchId();
+        if (unconfirmed != null && !unconfirmed.id().equals(batchId)) {
+            Double taken = unconfirmed.contributions().get(traccarDeviceId);
+            if (taken != null) {
+                meters = Math.max(0, meters - taken);
+                batchId = unconfirmed.id();
+            }
+        }
+        PendingMileage pending = checkpoint(mileage.deviceId(),
+                new PendingMileage(traccarDeviceId, mileage.companyId(), meters, batchId));
+        if (meters > 0) {
+            pendingMileage.put(mileage.deviceId(), pending);
+        }
+    }
+
+    // Kept in the checkpoint once the device's meters were all taken
+    private UUID lastBatchOf(Long traccarDeviceId) {
+        DeviceState state = traccarDeviceId != null ? bridgeStateStore.stateOf(traccarDeviceId) : null;
+        return state != null && state.mileage() != null ? state.mileage().batchId() : null;
+    }
+
+    private PendingMileage checkpoint(UUID deviceId, PendingMileage pending) {
+        bridgeStateStore.recordMileage(pending.traccarDeviceId(),
+                new DeviceState.Mileage(deviceId, pending.companyId(), pending.meters(), pending.batchId()));
+        return pending;
+    }
+
+    private void publish(UUID deviceId, Long traccarDeviceId, UUID companyId, Trip trip) {
+        // Best effort, so analytics can attribute the trip; usually served from the link cache
+        UUID vehicleId = null;
+        try {
+            vehicleId = vehicleOf(deviceId);
+        } catch (Exception e) {
+            // The trip is still published; analytics keeps it apart from every vehicle's usage
+            unresolvedVehicles.increment();
+            log.warn("Publishing trip of device {} without its vehicle, lookup failed: {}", deviceId, e.getMessage());
+        }
+
+        long durationSeconds = trip.duration().toSeconds();
+        TripCompletedEvent event = TripCompletedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("device.trip.completed")
+                .timestamp(Instant.now())
+                .deviceId(deviceId)
+                .traccarDeviceId(traccarDeviceId)
+                .companyId(companyId)
+                .vehicleId(vehicleId)
+                .startTime(trip.startTime())
+                .endTime(trip.endTime())
+                .startLatitude(trip.startLatitude())
+                .startLongitude(trip.startLongitude())
+                .endLatitude(trip.endLatitude())
+                .endLongitude(trip.endLongitude())
+                .distanceKm(trip.distanceMeters() / METERS_PER_KILOMETER)
+                .durationSeconds(durationSeconds)
+                .idleSeconds(trip.idleTime().toSeconds())
+                .maxSpeedKmh(trip.maxSpeedKmh())
+                .averageSpeedKmh(durationSeconds > 0 ? trip.distanceMeters() / durationSeconds * 3.6 : 0.0)
+                .startOdometer(trip.startOdometer())
+                .endOdometer(trip.endOdometer())
+                .endReason(trip.endReason().name())
+                .source("bridge-service")
+                .version("1.0")
+                .build();
+
+        eventPublishingService.publishTripCompleted(event);
+        tripCounter.increment();
+        log.debug("Device {} completed a trip of {} m in {} s", deviceId, Math.round(trip.distanceMeters()), durationSeconds);
+    }
+}
@@ -0,0 +1,26 @@
+package com.fleetmanagement.bridgeservice.shard;
+
+import java.util.Set;
+
+/**
+ * Notified when this replica takes over or gives up Traccar shards. Calls
+ * come one at a time; a revocation returns only once the replica has stopped
+ * working on the shards, so the next owner starts from complete state.
+ * Assignments reach listeners in ascending phase and revocations in
+ * descending phase: the state store is read before the trackers restore
+ * from it, and sync jobs start last and stop first.
+ */
+public interface ShardOwnershipListener {
+
+    int STATE_PHASE = 0;
+    int TRACKER_PHASE = 100;
+    int SYNC_PHASE = 200;
+
+    void onShardsAssigned(Set<String> shardIds);
+
+    void onShardsRevoked(Set<String> shardIds);
+
+    default int phase() {
+        return TRACKER_PHASE;
+    }
+}
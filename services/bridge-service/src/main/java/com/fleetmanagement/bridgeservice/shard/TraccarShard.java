@@ -0,0 +1,21 @@
+package com.fleetmanagement.bridgeservice.shard;
+
+import java.time.Duration;
+
+/**
+ * One Traccar server. Device and geofence ids are only unique within a
+ * server, so the bridge adds the shard's id offset to every id it reads and
+ * subtracts it again for requests; everything past the client works with
+ * the offset ids.
+ */
+public record TraccarShard(String id, String baseUrl, String username, String password,
+                           Duration timeout, int maxConnections, long idOffset) {
+
+    public Long toGlobalId(Long localId) {
+        return localId != null ? localId + idOffset : null;
+    }
+
+    public Long toLocalId(Long globalId) {
+        return globalId != null ? globalId - idOffset : null;
+    }
+}
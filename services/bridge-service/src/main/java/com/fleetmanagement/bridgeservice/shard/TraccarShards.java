@@ -0,0 +1,101 @@
+package com.fleetmanagement.bridgeservice.shard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The configured Traccar shards, ordered by id. A device id belongs to the
+ * shard with the largest id offset not above it, so a shard's raw Traccar
+ * ids must stay below the next shard's offset minus its own; ids past that
+ * range are rejected when read (see {@link #inRange}).
+ */
+public class TraccarShards {
+
+    private final List<TraccarShard> shards;
+    private final Map<String, TraccarShard> byId = new LinkedHashMap<>();
+    private final List<TraccarShard> byOffset;
+    // Shard -> number of raw ids it can hold before reaching the next shard's offset
+    private final Map<String, Long> idRanges = new LinkedHashMap<>();
+
+    public TraccarShards(List<TraccarShard> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("At least one Traccar shard must be configured");
+        }
+
+        Set<Long> offsets = new HashSet<>();
+        for (TraccarShard shard : shards) {
+            if (shard.id() == null || shard.id().isBlank() || shard.baseUrl() == null || shard.baseUrl().isBlank()) {
+                throw new IllegalStateException("Traccar shards need an id and a base URL");
+            }
+            if (shard.idOffset() < 0 || !offsets.add(shard.idOffset())) {
+                throw new IllegalStateException("Traccar shard " + shard.id() + " needs its own non-negative id offset");
+            }
+        }
+
+        this.shards = shards.stream().sorted(Comparator.comparing(TraccarShard::id)).toList();
+        this.shards.forEach(shard -> byId.put(shard.id(), shard));
+        this.byOffset = shards.stream().sorted(Comparator.comparingLong(TraccarShard::idOffset)).toList();
+        for (int i = 0; i < byOffset.size(); i++) {
+            TraccarShard shard = byOffset.get(i);
+            long next = i + 1 < byOffset.size() ? byOffset.get(i + 1).idOffset() : Long.MAX_VALUE;
+            idRanges.put(shard.id(), next - shard.idOffset());
+        }
+    }
+
+    public List<TraccarShard> all() {
+        return shards;
+    }
+
+    public List<String> ids() {
+        return new ArrayList<>(byId.keySet());
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public TraccarShard get(String shardId) {
+        TraccarShard shard = byId.get(shardId);
+        if (shard == null) {
+            throw new IllegalArgumentException("Unknown Traccar shard: " + shardId);
+        }
+        return shard;
+    }
+
+    /**
+     * Number of raw ids a shard can hold: raw ids from 0 up to this value, exclusive
+     */
+    public long idRangeOf(TraccarShard shard) {
+        return idRanges.get(shard.id());
+    }
+
+    /**
+     * Whether a raw id read from a shard maps back to that shard once offset;
+     * null ids are left alone
+     */
+    public boolean inRange(TraccarShard shard, Long localId) {
+        return localId == null || (localId >= 0 && localId < idRangeOf(shard));
+    }
+
+    /**
+     * The shard a device id (with offset) was read from
+     */
+    public TraccarShard ofDevice(Long deviceId) {
+        TraccarShard owner = byOffset.get(0);
+        if (deviceId == null) {
+            return owner;
+        }
+        for (TraccarShard shard : byOffset) {
+            if (shard.idOffset() > deviceId) {
+                break;
+            }
+            owner = shard;
+        }
+        return owner;
+    }
+}
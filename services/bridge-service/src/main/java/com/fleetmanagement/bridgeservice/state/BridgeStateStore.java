@@ -0,0 +1,471 @@
+package com.fleetmanagement.bridgeservice.state;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.bridgeservice.config.BridgeStateConfig;
+import com.fleetmanagement.bridgeservice.geofence.GeofenceTransitionTracker;
+import com.fleetmanagement.bridgeservice.service.ShardOwnershipService;
+import com.fleetmanagement.bridgeservice.shard.ShardOwnershipListener;
+import com.fleetmanagement.bridgeservice.shard.TraccarShards;
+import com.fleetmanagement.bridgeservice.trip.TripTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bridge State Store
+ *
+ * Per-device position watermarks, active flags, health snapshots, trip and
+ * geofence checkpoints and pending mileage, plus the sync watermarks and each
+ * shard's unconfirmed mileage batch, held in memory and written to a
+ * compacted Kafka topic.
+ * Changed devices are written in batches, watermarks right away, and mileage
+ * batches before they are pushed. On startup
+ * the topic is replayed before any sync job runs, so a restart neither
+ * republishes positions nor forgets where the event sync stopped, and none
+ * of it depends on Redis. Sync watermarks are kept per Traccar shard, and a
+ * replica taking over a shard reads that shard's state again, since the
+ * previous owner kept writing it; a replica giving one up writes what it
+ * has before the shard moves.
+ */
+@Service
+@Slf4j
+public class BridgeStateStore implements ShardOwnershipListener {
+
+    private static final String DEVICE_PREFIX = "device:";
+    private static final String SYNC_PREFIX = "sync:";
+    private static final String MILEAGE_PREFIX = "mileage:";
+
+    private final BridgeStateConfig config;
+    private final TraccarShards traccarShards;
+    private final ShardOwnershipService shardOwnershipService;
+    private final KafkaTemplate<String, String> stateKafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String bootstrapServers;
+
+    private final Map<Long, DeviceState> devices = new ConcurrentHashMap<>();
+    private final Map<String, Instant> watermarks = new ConcurrentHashMap<>();
+    private final Map<String, MileageBatch> mileageBatches = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Counter writeFailures;
+
+    @Autowired
+    public BridgeStateStore(BridgeStateConfig config,
+                            TraccarShards traccarShards,
+                            ShardOwnershipService shardOwnershipService,
+                            @Qualifier("stateKafkaTemplate") KafkaTemplate<String, String> stateKafkaTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                            MeterRegistry meterRegistry) {
+        this.config = config;
+        this.traccarShards = traccarShards;
+        this.shardOwnershipService = shardOwnershipService;
+        this.stateKafkaTemplate = stateKafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.bootstrapServers = bootstrapServers;
+
+        this.writeFailures = Counter.builder("bridge.state.write.failures").register(meterRegistry);
+        Gauge.builder("bridge.state.devices", devices, Map::size).register(meterRegistry);
+        Gauge.builder("bridge.state.dirty", dirty, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Replay the state topic up to its current end
+     */
+    @PostConstruct
+    public void restore() {
+        replay("Restored", key -> true);
+        shardOwnershipService.addListener(this);
+    }
+
+    @Override
+    public void onShardsAssigned(Set<String> shardIds) {
+        reload(shardIds);
+    }
+
+    @Override
+    public void onShardsRevoked(Set<String> shardIds) {
+        flush();
+        // The next owner confirms them; a later takeover reads whatever is left from the topic
+        mileageBatches.keySet().removeAll(shardIds);
+    }
+
+    @Override
+    public int phase() {
+        return STATE_PHASE;
+    }
+
+    /**
+     * Read the state of the given shards again, as written by their previous owner
+     */
+    public void reload(Set<String> shardIds) {
+        replay("Reloaded", key -> shardIds.contains(shardOf(key)));
+    }
+
+    private void replay(String action, Predicate<String> keyFilter) {
+        long started = System.currentTimeMillis();
+        long deadline = started + config.getRestoreTimeout().toMillis();
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10000);
+        props.put(ConsumerConfig.CLIENT_ID_CONFIG, "bridge-state-restore");
+        // The topic is created compacted by the admin client; a broker default topic would not be
+        props.put(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false);
+
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            List<PartitionInfo> infos = consumer.partitionsFor(config.getTopic(), Duration.ofMillis(remaining(deadline)));
+            if (infos == null || infos.isEmpty()) {
+                log.info("Bridge state topic {} is empty or missing, nothing to read", config.getTopic());
+                return;
+            }
+
+            List<TopicPartition> partitions = infos.stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions, Duration.ofMillis(remaining(deadline)));
+
+            int records = 0;
+            while (!caughtUp(consumer, end)) {
+                if (remaining(deadline) <= 0) {
+                    log.warn("Bridge state replay timed out after {} records; positions of the remaining devices may be published again",
+                            records);
+                    return;
+                }
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(Math.min(500, remaining(deadline))))) {
+                    if (record.key() != null && keyFilter.test(record.key())) {
+                        apply(record.key(), record.value());
+                        records++;
+                    }
+                }
+            }
+            log.info("{} bridge state from {} records in {} ms, holding {} devices and {} watermarks",
+                    action, records, System.currentTimeMillis() - started, devices.size(), watermarks.size());
+        } catch (Exception e) {
+            // Missing state only risks publishing each device's current position once more
+            log.error("Failed to read bridge state, continuing with what was read", e);
+        }
+    }
+
+    // Position watermarks
+
+    /**
+     * Whether a position is newer than the last one published for its device
+     */
+    public boolean isNewPosition(Long traccarDeviceId, Long positionId, Instant fixTime) {
+        DeviceState state = devices.get(traccarDeviceId);
+        return state == null || state.isNewer(positionId, fixTime);
+    }
+
+    /**
+     * Advance the device's watermark to a published position, unless a newer one was recorded meanwhile
+     *
+     * @return whether the watermark moved
+     */
+    public boolean recordPublishedPosition(Long traccarDeviceId, Long positionId, Instant fixTime,
+                                           Double latitude, Double longitude) {
+        if (traccarDeviceId == null) {
+            return false;
+        }
+        boolean[] advanced = new boolean[1];
+        devices.compute(traccarDeviceId, (id, state) -> {
+            DeviceState current = state != null ? state : DeviceState.EMPTY;
+            if (!current.isNewer(positionId, fixTime)) {
+                return state;
+            }
+            advanced[0] = true;
+            return current.withPosition(positionId, fixTime, latitude, longitude, Instant.now());
+        });
+        if (advanced[0]) {
+            dirty.add(traccarDeviceId);
+        }
+        return advanced[0];
+    }
+
+    // Active flags
+
+    /**
+     * The device-service active flag if it was checked recently enough, otherwise null
+     */
+    public Boolean activeFlag(Long traccarDeviceId) {
+        DeviceState state = devices.get(traccarDeviceId);
+        if (state == null || state.active() == null || state.activeCheckedAt() == null
+                || state.activeCheckedAt().plus(config.getActiveTtl()).isBefore(Instant.now())) {
+            return null;
+        }
+        return state.active();
+    }
+
+    public void recordActiveFlag(Long traccarDeviceId, boolean active) {
+        update(traccarDeviceId, state -> state.withActive(active, Instant.now()));
+    }
+
+    // Health snapshots
+
+    public DeviceState stateOf(Long traccarDeviceId) {
+        return devices.get(traccarDeviceId);
+    }
+
+    public void recordHealth(Long traccarDeviceId, String status, String healthStatus, Integer healthScore) {
+        update(traccarDeviceId, state -> state.withHealth(status, healthStatus, healthScore, Instant.now()));
+    }
+
+    /**
+     * Devices of the given shards that the store holds state for
+     */
+    public Map<Long, DeviceState> devicesOf(Set<String> shardIds) {
+        Map<Long, DeviceState> states = new HashMap<>();
+        devices.forEach((traccarDeviceId, state) -> {
+            if (shardIds.contains(traccarShards.ofDevice(traccarDeviceId).id())) {
+                states.put(traccarDeviceId, state);
+            }
+        });
+        return states;
+    }
+
+    // Trip and geofence checkpoints
+
+    /**
+     * Checkpoint a device's trip state, unless a later one was recorded meanwhile; null clears it
+     */
+    public void recordTrip(Long traccarDeviceId, TripTracker.Snapshot trip) {
+        update(traccarDeviceId, state -> trip == null || state.trip() == null
+                || !trip.lastFix().isBefore(state.trip().lastFix()) ? state.withTrip(trip) : state);
+    }
+
+    /**
+     * Checkpoint the geofences a device is inside, unless a later state was recorded meanwhile
+     */
+    public void recordGeofences(Long traccarDeviceId, GeofenceTransitionTracker.Snapshot geofences) {
+        update(traccarDeviceId, state -> state.geofences() == null
+                || !geofences.lastFix().isBefore(state.geofences().lastFix()) ? state.withGeofences(geofences) : state);
+    }
+
+    // Mileage
+
+    /**
+     * Checkpoint the distance a device drove and has not had pushed yet; null clears it
+     */
+    public void recordMileage(Long traccarDeviceId, DeviceState.Mileage mileage) {
+        update(traccarDeviceId, state -> state.withMileage(mileage));
+    }
+
+    /**
+     * Unconfirmed mileage batches of the given shards
+     */
+    public Map<String, MileageBatch> mileageBatchesOf(Set<String> shardIds) {
+        Map<String, MileageBatch> batches = new HashMap<>();
+        mileageBatches.forEach((shardId, batch) -> {
+            if (shardIds.contains(shardId)) {
+                batches.put(shardId, batch);
+            }
+        });
+        return batches;
+    }
+
+    /**
+     * Write a shard's unconfirmed mileage batch and wait for it to be stored; null clears it
+     *
+     * @return whether the write was acknowledged
+     */
+    public boolean recordMileageBatch(String shardId, MileageBatch batch) {
+        try {
+            String value = batch != null ? objectMapper.writeValueAsString(batch) : null;
+            stateKafkaTemplate.send(config.getTopic(), MILEAGE_PREFIX + shardId, value).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            writeFailures.increment();
+            log.warn("Failed to write mileage batch of shard {}: {}", shardId, e.getMessage());
+            return false;
+        }
+        if (batch != null) {
+            mileageBatches.put(shardId, batch);
+        } else {
+            mileageBatches.remove(shardId);
+        }
+        return true;
+    }
+
+    // Sync watermarks
+
+    /**
+     * Where the given sync job of a shard stopped, or the initial lookback on its first run
+     */
+    public Instant watermark(String shardId, String syncType) {
+        Instant watermark = watermarks.get(shardId + ":" + syncType);
+        return watermark != null ? watermark : Instant.now().minus(config.getInitialEventLookback());
+    }
+
+    public void recordWatermark(String shardId, String syncType, Instant time) {
+        String name = shardId + ":" + syncType;
+        watermarks.put(name, time);
+        try {
+            stateKafkaTemplate.send(config.getTopic(), SYNC_PREFIX + name, time.toString());
+        } catch (Exception e) {
+            writeFailures.increment();
+            log.warn("Failed to write {} watermark: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Write the devices changed since the last flush; failed ones stay dirty
+     */
+    @Scheduled(fixedDelayString = "#{@bridgeStateConfig.flushInterval.toMillis()}", initialDelay = 1000)
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Long> flushed = new ArrayList<>(dirty.size());
+        List<CompletableFuture<?>> sends = new ArrayList<>(dirty.size());
+        for (Long traccarDeviceId : dirty) {
+            dirty.remove(traccarDeviceId);
+            DeviceState state = devices.get(traccarDeviceId);
+            try {
+                String value = state != null ? objectMapper.writeValueAsString(state) : null;
+                sends.add(stateKafkaTemplate.send(config.getTopic(), DEVICE_PREFIX + traccarDeviceId, value));
+                flushed.add(traccarDeviceId);
+            } catch (Exception e) {
+                dirty.add(traccarDeviceId);
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+            log.debug("Wrote bridge state of {} devices", flushed.size());
+        } catch (Exception e) {
+            writeFailures.increment();
+            dirty.addAll(flushed);
+            log.warn("Failed to write bridge state of {} devices: {}", flushed.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Delete devices of the owned shards that the bridge has not seen for the
+     * retention period; other replicas keep theirs up to date
+     */
+    @Scheduled(cron = "0 30 2 * * *")
+    public void evictIdleDevices() {
+        Instant cutoff = Instant.now().minus(config.getDeviceRetention());
+        int evicted = 0;
+        for (Map.Entry<Long, DeviceState> entry : devices.entrySet()) {
+            if (!shardOwnershipService.ownsDevice(entry.getKey())) {
+                continue;
+            }
+            Instant touched = entry.getValue().lastTouched();
+            if (touched == null || touched.isBefore(cutoff)) {
+                // A null value is a tombstone; compaction drops the key
+                devices.remove(entry.getKey());
+                dirty.add(entry.getKey());
+                evicted++;
+            }
+        }
+        log.info("Evicted bridge state of {} idle devices", evicted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void update(Long traccarDeviceId, UnaryOperator<DeviceState> change) {
+        if (traccarDeviceId == null) {
+            return;
+        }
+        devices.compute(traccarDeviceId, (id, state) -> change.apply(state != null ? state : DeviceState.EMPTY));
+        dirty.add(traccarDeviceId);
+    }
+
+    private void apply(String key, String value) {
+        if (key == null) {
+            return;
+        }
+        try {
+            if (key.startsWith(DEVICE_PREFIX)) {
+                Long traccarDeviceId = Long.valueOf(key.substring(DEVICE_PREFIX.length()));
+                if (value == null) {
+                    devices.remove(traccarDeviceId);
+                } else {
+                    devices.put(traccarDeviceId, objectMapper.readValue(value, DeviceState.class));
+                }
+            } else if (key.startsWith(SYNC_PREFIX) && value != null) {
+                watermarks.put(key.substring(SYNC_PREFIX.length()), Instant.parse(value));
+            } else if (key.startsWith(MILEAGE_PREFIX)) {
+                String shardId = key.substring(MILEAGE_PREFIX.length());
+                if (value == null) {
+                    mileageBatches.remove(shardId);
+                } else {
+                    mileageBatches.put(shardId, objectMapper.readValue(value, MileageBatch.class));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Skipping unreadable bridge state record {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Shard of a state record: from the device id, the prefix of a watermark name, or a mileage batch key
+     */
+    private String shardOf(String key) {
+        try {
+            if (key.startsWith(DEVICE_PREFIX)) {
+                return traccarShards.ofDevice(Long.valueOf(key.substring(DEVICE_PREFIX.length()))).id();
+            }
+            if (key.startsWith(SYNC_PREFIX)) {
+                int separator = key.indexOf(':', SYNC_PREFIX.length());
+                return separator > 0 ? key.substring(SYNC_PREFIX.length(), separator) : null;
+            }
+            if (key.startsWith(MILEAGE_PREFIX)) {
+                return key.substring(MILEAGE_PREFIX.length());
+            }
+        } catch (NumberFormatException e) {
+            // Not a record of this store
+        }
+        return null;
+    }
+
+    private static boolean caughtUp(KafkaConsumer<String, String> consumer, Map<TopicPartition, Long> end) {
+        for (Map.Entry<TopicPartition, Long> entry : end.entrySet()) {
+            if (consumer.position(entry.getKey()) < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,98 @@
+package com.fleetmanagement.bridgeservice.state;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fleetmanagement.bridgeservice.geofence.GeofenceTransitionTracker;
+import com.fleetmanagement.bridgeservice.trip.TripTracker;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * What the bridge remembers about one Traccar device: the last position it
+ * published (the dedupe watermark), the device-service active flag with the
+ * time it was checked, the last published health, the trip and geofence
+ * tracking state, and the distance driven but not yet pushed to the vehicle
+ * service. Immutable; the store replaces the whole value on every change.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DeviceState(
+        Long positionId,
+        Instant fixTime,
+        Double latitude,
+        Double longitude,
+        Instant publishedAt,
+        Boolean active,
+        Instant activeCheckedAt,
+        String status,
+        String healthStatus,
+        Integer healthScore,
+        Instant healthCheckedAt,
+        TripTracker.Snapshot trip,
+        GeofenceTransitionTracker.Snapshot geofences,
+        Mileage mileage) {
+
+    static final DeviceState EMPTY = new DeviceState(null, null, null, null, null, null, null, null, null, null, null,
+            null, null, null);
+
+    /**
+     * Meters driven and not yet pushed, and the last mileage batch that took
+     * whole kilometers from them
+     */
+    public record Mileage(UUID deviceId, UUID companyId, double meters, UUID batchId) {
+    }
+
+    /**
+     * Whether a position with this id and fix time is newer than the last
+     * published one. Traccar position ids only grow, so they decide when both
+     * are known; otherwise the fix time does.
+     */
+    public boolean isNewer(Long otherPositionId, Instant otherFixTime) {
+        if (positionId != null && otherPositionId != null) {
+            return otherPositionId > positionId;
+        }
+        return fixTime == null || otherFixTime == null || otherFixTime.isAfter(fixTime);
+    }
+
+    DeviceState withPosition(Long positionId, Instant fixTime, Double latitude, Double longitude, Instant publishedAt) {
+        return new DeviceState(positionId, fixTime, latitude, longitude, publishedAt,
+                active, activeCheckedAt, status, healthStatus, healthScore, healthCheckedAt, trip, geofences, mileage);
+    }
+
+    DeviceState withActive(boolean active, Instant checkedAt) {
+        return new DeviceState(positionId, fixTime, latitude, longitude, publishedAt,
+                active, checkedAt, status, healthStatus, healthScore, healthCheckedAt, trip, geofences, mileage);
+    }
+
+    DeviceState withHealth(String status, String healthStatus, Integer healthScore, Instant checkedAt) {
+        return new DeviceState(positionId, fixTime, latitude, longitude, publishedAt,
+                active, activeCheckedAt, status, healthStatus, healthScore, checkedAt, trip, geofences, mileage);
+    }
+
+    DeviceState withTrip(TripTracker.Snapshot trip) {
+        return new DeviceState(positionId, fixTime, latitude, longitude, publishedAt,
+                active, activeCheckedAt, status, healthStatus, healthScore, healthCheckedAt, trip, geofences, mileage);
+    }
+
+    DeviceState withGeofences(GeofenceTransitionTracker.Snapshot geofences) {
+        return new DeviceState(positionId, fixTime, latitude, longitude, publishedAt,
+                active, activeCheckedAt, status, healthStatus, healthScore, healthCheckedAt, trip, geofences, mileage);
+    }
+
+    DeviceState withMileage(Mileage mileage) {
+        return new DeviceState(positionId, fixTime, latitude, longitude, publishedAt,
+                active, activeCheckedAt, status, healthStatus, healthScore, healthCheckedAt, trip, geofences, mileage);
+    }
+
+    /**
+     * Last time the bridge had anything to do with the device
+     */
+    Instant lastTouched() {
+        Instant latest = publishedAt;
+        for (Instant candidate : new Instant[]{activeCheckedAt, healthCheckedAt}) {
+            if (candidate != null && (latest == null || candidate.isAfter(latest))) {
+                latest = candidate;
+            }
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,15 @@
+package com.fleetmanagement.bridgeservice.state;
+
+import com.fleetmanagement.bridgeservice.model.domain.MileageIncrement;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A mileage push of one Traccar shard whose outcome is not known yet: the
+ * batch id the vehicle service deduplicates on, the increments sent, and the
+ * meters each Traccar device contributed to them.
+ */
+public record MileageBatch(UUID id, List<MileageIncrement> increments, Map<Long, Double> contributions) {
+}
@@ -0,0 +1,104 @@
+package com.fleetmanagement.bridgeservice.sync;
+
+import java.time.Duration;
+
+/**
+ * Poll interval of one sync job. A cycle that found new data shortens the
+ * interval towards the minimum, an empty cycle lengthens it towards the
+ * maximum, and failures back off exponentially from the base interval up to
+ * the error limit. The first success after failures restarts from the base.
+ * Not thread-safe; each job updates its own interval from one cycle at a time.
+ */
+public class AdaptiveInterval {
+
+    private Duration base;
+    private Duration min;
+    private Duration max;
+    private final Duration errorMax;
+    private final double speedup;
+    private final double slowdown;
+    private final boolean followVolume;
+
+    private Duration current;
+    private int consecutiveErrors;
+
+    public AdaptiveInterval(Duration base, Duration min, Duration max, Duration errorMax,
+                            double speedup, double slowdown, boolean followVolume) {
+        this.errorMax = errorMax;
+        this.speedup = speedup;
+        this.slowdown = slowdown;
+        this.followVolume = followVolume;
+        reconfigure(base, min, max);
+    }
+
+    /**
+     * Interval after a successful cycle that found the given number of new items
+     */
+    public Duration onSuccess(int newItems) {
+        if (consecutiveErrors > 0) {
+            consecutiveErrors = 0;
+            current = base;
+        } else if (followVolume) {
+            current = newItems > 0 ? clamp(scale(current, speedup)) : clamp(scale(current, slowdown));
+        }
+        return current;
+    }
+
+    /**
+     * Interval after a failed cycle
+     */
+    public Duration onError() {
+        consecutiveErrors++;
+        Duration backoff = scale(base, Math.pow(2, Math.min(consecutiveErrors, 20)));
+        current = backoff.compareTo(errorMax) > 0 ? max(errorMax, base) : backoff;
+        return current;
+    }
+
+    /**
+     * New bounds; the interval restarts from the base
+     */
+    public void reconfigure(Duration base, Duration min, Duration max) {
+        if (min.isNegative() || min.isZero() || min.compareTo(base) > 0 || base.compareTo(max) > 0) {
+            throw new IllegalArgumentException("Sync intervals must satisfy 0 < min <= base <= max");
+        }
+        this.base = base;
+        this.min = min;
+        this.max = max;
+        this.current = base;
+    }
+
+    public Duration current() {
+        return current;
+    }
+
+    public Duration base() {
+        return base;
+    }
+
+    public Duration min() {
+        return min;
+    }
+
+    public Duration max() {
+        return max;
+    }
+
+    public int consecutiveErrors() {
+        return consecutiveErrors;
+    }
+
+    private Duration clamp(Duration interval) {
+        if (interval.compareTo(min) < 0) {
+            return min;
+        }
+        return interval.compareTo(max) > 0 ? max : interval;
+    }
+
+    private static Duration scale(Duration interval, double factor) {
+        return Duration.ofMillis(Math.max(1, Math.round(interval.toMillis() * factor)));
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,10 @@
+package com.fleetmanagement.bridgeservice.sync;
+
+import java.time.Instant;
+
+/**
+ * Result of one sync cycle: how many new items it published and the time of
+ * the newest data it covered, from which the job's lag is measured
+ */
+public record SyncOutcome(int newItems, Instant dataTime) {
+}
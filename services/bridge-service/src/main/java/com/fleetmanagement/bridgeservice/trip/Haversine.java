@@ -0,0 +1,23 @@
+package com.fleetmanagement.bridgeservice.trip;
+
+/**
+ * Great-circle distance on a spherical earth; accurate to about 0.5%, which
+ * is far below GPS noise over the distances between consecutive fixes.
+ */
+public final class Haversine {
+
+    static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private Haversine() {
+    }
+
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.fleetmanagement.bridgeservice.trip;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A completed trip of one device.
+ *
+ * @param startOdometer  device odometer at the start in meters, null if not reported
+ * @param endOdometer    device odometer at the end in meters, null if not reported
+ */
+public record Trip(Instant startTime,
+                   Instant endTime,
+                   double startLatitude,
+                   double startLongitude,
+                   double endLatitude,
+                   double endLongitude,
+                   double distanceMeters,
+                   Duration idleTime,
+                   double maxSpeedKmh,
+                   Double startOdometer,
+                   Double endOdometer,
+                   EndReason endReason) {
+
+    public enum EndReason { IGNITION_OFF, STOPPED, SIGNAL_LOST }
+
+    public Duration duration() {
+        return Duration.between(startTime, endTime);
+    }
+}
@@ -0,0 +1,19 @@
+package com.fleetmanagement.bridgeservice.trip;
+
+import java.time.Duration;
+
+/**
+ * Trip segmentation settings.
+ *
+ * @param movingSpeedKmh          speed from which a device counts as moving
+ * @param stopDwell               stationary time that ends a trip
+ * @param maxFixGap               longer silence ends a trip at its last fix
+ * @param minTripDistanceMeters   shorter trips are dropped as noise
+ * @param maxPlausibleSpeedKmh    fixes implying a faster jump are ignored
+ */
+public record TripRules(double movingSpeedKmh,
+                        Duration stopDwell,
+                        Duration maxFixGap,
+                        double minTripDistanceMeters,
+                        double maxPlausibleSpeedKmh) {
+}
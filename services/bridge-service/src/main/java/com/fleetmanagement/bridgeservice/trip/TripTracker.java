@@ -0,0 +1,330 @@
+package com.fleetmanagement.bridgeservice.trip;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Trip Tracker
+ *
+ * Incremental trip segmentation over the position stream. A trip starts
+ * when a device moves and ends when the ignition goes off at a standstill,
+ * after a stationary dwell, or when the device falls silent; distance is
+ * summed with haversine over consecutive fixes along the way. Each device
+ * holds a fixed set of running totals rather than its fixes, and devices
+ * with neither a trip nor recent fixes are dropped by {@link #sweep}, so
+ * memory grows with the number of active devices only. Those totals can be
+ * taken as a {@link Snapshot} and restored, so another replica can carry on
+ * a trip in progress.
+ */
+public final class TripTracker {
+
+    /**
+     * One position of a device
+     *
+     * @param speedKmh   reported speed, null to derive it from consecutive fixes
+     * @param odometer   device odometer in meters, null if not reported
+     */
+    public record Fix(Instant time, double latitude, double longitude,
+                      Double speedKmh, Boolean ignition, Double odometer) {
+    }
+
+    /**
+     * @param distanceMeters  distance this fix added to a trip
+     * @param completed       trip ended by this fix, null if none
+     * @param snapshot        state of the device after the fix
+     */
+    public record Update(double distanceMeters, Trip completed, Snapshot snapshot) {
+        static final Update NONE = new Update(0, null, null);
+    }
+
+    public record CompletedTrip(UUID deviceId, Long traccarDeviceId, UUID companyId, Trip trip) {
+    }
+
+    /**
+     * @param completed         trips ended because their devices fell silent
+     * @param droppedDevices    Traccar ids of the devices no longer tracked
+     */
+    public record Sweep(List<CompletedTrip> completed, List<Long> droppedDevices) {
+    }
+
+    /**
+     * Running totals of one device, as checkpointed
+     */
+    public record Snapshot(UUID deviceId, UUID companyId,
+                           Instant lastFix, double lastLat, double lastLon, boolean lastMoving, Double lastOdometer,
+                           int rejectedJumps, boolean active,
+                           Instant startTime, double startLat, double startLon, Double startOdometer,
+                           double distance, Duration idle, double maxSpeed,
+                           Instant stoppedSince, double stopLat, double stopLon, Double stopOdometer,
+                           double distanceAtStop, Duration idleAtStop) {
+    }
+
+    // Fixes in a row rejected as jumps before the new position is believed
+    private static final int MAX_REJECTED_JUMPS = 3;
+
+    private final Map<UUID, DeviceTrack> tracks = new ConcurrentHashMap<>();
+
+    /**
+     * Feed one fix of a device
+     */
+    public Update update(UUID deviceId, Long traccarDeviceId, UUID companyId, Fix fix, TripRules rules) {
+        Update[] result = {Update.NONE};
+        tracks.compute(deviceId, (id, track) -> {
+            if (track == null) {
+                track = new DeviceTrack();
+            }
+            track.traccarDeviceId = traccarDeviceId;
+            track.companyId = companyId;
+            Update update = track.accept(fix, rules);
+            result[0] = new Update(update.distanceMeters(), update.completed(), track.snapshot(id));
+            return track;
+        });
+        return result[0];
+    }
+
+    /**
+     * End trips of devices silent for longer than maxFixGap and drop devices
+     * that have no trip and no fix since then. Devices the caller no longer
+     * owns are dropped without ending their trips.
+     */
+    public Sweep sweep(Instant now, TripRules rules, Predicate<Long> owned) {
+        List<CompletedTrip> completed = new ArrayList<>();
+        List<Long> dropped = new ArrayList<>();
+        Instant silentBefore = now.minus(rules.maxFixGap());
+        for (UUID deviceId : tracks.keySet()) {
+            tracks.computeIfPresent(deviceId, (id, track) -> {
+                if (!owned.test(track.traccarDeviceId)) {
+                    return null;
+                }
+                if (track.lastFix == null || !track.lastFix.isBefore(silentBefore)) {
+                    return track;
+                }
+                if (track.active) {
+                    Trip trip = track.end(track.lastFix, track.lastLat, track.lastLon, track.lastOdometer,
+                            track.distance, track.idle, Trip.EndReason.SIGNAL_LOST, rules);
+                    if (trip != null) {
+                        completed.add(new CompletedTrip(id, track.traccarDeviceId, track.companyId, trip));
+                    }
+                }
+                if (track.traccarDeviceId != null) {
+                    dropped.add(track.traccarDeviceId);
+                }
+                return null;
+            });
+        }
+        return new Sweep(completed, dropped);
+    }
+
+    /**
+     * Continue a device from a checkpoint; a device already tracked is left alone
+     */
+    public void restore(Long traccarDeviceId, Snapshot snapshot) {
+        tracks.computeIfAbsent(snapshot.deviceId(), id -> DeviceTrack.of(traccarDeviceId, snapshot));
+    }
+
+    /**
+     * Drop devices without ending their trips, e.g. when another replica takes them over
+     *
+     * @return how many were dropped
+     */
+    public int forget(Predicate<Long> traccarDeviceIds) {
+        int before = tracks.size();
+        tracks.values().removeIf(track -> traccarDeviceIds.test(track.traccarDeviceId));
+        return before - tracks.size();
+    }
+
+    public boolean inTrip(UUID deviceId) {
+        DeviceTrack track = tracks.get(deviceId);
+        return track != null && track.active;
+    }
+
+    public int trackedDevices() {
+        return tracks.size();
+    }
+
+    public int activeTrips() {
+        int active = 0;
+        for (DeviceTrack track : tracks.values()) {
+            if (track.active) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    // Mutated only inside compute, so one device is never updated concurrently
+    private static final class DeviceTrack {
+
+        Long traccarDeviceId;
+        UUID companyId;
+        Instant lastFix;
+        double lastLat;
+        double lastLon;
+        boolean lastMoving;
+        Double lastOdometer;
+        int rejectedJumps;
+
+        boolean active;
+        Instant startTime;
+        double startLat;
+        double startLon;
+        Double startOdometer;
+        double distance;
+        Duration idle = Duration.ZERO;
+        double maxSpeed;
+
+        // Where and when the device came to a standstill during the trip
+        Instant stoppedSince;
+        double stopLat;
+        double stopLon;
+        Double stopOdometer;
+        double distanceAtStop;
+        Duration idleAtStop;
+
+        static DeviceTrack of(Long traccarDeviceId, Snapshot snapshot) {
+            DeviceTrack track = new DeviceTrack();
+            track.traccarDeviceId = traccarDeviceId;
+            track.companyId = snapshot.companyId();
+            track.lastFix = snapshot.lastFix();
+            track.lastLat = snapshot.lastLat();
+            track.lastLon = snapshot.lastLon();
+            track.lastMoving = snapshot.lastMoving();
+            track.lastOdometer = snapshot.lastOdometer();
+            track.rejectedJumps = snapshot.rejectedJumps();
+            track.active = snapshot.active();
+            track.startTime = snapshot.startTime();
+            track.startLat = snapshot.startLat();
+            track.startLon = snapshot.startLon();
+            track.startOdometer = snapshot.startOdometer();
+            track.distance = snapshot.distance();
+            track.idle = snapshot.idle() != null ? snapshot.idle() : Duration.ZERO;
+            track.maxSpeed = snapshot.maxSpeed();
+            track.stoppedSince = snapshot.stoppedSince();
+            track.stopLat = snapshot.stopLat();
+            track.stopLon = snapshot.stopLon();
+            track.stopOdometer = snapshot.stopOdometer();
+            track.distanceAtStop = snapshot.distanceAtStop();
+            track.idleAtStop = snapshot.idleAtStop();
+            return track;
+        }
+
+        Snapshot snapshot(UUID deviceId) {
+            return new Snapshot(deviceId, companyId, lastFix, lastLat, lastLon, lastMoving, lastOdometer,
+                    rejectedJumps, active, startTime, startLat, startLon, startOdometer,
+                    distance, idle, maxSpeed, stoppedSince, stopLat, stopLon, stopOdometer,
+                    distanceAtStop, idleAtStop);
+        }
+
+        Update accept(Fix fix, TripRules rules) {
+            if (lastFix != null && fix.time().isBefore(lastFix)) {
+                return Update.NONE;
+            }
+
+            Trip completed = null;
+            Duration sinceLast = lastFix != null ? Duration.between(lastFix, fix.time()) : null;
+            boolean contiguous = sinceLast != null && sinceLast.compareTo(rules.maxFixGap()) <= 0;
+            if (active && !contiguous) {
+                completed = end(lastFix, lastLat, lastLon, lastOdometer, distance, idle,
+                        Trip.EndReason.SIGNAL_LOST, rules);
+            }
+
+            double step = contiguous ? Haversine.distanceMeters(lastLat, lastLon, fix.latitude(), fix.longitude()) : 0;
+            double seconds = contiguous ? sinceLast.toMillis() / 1000.0 : 0;
+            if (seconds > 0 && step / seconds * 3.6 > rules.maxPlausibleSpeedKmh()
+                    && rejectedJumps < MAX_REJECTED_JUMPS) {
+                rejectedJumps++;
+                return completed != null ? new Update(0, completed, null) : Update.NONE;
+            }
+            rejectedJumps = 0;
+
+            double speed = fix.speedKmh() != null ? fix.speedKmh() : (seconds > 0 ? step / seconds * 3.6 : 0);
+            boolean moving = speed >= rules.movingSpeedKmh();
+            double added = 0;
+
+            if (!active) {
+                if (moving && !Boolean.FALSE.equals(fix.ignition())) {
+                    // The trip began at the previous fix, where the device was still standing
+                    start(contiguous ? lastFix : fix.time(),
+                            contiguous ? lastLat : fix.latitude(),
+                            contiguous ? lastLon : fix.longitude(),
+                            contiguous ? lastOdometer : fix.odometer());
+                    distance = step;
+                    added = step;
+                    maxSpeed = speed;
+                }
+            } else {
+                // Two stationary fixes in a row are GPS drift, not travel
+                if (contiguous && (moving || lastMoving)) {
+                    distance += step;
+                    added = step;
+                }
+                if (contiguous && !moving && !Boolean.FALSE.equals(fix.ignition())) {
+                    idle = idle.plus(sinceLast);
+                }
+                maxSpeed = Math.max(maxSpeed, speed);
+
+                if (moving) {
+                    stoppedSince = null;
+                } else if (Boolean.FALSE.equals(fix.ignition())) {
+                    completed = end(fix.time(), fix.latitude(), fix.longitude(), fix.odometer(), distance, idle,
+                            Trip.EndReason.IGNITION_OFF, rules);
+                } else {
+                    if (stoppedSince == null) {
+                        stoppedSince = fix.time();
+                        stopLat = fix.latitude();
+                        stopLon = fix.longitude();
+                        stopOdometer = fix.odometer();
+                        distanceAtStop = distance;
+                        idleAtStop = idle;
+                    }
+                    if (Duration.between(stoppedSince, fix.time()).compareTo(rules.stopDwell()) >= 0) {
+                        // The dwell itself is not part of the trip
+                        completed = end(stoppedSince, stopLat, stopLon, stopOdometer, distanceAtStop, idleAtStop,
+                                Trip.EndReason.STOPPED, rules);
+                    }
+                }
+            }
+
+            lastFix = fix.time();
+            lastLat = fix.latitude();
+            lastLon = fix.longitude();
+            lastMoving = moving;
+            if (fix.odometer() != null) {
+                lastOdometer = fix.odometer();
+            }
+            return added == 0 && completed == null ? Update.NONE : new Update(added, completed, null);
+        }
+
+        void start(Instant time, double lat, double lon, Double odometer) {
+            active = true;
+            startTime = time;
+            startLat = lat;
+            startLon = lon;
+            startOdometer = odometer;
+            distance = 0;
+            idle = Duration.ZERO;
+            maxSpeed = 0;
+            stoppedSince = null;
+        }
+
+        /**
+         * Close the running trip; returns null if it was too short to report
+         */
+        Trip end(Instant endTime, double endLat, double endLon, Double endOdometer,
+                 double tripDistance, Duration tripIdle, Trip.EndReason reason, TripRules rules) {
+            active = false;
+            stoppedSince = null;
+            if (tripDistance < rules.minTripDistanceMeters()) {
+                return null;
+            }
+            return new Trip(startTime, endTime, startLat, startLon, endLat, endLon,
+                    tripDistance, tripIdle, maxSpeed, startOdometer, endOdometer, reason);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geofence Benchmark
+ *
+ * Point-in-geofence throughput of the bridge's geofence engine:
+ * indexQuery finds every fence containing a position among 100k circles
+ * and polygons of one company, linearScan does the same by testing every
+ * fence's bounding box, and preparedPolygon / naivePolygon compare the
+ * banded ray cast of {@link PolygonShape} with a plain one on a detailed
+ * polygon.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeofenceBenchmark {
+
+    private static final int POINTS = 1 << 14;
+
+    // Region the fences are spread over, roughly central Europe
+    private static final double MIN_LAT = 45.0;
+    private static final double MAX_LAT = 55.0;
+    private static final double MIN_LON = 5.0;
+    private static final double MAX_LON = 20.0;
+
+    @Param("100000")
+    private int fenceCount;
+
+    @Param("1000")
+    private int polygonVertices;
+
+    private GeofenceIndex index;
+    private Geofence[] fences;
+    private PolygonShape polygon;
+    private double[] polygonLats;
+    private double[] polygonLons;
+
+    private double[] lats;
+    private double[] lons;
+    private double[] polygonPointLats;
+    private double[] polygonPointLons;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        UUID companyId = UUID.randomUUID();
+
+        List<Geofence> geofences = new ArrayList<>(fenceCount);
+        for (int i = 0; i < fenceCount; i++) {
+            double lat = between(random, MIN_LAT, MAX_LAT);
+            double lon = between(random, MIN_LON, MAX_LON);
+            double radiusMeters = between(random, 100, 3000);
+            GeofenceShape shape = i % 2 == 0
+                    ? new CircleShape(lat, lon, radiusMeters)
+                    : starPolygon(random, lat, lon, radiusMeters, 8 + random.nextInt(57));
+            geofences.add(new Geofence(UUID.randomUUID(), companyId, "fence-" + i, shape));
+        }
+        index = new GeofenceIndex(geofences, 0.05, 64);
+        fences = geofences.toArray(new Geofence[0]);
+
+        lats = new double[POINTS];
+        lons = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            lats[i] = between(random, MIN_LAT, MAX_LAT);
+            lons[i] = between(random, MIN_LON, MAX_LON);
+        }
+
+        // One detailed polygon (a city boundary, say) and points around it
+        polygonLats = new double[polygonVertices];
+        polygonLons = new double[polygonVertices];
+        starVertices(new Random(7), 50.0, 10.0, 20_000, polygonLats, polygonLons);
+        polygon = new PolygonShape(polygonLats, polygonLons);
+        BoundingBox box = polygon.bounds();
+        polygonPointLats = new double[POINTS];
+        polygonPointLons = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            polygonPointLats[i] = between(random, box.minLat(), box.maxLat());
+            polygonPointLons[i] = between(random, box.minLon(), box.maxLon());
+        }
+    }
+
+    @Benchmark
+    public List<Geofence> indexQuery() {
+        int i = next();
+        return index.query(lats[i], lons[i]);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int i = next();
+        double lat = lats[i], lon = lons[i];
+        int found = 0;
+        for (Geofence fence : fences) {
+            if (fence.shape().bounds().contains(lat, lon) && fence.shape().contains(lat, lon)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public boolean preparedPolygon() {
+        int i = next();
+        return polygon.contains(polygonPointLats[i], polygonPointLons[i]);
+    }
+
+    @Benchmark
+    public boolean naivePolygon() {
+        int i = next();
+        double lat = polygonPointLats[i], lon = polygonPointLons[i];
+        boolean inside = false;
+        for (int a = 0, b = polygonVertices - 1; a < polygonVertices; b = a++) {
+            if ((polygonLats[a] > lat) != (polygonLats[b] > lat)
+                    && lon < polygonLons[a] + (lat - polygonLats[a]) * (polygonLons[b] - polygonLons[a]) / (polygonLats[b] - polygonLats[a])) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (POINTS - 1);
+    }
+
+    private static PolygonShape starPolygon(Random random, double lat, double lon, double radiusMeters, int vertices) {
+        double[] polygonLats = new double[vertices];
+        double[] polygonLons = new double[vertices];
+        starVertices(random, lat, lon, radiusMeters, polygonLats, polygonLons);
+        return new PolygonShape(polygonLats, polygonLons);
+    }
+
+    // Irregular, non-convex ring around the center
+    private static void starVertices(Random random, double lat, double lon, double radiusMeters,
+                                     double[] polygonLats, double[] polygonLons) {
+        double metersPerDegreeLon = CircleShape.METERS_PER_DEGREE * Math.cos(Math.toRadians(lat));
+        for (int v = 0; v < polygonLats.length; v++) {
+            double angle = 2 * Math.PI * v / polygonLats.length;
+            double r = radiusMeters * between(random, 0.4, 1.0);
+            polygonLats[v] = lat + r * Math.sin(angle) / CircleShape.METERS_PER_DEGREE;
+            polygonLons[v] = lon + r * Math.cos(angle) / metersPerDegreeLon;
+        }
+    }
+
+    private static double between(Random random, double min, double max) {
+        return min + random.nextDouble() * (max - min);
+    }
+}
@@ -0,0 +1,94 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the grid index over tenant geofences
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Geofence Index Tests")
+class GeofenceIndexTest {
+
+    private static final double CELL_SIZE = 0.01;
+    private static final int MAX_CELLS = 16;
+
+    private final UUID companyId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Small, coarse-grid and oversized fences are all found")
+    void shouldFindFencesOfEverySize() {
+        Geofence depot = fence("Depot", new CircleShape(52.5, 13.4, 200));
+        Geofence district = fence("District", rectangle(52.45, 13.35, 52.6, 13.5));
+        Geofence country = fence("Country", rectangle(47.0, 5.0, 55.0, 15.0));
+        GeofenceIndex index = new GeofenceIndex(List.of(depot, district, country), CELL_SIZE, MAX_CELLS);
+
+        assertThat(index.query(52.5, 13.4)).containsExactlyInAnyOrder(depot, district, country);
+        assertThat(index.query(52.55, 13.45)).containsExactlyInAnyOrder(district, country);
+        assertThat(index.query(48.1, 11.6)).containsExactly(country);
+        assertThat(index.query(40.4, -3.7)).isEmpty();
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.get(depot.id())).isSameAs(depot);
+    }
+
+    @Test
+    @DisplayName("Fences crossing cell borders are found on both sides")
+    void shouldFindFenceAcrossCellBorders() {
+        Geofence border = fence("Border", rectangle(52.495, 13.395, 52.505, 13.405));
+        GeofenceIndex index = new GeofenceIndex(List.of(border), CELL_SIZE, MAX_CELLS);
+
+        assertThat(index.query(52.499, 13.399)).containsExactly(border);
+        assertThat(index.query(52.501, 13.401)).containsExactly(border);
+        assertThat(index.query(52.499, 13.401)).containsExactly(border);
+        assertThat(index.query(52.506, 13.401)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Fences on negative coordinates are indexed in the right cells")
+    void shouldHandleNegativeCoordinates() {
+        Geofence south = fence("Santiago", new CircleShape(-33.45, -70.66, 500));
+        GeofenceIndex index = new GeofenceIndex(List.of(south), CELL_SIZE, MAX_CELLS);
+
+        assertThat(index.query(-33.45, -70.66)).containsExactly(south);
+        assertThat(index.query(-33.45, -70.70)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Queries agree with testing every fence")
+    void shouldMatchLinearScan() {
+        Random random = new Random(11);
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            double lat = 52.0 + random.nextDouble();
+            double lon = 13.0 + random.nextDouble();
+            fences.add(i % 2 == 0
+                    ? fence("circle-" + i, new CircleShape(lat, lon, 50 + random.nextInt(20_000)))
+                    : fence("box-" + i, rectangle(lat, lon, lat + random.nextDouble() * 0.3, lon + random.nextDouble() * 0.3)));
+        }
+        GeofenceIndex index = new GeofenceIndex(fences, CELL_SIZE, MAX_CELLS);
+
+        for (int q = 0; q < 5_000; q++) {
+            double lat = 51.9 + random.nextDouble() * 1.4;
+            double lon = 12.9 + random.nextDouble() * 1.4;
+            List<Geofence> expected = fences.stream().filter(f -> f.shape().contains(lat, lon)).toList();
+            assertThat(index.query(lat, lon)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    private Geofence fence(String name, GeofenceShape shape) {
+        return new Geofence(UUID.randomUUID(), companyId, name, shape);
+    }
+
+    private static PolygonShape rectangle(double minLat, double minLon, double maxLat, double maxLon) {
+        return new PolygonShape(new double[]{minLat, minLat, maxLat, maxLat}, new double[]{minLon, maxLon, maxLon, minLon});
+    }
+}
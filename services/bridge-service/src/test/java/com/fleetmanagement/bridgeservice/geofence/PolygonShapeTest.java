@@ -0,0 +1,94 @@
+package com.fleetmanagement.bridgeservice.geofence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for point-in-polygon tests of polygon geofences
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Polygon Shape Tests")
+class PolygonShapeTest {
+
+    @Test
+    @DisplayName("Points inside, outside and beyond the bounds of a square")
+    void shouldContainPointsOfSquare() {
+        PolygonShape square = new PolygonShape(new double[]{0, 0, 1, 1}, new double[]{0, 1, 1, 0});
+
+        assertThat(square.contains(0.5, 0.5)).isTrue();
+        assertThat(square.contains(0.01, 0.99)).isTrue();
+        assertThat(square.contains(1.5, 0.5)).isFalse();
+        assertThat(square.contains(0.5, -0.01)).isFalse();
+        assertThat(square.bounds()).isEqualTo(new BoundingBox(0, 0, 1, 1));
+    }
+
+    @Test
+    @DisplayName("The notch of a concave polygon is outside")
+    void shouldExcludeNotchOfConcavePolygon() {
+        // L shape: the unit square minus its upper right quarter
+        PolygonShape shape = new PolygonShape(
+                new double[]{0, 0, 0.5, 0.5, 1, 1},
+                new double[]{0, 1, 1, 0.5, 0.5, 0});
+
+        assertThat(shape.contains(0.25, 0.75)).isTrue();
+        assertThat(shape.contains(0.75, 0.25)).isTrue();
+        assertThat(shape.contains(0.75, 0.75)).isFalse();
+    }
+
+    @Test
+    @DisplayName("An explicit closing vertex is dropped")
+    void shouldDropClosingVertex() {
+        PolygonShape closed = new PolygonShape(new double[]{0, 0, 1, 1, 0}, new double[]{0, 1, 1, 0, 0});
+
+        assertThat(closed.vertexCount()).isEqualTo(4);
+        assertThat(closed.contains(0.5, 0.5)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Banded tests agree with plain ray casting on a large star polygon")
+    void shouldMatchPlainRayCasting() {
+        int n = 400;
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double radius = i % 2 == 0 ? 0.01 : 0.004;
+            lats[i] = 52.5 + radius * Math.sin(angle);
+            lons[i] = 13.4 + radius * Math.cos(angle);
+        }
+        PolygonShape star = new PolygonShape(lats, lons);
+
+        Random random = new Random(7);
+        for (int q = 0; q < 20_000; q++) {
+            double lat = 52.5 + (random.nextDouble() - 0.5) * 0.024;
+            double lon = 13.4 + (random.nextDouble() - 0.5) * 0.024;
+            assertThat(star.contains(lat, lon)).as("%s, %s", lat, lon).isEqualTo(rayCast(lats, lons, lat, lon));
+        }
+    }
+
+    @Test
+    @DisplayName("Polygons need at least three vertices")
+    void shouldRejectDegeneratePolygon() {
+        assertThatThrownBy(() -> new PolygonShape(new double[]{0, 1}, new double[]{0, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PolygonShape(new double[]{0, 1, 2}, new double[]{0, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static boolean rayCast(double[] lats, double[] lons, double lat, double lon) {
+        boolean inside = false;
+        for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+            if ((lats[i] > lat) != (lats[j] > lat)
+                    && lon < lons[i] + (lat - lats[i]) * (lons[j] - lons[i]) / (lats[j] - lats[i])) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
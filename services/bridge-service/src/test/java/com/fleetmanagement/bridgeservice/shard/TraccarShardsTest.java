@@ -0,0 +1,89 @@
+package com.fleetmanagement.bridgeservice.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for mapping device ids to Traccar shards
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Traccar Shards Tests")
+class TraccarShardsTest {
+
+    private final TraccarShard east = shard("east", 0);
+    private final TraccarShard west = shard("west", 1_000_000);
+    private final TraccarShard north = shard("north", 5_000_000);
+
+    // Configured out of order on purpose
+    private final TraccarShards shards = new TraccarShards(List.of(west, north, east));
+
+    @Test
+    @DisplayName("A device belongs to the shard with the largest offset not above its id")
+    void shouldFindShardOfDevice() {
+        assertThat(shards.ofDevice(0L)).isEqualTo(east);
+        assertThat(shards.ofDevice(999_999L)).isEqualTo(east);
+        assertThat(shards.ofDevice(1_000_000L)).isEqualTo(west);
+        assertThat(shards.ofDevice(4_999_999L)).isEqualTo(west);
+        assertThat(shards.ofDevice(5_000_000L)).isEqualTo(north);
+        assertThat(shards.ofDevice(Long.MAX_VALUE)).isEqualTo(north);
+        assertThat(shards.ofDevice(null)).isEqualTo(east);
+    }
+
+    @Test
+    @DisplayName("Ids round-trip through the owning shard")
+    void shouldRoundTripIds() {
+        for (TraccarShard shard : shards.all()) {
+            Long global = shard.toGlobalId(42L);
+            assertThat(shards.ofDevice(global)).isEqualTo(shard);
+            assertThat(shard.toLocalId(global)).isEqualTo(42L);
+        }
+        assertThat(west.toGlobalId(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("A shard's raw ids must stay below the next shard's offset")
+    void shouldBoundIdRanges() {
+        assertThat(shards.idRangeOf(east)).isEqualTo(1_000_000L);
+        assertThat(shards.idRangeOf(west)).isEqualTo(4_000_000L);
+        assertThat(shards.idRangeOf(north)).isEqualTo(Long.MAX_VALUE - 5_000_000L);
+
+        assertThat(shards.inRange(east, 999_999L)).isTrue();
+        assertThat(shards.inRange(east, 1_000_000L)).isFalse();
+        assertThat(shards.inRange(west, 3_999_999L)).isTrue();
+        assertThat(shards.inRange(west, 4_000_000L)).isFalse();
+        assertThat(shards.inRange(west, -1L)).isFalse();
+        assertThat(shards.inRange(north, 1_000_000_000L)).isTrue();
+        assertThat(shards.inRange(west, null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Shards are listed and looked up by id")
+    void shouldListShardsById() {
+        assertThat(shards.ids()).containsExactly("east", "north", "west");
+        assertThat(shards.get("west")).isEqualTo(west);
+        assertThatThrownBy(() -> shards.get("south")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Shards need distinct non-negative offsets")
+    void shouldRejectInvalidConfiguration() {
+        assertThatThrownBy(() -> new TraccarShards(List.of()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new TraccarShards(List.of(east, shard("other", 0))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new TraccarShards(List.of(shard("negative", -1))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static TraccarShard shard(String id, long idOffset) {
+        return new TraccarShard(id, "http://" + id + ".traccar.local", "admin", "secret",
+                Duration.ofSeconds(10), 20, idOffset);
+    }
+}
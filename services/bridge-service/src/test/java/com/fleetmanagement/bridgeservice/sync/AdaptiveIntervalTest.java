@@ -0,0 +1,93 @@
+package com.fleetmanagement.bridgeservice.sync;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the adaptive poll interval of sync jobs
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Adaptive Interval Tests")
+class AdaptiveIntervalTest {
+
+    private final AdaptiveInterval interval = new AdaptiveInterval(Duration.ofSeconds(10), Duration.ofSeconds(2),
+            Duration.ofSeconds(60), Duration.ofSeconds(120), 0.5, 2.0, true);
+
+    @Test
+    @DisplayName("Cycles with new data shorten the interval down to the minimum")
+    void shouldSpeedUpWithData() {
+        assertThat(interval.current()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(interval.onSuccess(5)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(interval.onSuccess(5)).isEqualTo(Duration.ofMillis(2500));
+        assertThat(interval.onSuccess(5)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(interval.onSuccess(5)).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Empty cycles lengthen the interval up to the maximum")
+    void shouldSlowDownWhenIdle() {
+        assertThat(interval.onSuccess(0)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(interval.onSuccess(0)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(interval.onSuccess(0)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(interval.onSuccess(0)).isEqualTo(Duration.ofSeconds(60));
+    }
+
+    @Test
+    @DisplayName("Failures back off exponentially from the base up to the error limit")
+    void shouldBackOffOnErrors() {
+        interval.onSuccess(5);
+
+        assertThat(interval.onError()).isEqualTo(Duration.ofSeconds(20));
+        assertThat(interval.onError()).isEqualTo(Duration.ofSeconds(40));
+        assertThat(interval.onError()).isEqualTo(Duration.ofSeconds(80));
+        assertThat(interval.onError()).isEqualTo(Duration.ofSeconds(120));
+        for (int i = 0; i < 50; i++) {
+            interval.onError();
+        }
+        assertThat(interval.current()).isEqualTo(Duration.ofSeconds(120));
+        assertThat(interval.consecutiveErrors()).isEqualTo(54);
+    }
+
+    @Test
+    @DisplayName("The first success after failures restarts from the base")
+    void shouldRestartFromBaseAfterRecovery() {
+        interval.onError();
+        interval.onError();
+
+        assertThat(interval.onSuccess(0)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(interval.consecutiveErrors()).isZero();
+        assertThat(interval.onSuccess(0)).isEqualTo(Duration.ofSeconds(20));
+    }
+
+    @Test
+    @DisplayName("Without volume following the interval stays at the base")
+    void shouldKeepBaseWithoutVolumeFollowing() {
+        AdaptiveInterval fixed = new AdaptiveInterval(Duration.ofSeconds(10), Duration.ofSeconds(2),
+                Duration.ofSeconds(60), Duration.ofSeconds(120), 0.5, 2.0, false);
+
+        assertThat(fixed.onSuccess(100)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(fixed.onSuccess(0)).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Reconfiguring validates the bounds and restarts from the new base")
+    void shouldReconfigure() {
+        interval.onSuccess(0);
+
+        interval.reconfigure(Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ofSeconds(90));
+        assertThat(interval.current()).isEqualTo(Duration.ofSeconds(30));
+
+        assertThatThrownBy(() -> interval.reconfigure(Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(90)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> interval.reconfigure(Duration.ofSeconds(30), Duration.ZERO, Duration.ofSeconds(90)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> interval.reconfigure(Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ofSeconds(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,204 @@
+package com.fleetmanagement.bridgeservice.trip;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for trip segmentation over the position stream
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Trip Tracker Tests")
+class TripTrackerTest {
+
+    private static final TripRules RULES = new TripRules(5.0, Duration.ofMinutes(5), Duration.ofMinutes(10), 100.0, 250.0);
+    private static final Instant T0 = Instant.parse("2024-05-01T08:00:00Z");
+    private static final double LAT = 52.5;
+    private static final double LON = 13.4;
+    // About 556 m of latitude, covered in a minute at about 33 km/h
+    private static final double STEP = 0.005;
+
+    private final TripTracker tracker = new TripTracker();
+    private final UUID deviceId = UUID.randomUUID();
+    private final UUID companyId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("A trip runs from the last standstill to ignition off")
+    void shouldEndTripOnIgnitionOff() {
+        feed(0, 0, 0.0, true);
+        feed(1, 1, 40.0, true);
+        feed(2, 2, 40.0, true);
+        assertThat(tracker.inTrip(deviceId)).isTrue();
+
+        TripTracker.Update update = feed(3, 2, 0.0, false);
+
+        Trip trip = update.completed();
+        assertThat(trip).isNotNull();
+        assertThat(trip.endReason()).isEqualTo(Trip.EndReason.IGNITION_OFF);
+        assertThat(trip.startTime()).isEqualTo(T0);
+        assertThat(trip.endTime()).isEqualTo(at(3));
+        assertThat(trip.startLatitude()).isEqualTo(LAT);
+        assertThat(trip.endLatitude()).isEqualTo(LAT + 2 * STEP);
+        assertThat(trip.distanceMeters()).isCloseTo(distance(0, 2), within(0.01));
+        assertThat(trip.maxSpeedKmh()).isEqualTo(40.0);
+        assertThat(tracker.inTrip(deviceId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("A stationary dwell ends the trip where the device stopped")
+    void shouldEndTripAfterDwell() {
+        feed(0, 0, 0.0, true);
+        feed(1, 1, 40.0, true);
+        feed(2, 2, 40.0, true);
+        for (int minute = 3; minute < 8; minute++) {
+            assertThat(feed(minute, 2, 0.0, true).completed()).isNull();
+        }
+
+        Trip trip = feed(8, 2, 0.0, true).completed();
+
+        assertThat(trip).isNotNull();
+        assertThat(trip.endReason()).isEqualTo(Trip.EndReason.STOPPED);
+        assertThat(trip.endTime()).isEqualTo(at(3));
+        assertThat(trip.idleTime()).isEqualTo(Duration.ofMinutes(1));
+        assertThat(trip.distanceMeters()).isCloseTo(distance(0, 2), within(0.01));
+    }
+
+    @Test
+    @DisplayName("Stationary GPS drift does not add distance")
+    void shouldIgnoreDriftWhileStopped() {
+        feed(0, 0, 0.0, true);
+        feed(1, 1, 40.0, true);
+        feed(2, 2, 0.0, true);
+        TripTracker.Update drift = tracker.update(deviceId, 7L, companyId,
+                new TripTracker.Fix(at(3), LAT + 2 * STEP + 0.0001, LON, 0.0, true, null), RULES);
+
+        assertThat(drift.distanceMeters()).isZero();
+        assertThat(drift.snapshot().distance()).isCloseTo(distance(0, 2), within(0.01));
+    }
+
+    @Test
+    @DisplayName("Silent devices are ended by the sweep and dropped")
+    void shouldEndSilentTripsOnSweep() {
+        feed(0, 0, 0.0, true);
+        feed(1, 1, 40.0, true);
+        feed(2, 2, 40.0, true);
+
+        assertThat(tracker.sweep(at(9), RULES, id -> true).completed()).isEmpty();
+        TripTracker.Sweep sweep = tracker.sweep(at(13), RULES, id -> true);
+
+        assertThat(sweep.completed()).singleElement().satisfies(completed -> {
+            assertThat(completed.deviceId()).isEqualTo(deviceId);
+            assertThat(completed.trip().endReason()).isEqualTo(Trip.EndReason.SIGNAL_LOST);
+            assertThat(completed.trip().endTime()).isEqualTo(at(2));
+        });
+        assertThat(sweep.droppedDevices()).containsExactly(7L);
+        assertThat(tracker.trackedDevices()).isZero();
+    }
+
+    @Test
+    @DisplayName("A fix after a long gap ends the running trip at the last fix")
+    void shouldEndTripOnFixGap() {
+        feed(0, 0, 0.0, true);
+        feed(1, 1, 40.0, true);
+        feed(2, 2, 40.0, true);
+
+        Trip trip = feed(20, 3, 0.0, true).completed();
+
+        assertThat(trip).isNotNull();
+        assertThat(trip.endReason()).isEqualTo(Trip.EndReason.SIGNAL_LOST);
+        assertThat(trip.endTime()).isEqualTo(at(2));
+    }
+
+    @Test
+    @DisplayName("Devices no longer owned are dropped without ending their trips")
+    void shouldDropUnownedDevicesOnSweep() {
+        feed(0, 0, 0.0, true);
+        feed(1, 1, 40.0, true);
+
+        TripTracker.Sweep sweep = tracker.sweep(at(2), RULES, id -> false);
+
+        assertThat(sweep.completed()).isEmpty();
+        assertThat(tracker.trackedDevices()).isZero();
+    }
+
+    @Test
+    @DisplayName("Trips shorter than the minimum distance are not reported")
+    void shouldDropShortTrips() {
+        feed(0, 0, 0.0, true);
+        tracker.update(deviceId, 7L, companyId, new TripTracker.Fix(at(1), LAT + 0.0005, LON, 10.0, true, null), RULES);
+
+        assertThat(tracker.inTrip(deviceId)).isTrue();
+        assertThat(tracker.update(deviceId, 7L, companyId,
+                new TripTracker.Fix(at(2), LAT + 0.0005, LON, 0.0, false, null), RULES).completed()).isNull();
+        assertThat(tracker.inTrip(deviceId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Implausible jumps are ignored until they persist")
+    void shouldRejectJumps() {
+        feed(0, 0, 0.0, true);
+        feed(1, 1, 40.0, true);
+
+        // 1 degree of latitude in a minute, far above the plausible speed
+        for (int minute = 2; minute <= 4; minute++) {
+            assertThat(feed(minute, 200, 40.0, true).distanceMeters()).isZero();
+        }
+        assertThat(feed(5, 200, 40.0, true).distanceMeters()).isGreaterThan(100_000);
+    }
+
+    @Test
+    @DisplayName("Fixes older than the last one are ignored")
+    void shouldIgnoreOutOfOrderFixes() {
+        feed(0, 0, 0.0, true);
+        feed(2, 1, 40.0, true);
+
+        TripTracker.Update late = feed(1, 5, 40.0, true);
+
+        assertThat(late.distanceMeters()).isZero();
+        assertThat(late.snapshot().lastFix()).isEqualTo(at(2));
+    }
+
+    @Test
+    @DisplayName("A restored snapshot carries the trip on in another tracker")
+    void shouldContinueFromSnapshot() {
+        feed(0, 0, 0.0, true);
+        TripTracker.Snapshot snapshot = feed(1, 1, 40.0, true).snapshot();
+
+        TripTracker other = new TripTracker();
+        other.restore(7L, snapshot);
+        assertThat(other.inTrip(deviceId)).isTrue();
+        other.update(deviceId, 7L, companyId, fix(2, 2, 40.0, true), RULES);
+        Trip trip = other.update(deviceId, 7L, companyId, fix(3, 2, 0.0, false), RULES).completed();
+
+        assertThat(trip).isNotNull();
+        assertThat(trip.startTime()).isEqualTo(T0);
+        assertThat(trip.distanceMeters()).isCloseTo(distance(0, 2), within(0.01));
+    }
+
+    private TripTracker.Update feed(int minute, int steps, Double speedKmh, boolean ignition) {
+        return tracker.update(deviceId, 7L, companyId, fix(minute, steps, speedKmh, ignition), RULES);
+    }
+
+    private static TripTracker.Fix fix(int minute, int steps, Double speedKmh, boolean ignition) {
+        return new TripTracker.Fix(at(minute), LAT + steps * STEP, LON, speedKmh, ignition, null);
+    }
+
+    private static Instant at(int minute) {
+        return T0.plus(Duration.ofMinutes(minute));
+    }
+
+    private static double distance(int fromStep, int toStep) {
+        double meters = 0;
+        for (int step = fromStep; step < toStep; step++) {
+            meters += Haversine.distanceMeters(LAT + step * STEP, LON, LAT + (step + 1) * STEP, LON);
+        }
+        return meters;
+    }
+}
@@ -0,0 +1,33 @@
+package com.fleetmanagement.companyservice.client;
+
+import com.fleetmanagement.companyservice.dto.response.ApiResponse;
+import com.fleetmanagement.companyservice.dto.response.DeviceStatisticsResponse;
+import feign.Request;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.UUID;
+
+/**
+ * Device Service Client
+ *
+ * Feign client for reading device statistics from the Device Service
+ */
+@FeignClient(
+        name = "device-service",
+        url = "${feign.client.config.device-service.url:http://localhost:8085}",
+        fallback = DeviceServiceClientFallback.class
+)
+public interface DeviceServiceClient {
+
+    /**
+     * Get device statistics for company, with timeouts fitting the caller's budget
+     */
+    @GetMapping("/api/v1/devices/company/{companyId}/statistics")
+    @CircuitBreaker(name = "device-service")
+    ResponseEntity<ApiResponse<DeviceStatisticsResponse>> getDeviceStatistics(@PathVariable("companyId") UUID companyId,
+                                                                              Request.Options options);
+}
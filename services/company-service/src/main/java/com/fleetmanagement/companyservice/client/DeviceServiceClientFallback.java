@@ -0,0 +1,23 @@
+package com.fleetmanagement.companyservice.client;
+
+import com.fleetmanagement.companyservice.dto.response.ApiResponse;
+import com.fleetmanagement.companyservice.dto.response.DeviceStatisticsResponse;
+import feign.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+public class DeviceServiceClientFallback implements DeviceServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceServiceClientFallback.class);
+
+    @Override
+    public ResponseEntity<ApiResponse<DeviceStatisticsResponse>> getDeviceStatistics(UUID companyId, Request.Options options) {
+        logger.warn("Device Service unavailable - using fallback for getDeviceStatistics: {}", companyId);
+        return ResponseEntity.ok(ApiResponse.error("Service unavailable"));
+    }
+}
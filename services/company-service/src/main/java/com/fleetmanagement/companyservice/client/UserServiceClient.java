@@ -5,6 +5,7 @@ import com.fleetmanagement.companyservice.dto.request.BulkUserUpdateRequest;
 import com.fleetmanagement.companyservice.dto.response.UserResponse;
 import com.fleetmanagement.companyservice.dto.response.BulkOperationResponse;
 import com.fleetmanagement.companyservice.dto.response.UserCountResponse;
+import feign.Request;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import com.fleetmanagement.companyservice.client.UserServiceClientFallback;
@@ -121,6 +122,14 @@ public interface UserServiceClient {
     @CircuitBreaker(name = "user-service", fallbackMethod = "getUserStatisticsFallback")
     ResponseEntity<com.fleetmanagement.companyservice.dto.response.UserStatisticsResponse> getUserStatistics(@PathVariable("companyId") UUID companyId);
 
+    /**
+     * Get user statistics for company, with timeouts fitting the caller's budget
+     */
+    @GetMapping("/api/users/company/{companyId}/statistics")
+    @CircuitBreaker(name = "user-service", fallbackMethod = "getUserStatisticsFallback")
+    ResponseEntity<com.fleetmanagement.companyservice.dto.response.UserStatisticsResponse> getUserStatistics(@PathVariable("companyId") UUID companyId,
+                                                                                                              Request.Options options);
+
     /**
      * Check if users can be created (subscription validation)
      */
@@ -196,9 +205,14 @@ public interface UserServiceClient {
                 .inactiveUsers(0)
                 .driverCount(0)
                 .adminCount(0)
+                .source("FALLBACK")
                 .build());
     }
 
+    default ResponseEntity<com.fleetmanagement.companyservice.dto.response.UserStatisticsResponse> getUserStatisticsFallback(UUID companyId, Request.Options options, Exception ex) {
+        return getUserStatisticsFallback(companyId, ex);
+    }
+
     default ResponseEntity<com.fleetmanagement.companyservice.dto.response.BulkValidationResponse> validateBulkCreationFallback(UUID companyId, int userCount, Exception ex) {
         return ResponseEntity.ok(com.fleetmanagement.companyservice.dto.response.BulkValidationResponse.builder()
                 .canCreate(false)
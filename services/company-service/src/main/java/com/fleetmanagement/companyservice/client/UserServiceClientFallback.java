@@ -7,6 +7,7 @@ import com.fleetmanagement.companyservice.dto.response.UserCountResponse;
 import com.fleetmanagement.companyservice.dto.response.UserResponse;
 import com.fleetmanagement.companyservice.client.UserServiceClient;
 import com.fleetmanagement.companyservice.dto.response.*;
+import feign.Request;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -117,9 +118,15 @@ public class UserServiceClientFallback implements UserServiceClient {
                 .totalUsers(0)
                 .activeUsers(0)
                 .driverCount(0)
+                .source("FALLBACK")
                 .build());
     }
 
+    @Override
+    public ResponseEntity<UserStatisticsResponse> getUserStatistics(UUID companyId, Request.Options options) {
+        return getUserStatistics(companyId);
+    }
+
     @Override
     public ResponseEntity<BulkValidationResponse> validateBulkUserCreation(UUID companyId, int userCount) {
         logger.warn("User Service unavailable - using fallback for validateBulkUserCreation: {}", companyId);
@@ -0,0 +1,33 @@
+package com.fleetmanagement.companyservice.client;
+
+import com.fleetmanagement.companyservice.dto.response.ApiResponse;
+import com.fleetmanagement.companyservice.dto.response.VehicleStatisticsResponse;
+import feign.Request;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.UUID;
+
+/**
+ * Vehicle Service Client
+ *
+ * Feign client for reading fleet statistics from the Vehicle Service
+ */
+@FeignClient(
+        name = "vehicle-service",
+        url = "${feign.client.config.vehicle-service.url:http://localhost:8084}",
+        fallback = VehicleServiceClientFallback.class
+)
+public interface VehicleServiceClient {
+
+    /**
+     * Get vehicle statistics for company, with timeouts fitting the caller's budget
+     */
+    @GetMapping("/vehicle-service/api/vehicles/company/{companyId}/statistics")
+    @CircuitBreaker(name = "vehicle-service")
+    ResponseEntity<ApiResponse<VehicleStatisticsResponse>> getVehicleStatistics(@PathVariable("companyId") UUID companyId,
+                                                                              Request.Options options);
+}
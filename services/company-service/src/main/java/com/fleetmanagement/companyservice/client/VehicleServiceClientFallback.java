@@ -0,0 +1,23 @@
+package com.fleetmanagement.companyservice.client;
+
+import com.fleetmanagement.companyservice.dto.response.ApiResponse;
+import com.fleetmanagement.companyservice.dto.response.VehicleStatisticsResponse;
+import feign.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+public class VehicleServiceClientFallback implements VehicleServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleServiceClientFallback.class);
+
+    @Override
+    public ResponseEntity<ApiResponse<VehicleStatisticsResponse>> getVehicleStatistics(UUID companyId, Request.Options options) {
+        logger.warn("Vehicle Service unavailable - using fallback for getVehicleStatistics: {}", companyId);
+        return ResponseEntity.ok(ApiResponse.error("Service unavailable"));
+    }
+}
@@ -2,9 +2,13 @@
 
 package com.fleetmanagement.companyservice.config;
 
+import com.fleetmanagement.common.security.GatewayHeaderSigner;
+import com.fleetmanagement.common.security.PrincipalResolver;
 import com.fleetmanagement.companyservice.security.JwtAuthenticationFilter;
+import com.fleetmanagement.companyservice.security.ServiceAuthenticationFilter;
 import com.fleetmanagement.companyservice.service.JwtTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -18,6 +22,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -31,13 +37,37 @@ public class SecurityConfig {
         this.jwtTokenService = jwtTokenService;
     }
 
+    /**
+     * Resolves the caller once per request; identity headers signed by the gateway
+     * are trusted only when enabled and the shared secret is configured
+     */
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenService);
+    public PrincipalResolver principalResolver(@Value("${security.gateway-headers.enabled:false}") boolean trustGatewayHeaders,
+                                               @Value("${security.gateway-headers.secret:}") String gatewaySecret) {
+        GatewayHeaderSigner gatewaySigner = trustGatewayHeaders && !gatewaySecret.isEmpty()
+                ? new GatewayHeaderSigner(gatewaySecret)
+                : null;
+        return new PrincipalResolver(jwtTokenService.getVerifier(), gatewaySigner);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public JwtAuthenticationFilter jwtAuthenticationFilter(PrincipalResolver principalResolver) {
+        return new JwtAuthenticationFilter(jwtTokenService, principalResolver);
+    }
+
+    /**
+     * Authenticates service-to-service calls that carry the shared service token
+     */
+    @Bean
+    public ServiceAuthenticationFilter serviceAuthenticationFilter(@Value("${security.service-auth.token:}") String serviceToken,
+                                                                   @Value("${security.service-auth.services:vehicle-service,user-service}") List<String> services) {
+        return new ServiceAuthenticationFilter(serviceToken, new HashSet<>(services));
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           JwtAuthenticationFilter jwtAuthenticationFilter,
+                                           ServiceAuthenticationFilter serviceAuthenticationFilter) throws Exception {
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable()) // CRITICAL: Disable CSRF for API endpoints
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -59,7 +89,8 @@ public class SecurityConfig {
                 );
 
         // Add JWT filter
-        http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(serviceAuthenticationFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
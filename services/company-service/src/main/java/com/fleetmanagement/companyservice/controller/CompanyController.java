@@ -4,8 +4,11 @@ import com.fleetmanagement.companyservice.domain.enums.CompanyStatus;
 import com.fleetmanagement.companyservice.domain.enums.SubscriptionPlan;
 import com.fleetmanagement.companyservice.dto.request.BulkUserOperationRequest;
 import com.fleetmanagement.companyservice.dto.request.CreateCompanyRequest;
+import com.fleetmanagement.companyservice.dto.request.QuotaLeaseBatchRequest;
 import com.fleetmanagement.companyservice.dto.request.UpdateCompanyRequest;
 import com.fleetmanagement.companyservice.dto.response.*;
+import com.fleetmanagement.companyservice.service.CompanyDashboardService;
+import com.fleetmanagement.companyservice.service.CompanyQuotaService;
 import com.fleetmanagement.companyservice.service.CompanyService;
 import com.fleetmanagement.companyservice.service.CompanyUserManagementService;
 import com.fleetmanagement.companyservice.client.UserServiceClient;
@@ -30,6 +33,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -52,12 +56,18 @@ public class CompanyController {
 
     private final CompanyService companyService;
     private final CompanyUserManagementService userManagementService;
+    private final CompanyQuotaService quotaService;
+    private final CompanyDashboardService dashboardService;
 
     @Autowired
     public CompanyController(CompanyService companyService,
-                             CompanyUserManagementService userManagementService) {
+                             CompanyUserManagementService userManagementService,
+                             CompanyQuotaService quotaService,
+                             CompanyDashboardService dashboardService) {
         this.companyService = companyService;
         this.userManagementService = userManagementService;
+        this.quotaService = quotaService;
+        this.dashboardService = dashboardService;
     }
 
     // ==================== COMPANY CRUD OPERATIONS ====================
@@ -546,6 +556,30 @@ public class CompanyController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    @GetMapping("/{companyId}/dashboard")
+    @Operation(summary = "Get company dashboard", description = "Get company, user, vehicle and device statistics in one call")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Dashboard retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Company not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('SUPER_ADMIN') or @companyPermissionService.hasCompanyAccess(authentication, #companyId)")
+    public ResponseEntity<com.fleetmanagement.companyservice.dto.response.ApiResponse<CompanyDashboardResponse>> getCompanyDashboard(
+            @PathVariable @Parameter(description = "Company ID") UUID companyId) {
+
+        logger.debug("Get dashboard for company: {}", companyId);
+
+        CompanyDashboardResponse dashboard = dashboardService.getDashboard(companyId);
+
+        com.fleetmanagement.companyservice.dto.response.ApiResponse<CompanyDashboardResponse> apiResponse =
+                com.fleetmanagement.companyservice.dto.response.ApiResponse.success(
+                        dashboard,
+                        dashboard.isComplete() ? "Dashboard retrieved successfully" : "Dashboard retrieved with unavailable sections"
+                );
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
     // ==================== USER COUNT TRACKING ====================
 
     @GetMapping("/{companyId}/user-count")
@@ -581,6 +615,83 @@ public class CompanyController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    // ==================== VEHICLE QUOTA ====================
+
+    @PostMapping("/{companyId}/vehicles/reserve")
+    @Operation(summary = "Reserve vehicle slots", description = "Reserve up to the requested number of vehicle slots in one call")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reservation processed (granted may be lower than requested)"),
+            @ApiResponse(responseCode = "404", description = "Company not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('SUPER_ADMIN') or @companyPermissionService.hasCompanyAccess(authentication, #companyId)")
+    public ResponseEntity<com.fleetmanagement.companyservice.dto.response.ApiResponse<VehicleSlotReservationResponse>> reserveVehicleSlots(
+            @PathVariable @Parameter(description = "Company ID") UUID companyId,
+            @Parameter(description = "Number of vehicle slots") @RequestParam int count) {
+
+        logger.info("Reserve {} vehicle slots for company: {}", count, companyId);
+
+        VehicleSlotReservationResponse reservation = quotaService.reserveVehicleSlots(companyId, count);
+
+        com.fleetmanagement.companyservice.dto.response.ApiResponse<VehicleSlotReservationResponse> apiResponse =
+                com.fleetmanagement.companyservice.dto.response.ApiResponse.success(
+                        reservation,
+                        reservation.getMessage()
+                );
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @PostMapping("/{companyId}/vehicles/release")
+    @Operation(summary = "Release vehicle slots", description = "Return previously reserved vehicle slots")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Vehicle slots released"),
+            @ApiResponse(responseCode = "404", description = "Company not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('SUPER_ADMIN') or @companyPermissionService.hasCompanyAccess(authentication, #companyId)")
+    public ResponseEntity<com.fleetmanagement.companyservice.dto.response.ApiResponse<Void>> releaseVehicleSlots(
+            @PathVariable @Parameter(description = "Company ID") UUID companyId,
+            @Parameter(description = "Number of vehicle slots") @RequestParam int count) {
+
+        logger.info("Release {} vehicle slots for company: {}", count, companyId);
+
+        quotaService.releaseVehicleSlots(companyId, count);
+
+        com.fleetmanagement.companyservice.dto.response.ApiResponse<Void> apiResponse =
+                com.fleetmanagement.companyservice.dto.response.ApiResponse.success(
+                        null,
+                        "Vehicle slots released"
+                );
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @PostMapping("/quota/leases")
+    @Operation(summary = "Sync quota leases", description = "Apply batched usage deltas from a service instance and renew its quota leases, for any number of companies")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Leases synced; failed entries carry an error"),
+            @ApiResponse(responseCode = "400", description = "Invalid lease data"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('SERVICE')")
+    public ResponseEntity<com.fleetmanagement.companyservice.dto.response.ApiResponse<List<QuotaLeaseResponse>>> syncQuotaLeases(
+            @Valid @RequestBody QuotaLeaseBatchRequest request,
+            Authentication authentication) {
+
+        logger.debug("Sync {} quota leases from service: {}", request.getLeases().size(), authentication.getName());
+
+        List<QuotaLeaseResponse> leases = quotaService.syncLeases(authentication.getName(), request.getLeases());
+
+        com.fleetmanagement.companyservice.dto.response.ApiResponse<List<QuotaLeaseResponse>> apiResponse =
+                com.fleetmanagement.companyservice.dto.response.ApiResponse.success(
+                        leases,
+                        "Quota leases synced"
+                );
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
     // ==================== BULK VALIDATION ====================
 
     @PostMapping("/{companyId}/validate-bulk-creation")
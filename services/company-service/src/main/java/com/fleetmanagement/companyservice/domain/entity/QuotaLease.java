@@ -0,0 +1,59 @@
+package com.fleetmanagement.companyservice.domain.entity;
+
+import com.fleetmanagement.companyservice.domain.enums.QuotaResourceType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Quota held by one service instance for one company and resource
+ */
+@Entity
+@Table(name = "quota_leases", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_quota_leases_holder", columnNames = {"company_id", "resource_type", "holder_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class QuotaLease {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resource_type", nullable = false, length = 20)
+    private QuotaResourceType resourceType;
+
+    @Column(name = "holder_id", nullable = false, length = 255)
+    private String holderId;
+
+    @Column(name = "leased_slots", nullable = false)
+    @Builder.Default
+    private Integer leasedSlots = 0;
+
+    @Column(name = "last_sequence", nullable = false)
+    @Builder.Default
+    private Long lastSequence = 0L;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
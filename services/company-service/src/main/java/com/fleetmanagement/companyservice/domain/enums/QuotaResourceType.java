@@ -0,0 +1,16 @@
+package com.fleetmanagement.companyservice.domain.enums;
+
+public enum QuotaResourceType {
+    VEHICLE("Vehicle slots limited by maxVehicles"),
+    USER("User slots limited by maxUsers");
+
+    private final String description;
+
+    QuotaResourceType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,21 @@
+package com.fleetmanagement.companyservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuotaLeaseBatchRequest {
+
+    @NotEmpty(message = "At least one lease is required")
+    @Valid
+    private List<QuotaLeaseSyncRequest> leases;
+}
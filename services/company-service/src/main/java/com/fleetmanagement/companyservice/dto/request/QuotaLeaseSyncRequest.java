@@ -0,0 +1,43 @@
+package com.fleetmanagement.companyservice.dto.request;
+
+import com.fleetmanagement.companyservice.domain.enums.QuotaResourceType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Usage deltas and desired lease size reported by one quota holder for one company
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuotaLeaseSyncRequest {
+
+    @NotNull(message = "Company ID is required")
+    private UUID companyId;
+
+    @NotNull(message = "Resource type is required")
+    private QuotaResourceType resourceType;
+
+    @NotBlank(message = "Holder ID is required")
+    private String holderId;
+
+    @Min(value = 1, message = "Sequence must be positive")
+    private long sequence; // Increases per new delta batch; a retried batch reuses its sequence
+
+    @Min(value = 0, message = "Consumed must be non-negative")
+    private int consumed; // Slots taken from the lease since the last sync
+
+    @Min(value = 0, message = "Released must be non-negative")
+    private int released; // Slots freed (entities deleted) since the last sync
+
+    @Min(value = 0, message = "Desired slots must be non-negative")
+    private int desiredSlots; // Unused slots the holder wants to keep; 0 returns the lease
+}
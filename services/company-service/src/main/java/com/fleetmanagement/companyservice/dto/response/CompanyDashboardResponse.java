@@ -0,0 +1,60 @@
+package com.fleetmanagement.companyservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fleetmanagement.companyservice.domain.enums.CompanyStatus;
+import com.fleetmanagement.companyservice.domain.enums.SubscriptionPlan;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Company Dashboard Response
+ *
+ * Company overview assembled from the company record and the user, vehicle
+ * and device statistics of the owning services. Sections whose service did
+ * not answer in time are null and listed in unavailableSections.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompanyDashboardResponse {
+
+    public static final String USERS = "users";
+    public static final String VEHICLES = "vehicles";
+    public static final String DEVICES = "devices";
+
+    private UUID companyId;
+    private String companyName;
+    private CompanyStatus status;
+    private SubscriptionPlan subscriptionPlan;
+
+    // Subscription limits and usage tracked by the company service
+    private Integer maxUsers;
+    private Integer maxVehicles;
+    private Integer currentUserCount;
+    private Integer currentVehicleCount;
+
+    private UserStatisticsResponse users;
+    private VehicleStatisticsResponse vehicles;
+    private DeviceStatisticsResponse devices;
+
+    private List<String> unavailableSections;
+
+    private boolean fromCache;
+
+    private LocalDateTime generatedAt;
+
+    /**
+     * Whether every downstream section was available
+     */
+    public boolean isComplete() {
+        return unavailableSections == null || unavailableSections.isEmpty();
+    }
+}
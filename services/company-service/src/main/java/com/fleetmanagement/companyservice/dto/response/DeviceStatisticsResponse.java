@@ -0,0 +1,23 @@
+package com.fleetmanagement.companyservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Device statistics of a company as reported by the Device Service
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DeviceStatisticsResponse {
+
+    private long totalDevices;
+    private long activeDevices;
+    private long connectedDevices;
+    private long mobileDevices;
+}
@@ -0,0 +1,30 @@
+package com.fleetmanagement.companyservice.dto.response;
+
+import com.fleetmanagement.companyservice.domain.enums.QuotaResourceType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QuotaLeaseResponse {
+    private UUID companyId;
+    private QuotaResourceType resourceType;
+    private String holderId;
+    private long sequence;
+    private boolean applied; // false when the sequence was already applied (retried call)
+    private int leasedSlots; // Unused slots now held by the caller
+    private int currentCount;
+    private int maxCount;
+    private long leaseTtlSeconds;
+    private LocalDateTime expiresAt;
+    private String error; // Set when this lease could not be synced; other leases in the batch are unaffected
+}
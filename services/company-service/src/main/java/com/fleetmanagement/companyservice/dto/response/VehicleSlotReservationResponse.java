@@ -0,0 +1,21 @@
+package com.fleetmanagement.companyservice.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleSlotReservationResponse {
+    private UUID companyId;
+    private int requested;
+    private int granted;
+    private int currentVehicles;
+    private int maxVehicles;
+    private String message;
+}
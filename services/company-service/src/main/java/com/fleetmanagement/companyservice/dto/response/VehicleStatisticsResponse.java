@@ -0,0 +1,27 @@
+package com.fleetmanagement.companyservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Vehicle statistics of a company as reported by the Vehicle Service
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class VehicleStatisticsResponse {
+
+    private int totalVehicles;
+    private int activeVehicles;
+    private int assignedVehicles;
+    private int unassignedVehicles;
+    private Map<String, Integer> vehiclesByType;
+    private Map<String, Integer> vehiclesByStatus;
+}
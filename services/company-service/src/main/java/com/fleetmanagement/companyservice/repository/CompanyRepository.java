@@ -5,7 +5,9 @@ import com.fleetmanagement.companyservice.domain.enums.CompanyStatus;
 import com.fleetmanagement.companyservice.domain.enums.SubscriptionPlan;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -116,6 +118,11 @@ public interface CompanyRepository extends JpaRepository<Company, UUID> {
     @Query("UPDATE Company c SET c.currentVehicleCount = c.currentVehicleCount - 1 WHERE c.id = :companyId AND c.currentVehicleCount > 0")
     void decrementVehicleCount(@Param("companyId") UUID companyId);
 
+    // Quota operations serialize on the company row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Company c WHERE c.id = :companyId")
+    Optional<Company> findByIdForUpdate(@Param("companyId") UUID companyId);
+
     // Custom validation queries
     @Query("SELECT CASE WHEN c.currentUserCount < c.maxUsers THEN true ELSE false END FROM Company c WHERE c.id = :companyId")
     boolean canAddUser(@Param("companyId") UUID companyId);
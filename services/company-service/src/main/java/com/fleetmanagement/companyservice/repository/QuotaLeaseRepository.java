@@ -0,0 +1,30 @@
+package com.fleetmanagement.companyservice.repository;
+
+import com.fleetmanagement.companyservice.domain.entity.QuotaLease;
+import com.fleetmanagement.companyservice.domain.enums.QuotaResourceType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface QuotaLeaseRepository extends JpaRepository<QuotaLease, UUID> {
+
+    Optional<QuotaLease> findByCompanyIdAndResourceTypeAndHolderId(UUID companyId, QuotaResourceType resourceType, String holderId);
+
+    @Query("SELECT COALESCE(SUM(l.leasedSlots), 0) FROM QuotaLease l WHERE l.companyId = :companyId " +
+            "AND l.resourceType = :resourceType AND l.expiresAt > :now AND l.holderId <> :excludedHolderId")
+    long sumActiveLeasedSlots(@Param("companyId") UUID companyId,
+                              @Param("resourceType") QuotaResourceType resourceType,
+                              @Param("now") LocalDateTime now,
+                              @Param("excludedHolderId") String excludedHolderId);
+
+    @Modifying
+    @Query("DELETE FROM QuotaLease l WHERE l.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
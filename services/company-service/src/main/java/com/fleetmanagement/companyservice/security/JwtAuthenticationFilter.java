@@ -2,7 +2,10 @@
 
 package com.fleetmanagement.companyservice.security;
 
+import com.fleetmanagement.common.security.PrincipalResolver;
+import com.fleetmanagement.common.security.VerifiedPrincipal;
 import com.fleetmanagement.companyservice.service.JwtTokenService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,16 +21,17 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtTokenService jwtTokenService;
+    private final PrincipalResolver principalResolver;
 
-    public JwtAuthenticationFilter(JwtTokenService jwtTokenService) {
+    public JwtAuthenticationFilter(JwtTokenService jwtTokenService, PrincipalResolver principalResolver) {
         this.jwtTokenService = jwtTokenService;
+        this.principalResolver = principalResolver;
     }
 
     @Override
@@ -38,24 +42,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenService.validateAccessToken(jwt)) {
-                // Extract user information from JWT
-                UUID userId = jwtTokenService.getUserIdFromToken(jwt);
-                String username = jwtTokenService.getUsernameFromToken(jwt);
-                String role = jwtTokenService.getRoleFromToken(jwt);
+            // Signed gateway headers when trusted, otherwise one parse of the token
+            VerifiedPrincipal principal = principalResolver.resolve(request, StringUtils.hasText(jwt) ? jwt : null);
+
+            if (principal != null && principal.isAccessToken() && principal.getUserId() != null) {
+                String username = principal.getUsername();
+                String role = principal.getRole();
 
                 logger.debug("Valid JWT token found for user: {}", username);
 
                 // Create UserDetails
                 UserDetails userDetails = User.builder()
-                        .username(userId.toString()) // Use userId as principal
+                        .username(principal.getUserId().toString()) // Use userId as principal
                         .password("") // Password not needed for JWT authentication
                         .authorities("ROLE_" + role)
                         .build();
 
-                // Create authentication token
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                // Keep the raw token as credentials so Feign calls can forward it
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails, StringUtils.hasText(jwt) ? jwt : null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 // Set authentication in security context
@@ -63,6 +68,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 logger.debug("Successfully authenticated user: {} with role: {}", username, role);
             }
+        } catch (JwtException | IllegalArgumentException ex) {
+            logger.debug("JWT validation failed: {}", ex.getMessage());
+            SecurityContextHolder.clearContext();
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
             SecurityContextHolder.clearContext();
@@ -0,0 +1,68 @@
+package com.fleetmanagement.companyservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Authenticates calls from other fleet services that run without a user, such
+ * as scheduled quota lease syncs. The caller names itself in X-Service-Name
+ * and presents the shared service token in X-Service-Token; a known name with
+ * the right token is authenticated as that service with ROLE_SERVICE.
+ */
+public class ServiceAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String SERVICE_NAME = "X-Service-Name";
+    public static final String SERVICE_TOKEN = "X-Service-Token";
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceAuthenticationFilter.class);
+
+    private final byte[] token;
+    private final Set<String> services;
+
+    /**
+     * @param token shared service token; blank disables service authentication
+     * @param services names of the services allowed to authenticate
+     */
+    public ServiceAuthenticationFilter(String token, Set<String> services) {
+        this.token = StringUtils.hasText(token) ? token.getBytes(StandardCharsets.UTF_8) : null;
+        this.services = Set.copyOf(services);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String serviceName = request.getHeader(SERVICE_NAME);
+        String presented = request.getHeader(SERVICE_TOKEN);
+
+        if (token != null && presented != null && serviceName != null) {
+            if (services.contains(serviceName)
+                    && MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        serviceName, null, List.of(new SimpleGrantedAuthority("ROLE_SERVICE")));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                logger.debug("Authenticated service: {}", serviceName);
+            } else {
+                logger.warn("Rejected service token from: {}", serviceName);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
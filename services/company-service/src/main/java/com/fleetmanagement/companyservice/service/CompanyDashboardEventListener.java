@@ -0,0 +1,61 @@
+package com.fleetmanagement.companyservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Company Dashboard Event Listener
+ *
+ * Evicts a company's cached dashboard when the user or device service
+ * reports a change that affects its statistics. Only the companyId of the
+ * event is read; the dashboard is rebuilt on the next request.
+ */
+@Component
+public class CompanyDashboardEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanyDashboardEventListener.class);
+
+    private final CompanyDashboardService dashboardService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CompanyDashboardEventListener(CompanyDashboardService dashboardService, ObjectMapper objectMapper) {
+        this.dashboardService = dashboardService;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(
+            topics = {
+                    "${app.kafka.topics.user-created:user.created}",
+                    "${app.kafka.topics.user-updated:user.updated}",
+                    "${app.kafka.topics.user-deleted:user.deleted}",
+                    "${app.kafka.topics.user-status-changed:user.status.changed}",
+                    "${app.kafka.topics.user-role-changed:user.role.changed}",
+                    "${app.kafka.topics.device-registered:device.registered}",
+                    "${app.kafka.topics.device-status-changed:device.status.changed}"
+            },
+            groupId = "${app.company.dashboard.consumer-group:company-service-dashboard}",
+            autoStartup = "${app.company.dashboard.invalidation-enabled:true}"
+    )
+    public void onCompanyDataChanged(@Payload String message, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        try {
+            JsonNode companyId = objectMapper.readTree(message).get("companyId");
+            if (companyId == null || companyId.isNull()) {
+                return;
+            }
+            dashboardService.evict(UUID.fromString(companyId.asText()));
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable {} event for dashboard invalidation - {}", topic, e.getMessage());
+        }
+    }
+}
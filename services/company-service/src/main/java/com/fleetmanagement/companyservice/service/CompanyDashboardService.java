@@ -0,0 +1,239 @@
+package com.fleetmanagement.companyservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.companyservice.client.DeviceServiceClient;
+import com.fleetmanagement.companyservice.client.UserServiceClient;
+import com.fleetmanagement.companyservice.client.VehicleServiceClient;
+import com.fleetmanagement.companyservice.domain.entity.Company;
+import com.fleetmanagement.companyservice.dto.response.ApiResponse;
+import com.fleetmanagement.companyservice.dto.response.CompanyDashboardResponse;
+import com.fleetmanagement.companyservice.dto.response.DeviceStatisticsResponse;
+import com.fleetmanagement.companyservice.dto.response.UserStatisticsResponse;
+import com.fleetmanagement.companyservice.dto.response.VehicleStatisticsResponse;
+import com.fleetmanagement.companyservice.exception.CompanyNotFoundException;
+import com.fleetmanagement.companyservice.repository.CompanyRepository;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Company Dashboard Service
+ *
+ * Builds the company dashboard by querying the user, vehicle and device
+ * services in parallel on a bounded pool, each call capped by its own
+ * timeout. The calls carry connect and read timeouts within that budget, so
+ * a slow service frees its pool thread about when its section is given up
+ * instead of at the client's default timeout. A section that fails or
+ * answers late is left out and reported as
+ * unavailable instead of failing the whole dashboard. Complete dashboards are
+ * cached in Redis until the TTL passes or an event for the company evicts them.
+ */
+@Service
+public class CompanyDashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanyDashboardService.class);
+
+    private static final String DASHBOARD_CACHE_PREFIX = "company:dashboard:";
+
+    private final CompanyRepository companyRepository;
+    private final UserServiceClient userServiceClient;
+    private final VehicleServiceClient vehicleServiceClient;
+    private final DeviceServiceClient deviceServiceClient;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final Executor callExecutor;
+    private final long callTimeoutMillis;
+    private final Request.Options callOptions;
+    private final Duration cacheTtl;
+
+    @Autowired
+    public CompanyDashboardService(CompanyRepository companyRepository,
+                                   UserServiceClient userServiceClient,
+                                   VehicleServiceClient vehicleServiceClient,
+                                   DeviceServiceClient deviceServiceClient,
+                                   RedisTemplate<String, Object> redisTemplate,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.company.dashboard.threads:16}") int threads,
+                                   @Value("${app.company.dashboard.queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.company.dashboard.call-timeout-ms:2000}") long callTimeoutMillis,
+                                   @Value("${app.company.dashboard.cache-ttl-seconds:60}") long cacheTtlSeconds) {
+        this.companyRepository = companyRepository;
+        this.userServiceClient = userServiceClient;
+        this.vehicleServiceClient = vehicleServiceClient;
+        this.deviceServiceClient = deviceServiceClient;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.callTimeoutMillis = callTimeoutMillis;
+        this.callOptions = new Request.Options(Math.min(1000, callTimeoutMillis / 2), TimeUnit.MILLISECONDS,
+                callTimeoutMillis, TimeUnit.MILLISECONDS, true);
+        this.cacheTtl = Duration.ofSeconds(cacheTtlSeconds);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "company-dashboard-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Feign calls forward the caller's token, so the security context must reach the pool threads
+        this.callExecutor = new DelegatingSecurityContextExecutor(
+                ExecutorServiceMetrics.monitor(meterRegistry, executor, "company.dashboard"));
+    }
+
+    /**
+     * Get the dashboard of a company, from cache when available
+     */
+    public CompanyDashboardResponse getDashboard(UUID companyId) {
+        CompanyDashboardResponse cached = readCache(companyId);
+        if (cached != null) {
+            cached.setFromCache(true);
+            return cached;
+        }
+
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new CompanyNotFoundException("Company not found with ID: " + companyId));
+
+        CompletableFuture<UserStatisticsResponse> users = fetch(CompanyDashboardResponse.USERS, companyId,
+                () -> userStatistics(companyId));
+        CompletableFuture<VehicleStatisticsResponse> vehicles = fetch(CompanyDashboardResponse.VEHICLES, companyId,
+                () -> unwrap(vehicleServiceClient.getVehicleStatistics(companyId, callOptions)));
+        CompletableFuture<DeviceStatisticsResponse> devices = fetch(CompanyDashboardResponse.DEVICES, companyId,
+                () -> unwrap(deviceServiceClient.getDeviceStatistics(companyId, callOptions)));
+
+        // Every future completes by its timeout, so this wait is bounded by the slowest call
+        CompletableFuture.allOf(users, vehicles, devices).join();
+
+        List<String> unavailable = new ArrayList<>();
+        if (users.join() == null) {
+            unavailable.add(CompanyDashboardResponse.USERS);
+        }
+        if (vehicles.join() == null) {
+            unavailable.add(CompanyDashboardResponse.VEHICLES);
+        }
+        if (devices.join() == null) {
+            unavailable.add(CompanyDashboardResponse.DEVICES);
+        }
+
+        CompanyDashboardResponse dashboard = CompanyDashboardResponse.builder()
+                .companyId(company.getId())
+                .companyName(company.getName())
+                .status(company.getStatus())
+                .subscriptionPlan(company.getSubscriptionPlan())
+                .maxUsers(company.getMaxUsers())
+                .maxVehicles(company.getMaxVehicles())
+                .currentUserCount(company.getCurrentUserCount())
+                .currentVehicleCount(company.getCurrentVehicleCount())
+                .users(users.join())
+                .vehicles(vehicles.join())
+                .devices(devices.join())
+                .unavailableSections(unavailable)
+                .generatedAt(LocalDateTime.now())
+                .build();
+
+        // Partial dashboards are not cached so the next request retries the missing sections
+        if (dashboard.isComplete()) {
+            writeCache(companyId, dashboard);
+        } else {
+            logger.warn("Dashboard for company: {} built without sections: {}", companyId, unavailable);
+        }
+        return dashboard;
+    }
+
+    /**
+     * Drop the cached dashboard of a company
+     */
+    public void evict(UUID companyId) {
+        if (companyId == null) {
+            return;
+        }
+        try {
+            redisTemplate.delete(DASHBOARD_CACHE_PREFIX + companyId);
+            logger.debug("Evicted dashboard cache for company: {}", companyId);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to evict dashboard cache for company: {} - {}", companyId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> fetch(String section, UUID companyId, Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, callExecutor)
+                    .completeOnTimeout(null, callTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .exceptionally(ex -> {
+                        logger.warn("Dashboard section {} failed for company: {} - {}", section, companyId, ex.getMessage());
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Dashboard pool saturated, skipping section {} for company: {}", section, companyId);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private UserStatisticsResponse userStatistics(UUID companyId) {
+        UserStatisticsResponse statistics = userServiceClient.getUserStatistics(companyId, callOptions).getBody();
+        // The circuit breaker fallback answers with zeros, which must not pass for real statistics
+        if (statistics == null || "FALLBACK".equals(statistics.getSource())) {
+            return null;
+        }
+        statistics.setCompanyId(companyId);
+        return statistics;
+    }
+
+    private static <T> T unwrap(ResponseEntity<ApiResponse<T>> response) {
+        ApiResponse<T> body = response.getBody();
+        return body != null && body.isSuccess() ? body.getData() : null;
+    }
+
+    private CompanyDashboardResponse readCache(UUID companyId) {
+        try {
+            Object cached = redisTemplate.opsForValue().get(DASHBOARD_CACHE_PREFIX + companyId);
+            if (cached instanceof String json) {
+                return objectMapper.readValue(json, CompanyDashboardResponse.class);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("Failed to read dashboard cache for company: {} - {}", companyId, e.getMessage());
+        }
+        return null;
+    }
+
+    private void writeCache(UUID companyId, CompanyDashboardResponse dashboard) {
+        try {
+            redisTemplate.opsForValue().set(DASHBOARD_CACHE_PREFIX + companyId,
+                    objectMapper.writeValueAsString(dashboard), cacheTtl);
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("Failed to cache dashboard for company: {} - {}", companyId, e.getMessage());
+        }
+    }
+}
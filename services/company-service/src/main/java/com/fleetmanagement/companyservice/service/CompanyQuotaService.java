@@ -0,0 +1,258 @@
+package com.fleetmanagement.companyservice.service;
+
+import com.fleetmanagement.companyservice.domain.entity.Company;
+import com.fleetmanagement.companyservice.domain.entity.QuotaLease;
+import com.fleetmanagement.companyservice.domain.enums.QuotaResourceType;
+import com.fleetmanagement.companyservice.dto.request.QuotaLeaseSyncRequest;
+import com.fleetmanagement.companyservice.dto.response.QuotaLeaseResponse;
+import com.fleetmanagement.companyservice.dto.response.VehicleSlotReservationResponse;
+import com.fleetmanagement.companyservice.exception.CompanyNotFoundException;
+import com.fleetmanagement.companyservice.repository.CompanyRepository;
+import com.fleetmanagement.companyservice.repository.QuotaLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Company Quota Service
+ *
+ * Hands out blocks of vehicle/user quota to service instances so they can
+ * admit creations locally and report usage in batches. The hard limit holds
+ * because every operation runs under a row lock on the company and keeps
+ * current count + slots leased to active holders within the maximum. Leases
+ * expire unless renewed, returning the slots of holders that went away.
+ */
+@Service
+public class CompanyQuotaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanyQuotaService.class);
+
+    // Holder ID that never matches a lease, used when all leases must be counted
+    private static final String NO_HOLDER = "";
+
+    // Quota resource whose leases each calling service keeps
+    private static final Map<String, QuotaResourceType> SERVICE_RESOURCES = Map.of(
+            "vehicle-service", QuotaResourceType.VEHICLE,
+            "user-service", QuotaResourceType.USER);
+
+    private final CompanyRepository companyRepository;
+    private final QuotaLeaseRepository quotaLeaseRepository;
+    private final EventPublishingService eventPublishingService;
+    private final CompanyDashboardService dashboardService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.quota.lease-ttl-seconds:300}")
+    private long leaseTtlSeconds;
+
+    @Value("${app.quota.max-lease-slots:100}")
+    private int maxLeaseSlots;
+
+    @Value("${app.quota.expired-lease-retention-hours:24}")
+    private long expiredLeaseRetentionHours;
+
+    @Autowired
+    public CompanyQuotaService(CompanyRepository companyRepository,
+                               QuotaLeaseRepository quotaLeaseRepository,
+                               EventPublishingService eventPublishingService,
+                               CompanyDashboardService dashboardService,
+                               PlatformTransactionManager transactionManager) {
+        this.companyRepository = companyRepository;
+        this.quotaLeaseRepository = quotaLeaseRepository;
+        this.eventPublishingService = eventPublishingService;
+        this.dashboardService = dashboardService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Apply usage deltas and renew leases for many companies in one call.
+     * Each lease is synced in its own transaction so one failure does not affect the others.
+     * A service may only sync leases of its own resource type held by its own instances.
+     */
+    public List<QuotaLeaseResponse> syncLeases(String serviceName, List<QuotaLeaseSyncRequest> requests) {
+        List<QuotaLeaseResponse> responses = new ArrayList<>(requests.size());
+        for (QuotaLeaseSyncRequest request : requests) {
+            try {
+                checkLeaseOwner(serviceName, request);
+                responses.add(transactionTemplate.execute(status -> syncLease(request)));
+            } catch (RuntimeException e) {
+                logger.warn("Quota lease sync failed for company: {} holder: {} - {}",
+                        request.getCompanyId(), request.getHolderId(), e.getMessage());
+                responses.add(QuotaLeaseResponse.builder()
+                        .companyId(request.getCompanyId())
+                        .resourceType(request.getResourceType())
+                        .holderId(request.getHolderId())
+                        .sequence(request.getSequence())
+                        .error(e.getMessage())
+                        .build());
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Reserve up to the requested number of vehicle slots outright (not leased).
+     * Grants fewer slots than requested when the company is close to its limit.
+     */
+    @Transactional
+    public VehicleSlotReservationResponse reserveVehicleSlots(UUID companyId, int requested) {
+        Company company = lockCompany(companyId);
+        LocalDateTime now = LocalDateTime.now();
+
+        int leased = (int) quotaLeaseRepository.sumActiveLeasedSlots(companyId, QuotaResourceType.VEHICLE, now, NO_HOLDER);
+        int available = Math.max(0, company.getMaxVehicles() - company.getCurrentVehicleCount() - leased);
+        int granted = Math.min(Math.max(requested, 0), available);
+        company.setCurrentVehicleCount(company.getCurrentVehicleCount() + granted);
+        if (granted > 0) {
+            evictDashboardAfterCommit(companyId);
+        }
+
+        logger.debug("Reserved {} of {} vehicle slots for company: {}", granted, requested, companyId);
+        return VehicleSlotReservationResponse.builder()
+                .companyId(companyId)
+                .requested(requested)
+                .granted(granted)
+                .currentVehicles(company.getCurrentVehicleCount())
+                .maxVehicles(company.getMaxVehicles())
+                .message(granted < requested ? "Company vehicle limit reached" : "Vehicle slots reserved")
+                .build();
+    }
+
+    /**
+     * Return previously reserved vehicle slots
+     */
+    @Transactional
+    public void releaseVehicleSlots(UUID companyId, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Company company = lockCompany(companyId);
+        company.setCurrentVehicleCount(Math.max(0, company.getCurrentVehicleCount() - count));
+        evictDashboardAfterCommit(companyId);
+        logger.debug("Released {} vehicle slots for company: {}", count, companyId);
+    }
+
+    /**
+     * Drop leases that expired long enough ago that their holders will not retry
+     */
+    @Scheduled(fixedDelayString = "${app.quota.lease-cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpiredLeases() {
+        int deleted = quotaLeaseRepository.deleteExpiredBefore(LocalDateTime.now().minusHours(expiredLeaseRetentionHours));
+        if (deleted > 0) {
+            logger.info("Purged {} expired quota leases", deleted);
+        }
+    }
+
+    private QuotaLeaseResponse syncLease(QuotaLeaseSyncRequest request) {
+        UUID companyId = request.getCompanyId();
+        QuotaResourceType resourceType = request.getResourceType();
+        Company company = lockCompany(companyId);
+        LocalDateTime now = LocalDateTime.now();
+
+        QuotaLease lease = quotaLeaseRepository
+                .findByCompanyIdAndResourceTypeAndHolderId(companyId, resourceType, request.getHolderId())
+                .orElseGet(() -> QuotaLease.builder()
+                        .companyId(companyId)
+                        .resourceType(resourceType)
+                        .holderId(request.getHolderId())
+                        .build());
+
+        // A retried call must not apply its deltas twice
+        boolean applied = request.getSequence() > lease.getLastSequence();
+        if (applied) {
+            applyDeltas(company, resourceType, request.getConsumed(), request.getReleased());
+            lease.setLastSequence(request.getSequence());
+        }
+
+        int current = currentCount(company, resourceType);
+        int max = maxCount(company, resourceType);
+        int leasedToOthers = (int) quotaLeaseRepository.sumActiveLeasedSlots(companyId, resourceType, now, request.getHolderId());
+        int capacity = Math.max(0, max - current - leasedToOthers);
+        int granted = Math.min(Math.min(request.getDesiredSlots(), maxLeaseSlots), capacity);
+
+        lease.setLeasedSlots(granted);
+        lease.setExpiresAt(now.plusSeconds(leaseTtlSeconds));
+        quotaLeaseRepository.save(lease);
+
+        return QuotaLeaseResponse.builder()
+                .companyId(companyId)
+                .resourceType(resourceType)
+                .holderId(request.getHolderId())
+                .sequence(request.getSequence())
+                .applied(applied)
+                .leasedSlots(granted)
+                .currentCount(current)
+                .maxCount(max)
+                .leaseTtlSeconds(leaseTtlSeconds)
+                .expiresAt(lease.getExpiresAt())
+                .build();
+    }
+
+    private void applyDeltas(Company company, QuotaResourceType resourceType, int consumed, int released) {
+        if (consumed == 0 && released == 0) {
+            return;
+        }
+        evictDashboardAfterCommit(company.getId());
+        if (resourceType == QuotaResourceType.VEHICLE) {
+            company.setCurrentVehicleCount(Math.max(0, company.getCurrentVehicleCount() + consumed - released));
+        } else {
+            int oldCount = company.getCurrentUserCount();
+            int newCount = Math.max(0, oldCount + consumed - released);
+            company.setCurrentUserCount(newCount);
+            if (newCount != oldCount) {
+                eventPublishingService.publishCompanyUserCountChangedEvent(company, oldCount, newCount);
+            }
+        }
+    }
+
+    // Holder IDs start with the name of the service the instance belongs to
+    private static void checkLeaseOwner(String serviceName, QuotaLeaseSyncRequest request) {
+        if (request.getResourceType() != SERVICE_RESOURCES.get(serviceName)
+                || !request.getHolderId().startsWith(serviceName + "-")) {
+            throw new AccessDeniedException("Service " + serviceName + " may not sync " + request.getResourceType()
+                    + " lease of holder " + request.getHolderId());
+        }
+    }
+
+    private Company lockCompany(UUID companyId) {
+        return companyRepository.findByIdForUpdate(companyId)
+                .orElseThrow(() -> new CompanyNotFoundException("Company not found with ID: " + companyId));
+    }
+
+    private static int currentCount(Company company, QuotaResourceType resourceType) {
+        return resourceType == QuotaResourceType.VEHICLE ? company.getCurrentVehicleCount() : company.getCurrentUserCount();
+    }
+
+    private static int maxCount(Company company, QuotaResourceType resourceType) {
+        return resourceType == QuotaResourceType.VEHICLE ? company.getMaxVehicles() : company.getMaxUsers();
+    }
+
+    // Evicting before commit would let a concurrent request cache the old counts again
+    private void evictDashboardAfterCommit(UUID companyId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dashboardService.evict(companyId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dashboardService.evict(companyId);
+            }
+        });
+    }
+}
@@ -1,46 +1,39 @@
 package com.fleetmanagement.companyservice.service;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import com.fleetmanagement.common.security.JwtVerifier;
+import com.fleetmanagement.common.security.RequestPrincipalCache;
+import com.fleetmanagement.common.security.VerifiedPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 /**
- * FIXED JwtTokenService - Compatible with JJWT 0.11.x
+ * JWT Token Service
  *
- * Changed from verifyWith() to setSigningKey() method which is supported in 0.11.x
+ * Verifies tokens issued by the user service with the shared verifier. A token
+ * is parsed once per request; the claim getters read the cached principal.
  */
 @Service
 public class JwtTokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenService.class);
 
-    @Value("${jwt.secret:fleet-management-secret-key-for-jwt-token-signing-should-be-very-long-and-secure-and-is-at-least-64-bytes}")
-    private String jwtSecret;
+    private final JwtVerifier verifier;
 
-    @Value("${jwt.expiration:86400000}")
-    private long jwtExpirationTime;
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtTokenService(@Value("${jwt.secret:fleet-management-secret-key-for-jwt-token-signing-should-be-very-long-and-secure-and-is-at-least-64-bytes}") String jwtSecret) {
+        this.verifier = new JwtVerifier(jwtSecret);
     }
 
     public boolean validateAccessToken(String token) {
         try {
-            // Fixed: Use setSigningKey() instead of verifyWith() for JJWT 0.11.x compatibility
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            verifyToken(token);
             return true;
         } catch (Exception e) {
             logger.debug("JWT validation failed: {}", e.getMessage());
@@ -49,24 +42,19 @@ public class JwtTokenService {
     }
 
     public UUID getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return UUID.fromString(claims.getSubject());
+        return verifyToken(token).getUserId();
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("username", String.class);
+        return verifyToken(token).getUsername();
     }
 
     public String getRoleFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("role", String.class);
+        return verifyToken(token).getRole();
     }
 
     public UUID getCompanyIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        String companyIdStr = claims.get("companyId", String.class);
-        return companyIdStr != null ? UUID.fromString(companyIdStr) : null;
+        return verifyToken(token).getCompanyId();
     }
 
     public String extractTokenFromHeader(String authHeader) {
@@ -76,21 +64,35 @@ public class JwtTokenService {
         return null;
     }
 
-    private Claims getClaimsFromToken(String token) {
-        // Fixed: Use setSigningKey() instead of verifyWith() for JJWT 0.11.x compatibility
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verify a token once per request; later calls with the same token read the cached principal
+     */
+    public VerifiedPrincipal verifyToken(String token) {
+        HttpServletRequest request = currentRequest();
+        VerifiedPrincipal principal = RequestPrincipalCache.get(request, token);
+        if (principal == null) {
+            principal = verifier.verify(token);
+            if (request != null) {
+                RequestPrincipalCache.put(request, token, principal);
+            }
+        }
+        return principal;
+    }
+
+    public JwtVerifier getVerifier() {
+        return verifier;
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
     }
 
     // Additional utility methods for token validation
 
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = getClaimsFromToken(token);
-            return claims.getExpiration().before(new java.util.Date());
+            return verifyToken(token).isExpiredAt(System.currentTimeMillis());
         } catch (Exception e) {
             logger.debug("Error checking token expiration: {}", e.getMessage());
             return true; // Consider expired if we can't parse
@@ -109,8 +111,7 @@ public class JwtTokenService {
 
     public String getIssuerFromToken(String token) {
         try {
-            Claims claims = getClaimsFromToken(token);
-            return claims.getIssuer();
+            return verifier.verifyClaims(token).getIssuer();
         } catch (Exception e) {
             logger.debug("Error getting issuer from token: {}", e.getMessage());
             return null;
@@ -119,8 +120,7 @@ public class JwtTokenService {
 
     public java.util.Date getExpirationFromToken(String token) {
         try {
-            Claims claims = getClaimsFromToken(token);
-            return claims.getExpiration();
+            return new java.util.Date(verifyToken(token).getExpiresAtMillis());
         } catch (Exception e) {
             logger.debug("Error getting expiration from token: {}", e.getMessage());
             return null;
@@ -0,0 +1,22 @@
+-- V10__Create_quota_leases_table.sql
+-- Blocks of vehicle/user quota leased to service instances. Slots held here are
+-- not yet counted in companies.current_*_count but are unavailable to others
+-- until the lease is consumed, shrunk or expires.
+
+CREATE TABLE IF NOT EXISTS quota_leases (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    company_id UUID NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    resource_type VARCHAR(20) NOT NULL,
+    holder_id VARCHAR(255) NOT NULL,
+    leased_slots INTEGER NOT NULL DEFAULT 0,
+    last_sequence BIGINT NOT NULL DEFAULT 0, -- last applied sync from the holder, makes retries idempotent
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_quota_leases_holder UNIQUE (company_id, resource_type, holder_id),
+    CONSTRAINT chk_quota_lease_resource CHECK (resource_type IN ('VEHICLE', 'USER')),
+    CONSTRAINT chk_quota_lease_slots CHECK (leased_slots >= 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_quota_leases_company_expiry ON quota_leases(company_id, resource_type, expires_at);
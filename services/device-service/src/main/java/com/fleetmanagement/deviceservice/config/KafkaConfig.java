@@ -1,10 +1,18 @@
 package com.fleetmanagement.deviceservice.config;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Map;
 
 
 
@@ -107,6 +115,14 @@ public class KafkaConfig {
                 .build();
     }
 
+    @Bean
+    public NewTopic deviceBatteryLowTopic() {
+        return TopicBuilder.name("device.battery.low")
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
     /**
      * Sensor subscription topics
      */
@@ -125,5 +141,31 @@ public class KafkaConfig {
                 .replicas(1)
                 .build();
     }
+
+    /**
+     * Sensor listener factory
+     *
+     * Hands raw JSON to the sensor alert listeners a whole poll at a time. The
+     * broker answers as soon as any reading is there or after the short fetch
+     * wait, so an alert is raised within about a second of the reading.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> sensorListenerFactory(
+            KafkaProperties kafkaProperties,
+            @Value("${device.sensors.consumer.concurrency:3}") int concurrency,
+            @Value("${device.sensors.consumer.fetch-max-wait-ms:100}") int fetchMaxWaitMs) {
+
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
 }
 
@@ -56,6 +56,13 @@ public class DeviceController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/{deviceId}/vehicle-id")
+    @Operation(summary = "Get assigned vehicle", description = "Vehicle the device is assigned to, empty if unassigned")
+    public ResponseEntity<UUID> getAssignedVehicleId(@PathVariable UUID deviceId) {
+
+        return ResponseEntity.ok(deviceService.getAssignedVehicleId(deviceId).orElse(null));
+    }
+
     @GetMapping("/device-id/{deviceId}")
     @Operation(summary = "Get device by device ID", description = "Retrieve device information by IMEI/device ID")
     public ResponseEntity<ApiResponse<DeviceResponse>> getDeviceByDeviceId(@PathVariable String deviceId) {
@@ -91,6 +98,15 @@ public class DeviceController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/company/{companyId}/statistics")
+    @Operation(summary = "Get company device statistics", description = "Device counts for a company, aggregated in one query")
+    public ResponseEntity<ApiResponse<DeviceListResponse.DeviceListStatistics>> getCompanyDeviceStatistics(
+            @PathVariable UUID companyId) {
+
+        DeviceListResponse.DeviceListStatistics statistics = deviceService.getDeviceStatistics(companyId);
+        return ResponseEntity.ok(ApiResponse.success(statistics));
+    }
+
     @PostMapping("/{deviceId}/assign")
     @Operation(summary = "Assign device", description = "Assign device to vehicle or user")
     public ResponseEntity<ApiResponse<DeviceResponse>> assignDevice(
@@ -2,17 +2,27 @@
 
 /**
  * Device Alert Triggered Event
+ * Shares device.alert.triggered with the bridge's stream alerts, so it
+ * carries the same fields; readings have no position, which stays null.
  */
 @Data
 @Builder
 public class DeviceAlertTriggeredEvent {
     private String eventId;
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    private LocalDateTime timestamp;
-    private String deviceId;
+    private String eventType;
+    private Instant timestamp;
+    private UUID deviceId;
+    private Long traccarDeviceId;
+    private String deviceCode; // IMEI
     private UUID companyId;
     private String alertType;
     private String alertLevel; // INFO, WARNING, CRITICAL
     private String message;
     private String details;
+    private Double latitude;
+    private Double longitude;
+    private Double speed;
+    private Instant fixTime;
+    private String source;
+    private String version;
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -265,4 +266,57 @@ public class DeviceEventPublisher {
             log.error("Failed to publish device health update event for device: {}", deviceId, e);
         }
     }
+
+    /**
+     * Publish device alert triggered event
+     */
+    public void publishDeviceAlertTriggered(UUID deviceId, String deviceCode, UUID companyId, String alertType,
+                                            String alertLevel, String message, String details, Instant fixTime) {
+        try {
+            DeviceAlertTriggeredEvent event = DeviceAlertTriggeredEvent.builder()
+                    .eventId(UUID.randomUUID().toString())
+                    .eventType("device.alert.triggered")
+                    .timestamp(Instant.now())
+                    .deviceId(deviceId)
+                    .deviceCode(deviceCode)
+                    .companyId(companyId)
+                    .alertType(alertType)
+                    .alertLevel(alertLevel)
+                    .message(message)
+                    .details(details)
+                    .fixTime(fixTime)
+                    .source("device-service")
+                    .version("1.0")
+                    .build();
+
+            // Keyed like the bridge's alerts, so a device's alerts stay on one partition
+            kafkaTemplate.send("device.alert.triggered", deviceId.toString(), event);
+            log.debug("Published device alert triggered event for device: {} alert: {}", deviceId, alertType);
+
+        } catch (Exception e) {
+            log.error("Failed to publish device alert triggered event for device: {}", deviceId, e);
+        }
+    }
+
+    /**
+     * Publish device battery low event
+     */
+    public void publishDeviceBatteryLow(String deviceId, UUID companyId, Integer batteryLevel, String alertLevel) {
+        try {
+            DeviceBatteryLowEvent event = DeviceBatteryLowEvent.builder()
+                    .eventId(UUID.randomUUID().toString())
+                    .timestamp(LocalDateTime.now())
+                    .deviceId(deviceId)
+                    .companyId(companyId)
+                    .batteryLevel(batteryLevel)
+                    .alertLevel(alertLevel)
+                    .build();
+
+            kafkaTemplate.send("device.battery.low", deviceId, event);
+            log.debug("Published device battery low event for device: {} level: {}%", deviceId, batteryLevel);
+
+        } catch (Exception e) {
+            log.error("Failed to publish device battery low event for device: {}", deviceId, e);
+        }
+    }
 }
\ No newline at end of file
@@ -15,6 +15,12 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Client of the Traccar server devices are registered on. The bridge reads
+ * several Traccar servers as shards and publishes each shard's device ids
+ * with that shard's id offset added; this client takes and returns ids in
+ * that form, so the stored traccarId matches what the bridge publishes.
+ */
 @Component
 @Slf4j
 @RequiredArgsConstructor
@@ -31,6 +37,10 @@ public class TraccarApiClient {
     @Value("${traccar.api.password}")
     private String password;
 
+    // id-offset of this server in the bridge's traccar.shards
+    @Value("${traccar.api.id-offset:0}")
+    private long idOffset;
+
     private HttpHeaders createHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.setBasicAuth(username, password);
@@ -46,7 +56,9 @@ public class TraccarApiClient {
             ResponseEntity<TraccarDevice[]> response = restTemplate.exchange(
                     url, HttpMethod.GET, entity, TraccarDevice[].class);
 
-            return Arrays.asList(response.getBody());
+            List<TraccarDevice> devices = Arrays.asList(response.getBody());
+            devices.forEach(this::toFleetId);
+            return devices;
         } catch (Exception e) {
             log.error("Error getting devices from Traccar: ", e);
             throw new RuntimeException("Failed to get devices from Traccar", e);
@@ -55,13 +67,13 @@ public class TraccarApiClient {
 
     public Optional<TraccarDevice> getDeviceById(Long id) {
         try {
-            String url = traccarBaseUrl + "/api/devices/" + id;
+            String url = traccarBaseUrl + "/api/devices/" + toTraccarId(id);
             HttpEntity<String> entity = new HttpEntity<>(createHeaders());
 
             ResponseEntity<TraccarDevice> response = restTemplate.exchange(
                     url, HttpMethod.GET, entity, TraccarDevice.class);
 
-            return Optional.ofNullable(response.getBody());
+            return Optional.ofNullable(toFleetId(response.getBody()));
         } catch (Exception e) {
             log.error("Error getting device {} from Traccar: ", id, e);
             return Optional.empty();
@@ -81,7 +93,7 @@ public class TraccarApiClient {
             ResponseEntity<TraccarDevice> response = restTemplate.postForEntity(
                     url, entity, TraccarDevice.class);
 
-            return response.getBody();
+            return toFleetId(response.getBody());
         } catch (Exception e) {
             log.error("Error creating device in Traccar: ", e);
             throw new RuntimeException("Failed to create device in Traccar", e);
@@ -90,14 +102,17 @@ public class TraccarApiClient {
 
     public TraccarDevice updateDevice(Long id, TraccarDevice device) {
         try {
-            String url = traccarBaseUrl + "/api/devices/" + id;
+            String url = traccarBaseUrl + "/api/devices/" + toTraccarId(id);
 
+            if (device.getId() != null) {
+                device.setId(toTraccarId(device.getId()));
+            }
             HttpEntity<TraccarDevice> entity = new HttpEntity<>(device, createHeaders());
 
             ResponseEntity<TraccarDevice> response = restTemplate.exchange(
                     url, HttpMethod.PUT, entity, TraccarDevice.class);
 
-            return response.getBody();
+            return toFleetId(response.getBody());
         } catch (Exception e) {
             log.error("Error updating device {} in Traccar: ", id, e);
             throw new RuntimeException("Failed to update device in Traccar", e);
@@ -106,7 +121,7 @@ public class TraccarApiClient {
 
     public void deleteDevice(Long id) {
         try {
-            String url = traccarBaseUrl + "/api/devices/" + id;
+            String url = traccarBaseUrl + "/api/devices/" + toTraccarId(id);
             HttpEntity<String> entity = new HttpEntity<>(createHeaders());
 
             restTemplate.exchange(url, HttpMethod.DELETE, entity, Void.class);
@@ -118,13 +133,15 @@ public class TraccarApiClient {
 
     public List<TraccarPosition> getDevicePositions(Long deviceId) {
         try {
-            String url = traccarBaseUrl + "/api/positions?deviceId=" + deviceId;
+            String url = traccarBaseUrl + "/api/positions?deviceId=" + toTraccarId(deviceId);
             HttpEntity<String> entity = new HttpEntity<>(createHeaders());
 
             ResponseEntity<TraccarPosition[]> response = restTemplate.exchange(
                     url, HttpMethod.GET, entity, TraccarPosition[].class);
 
-            return Arrays.asList(response.getBody());
+            List<TraccarPosition> positions = Arrays.asList(response.getBody());
+            positions.forEach(position -> position.setDeviceId(deviceId));
+            return positions;
         } catch (Exception e) {
             log.error("Error getting positions for device {} from Traccar: ", deviceId, e);
             throw new RuntimeException("Failed to get positions from Traccar", e);
@@ -136,7 +153,7 @@ public class TraccarApiClient {
             String url = traccarBaseUrl + "/api/commands/send";
 
             TraccarCommand command = new TraccarCommand();
-            command.setDeviceId(deviceId);
+            command.setDeviceId(toTraccarId(deviceId));
             command.setType(commandType);
 
             HttpEntity<TraccarCommand> entity = new HttpEntity<>(command, createHeaders());
@@ -149,4 +166,18 @@ public class TraccarApiClient {
             throw new RuntimeException("Failed to send command to Traccar", e);
         }
     }
-}
\ No newline at end of file
+
+    private Long toTraccarId(Long fleetId) {
+        if (fleetId < idOffset) {
+            throw new IllegalArgumentException("Device " + fleetId + " is not on this Traccar server");
+        }
+        return fleetId - idOffset;
+    }
+
+    private TraccarDevice toFleetId(TraccarDevice device) {
+        if (device != null && device.getId() != null) {
+            device.setId(device.getId() + idOffset);
+        }
+        return device;
+    }
+}
@@ -115,7 +115,7 @@ public interface DeviceRepository extends JpaRepository<Device, UUID> {
             "SUM(CASE WHEN d.connectionStatus = 'CONNECTED' THEN 1 ELSE 0 END) as connectedDevices, " +
             "SUM(CASE WHEN d.deviceType = 'MOBILE_PHONE' THEN 1 ELSE 0 END) as mobileDevices " +
             "FROM Device d WHERE d.companyId = :companyId")
-    Object[] getDeviceStatistics(@Param("companyId") UUID companyId);
+    List<Object[]> getDeviceStatistics(@Param("companyId") UUID companyId);
 
     /**
      * Find devices by multiple criteria
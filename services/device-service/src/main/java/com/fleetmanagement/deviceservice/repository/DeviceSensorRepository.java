@@ -18,7 +18,7 @@ import java.util.UUID;
  * Device Sensor Repository
  */
 @Repository
-interface DeviceSensorRepository extends JpaRepository<DeviceSensor, UUID> {
+public interface DeviceSensorRepository extends JpaRepository<DeviceSensor, UUID> {
 
     /**
      * Find sensors by device
@@ -21,7 +21,7 @@ import java.util.UUID;
  * Device Vehicle Assignment Repository
  */
 @Repository
-interface DeviceVehicleAssignmentRepository extends JpaRepository<DeviceVehicleAssignment, UUID> {
+public interface DeviceVehicleAssignmentRepository extends JpaRepository<DeviceVehicleAssignment, UUID> {
 
     /**
      * Find assignments by device
@@ -33,6 +33,11 @@ interface DeviceVehicleAssignmentRepository extends JpaRepository<DeviceVehicleA
      */
     Optional<DeviceVehicleAssignment> findByDeviceAndStatus(Device device, AssignmentStatus status);
 
+    /**
+     * Find the latest assignment of a device in a status
+     */
+    Optional<DeviceVehicleAssignment> findFirstByDevice_IdAndStatusOrderByAssignedAtDesc(UUID deviceId, AssignmentStatus status);
+
     /**
      * Find assignments by vehicle
      */
@@ -0,0 +1,45 @@
+package com.fleetmanagement.deviceservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sensor Reading Batch Repository
+ * Writes the latest reading of many sensors in one JDBC batch
+ */
+@Repository
+@RequiredArgsConstructor
+public class SensorReadingBatchRepository {
+
+    // Only move forward, so a late flush never overwrites a newer reading
+    private static final String UPDATE_LAST_READING_SQL = "UPDATE device_sensors " +
+            "SET last_reading_value = ?, last_reading_at = ? " +
+            "WHERE id = ? AND (last_reading_at IS NULL OR last_reading_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Latest calibrated value of one sensor
+     */
+    public record LastReading(UUID sensorId, String value, LocalDateTime readingAt) {
+    }
+
+    /**
+     * Store the latest reading of each sensor
+     */
+    public void updateLastReadings(List<LastReading> readings) {
+        jdbcTemplate.batchUpdate(UPDATE_LAST_READING_SQL, readings, readings.size(), (ps, reading) -> {
+            Timestamp readingAt = Timestamp.valueOf(reading.readingAt());
+            ps.setString(1, reading.value());
+            ps.setTimestamp(2, readingAt);
+            ps.setObject(3, reading.sensorId());
+            ps.setTimestamp(4, readingAt);
+        });
+    }
+}
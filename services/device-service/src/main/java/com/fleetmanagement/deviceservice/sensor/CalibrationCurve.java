@@ -0,0 +1,67 @@
+package com.fleetmanagement.deviceservice.sensor;
+
+import java.util.Arrays;
+
+/**
+ * Maps a raw sensor value to its physical value.
+ *
+ * Either linear (scale and offset) or piecewise linear over calibration
+ * points sorted by raw value. Values outside the points are extrapolated from
+ * the nearest segment, so a tank slightly over its last calibration point
+ * still reads sensibly. Immutable; safe to share between threads.
+ */
+public final class CalibrationCurve {
+
+    private static final CalibrationCurve IDENTITY = new CalibrationCurve(1.0, 0.0, null, null);
+
+    private final double scale;
+    private final double offset;
+    private final double[] raw;
+    private final double[] value;
+
+    private CalibrationCurve(double scale, double offset, double[] raw, double[] value) {
+        this.scale = scale;
+        this.offset = offset;
+        this.raw = raw;
+        this.value = value;
+    }
+
+    public static CalibrationCurve identity() {
+        return IDENTITY;
+    }
+
+    public static CalibrationCurve linear(double scale, double offset) {
+        return new CalibrationCurve(scale, offset, null, null);
+    }
+
+    /**
+     * @param raw   raw values, strictly increasing
+     * @param value physical value at each raw value
+     */
+    public static CalibrationCurve piecewise(double[] raw, double[] value) {
+        if (raw.length != value.length || raw.length < 2) {
+            throw new IllegalArgumentException("Calibration needs at least two points");
+        }
+        for (int i = 1; i < raw.length; i++) {
+            if (raw[i] <= raw[i - 1]) {
+                throw new IllegalArgumentException("Calibration points must have distinct raw values");
+            }
+        }
+        return new CalibrationCurve(1.0, 0.0, raw.clone(), value.clone());
+    }
+
+    public double apply(double input) {
+        if (raw == null) {
+            return input * scale + offset;
+        }
+        int index = Arrays.binarySearch(raw, input);
+        if (index >= 0) {
+            return value[index];
+        }
+        // Segment containing the input, clamped to the first and last segment
+        int upper = Math.min(Math.max(-index - 1, 1), raw.length - 1);
+        int lower = upper - 1;
+        double fraction = (input - raw[lower]) / (raw[upper] - raw[lower]);
+        return value[lower] + fraction * (value[upper] - value[lower]);
+    }
+}
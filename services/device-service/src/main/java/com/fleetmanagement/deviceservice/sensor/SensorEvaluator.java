@@ -0,0 +1,128 @@
+package com.fleetmanagement.deviceservice.sensor;
+
+import com.fleetmanagement.deviceservice.domain.enums.SensorType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compiled thresholds and calibration of one sensor, with its alert state.
+ *
+ * Built once from the sensor's JSON configuration; every reading is then
+ * evaluated against primitive arrays without parsing or allocation, apart from
+ * the breaches it reports. Readings older than the last one are ignored, so
+ * redelivered or reordered readings cannot flip the state back.
+ */
+public final class SensorEvaluator {
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * A rule that fired on a reading
+     *
+     * @param reference value the DROP was measured from, NaN for other rules
+     */
+    public record Breach(ThresholdRule rule, double value, double reference) {
+    }
+
+    private final UUID sensorId;
+    private final SensorType sensorType;
+    private final CalibrationCurve calibration;
+    private final ThresholdRule[] rules;
+
+    // Per rule: alert raised and not yet re-armed, when the limit was first crossed
+    private final boolean[] active;
+    private final long[] crossedSince;
+    // Per DROP rule: highest recent value and when it was seen
+    private final double[] reference;
+    private final long[] referenceAt;
+
+    private long lastReadingAt = NONE;
+
+    public SensorEvaluator(UUID sensorId, SensorType sensorType, CalibrationCurve calibration, List<ThresholdRule> rules) {
+        this.sensorId = sensorId;
+        this.sensorType = sensorType;
+        this.calibration = calibration;
+        this.rules = rules.toArray(new ThresholdRule[0]);
+        this.active = new boolean[this.rules.length];
+        this.crossedSince = new long[this.rules.length];
+        this.reference = new double[this.rules.length];
+        this.referenceAt = new long[this.rules.length];
+        Arrays.fill(crossedSince, NONE);
+        Arrays.fill(reference, Double.NaN);
+    }
+
+    public UUID getSensorId() {
+        return sensorId;
+    }
+
+    public SensorType getSensorType() {
+        return sensorType;
+    }
+
+    public boolean hasRules() {
+        return rules.length > 0;
+    }
+
+    /**
+     * Calibrate a raw reading and check it against every rule
+     *
+     * @param readingAt reading time in epoch millis
+     * @param breaches  receives the rules that fired on this reading
+     * @return the calibrated value, or NaN if the reading is older than the last one
+     */
+    public synchronized double evaluate(double raw, long readingAt, List<Breach> breaches) {
+        if (readingAt < lastReadingAt) {
+            return Double.NaN;
+        }
+        lastReadingAt = readingAt;
+
+        double value = calibration.apply(raw);
+        for (int i = 0; i < rules.length; i++) {
+            ThresholdRule rule = rules[i];
+            if (rule.kind() == ThresholdRule.Kind.DROP) {
+                evaluateDrop(i, rule, value, readingAt, breaches);
+            } else {
+                evaluateLimit(i, rule, value, readingAt, breaches);
+            }
+        }
+        return value;
+    }
+
+    private void evaluateLimit(int i, ThresholdRule rule, double value, long readingAt, List<Breach> breaches) {
+        if (active[i]) {
+            if (rule.cleared(value)) {
+                active[i] = false;
+                crossedSince[i] = NONE;
+            }
+            return;
+        }
+        if (!rule.crossed(value)) {
+            crossedSince[i] = NONE;
+            return;
+        }
+        if (crossedSince[i] == NONE) {
+            crossedSince[i] = readingAt;
+        }
+        if (readingAt - crossedSince[i] >= rule.holdMillis()) {
+            active[i] = true;
+            breaches.add(new Breach(rule, value, Double.NaN));
+        }
+    }
+
+    private void evaluateDrop(int i, ThresholdRule rule, double value, long readingAt, List<Breach> breaches) {
+        // Track the highest value of the current window; a refill or an expired window restarts it
+        if (Double.isNaN(reference[i]) || value > reference[i] || readingAt - referenceAt[i] > rule.windowMillis()) {
+            reference[i] = value;
+            referenceAt[i] = readingAt;
+            return;
+        }
+        if (reference[i] - value >= rule.limit()) {
+            breaches.add(new Breach(rule, value, reference[i]));
+            // Measure any further drop from here so one theft raises one alert
+            reference[i] = value;
+            referenceAt[i] = readingAt;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.fleetmanagement.deviceservice.sensor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.deviceservice.domain.enums.SensorType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses the JSON thresholds and calibration stored on a device sensor.
+ *
+ * Thresholds are either a shorthand object
+ * <pre>{"min": 2, "max": 8, "hysteresis": 0.5, "holdSeconds": 60, "level": "CRITICAL",
+ *  "drop": {"amount": 15, "windowSeconds": 600}}</pre>
+ * or a list of rules
+ * <pre>[{"type": "ABOVE", "value": 8, "hysteresis": 0.5, "holdSeconds": 60, "alertType": "COLD_CHAIN_BREACH"},
+ *  {"type": "DROP", "value": 15, "windowSeconds": 600}]</pre>
+ * Calibration is {"scale": 0.1, "offset": -40}, a list of [raw, value] pairs,
+ * or {"points": [...]} holding such pairs or {"raw": .., "value": ..} objects.
+ * Invalid configuration is rejected with an IllegalArgumentException.
+ */
+public final class SensorRuleParser {
+
+    private static final String DEFAULT_LEVEL = "WARNING";
+    private static final long DEFAULT_DROP_WINDOW_SECONDS = 600;
+
+    private final ObjectMapper objectMapper;
+
+    public SensorRuleParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public List<ThresholdRule> parseThresholds(SensorType sensorType, String json) {
+        JsonNode root = read(json);
+        List<ThresholdRule> rules = new ArrayList<>();
+        if (root == null) {
+            return rules;
+        }
+
+        if (root.isArray()) {
+            for (JsonNode node : root) {
+                rules.add(parseRule(sensorType, node));
+            }
+            return rules;
+        }
+        if (root.has("rules")) {
+            for (JsonNode node : root.get("rules")) {
+                rules.add(parseRule(sensorType, node));
+            }
+            return rules;
+        }
+
+        // Shorthand: min/max share hysteresis, hold time and level
+        double hysteresis = root.path("hysteresis").asDouble(0.0);
+        long holdMillis = root.path("holdSeconds").asLong(0) * 1000;
+        String level = root.path("level").asText(DEFAULT_LEVEL);
+        if (root.hasNonNull("max")) {
+            rules.add(limitRule(sensorType, ThresholdRule.Kind.ABOVE, number(root, "max"), hysteresis, holdMillis, null, level));
+        }
+        if (root.hasNonNull("min")) {
+            rules.add(limitRule(sensorType, ThresholdRule.Kind.BELOW, number(root, "min"), hysteresis, holdMillis, null, level));
+        }
+        JsonNode drop = root.get("drop");
+        if (drop != null && !drop.isNull()) {
+            rules.add(dropRule(sensorType, number(drop, "amount"),
+                    drop.path("windowSeconds").asLong(DEFAULT_DROP_WINDOW_SECONDS) * 1000,
+                    drop.path("alertType").asText(null), drop.path("level").asText(level)));
+        }
+        return rules;
+    }
+
+    public CalibrationCurve parseCalibration(String json) {
+        JsonNode root = read(json);
+        if (root == null) {
+            return CalibrationCurve.identity();
+        }
+        if (root.isObject() && !root.has("points")) {
+            return CalibrationCurve.linear(root.path("scale").asDouble(1.0), root.path("offset").asDouble(0.0));
+        }
+
+        JsonNode points = root.isArray() ? root : root.get("points");
+        double[][] pairs = new double[points.size()][];
+        for (int i = 0; i < points.size(); i++) {
+            JsonNode point = points.get(i);
+            pairs[i] = point.isArray()
+                    ? new double[]{point.path(0).asDouble(), point.path(1).asDouble()}
+                    : new double[]{number(point, "raw"), number(point, "value")};
+        }
+        Arrays.sort(pairs, Comparator.comparingDouble(pair -> pair[0]));
+
+        double[] raw = new double[pairs.length];
+        double[] value = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            raw[i] = pairs[i][0];
+            value[i] = pairs[i][1];
+        }
+        return CalibrationCurve.piecewise(raw, value);
+    }
+
+    private ThresholdRule parseRule(SensorType sensorType, JsonNode node) {
+        ThresholdRule.Kind kind;
+        try {
+            kind = ThresholdRule.Kind.valueOf(node.path("type").asText("").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown threshold rule type: " + node.path("type").asText());
+        }
+
+        String alertType = node.path("alertType").asText(null);
+        String level = node.path("level").asText(DEFAULT_LEVEL);
+        if (kind == ThresholdRule.Kind.DROP) {
+            return dropRule(sensorType, number(node, "value"),
+                    node.path("windowSeconds").asLong(DEFAULT_DROP_WINDOW_SECONDS) * 1000, alertType, level);
+        }
+        return limitRule(sensorType, kind, number(node, "value"), node.path("hysteresis").asDouble(0.0),
+                node.path("holdSeconds").asLong(0) * 1000, alertType, level);
+    }
+
+    private ThresholdRule limitRule(SensorType sensorType, ThresholdRule.Kind kind, double limit, double hysteresis,
+                                    long holdMillis, String alertType, String level) {
+        if (hysteresis < 0 || holdMillis < 0) {
+            throw new IllegalArgumentException("Hysteresis and hold time must not be negative");
+        }
+        String type = alertType != null ? alertType
+                : sensorType.name() + (kind == ThresholdRule.Kind.ABOVE ? "_HIGH" : "_LOW");
+        return new ThresholdRule(kind, limit, hysteresis, holdMillis, 0, type, level.toUpperCase(Locale.ROOT));
+    }
+
+    private ThresholdRule dropRule(SensorType sensorType, double amount, long windowMillis, String alertType, String level) {
+        if (amount <= 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("Drop amount and window must be positive");
+        }
+        String type = alertType != null ? alertType
+                : sensorType == SensorType.FUEL ? "FUEL_THEFT" : sensorType.name() + "_DROP";
+        return new ThresholdRule(ThresholdRule.Kind.DROP, amount, 0.0, 0, windowMillis, type, level.toUpperCase(Locale.ROOT));
+    }
+
+    private JsonNode read(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            return root == null || root.isNull() || root.isEmpty() ? null : root;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed sensor configuration: " + e.getOriginalMessage());
+        }
+    }
+
+    private static double number(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isNumber()) {
+            throw new IllegalArgumentException("Missing numeric '" + field + "' in sensor configuration");
+        }
+        return value.asDouble();
+    }
+}
@@ -0,0 +1,39 @@
+package com.fleetmanagement.deviceservice.sensor;
+
+/**
+ * One compiled alert rule of a sensor.
+ *
+ * ABOVE and BELOW fire when the value crosses the limit and stays there for
+ * the hold time, and re-arm only once the value is back past the limit by the
+ * hysteresis. DROP fires when the value falls by at least the limit within
+ * the window, e.g. fuel siphoned from a parked truck.
+ *
+ * @param limit       threshold for ABOVE and BELOW, minimum fall for DROP
+ * @param hysteresis  distance back past the limit before the rule re-arms
+ * @param holdMillis  time the limit must stay crossed before firing
+ * @param windowMillis time span a DROP must happen within
+ */
+public record ThresholdRule(Kind kind,
+                            double limit,
+                            double hysteresis,
+                            long holdMillis,
+                            long windowMillis,
+                            String alertType,
+                            String level) {
+
+    public enum Kind { ABOVE, BELOW, DROP }
+
+    /**
+     * Whether the value is past the limit
+     */
+    boolean crossed(double value) {
+        return kind == Kind.ABOVE ? value > limit : value < limit;
+    }
+
+    /**
+     * Whether the value is back far enough to re-arm the rule
+     */
+    boolean cleared(double value) {
+        return kind == Kind.ABOVE ? value <= limit - hysteresis : value >= limit + hysteresis;
+    }
+}
@@ -27,6 +27,11 @@ public interface DeviceService {
      */
     Optional<DeviceResponse> getDeviceByDeviceId(String deviceId);
 
+    /**
+     * Get the vehicle a device is currently assigned to, empty if none
+     */
+    Optional<UUID> getAssignedVehicleId(UUID deviceId);
+
     /**
      * Get all devices for a company
      */
@@ -0,0 +1,394 @@
+package com.fleetmanagement.deviceservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.deviceservice.domain.entity.Device;
+import com.fleetmanagement.deviceservice.domain.entity.DeviceSensor;
+import com.fleetmanagement.deviceservice.domain.enums.SensorType;
+import com.fleetmanagement.deviceservice.event.publisher.DeviceEventPublisher;
+import com.fleetmanagement.deviceservice.repository.DeviceRepository;
+import com.fleetmanagement.deviceservice.repository.DeviceSensorRepository;
+import com.fleetmanagement.deviceservice.repository.SensorReadingBatchRepository;
+import com.fleetmanagement.deviceservice.sensor.CalibrationCurve;
+import com.fleetmanagement.deviceservice.sensor.SensorEvaluator;
+import com.fleetmanagement.deviceservice.sensor.SensorRuleParser;
+import com.fleetmanagement.deviceservice.sensor.ThresholdRule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sensor Alert Service
+ *
+ * Evaluates sensor readings from the bridge as they arrive. Each device's
+ * thresholds and calibration are compiled once into evaluators keyed by
+ * sensor type and reused for every reading until the device's sensor
+ * subscription changes or the configuration cache expires. Latest values are
+ * collected per sensor and written back in one batch per flush.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SensorAlertService {
+
+    private static final String WARNING = "WARNING";
+    private static final String CRITICAL = "CRITICAL";
+
+    // Field of the bridge's sensorData carrying each sensor type
+    private static final Map<SensorType, String> READING_FIELDS = new EnumMap<>(SensorType.class);
+
+    static {
+        READING_FIELDS.put(SensorType.FUEL, "fuelLevel");
+        READING_FIELDS.put(SensorType.TEMPERATURE, "temperature");
+        READING_FIELDS.put(SensorType.WEIGHT, "weight");
+        READING_FIELDS.put(SensorType.PRESSURE, "pressure");
+        READING_FIELDS.put(SensorType.HUMIDITY, "humidity");
+        READING_FIELDS.put(SensorType.ENGINE_HOURS, "engineHours");
+    }
+
+    private final DeviceRepository deviceRepository;
+    private final DeviceSensorRepository deviceSensorRepository;
+    private final SensorReadingBatchRepository sensorReadingBatchRepository;
+    private final DeviceEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    // Device -> compiled sensors, and device code -> device for subscription events
+    private final Map<UUID, DeviceSensors> devices = new ConcurrentHashMap<>();
+    private final Map<String, UUID> deviceIdsByCode = new ConcurrentHashMap<>();
+    // Sensor -> latest value not yet written
+    private final Map<UUID, SensorReadingBatchRepository.LastReading> pendingReadings = new ConcurrentHashMap<>();
+    // Device -> battery alert level currently raised
+    private final Map<UUID, String> batteryAlerts = new ConcurrentHashMap<>();
+
+    @Value("${device.sensors.alerts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.sensor-config.ttl:1800}")
+    private long configTtlSeconds;
+
+    @Value("${device.health.alert-thresholds.battery-low:20}")
+    private int batteryLowLevel;
+
+    @Value("${device.sensors.alerts.battery-critical:10}")
+    private int batteryCriticalLevel;
+
+    @Value("${device.sensors.alerts.battery-hysteresis:5}")
+    private int batteryHysteresis;
+
+    private SensorRuleParser parser;
+
+    /**
+     * Compiled sensors of one device; deviceCode is null for unknown devices
+     */
+    private record DeviceSensors(String deviceCode, UUID companyId, Map<SensorType, CompiledSensor> sensors,
+                                 long loadedAt) {
+
+        DeviceSensors stale() {
+            return new DeviceSensors(deviceCode, companyId, sensors, 0L);
+        }
+    }
+
+    /**
+     * Evaluator with the configuration it was compiled from
+     */
+    private record CompiledSensor(SensorEvaluator evaluator, String thresholds, String calibration) {
+
+        boolean compiledFrom(DeviceSensor sensor) {
+            return evaluator.getSensorId().equals(sensor.getId())
+                    && Objects.equals(thresholds, sensor.getAlertThresholds())
+                    && Objects.equals(calibration, sensor.getCalibrationData());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        parser = new SensorRuleParser(objectMapper);
+    }
+
+    /**
+     * Evaluate sensor readings published by the bridge
+     */
+    @KafkaListener(topics = "${device.sensors.topics.readings:device.sensor.reading}",
+            groupId = "${device.sensors.consumer.group-id:device-service-sensor-alerts}",
+            containerFactory = "sensorListenerFactory")
+    public void onSensorReadings(List<String> payloads) {
+        if (!enabled) {
+            return;
+        }
+        List<SensorEvaluator.Breach> breaches = new ArrayList<>();
+        for (String payload : payloads) {
+            try {
+                evaluate(objectMapper.readTree(payload), breaches);
+            } catch (Exception e) {
+                log.warn("Skipping sensor reading that could not be evaluated: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Recompile a device's sensors when its subscriptions change
+     *
+     * Every instance holds its own compiled sensors, so each one listens in a
+     * group of its own.
+     */
+    @KafkaListener(topics = "${kafka.topics.sensor-subscription-changed:sensor.subscription.changed}",
+            groupId = "device-service-sensor-rules-${random.uuid}",
+            containerFactory = "sensorListenerFactory")
+    public void onSensorSubscriptionChanged(List<String> payloads) {
+        for (String payload : payloads) {
+            try {
+                String deviceCode = objectMapper.readTree(payload).path("deviceId").asText(null);
+                UUID deviceId = deviceCode != null ? deviceIdsByCode.get(deviceCode) : null;
+                if (deviceId != null) {
+                    // Reloaded on the next reading; unchanged sensors keep their alert state
+                    devices.computeIfPresent(deviceId, (id, sensors) -> sensors.stale());
+                    log.debug("Sensor configuration of device {} marked for reload", deviceCode);
+                }
+            } catch (Exception e) {
+                log.warn("Skipping unreadable sensor subscription event: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write the latest value of every sensor that reported since the last flush
+     */
+    @Scheduled(fixedDelayString = "${device.sensors.last-reading.flush-interval-ms:5000}")
+    public void flushLastReadings() {
+        if (pendingReadings.isEmpty()) {
+            return;
+        }
+
+        List<SensorReadingBatchRepository.LastReading> batch = new ArrayList<>(pendingReadings.size());
+        for (UUID sensorId : pendingReadings.keySet()) {
+            SensorReadingBatchRepository.LastReading reading = pendingReadings.remove(sensorId);
+            if (reading != null) {
+                batch.add(reading);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            sensorReadingBatchRepository.updateLastReadings(batch);
+            log.debug("Stored latest readings of {} sensors", batch.size());
+        } catch (Exception e) {
+            // Put them back unless a newer reading arrived meanwhile
+            batch.forEach(this::keepLatest);
+            log.warn("Failed to store latest readings of {} sensors, retrying next flush: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLastReadings();
+    }
+
+    private void evaluate(JsonNode reading, List<SensorEvaluator.Breach> breaches) {
+        UUID deviceId = uuid(reading.path("deviceId"));
+        JsonNode data = reading.path("sensorData");
+        if (deviceId == null || !data.isObject() || !data.path("valid").asBoolean(true)) {
+            return;
+        }
+
+        DeviceSensors device = sensorsOf(deviceId);
+        if (device.deviceCode() == null) {
+            return;
+        }
+        long readingAt = epochMillis(data.path("readingTime"), reading.path("timestamp"));
+
+        for (CompiledSensor compiled : device.sensors().values()) {
+            SensorEvaluator evaluator = compiled.evaluator();
+            JsonNode raw = data.get(READING_FIELDS.get(evaluator.getSensorType()));
+            if (raw == null || !raw.isNumber()) {
+                continue;
+            }
+
+            breaches.clear();
+            double value = evaluator.evaluate(raw.asDouble(), readingAt, breaches);
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            keepLatest(new SensorReadingBatchRepository.LastReading(evaluator.getSensorId(), format(value),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(readingAt), ZoneId.systemDefault())));
+            for (SensorEvaluator.Breach breach : breaches) {
+                publishBreach(deviceId, device, evaluator, breach, readingAt);
+            }
+        }
+
+        JsonNode battery = data.get("batteryLevel");
+        if (battery != null && battery.isNumber()) {
+            evaluateBattery(deviceId, device, (int) Math.round(battery.asDouble()));
+        }
+    }
+
+    private void evaluateBattery(UUID deviceId, DeviceSensors device, int level) {
+        String[] raised = new String[1];
+        batteryAlerts.compute(deviceId, (id, current) -> {
+            String next = nextBatteryAlert(current, level);
+            if (next != null && (current == null || (CRITICAL.equals(next) && !CRITICAL.equals(current)))) {
+                raised[0] = next;
+            }
+            return next;
+        });
+        if (raised[0] != null) {
+            eventPublisher.publishDeviceBatteryLow(device.deviceCode(), device.companyId(), level, raised[0]);
+        }
+    }
+
+    /**
+     * Battery alert level after a reading; a raised level only drops once the
+     * battery is back above its threshold by the hysteresis
+     */
+    private String nextBatteryAlert(String current, int level) {
+        if (level <= batteryCriticalLevel) {
+            return CRITICAL;
+        }
+        if (CRITICAL.equals(current) && level < batteryCriticalLevel + batteryHysteresis) {
+            return CRITICAL;
+        }
+        if (level <= batteryLowLevel) {
+            return WARNING;
+        }
+        if (current != null && level < batteryLowLevel + batteryHysteresis) {
+            return WARNING;
+        }
+        return null;
+    }
+
+    private void publishBreach(UUID deviceId, DeviceSensors device, SensorEvaluator evaluator,
+                               SensorEvaluator.Breach breach, long readingAt) {
+        ThresholdRule rule = breach.rule();
+        String message = switch (rule.kind()) {
+            case ABOVE -> String.format("%s reading %s is above %s", evaluator.getSensorType(),
+                    format(breach.value()), format(rule.limit()));
+            case BELOW -> String.format("%s reading %s is below %s", evaluator.getSensorType(),
+                    format(breach.value()), format(rule.limit()));
+            case DROP -> String.format("%s dropped from %s to %s", evaluator.getSensorType(),
+                    format(breach.reference()), format(breach.value()));
+        };
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("sensorId", evaluator.getSensorId());
+        details.put("sensorType", evaluator.getSensorType());
+        details.put("value", breach.value());
+        details.put("limit", rule.limit());
+        if (rule.kind() == ThresholdRule.Kind.DROP) {
+            details.put("from", breach.reference());
+        }
+        details.put("readingTime", Instant.ofEpochMilli(readingAt).toString());
+
+        String detailsJson;
+        try {
+            detailsJson = objectMapper.writeValueAsString(details);
+        } catch (Exception e) {
+            detailsJson = null;
+        }
+        eventPublisher.publishDeviceAlertTriggered(deviceId, device.deviceCode(), device.companyId(), rule.alertType(),
+                rule.level(), message, detailsJson, Instant.ofEpochMilli(readingAt));
+    }
+
+    private DeviceSensors sensorsOf(UUID deviceId) {
+        DeviceSensors current = devices.get(deviceId);
+        long now = System.currentTimeMillis();
+        if (current != null && now - current.loadedAt() < configTtlSeconds * 1000) {
+            return current;
+        }
+        DeviceSensors loaded = load(deviceId, current, now);
+        devices.put(deviceId, loaded);
+        return loaded;
+    }
+
+    private DeviceSensors load(UUID deviceId, DeviceSensors previous, long now) {
+        Optional<Device> found = deviceRepository.findById(deviceId);
+        if (found.isEmpty()) {
+            return new DeviceSensors(null, null, Map.of(), now);
+        }
+
+        Device device = found.get();
+        Map<SensorType, CompiledSensor> sensors = new EnumMap<>(SensorType.class);
+        for (DeviceSensor sensor : deviceSensorRepository.findByDeviceAndIsActive(device, true)) {
+            if (!READING_FIELDS.containsKey(sensor.getSensorType())) {
+                continue;
+            }
+            CompiledSensor existing = previous != null ? previous.sensors().get(sensor.getSensorType()) : null;
+            sensors.put(sensor.getSensorType(), existing != null && existing.compiledFrom(sensor) ? existing : compile(sensor));
+        }
+
+        deviceIdsByCode.put(device.getDeviceId(), deviceId);
+        return new DeviceSensors(device.getDeviceId(), device.getCompanyId(), sensors, now);
+    }
+
+    private CompiledSensor compile(DeviceSensor sensor) {
+        CalibrationCurve calibration;
+        List<ThresholdRule> rules;
+        try {
+            calibration = parser.parseCalibration(sensor.getCalibrationData());
+            rules = parser.parseThresholds(sensor.getSensorType(), sensor.getAlertThresholds());
+        } catch (IllegalArgumentException e) {
+            // Still track readings; alerts resume once the configuration is fixed
+            log.warn("Ignoring invalid configuration of sensor {}: {}", sensor.getId(), e.getMessage());
+            calibration = CalibrationCurve.identity();
+            rules = List.of();
+        }
+        return new CompiledSensor(new SensorEvaluator(sensor.getId(), sensor.getSensorType(), calibration, rules),
+                sensor.getAlertThresholds(), sensor.getCalibrationData());
+    }
+
+    private void keepLatest(SensorReadingBatchRepository.LastReading reading) {
+        pendingReadings.merge(reading.sensorId(), reading,
+                (pending, added) -> added.readingAt().isBefore(pending.readingAt()) ? pending : added);
+    }
+
+    private static UUID uuid(JsonNode node) {
+        try {
+            return node.isTextual() ? UUID.fromString(node.asText()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reading time from epoch seconds or ISO-8601, falling back to the event time and then now
+     */
+    private static long epochMillis(JsonNode readingTime, JsonNode eventTime) {
+        for (JsonNode node : new JsonNode[]{readingTime, eventTime}) {
+            if (node.isNumber()) {
+                return node.decimalValue().movePointRight(3).longValue();
+            }
+            if (node.isTextual()) {
+                try {
+                    return Instant.parse(node.asText()).toEpochMilli();
+                } catch (Exception e) {
+                    // try the next candidate
+                }
+            }
+        }
+        return System.currentTimeMillis();
+    }
+
+    private static String format(double value) {
+        return BigDecimal.valueOf(value).setScale(3, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+}
@@ -17,7 +17,9 @@ import java.util.UUID;
 
 /**
  * Traccar Integration Service Interface
- * Traccar server integration
+ * Traccar server integration. Traccar ids taken and returned include the
+ * server's shard id offset (traccar.api.id-offset), like the ids the bridge
+ * publishes.
  */
 public interface TraccarIntegrationService {
 
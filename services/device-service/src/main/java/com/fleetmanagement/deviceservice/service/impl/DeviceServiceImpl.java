@@ -2,14 +2,18 @@
 package com.fleetmanagement.deviceservice.service.impl;
 
 import com.fleetmanagement.deviceservice.domain.entity.Device;
+import com.fleetmanagement.deviceservice.domain.entity.DeviceVehicleAssignment;
+import com.fleetmanagement.deviceservice.domain.enums.AssignmentStatus;
 import com.fleetmanagement.deviceservice.domain.enums.DeviceStatus;
 import com.fleetmanagement.deviceservice.dto.request.RegisterDeviceRequest;
+import com.fleetmanagement.deviceservice.dto.response.DeviceListResponse;
 import com.fleetmanagement.deviceservice.dto.response.DeviceResponse;
 import com.fleetmanagement.deviceservice.exception.DeviceNotFoundException;
 import com.fleetmanagement.deviceservice.exception.DeviceAlreadyExistsException;
 import com.fleetmanagement.deviceservice.external.client.TraccarApiClient;
 import com.fleetmanagement.deviceservice.external.dto.TraccarDevice;
 import com.fleetmanagement.deviceservice.repository.DeviceRepository;
+import com.fleetmanagement.deviceservice.repository.DeviceVehicleAssignmentRepository;
 import com.fleetmanagement.deviceservice.service.DeviceService;
 import com.fleetmanagement.deviceservice.event.publisher.DeviceEventPublisher;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -31,6 +36,7 @@ import java.util.stream.Collectors;
 public class DeviceServiceImpl implements DeviceService {
 
     private final DeviceRepository deviceRepository;
+    private final DeviceVehicleAssignmentRepository vehicleAssignmentRepository;
     private final TraccarApiClient traccarApiClient;
     private final DeviceEventPublisher eventPublisher;
 
@@ -97,6 +103,17 @@ public class DeviceServiceImpl implements DeviceService {
         return mapToDeviceResponse(device);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UUID> getAssignedVehicleId(UUID deviceId) {
+        if (!deviceRepository.existsById(deviceId)) {
+            throw new DeviceNotFoundException("Device not found: " + deviceId);
+        }
+        return vehicleAssignmentRepository
+                .findFirstByDevice_IdAndStatusOrderByAssignedAtDesc(deviceId, AssignmentStatus.ASSIGNED)
+                .map(DeviceVehicleAssignment::getVehicleId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<DeviceResponse> getCompanyDevices(UUID companyId, Pageable pageable) {
@@ -104,6 +121,24 @@ public class DeviceServiceImpl implements DeviceService {
         return devices.map(this::mapToDeviceResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public DeviceListResponse.DeviceListStatistics getDeviceStatistics(UUID companyId) {
+        // Single aggregate query over the company's devices
+        List<Object[]> rows = deviceRepository.getDeviceStatistics(companyId);
+        Object[] row = rows.isEmpty() ? new Object[4] : rows.get(0);
+        return DeviceListResponse.DeviceListStatistics.builder()
+                .totalDevices(toLong(row[0]))
+                .activeDevices(toLong(row[1]))
+                .connectedDevices(toLong(row[2]))
+                .mobileDevices(toLong(row[3]))
+                .build();
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
     @Override
     public DeviceResponse assignDeviceToVehicle(UUID deviceId, UUID vehicleId) {
         Device device = deviceRepository.findById(deviceId)
@@ -0,0 +1,74 @@
+package com.fleetmanagement.deviceservice.sensor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for raw-to-physical sensor calibration
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Calibration Curve Tests")
+class CalibrationCurveTest {
+
+    // Tank of 400 liters whose lower half is narrower than its upper half
+    private final CalibrationCurve tank = CalibrationCurve.piecewise(
+            new double[]{0, 1000, 2000, 4000},
+            new double[]{0, 100, 250, 400});
+
+    @Test
+    @DisplayName("Identity and linear curves scale and offset")
+    void shouldApplyLinearCurves() {
+        assertThat(CalibrationCurve.identity().apply(12.5)).isEqualTo(12.5);
+        assertThat(CalibrationCurve.linear(0.5, -10).apply(100)).isEqualTo(40.0);
+    }
+
+    @Test
+    @DisplayName("Calibration points map exactly")
+    void shouldHitCalibrationPoints() {
+        assertThat(tank.apply(0)).isEqualTo(0.0);
+        assertThat(tank.apply(2000)).isEqualTo(250.0);
+        assertThat(tank.apply(4000)).isEqualTo(400.0);
+    }
+
+    @Test
+    @DisplayName("Values between points are interpolated on their segment")
+    void shouldInterpolateBetweenPoints() {
+        assertThat(tank.apply(500)).isCloseTo(50.0, within(1e-9));
+        assertThat(tank.apply(1500)).isCloseTo(175.0, within(1e-9));
+        assertThat(tank.apply(3000)).isCloseTo(325.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Values outside the points are extrapolated from the nearest segment")
+    void shouldExtrapolateOutsidePoints() {
+        assertThat(tank.apply(-100)).isCloseTo(-10.0, within(1e-9));
+        assertThat(tank.apply(4200)).isCloseTo(415.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Invalid calibration points are refused")
+    void shouldRefuseInvalidPoints() {
+        assertThatThrownBy(() -> CalibrationCurve.piecewise(new double[]{0}, new double[]{0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CalibrationCurve.piecewise(new double[]{0, 1}, new double[]{0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CalibrationCurve.piecewise(new double[]{0, 10, 10}, new double[]{0, 1, 2}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("The curve keeps its own copy of the points")
+    void shouldCopyPoints() {
+        double[] raw = {0, 10};
+        double[] value = {0, 100};
+        CalibrationCurve curve = CalibrationCurve.piecewise(raw, value);
+        value[1] = 0;
+
+        assertThat(curve.apply(10)).isEqualTo(100.0);
+    }
+}
@@ -0,0 +1,150 @@
+package com.fleetmanagement.deviceservice.sensor;
+
+import com.fleetmanagement.deviceservice.domain.enums.SensorType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for threshold evaluation of sensor readings
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Sensor Evaluator Tests")
+class SensorEvaluatorTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final List<SensorEvaluator.Breach> breaches = new ArrayList<>();
+
+    @Test
+    @DisplayName("ABOVE fires once and re-arms only past the hysteresis")
+    void aboveShouldRespectHysteresis() {
+        SensorEvaluator evaluator = evaluator(rule(ThresholdRule.Kind.ABOVE, 8.0, 1.0, 0, 0));
+
+        evaluator.evaluate(7.5, 0, breaches);
+        assertThat(breaches).isEmpty();
+
+        evaluator.evaluate(8.5, MINUTE, breaches);
+        assertThat(breaches).singleElement().satisfies(breach -> assertThat(breach.value()).isEqualTo(8.5));
+
+        // Back below the limit but within the hysteresis: still active, so no second alert
+        evaluator.evaluate(7.5, 2 * MINUTE, breaches);
+        evaluator.evaluate(8.5, 3 * MINUTE, breaches);
+        assertThat(breaches).hasSize(1);
+
+        // Past the hysteresis: re-armed
+        evaluator.evaluate(7.0, 4 * MINUTE, breaches);
+        evaluator.evaluate(8.5, 5 * MINUTE, breaches);
+        assertThat(breaches).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("BELOW mirrors ABOVE")
+    void belowShouldRespectHysteresis() {
+        SensorEvaluator evaluator = evaluator(rule(ThresholdRule.Kind.BELOW, 20.0, 2.0, 0, 0));
+
+        evaluator.evaluate(19.0, 0, breaches);
+        evaluator.evaluate(21.0, MINUTE, breaches);
+        evaluator.evaluate(19.0, 2 * MINUTE, breaches);
+        assertThat(breaches).hasSize(1);
+
+        evaluator.evaluate(22.0, 3 * MINUTE, breaches);
+        evaluator.evaluate(19.0, 4 * MINUTE, breaches);
+        assertThat(breaches).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("A limit must stay crossed for the hold time before firing")
+    void shouldWaitForHoldTime() {
+        SensorEvaluator evaluator = evaluator(rule(ThresholdRule.Kind.ABOVE, 8.0, 0.5, 5 * MINUTE, 0));
+
+        evaluator.evaluate(9.0, 0, breaches);
+        evaluator.evaluate(9.0, 4 * MINUTE, breaches);
+        assertThat(breaches).isEmpty();
+
+        // A dip below the limit restarts the hold time
+        evaluator.evaluate(7.9, 5 * MINUTE, breaches);
+        evaluator.evaluate(9.0, 6 * MINUTE, breaches);
+        evaluator.evaluate(9.0, 10 * MINUTE, breaches);
+        assertThat(breaches).isEmpty();
+
+        evaluator.evaluate(9.0, 11 * MINUTE, breaches);
+        assertThat(breaches).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("DROP fires on a fall within the window and measures further falls from there")
+    void dropShouldFireWithinWindow() {
+        SensorEvaluator evaluator = evaluator(rule(ThresholdRule.Kind.DROP, 20.0, 0, 0, 10 * MINUTE));
+
+        evaluator.evaluate(100.0, 0, breaches);
+        evaluator.evaluate(90.0, MINUTE, breaches);
+        assertThat(breaches).isEmpty();
+
+        evaluator.evaluate(75.0, 2 * MINUTE, breaches);
+        assertThat(breaches).singleElement().satisfies(breach -> {
+            assertThat(breach.value()).isEqualTo(75.0);
+            assertThat(breach.reference()).isEqualTo(100.0);
+        });
+
+        evaluator.evaluate(70.0, 3 * MINUTE, breaches);
+        assertThat(breaches).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("DROP ignores slow falls spread over more than the window")
+    void dropShouldIgnoreSlowFall() {
+        SensorEvaluator evaluator = evaluator(rule(ThresholdRule.Kind.DROP, 20.0, 0, 0, 10 * MINUTE));
+
+        evaluator.evaluate(100.0, 0, breaches);
+        evaluator.evaluate(90.0, 8 * MINUTE, breaches);
+        evaluator.evaluate(79.0, 11 * MINUTE, breaches);
+        assertThat(breaches).isEmpty();
+
+        // A refill raises the reference
+        evaluator.evaluate(120.0, 12 * MINUTE, breaches);
+        evaluator.evaluate(95.0, 13 * MINUTE, breaches);
+        assertThat(breaches).singleElement()
+                .satisfies(breach -> assertThat(breach.reference()).isEqualTo(120.0));
+    }
+
+    @Test
+    @DisplayName("Readings older than the last one are ignored")
+    void shouldIgnoreOutOfOrderReadings() {
+        SensorEvaluator evaluator = evaluator(rule(ThresholdRule.Kind.ABOVE, 8.0, 1.0, 0, 0));
+
+        evaluator.evaluate(9.0, 2 * MINUTE, breaches);
+        assertThat(evaluator.evaluate(5.0, MINUTE, breaches)).isNaN();
+        evaluator.evaluate(9.0, 3 * MINUTE, breaches);
+
+        assertThat(breaches).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Rules see the calibrated value")
+    void shouldEvaluateCalibratedValue() {
+        SensorEvaluator evaluator = new SensorEvaluator(UUID.randomUUID(), SensorType.TEMPERATURE,
+                CalibrationCurve.linear(0.1, -40.0), List.of(rule(ThresholdRule.Kind.ABOVE, 8.0, 1.0, 0, 0)));
+
+        assertThat(evaluator.evaluate(470, 0, breaches)).isCloseTo(7.0, within(1e-9));
+        assertThat(breaches).isEmpty();
+        evaluator.evaluate(490, MINUTE, breaches);
+        assertThat(breaches).hasSize(1);
+    }
+
+    private static SensorEvaluator evaluator(ThresholdRule rule) {
+        return new SensorEvaluator(UUID.randomUUID(), SensorType.TEMPERATURE, CalibrationCurve.identity(), List.of(rule));
+    }
+
+    private static ThresholdRule rule(ThresholdRule.Kind kind, double limit, double hysteresis,
+                                      long holdMillis, long windowMillis) {
+        return new ThresholdRule(kind, limit, hysteresis, holdMillis, windowMillis, "SENSOR_ALERT", "WARNING");
+    }
+}
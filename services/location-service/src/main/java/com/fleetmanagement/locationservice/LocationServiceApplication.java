@@ -0,0 +1,19 @@
+package com.fleetmanagement.locationservice;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+@SpringBootApplication
+@EnableDiscoveryClient
+@EnableKafka
+@EnableScheduling
+@EnableTransactionManagement
+public class LocationServiceApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(LocationServiceApplication.class, args);
+    }
+}
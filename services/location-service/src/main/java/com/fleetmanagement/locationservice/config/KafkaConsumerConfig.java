@@ -0,0 +1,54 @@
+package com.fleetmanagement.locationservice.config;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Kafka consumer configuration for location ingestion
+ *
+ * Positions are delivered to the listener a whole poll at a time (sized by
+ * spring.kafka.consumer.max-poll-records and fetch settings) so each poll
+ * becomes one COPY. Offsets are committed only after the batch is stored; a
+ * failed write is retried with backoff for a bounded time, after which the
+ * batch goes to the topic's dead-letter topic (suffix .DLT) so one poison
+ * batch cannot block its partition. Dead-lettered positions can be replayed
+ * once the cause is fixed.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> locationBatchListenerFactory(
+            ConsumerFactory<String, String> consumerFactory,
+            @Value("${app.ingest.concurrency:3}") int concurrency,
+            @Value("${app.ingest.retry.initial-interval-ms:1000}") long initialIntervalMillis,
+            @Value("${app.ingest.retry.max-interval-ms:30000}") long maxIntervalMillis,
+            @Value("${app.ingest.retry.max-elapsed-ms:600000}") long maxElapsedMillis,
+            KafkaTemplate<String, String> kafkaTemplate) {
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        // Ride out a database outage, then park the batch instead of dropping it
+        ExponentialBackOff backOff = new ExponentialBackOff(initialIntervalMillis, 2.0);
+        backOff.setMaxInterval(maxIntervalMillis);
+        backOff.setMaxElapsedTime(maxElapsedMillis);
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(record.topic() + ".DLT", -1));
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+
+        return factory;
+    }
+}
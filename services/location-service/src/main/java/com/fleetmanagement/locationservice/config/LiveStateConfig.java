@@ -0,0 +1,69 @@
+package com.fleetmanagement.locationservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.Map;
+
+/**
+ * Kafka configuration for the live-state projection
+ *
+ * The live-state topic is compacted: it keeps the newest record per key and
+ * is the only source the in-memory state is rebuilt from after a restart.
+ * The projector's consumer trades fetch size for latency, unlike the
+ * history ingestion, since its output feeds the live map.
+ */
+@Configuration
+public class LiveStateConfig {
+
+    @Bean
+    public NewTopic liveStateTopic(@Value("${app.live-state.topic:device.live.state}") String topic,
+                                   @Value("${app.live-state.partitions:6}") int partitions,
+                                   @Value("${app.live-state.replicas:1}") int replicas) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                .config(TopicConfig.SEGMENT_MS_CONFIG, "3600000")
+                .build();
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> liveStateListenerFactory(
+            KafkaProperties kafkaProperties,
+            @Value("${app.live-state.projector.concurrency:2}") int concurrency,
+            @Value("${app.live-state.projector.max-poll-records:2000}") int maxPollRecords,
+            @Value("${app.live-state.projector.fetch-max-wait-ms:100}") int fetchMaxWaitMs,
+            @Value("${app.ingest.retry.initial-interval-ms:1000}") long initialIntervalMillis,
+            @Value("${app.ingest.retry.max-interval-ms:30000}") long maxIntervalMillis) {
+
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        ExponentialBackOff backOff = new ExponentialBackOff(initialIntervalMillis, 2.0);
+        backOff.setMaxInterval(maxIntervalMillis);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+
+        return factory;
+    }
+}
@@ -0,0 +1,53 @@
+package com.fleetmanagement.locationservice.config;
+
+import com.fleetmanagement.common.security.GatewayHeaderSigner;
+import com.fleetmanagement.common.security.JwtVerifier;
+import com.fleetmanagement.common.security.PrincipalResolver;
+import com.fleetmanagement.locationservice.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+@Configuration
+@EnableWebSecurity
+@EnableMethodSecurity(prePostEnabled = true)
+public class SecurityConfig {
+
+    /**
+     * Resolves the caller once per request; identity headers signed by the gateway
+     * are trusted only when enabled and the shared secret is configured
+     */
+    @Bean
+    public PrincipalResolver principalResolver(@Value("${security.jwt.secret}") String jwtSecret,
+                                               @Value("${security.gateway-headers.enabled:false}") boolean trustGatewayHeaders,
+                                               @Value("${security.gateway-headers.secret:}") String gatewaySecret) {
+        GatewayHeaderSigner gatewaySigner = trustGatewayHeaders && !gatewaySecret.isEmpty()
+                ? new GatewayHeaderSigner(gatewaySecret)
+                : null;
+        return new PrincipalResolver(new JwtVerifier(jwtSecret), gatewaySigner);
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, PrincipalResolver principalResolver) throws Exception {
+        http.csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(authz -> authz
+                        // Live map streams complete on an async dispatch, already authorized when they were opened
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        .requestMatchers("/actuator/**").permitAll()
+                        .anyRequest().authenticated()
+                )
+                .addFilterBefore(new JwtAuthenticationFilter(principalResolver), UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+}
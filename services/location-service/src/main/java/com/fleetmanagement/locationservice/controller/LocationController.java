@@ -0,0 +1,108 @@
+package com.fleetmanagement.locationservice.controller;
+
+import com.fleetmanagement.common.security.VerifiedPrincipal;
+import com.fleetmanagement.locationservice.domain.LocationPoint;
+import com.fleetmanagement.locationservice.dto.response.ApiResponse;
+import com.fleetmanagement.locationservice.dto.response.LiveSnapshotResponse;
+import com.fleetmanagement.locationservice.dto.response.LocationHistoryResponse;
+import com.fleetmanagement.locationservice.service.LiveStateFilter;
+import com.fleetmanagement.locationservice.service.LiveStateStreamService;
+import com.fleetmanagement.locationservice.service.LocationHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/locations")
+public class LocationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationController.class);
+
+    private final LocationHistoryService historyService;
+    private final LiveStateStreamService liveStateService;
+
+    @Autowired
+    public LocationController(LocationHistoryService historyService, LiveStateStreamService liveStateService) {
+        this.historyService = historyService;
+        this.liveStateService = liveStateService;
+    }
+
+    @GetMapping("/devices/{deviceId}/history")
+    public ResponseEntity<ApiResponse<LocationHistoryResponse>> getHistory(
+            @PathVariable UUID deviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "1000") int maxPoints,
+            @AuthenticationPrincipal VerifiedPrincipal principal) {
+
+        logger.debug("Get location history for device: {} from {} to {}", deviceId, from, to);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                historyService.getHistory(deviceId, companyScope(principal), from, to, maxPoints)));
+    }
+
+    @GetMapping("/devices/{deviceId}/latest")
+    public ResponseEntity<ApiResponse<LocationPoint>> getLatest(@PathVariable UUID deviceId,
+                                                                @AuthenticationPrincipal VerifiedPrincipal principal) {
+        return historyService.getLatest(deviceId, companyScope(principal))
+                .map(point -> ResponseEntity.ok(ApiResponse.success(point)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("No position recorded for device: " + deviceId)));
+    }
+
+    /**
+     * Current state of the caller's devices, optionally limited to some devices
+     * or a bounding box "minLon,minLat,maxLon,maxLat"
+     */
+    @GetMapping("/live")
+    public ResponseEntity<ApiResponse<LiveSnapshotResponse>> getLiveSnapshot(
+            @RequestParam(required = false) List<UUID> deviceIds,
+            @RequestParam(required = false) String bbox,
+            @AuthenticationPrincipal VerifiedPrincipal principal) {
+
+        LiveStateFilter filter = LiveStateFilter.of(companyScope(principal), deviceIds, bbox);
+        return ResponseEntity.ok(ApiResponse.success(liveStateService.snapshot(filter)));
+    }
+
+    /**
+     * Server-Sent Events stream of the same view: a "snapshot" event, then
+     * "delta" events with the devices that changed
+     */
+    @GetMapping(value = "/live/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLiveState(
+            @RequestParam(required = false) List<UUID> deviceIds,
+            @RequestParam(required = false) String bbox,
+            @AuthenticationPrincipal VerifiedPrincipal principal) {
+
+        LiveStateFilter filter = LiveStateFilter.of(companyScope(principal), deviceIds, bbox);
+        logger.debug("Live state stream opened by {}", principal.getUserId());
+        return liveStateService.subscribe(filter);
+    }
+
+    // Super admins see every company; everyone else only positions of their own company
+    private static UUID companyScope(VerifiedPrincipal principal) {
+        if ("SUPER_ADMIN".equals(principal.getRole())) {
+            return null;
+        }
+        if (principal.getCompanyId() == null) {
+            throw new AccessDeniedException("No company associated with the caller");
+        }
+        return principal.getCompanyId();
+    }
+}
@@ -0,0 +1,92 @@
+package com.fleetmanagement.locationservice.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Last known state of a device as served to the live map
+ *
+ * Position fields come from location updates and are versioned by fixTime;
+ * health fields come from heartbeats and are versioned by healthTime. Each
+ * part is replaced only by a newer version of itself, so the two sources can
+ * arrive in any order.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LiveDeviceState {
+
+    UUID deviceId;
+    UUID companyId;
+
+    // Position
+    Double latitude;
+    Double longitude;
+    Double speed;
+    Double course;
+    Boolean ignition;
+    Instant fixTime;
+
+    // Health
+    String status;
+    String healthStatus;
+    Integer healthScore;
+    Double batteryLevel;
+    Instant healthTime;
+
+    Instant lastSeen;
+
+    /**
+     * This state with the position part of the other one, if that is newer
+     */
+    public LiveDeviceState withPosition(LiveDeviceState other) {
+        if (other.fixTime == null || (fixTime != null && !other.fixTime.isAfter(fixTime))) {
+            return this;
+        }
+        return toBuilder()
+                .companyId(other.companyId != null ? other.companyId : companyId)
+                .latitude(other.latitude)
+                .longitude(other.longitude)
+                .speed(other.speed)
+                .course(other.course)
+                .ignition(other.ignition)
+                .fixTime(other.fixTime)
+                .lastSeen(latest(lastSeen, other.lastSeen))
+                .build();
+    }
+
+    /**
+     * This state with the health part of the other one, if that is newer
+     */
+    public LiveDeviceState withHealth(LiveDeviceState other) {
+        if (other.healthTime == null || (healthTime != null && !other.healthTime.isAfter(healthTime))) {
+            return this;
+        }
+        return toBuilder()
+                .companyId(other.companyId != null ? other.companyId : companyId)
+                .status(other.status)
+                .healthStatus(other.healthStatus)
+                .healthScore(other.healthScore)
+                .batteryLevel(other.batteryLevel)
+                .healthTime(other.healthTime)
+                .lastSeen(latest(lastSeen, other.lastSeen))
+                .build();
+    }
+
+    public boolean hasPosition() {
+        return latitude != null && longitude != null;
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isAfter(a) ? b : a;
+    }
+}
@@ -0,0 +1,39 @@
+package com.fleetmanagement.locationservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One stored position of a device, a row of the device_locations hypertable
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationPoint {
+
+    private Instant time;
+    private UUID deviceId;
+    private UUID companyId;
+    private Long traccarDeviceId;
+
+    private double latitude;
+    private double longitude;
+    private Double altitude;
+    private Double speed;
+    private Double course;
+    private Double accuracy;
+
+    private Double odometer;
+    private Boolean ignition;
+    private Boolean valid;
+    private Integer satellites;
+    private Double hdop;
+    private String protocol;
+    private Instant serverTime;
+}
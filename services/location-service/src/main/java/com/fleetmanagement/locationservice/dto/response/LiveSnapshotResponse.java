@@ -0,0 +1,26 @@
+package com.fleetmanagement.locationservice.dto.response;
+
+import com.fleetmanagement.locationservice.domain.LiveDeviceState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Current state of every device visible to the caller; complete is false
+ * while the instance is still rebuilding its state after a restart
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveSnapshotResponse {
+
+    private boolean complete;
+    private Instant generatedAt;
+    private int count;
+    private List<LiveDeviceState> devices;
+}
@@ -0,0 +1,35 @@
+package com.fleetmanagement.locationservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Location History Response
+ *
+ * Track of a device over a time range. When the range holds more positions
+ * than requested the track is downsampled into fixed time buckets.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LocationHistoryResponse {
+
+    private UUID deviceId;
+    private Instant from;
+    private Instant to;
+
+    private boolean downsampled;
+    private Long bucketSeconds;
+
+    private int pointCount;
+    private List<TrackPointResponse> points;
+}
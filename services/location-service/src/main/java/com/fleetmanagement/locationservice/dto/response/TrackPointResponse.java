@@ -0,0 +1,30 @@
+package com.fleetmanagement.locationservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One point of a device track. For downsampled tracks the point is the last
+ * position of its time bucket, speed is the bucket's maximum and samples is
+ * the number of positions it stands for.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrackPointResponse {
+
+    private Instant time;
+    private double latitude;
+    private double longitude;
+    private Double speed;
+    private Double course;
+    private Boolean ignition;
+    private Integer samples;
+}
@@ -0,0 +1,198 @@
+package com.fleetmanagement.locationservice.repository;
+
+import com.fleetmanagement.locationservice.domain.LocationPoint;
+import com.fleetmanagement.locationservice.dto.response.TrackPointResponse;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Location Repository
+ *
+ * JDBC access to the device_locations hypertable. Batches are streamed with
+ * COPY into a transaction-scoped staging table and merged with ON CONFLICT DO
+ * NOTHING, so a batch redelivered by Kafka does not duplicate positions.
+ */
+@Repository
+public class LocationRepository {
+
+    private static final String COLUMNS = "time, device_id, company_id, traccar_device_id, latitude, longitude, "
+            + "altitude, speed, course, accuracy, odometer, ignition, valid, satellites, hdop, protocol, server_time";
+
+    private static final String CREATE_STAGING = "CREATE TEMP TABLE IF NOT EXISTS device_locations_staging "
+            + "(LIKE device_locations INCLUDING DEFAULTS) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_STAGING = "COPY device_locations_staging (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MERGE_STAGING = "INSERT INTO device_locations (" + COLUMNS + ") "
+            + "SELECT " + COLUMNS + " FROM device_locations_staging "
+            + "ON CONFLICT (device_id, time) DO NOTHING";
+
+    private static final String SELECT_LATEST = "SELECT " + COLUMNS + " FROM device_locations "
+            + "WHERE device_id = ?";
+
+    private static final String SELECT_TRACK = "SELECT time, latitude, longitude, speed, course, ignition "
+            + "FROM device_locations WHERE device_id = ? AND time >= ? AND time < ?";
+
+    // Last position of each bucket keeps the track on the road; max speed keeps overspeed visible
+    private static final String SELECT_DOWNSAMPLED_TRACK = "SELECT time_bucket(? * INTERVAL '1 second', time) AS bucket, "
+            + "last(time, time) AS time, last(latitude, time) AS latitude, last(longitude, time) AS longitude, "
+            + "max(speed) AS speed, last(course, time) AS course, last(ignition, time) AS ignition, count(*) AS samples "
+            + "FROM device_locations WHERE device_id = ? AND time >= ? AND time < ?";
+
+    private static final RowMapper<TrackPointResponse> TRACK_POINT_MAPPER = (rs, rowNum) -> TrackPointResponse.builder()
+            .time(rs.getTimestamp("time").toInstant())
+            .latitude(rs.getDouble("latitude"))
+            .longitude(rs.getDouble("longitude"))
+            .speed(rs.getObject("speed", Double.class))
+            .course(rs.getObject("course", Double.class))
+            .ignition(rs.getObject("ignition", Boolean.class))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public LocationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Store a batch of positions with one COPY; returns the number of new rows
+     */
+    @Transactional
+    public int insertBatch(List<LocationPoint> points) {
+        if (points.isEmpty()) {
+            return 0;
+        }
+        String csv = toCsv(points);
+        Integer inserted = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+            }
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                copyManager.copyIn(COPY_STAGING, new StringReader(csv));
+            } catch (IOException e) {
+                throw new SQLException("COPY into device_locations_staging failed", e);
+            }
+            try (Statement statement = connection.createStatement()) {
+                return statement.executeUpdate(MERGE_STAGING);
+            }
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    public Optional<LocationPoint> findLatest(UUID deviceId, UUID companyId) {
+        List<Object> args = new ArrayList<>(List.of(deviceId));
+        String sql = SELECT_LATEST + companyFilter(companyId, args) + " ORDER BY time DESC LIMIT 1";
+        return jdbcTemplate.query(sql, this::mapLocationPoint, args.toArray()).stream().findFirst();
+    }
+
+    /**
+     * Raw positions in [from, to), at most limit of them in time order
+     */
+    public List<TrackPointResponse> findTrack(UUID deviceId, UUID companyId, Instant from, Instant to, int limit) {
+        List<Object> args = new ArrayList<>(List.of(deviceId, Timestamp.from(from), Timestamp.from(to)));
+        String sql = SELECT_TRACK + companyFilter(companyId, args) + " ORDER BY time LIMIT ?";
+        args.add(limit);
+        return jdbcTemplate.query(sql, TRACK_POINT_MAPPER, args.toArray());
+    }
+
+    /**
+     * One point per time bucket of bucketSeconds in [from, to)
+     */
+    public List<TrackPointResponse> findDownsampledTrack(UUID deviceId, UUID companyId, Instant from, Instant to,
+                                                         long bucketSeconds) {
+        List<Object> args = new ArrayList<>(List.of(bucketSeconds, deviceId, Timestamp.from(from), Timestamp.from(to)));
+        String sql = SELECT_DOWNSAMPLED_TRACK + companyFilter(companyId, args) + " GROUP BY bucket ORDER BY bucket";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            TrackPointResponse point = TRACK_POINT_MAPPER.mapRow(rs, rowNum);
+            point.setSamples(rs.getInt("samples"));
+            return point;
+        }, args.toArray());
+    }
+
+    private static String companyFilter(UUID companyId, List<Object> args) {
+        if (companyId == null) {
+            return "";
+        }
+        args.add(companyId);
+        return " AND company_id = ?";
+    }
+
+    private LocationPoint mapLocationPoint(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp serverTime = rs.getTimestamp("server_time");
+        return LocationPoint.builder()
+                .time(rs.getTimestamp("time").toInstant())
+                .deviceId(rs.getObject("device_id", UUID.class))
+                .companyId(rs.getObject("company_id", UUID.class))
+                .traccarDeviceId(rs.getObject("traccar_device_id", Long.class))
+                .latitude(rs.getDouble("latitude"))
+                .longitude(rs.getDouble("longitude"))
+                .altitude(rs.getObject("altitude", Double.class))
+                .speed(rs.getObject("speed", Double.class))
+                .course(rs.getObject("course", Double.class))
+                .accuracy(rs.getObject("accuracy", Double.class))
+                .odometer(rs.getObject("odometer", Double.class))
+                .ignition(rs.getObject("ignition", Boolean.class))
+                .valid(rs.getObject("valid", Boolean.class))
+                .satellites(rs.getObject("satellites", Integer.class))
+                .hdop(rs.getObject("hdop", Double.class))
+                .protocol(rs.getString("protocol"))
+                .serverTime(serverTime != null ? serverTime.toInstant() : null)
+                .build();
+    }
+
+    // CSV rows in COLUMNS order; an unquoted empty field is NULL
+    private static String toCsv(List<LocationPoint> points) {
+        StringBuilder csv = new StringBuilder(points.size() * 192);
+        for (LocationPoint point : points) {
+            csv.append(point.getTime()).append(',')
+                    .append(point.getDeviceId()).append(',');
+            appendValue(csv, point.getCompanyId()).append(',');
+            appendValue(csv, point.getTraccarDeviceId()).append(',');
+            csv.append(point.getLatitude()).append(',')
+                    .append(point.getLongitude()).append(',');
+            appendValue(csv, point.getAltitude()).append(',');
+            appendValue(csv, point.getSpeed()).append(',');
+            appendValue(csv, point.getCourse()).append(',');
+            appendValue(csv, point.getAccuracy()).append(',');
+            appendValue(csv, point.getOdometer()).append(',');
+            appendValue(csv, point.getIgnition()).append(',');
+            appendValue(csv, point.getValid()).append(',');
+            appendValue(csv, point.getSatellites()).append(',');
+            appendValue(csv, point.getHdop()).append(',');
+            appendText(csv, point.getProtocol()).append(',');
+            appendValue(csv, point.getServerTime()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static StringBuilder appendValue(StringBuilder csv, Object value) {
+        return value != null ? csv.append(value) : csv;
+    }
+
+    private static StringBuilder appendText(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,58 @@
+package com.fleetmanagement.locationservice.security;
+
+import com.fleetmanagement.common.security.PrincipalResolver;
+import com.fleetmanagement.common.security.VerifiedPrincipal;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests from signed gateway headers or the bearer token.
+ * The {@link VerifiedPrincipal} is the authentication principal so controllers
+ * can scope queries to the caller's company.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final PrincipalResolver principalResolver;
+
+    public JwtAuthenticationFilter(PrincipalResolver principalResolver) {
+        this.principalResolver = principalResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            String header = request.getHeader("Authorization");
+            String token = header != null && header.startsWith(BEARER_PREFIX) ? header.substring(BEARER_PREFIX.length()) : null;
+
+            VerifiedPrincipal principal = principalResolver.resolve(request, token);
+            if (principal != null && principal.isAccessToken() && principal.getUserId() != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole())));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        } catch (JwtException | IllegalArgumentException ex) {
+            logger.debug("JWT validation failed: {}", ex.getMessage());
+            SecurityContextHolder.clearContext();
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
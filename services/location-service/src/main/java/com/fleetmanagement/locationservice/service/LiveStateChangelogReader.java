@@ -0,0 +1,237 @@
+package com.fleetmanagement.locationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.locationservice.domain.LiveDeviceState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Live State Changelog Reader
+ *
+ * Every instance reads all partitions of the compacted live-state topic from
+ * the beginning by assignment, outside any consumer group, so each holds the full
+ * projection. The store reports ready once the offsets that were the end of
+ * the topic at startup have been reached; after that the reader keeps
+ * tailing the topic for changes. If the consumer fails, a new one resumes
+ * from the offsets already applied, retrying with backoff until shutdown.
+ */
+@Service
+public class LiveStateChangelogReader implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveStateChangelogReader.class);
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final long TOPIC_RETRY_MILLIS = 5000;
+    private static final long MAX_RETRY_MILLIS = 60000;
+
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final LiveStateStore store;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.live-state.topic:device.live.state}")
+    private String topic;
+
+    @Value("${app.live-state.enabled:true}")
+    private boolean enabled;
+
+    private volatile Consumer<String, String> consumer;
+    private volatile Thread thread;
+    private volatile boolean running;
+
+    // Next offset to read per partition, kept across consumer restarts; reader thread only
+    private final Map<TopicPartition, Long> positions = new HashMap<>();
+    private Map<TopicPartition, Long> startupEnd;
+    private long started;
+
+    @Autowired
+    public LiveStateChangelogReader(ConsumerFactory<String, String> consumerFactory,
+                                    LiveStateStore store,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry) {
+        this.consumerFactory = consumerFactory;
+        this.store = store;
+        this.objectMapper = objectMapper;
+        Gauge.builder("location.live.devices", store, LiveStateStore::size).register(meterRegistry);
+        Gauge.builder("location.live.ready", store, s -> s.isReady() ? 1 : 0).register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("Live state projection is disabled");
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "live-state-changelog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Consumer<String, String> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (thread != null) {
+            try {
+                thread.join(POLL_TIMEOUT.toMillis() * 4);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long retryMillis = TOPIC_RETRY_MILLIS;
+        started = System.currentTimeMillis();
+        try {
+            while (running) {
+                try {
+                    if (read()) {
+                        retryMillis = TOPIC_RETRY_MILLIS;
+                    }
+                } catch (WakeupException e) {
+                    // Shutting down
+                } catch (Exception e) {
+                    if (!running) {
+                        break;
+                    }
+                    logger.error("Live state changelog reader failed, restarting in {} ms", retryMillis, e);
+                    Thread.sleep(retryMillis);
+                    retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Read the topic with a new consumer until shutdown or failure
+     *
+     * @return whether the consumer got as far as polling
+     */
+    private boolean read() throws InterruptedException {
+        // Latency matters more than fetch size once the replay is done
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, "1");
+        overrides.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, "100");
+
+        try (Consumer<String, String> kafkaConsumer = consumerFactory.createConsumer(null, "live-state", null, overrides)) {
+            consumer = kafkaConsumer;
+            if (!running) {
+                return false;
+            }
+            List<TopicPartition> partitions = awaitPartitions(kafkaConsumer);
+            if (partitions.isEmpty()) {
+                return false;
+            }
+            kafkaConsumer.assign(partitions);
+            for (TopicPartition partition : partitions) {
+                Long position = positions.get(partition);
+                if (position != null) {
+                    kafkaConsumer.seek(partition, position);
+                } else {
+                    kafkaConsumer.seekToBeginning(List.of(partition));
+                }
+            }
+            if (startupEnd == null) {
+                startupEnd = kafkaConsumer.endOffsets(partitions);
+                logger.info("Rebuilding live state from {} partitions of {}", partitions.size(), topic);
+            } else {
+                logger.info("Resuming live state from {} partitions of {}", partitions.size(), topic);
+            }
+
+            boolean polled = false;
+            while (running) {
+                ConsumerRecords<String, String> records = kafkaConsumer.poll(POLL_TIMEOUT);
+                polled = true;
+                for (ConsumerRecord<String, String> record : records) {
+                    apply(record);
+                }
+                for (TopicPartition partition : records.partitions()) {
+                    List<ConsumerRecord<String, String>> applied = records.records(partition);
+                    positions.put(partition, applied.get(applied.size() - 1).offset() + 1);
+                }
+                if (!store.isReady() && caughtUp(kafkaConsumer, startupEnd)) {
+                    store.markReady();
+                    logger.info("Live state rebuilt with {} devices in {} ms",
+                            store.size(), System.currentTimeMillis() - started);
+                }
+            }
+            return polled;
+        } finally {
+            consumer = null;
+        }
+    }
+
+    private List<TopicPartition> awaitPartitions(Consumer<String, String> kafkaConsumer) throws InterruptedException {
+        while (running) {
+            try {
+                List<PartitionInfo> infos = kafkaConsumer.partitionsFor(topic);
+                if (infos != null && !infos.isEmpty()) {
+                    return infos.stream().map(info -> new TopicPartition(info.topic(), info.partition())).toList();
+                }
+                logger.warn("Live state topic {} not available yet, retrying", topic);
+            } catch (TimeoutException e) {
+                logger.warn("Kafka not reachable for live state topic {}, retrying", topic);
+            }
+            Thread.sleep(TOPIC_RETRY_MILLIS);
+        }
+        return List.of();
+    }
+
+    private static boolean caughtUp(Consumer<String, String> kafkaConsumer, Map<TopicPartition, Long> end) {
+        for (Map.Entry<TopicPartition, Long> entry : end.entrySet()) {
+            if (kafkaConsumer.position(entry.getKey()) < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void apply(ConsumerRecord<String, String> record) {
+        if (record.key() == null || record.value() == null) {
+            return;
+        }
+        try {
+            LiveStateStore.Part part = LiveStateProjector.partOf(record.key());
+            if (part != null) {
+                store.apply(part, objectMapper.readValue(record.value(), LiveDeviceState.class));
+            }
+        } catch (Exception e) {
+            logger.debug("Skipping unreadable live state record {}: {}", record.key(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.fleetmanagement.locationservice.service;
+
+import com.fleetmanagement.locationservice.domain.LiveDeviceState;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Which devices a live map client sees: its company (null for all), an
+ * optional set of devices and an optional bounding box
+ */
+public record LiveStateFilter(UUID companyId, Set<UUID> deviceIds, double[] bbox) {
+
+    /**
+     * Filter from request parameters; bbox is "minLon,minLat,maxLon,maxLat"
+     */
+    public static LiveStateFilter of(UUID companyId, List<UUID> deviceIds, String bbox) {
+        return new LiveStateFilter(companyId,
+                deviceIds == null || deviceIds.isEmpty() ? null : Set.copyOf(deviceIds),
+                bbox == null || bbox.isBlank() ? null : parseBbox(bbox));
+    }
+
+    public boolean matches(LiveDeviceState state) {
+        if (companyId != null && !companyId.equals(state.getCompanyId())) {
+            return false;
+        }
+        if (deviceIds != null && !deviceIds.contains(state.getDeviceId())) {
+            return false;
+        }
+        return bbox == null || inBbox(state);
+    }
+
+    /**
+     * Whether a change from previous to current concerns this client; a device
+     * leaving the box is still sent once so the client can move it off the map
+     */
+    public boolean matches(LiveDeviceState previous, LiveDeviceState current) {
+        return matches(current) || (previous != null && bbox != null && matches(previous)
+                && (companyId == null || companyId.equals(current.getCompanyId())));
+    }
+
+    private boolean inBbox(LiveDeviceState state) {
+        if (!state.hasPosition()) {
+            return false;
+        }
+        double lon = state.getLongitude();
+        double lat = state.getLatitude();
+        boolean inLon = bbox[0] <= bbox[2]
+                ? lon >= bbox[0] && lon <= bbox[2]
+                : lon >= bbox[0] || lon <= bbox[2]; // box across the antimeridian
+        return inLon && lat >= bbox[1] && lat <= bbox[3];
+    }
+
+    private static double[] parseBbox(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        double[] box = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                box[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        if (Math.abs(box[0]) > 180 || Math.abs(box[2]) > 180 || Math.abs(box[1]) > 90 || Math.abs(box[3]) > 90
+                || box[1] > box[3]) {
+            throw new IllegalArgumentException("bbox is outside valid coordinates");
+        }
+        return box;
+    }
+}
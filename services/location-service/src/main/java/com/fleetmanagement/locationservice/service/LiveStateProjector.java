@@ -0,0 +1,219 @@
+package com.fleetmanagement.locationservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.locationservice.domain.LiveDeviceState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live State Projector
+ *
+ * Turns the bridge's location updates and heartbeats into the compacted
+ * live-state topic. Each device has two records there, "<deviceId>:position"
+ * and "<deviceId>:health", so the two sources never overwrite each other and
+ * no read-modify-write is needed; the store merges them by their own
+ * timestamps. Updates are coalesced per poll to the newest one per record,
+ * and offsets are committed only once the topic has acknowledged them.
+ */
+@Service
+public class LiveStateProjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveStateProjector.class);
+
+    private static final String POSITION_SUFFIX = ":position";
+    private static final String HEALTH_SUFFIX = ":health";
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter publishedCounter;
+    private final Counter coalescedCounter;
+    private final Counter rejectedCounter;
+
+    @Value("${app.live-state.topic:device.live.state}")
+    private String topic;
+
+    @Value("${app.kafka.topics.heartbeats:device.heartbeat}")
+    private String heartbeatTopic;
+
+    @Value("${app.live-state.projector.send-timeout-ms:30000}")
+    private long sendTimeoutMillis;
+
+    @Autowired
+    public LiveStateProjector(KafkaTemplate<String, String> kafkaTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.publishedCounter = meterRegistry.counter("location.live.projector.updates", "result", "published");
+        this.coalescedCounter = meterRegistry.counter("location.live.projector.updates", "result", "coalesced");
+        this.rejectedCounter = meterRegistry.counter("location.live.projector.updates", "result", "rejected");
+    }
+
+    @KafkaListener(
+            topics = {"${app.kafka.topics.location-updates:device.location.updated}", "${app.kafka.topics.heartbeats:device.heartbeat}"},
+            groupId = "${app.live-state.projector.group-id:location-service-live-state}",
+            containerFactory = "liveStateListenerFactory",
+            autoStartup = "${app.live-state.enabled:true}"
+    )
+    public void onEventBatch(List<ConsumerRecord<String, String>> records) throws Exception {
+        Map<String, LiveDeviceState> latest = new LinkedHashMap<>();
+        for (ConsumerRecord<String, String> record : records) {
+            boolean heartbeat = heartbeatTopic.equals(record.topic());
+            LiveDeviceState update = heartbeat ? parseHeartbeat(record.value()) : parsePosition(record.value());
+            if (update == null) {
+                rejectedCounter.increment();
+                continue;
+            }
+
+            String key = update.getDeviceId() + (heartbeat ? HEALTH_SUFFIX : POSITION_SUFFIX);
+            LiveDeviceState previous = latest.get(key);
+            if (previous == null || isNewer(update, previous, heartbeat)) {
+                latest.put(key, update);
+            }
+        }
+        coalescedCounter.increment(records.size() - latest.size());
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(latest.size());
+        for (Map.Entry<String, LiveDeviceState> entry : latest.entrySet()) {
+            sends.add(kafkaTemplate.send(topic, entry.getKey(), objectMapper.writeValueAsString(entry.getValue())));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        publishedCounter.increment(latest.size());
+        logger.debug("Projected {} live state updates from {} events", latest.size(), records.size());
+    }
+
+    /**
+     * Part of the store a live-state record key updates
+     */
+    static LiveStateStore.Part partOf(String key) {
+        if (key.endsWith(POSITION_SUFFIX)) {
+            return LiveStateStore.Part.POSITION;
+        }
+        if (key.endsWith(HEALTH_SUFFIX)) {
+            return LiveStateStore.Part.HEALTH;
+        }
+        return null;
+    }
+
+    private static boolean isNewer(LiveDeviceState update, LiveDeviceState previous, boolean heartbeat) {
+        return heartbeat
+                ? !update.getHealthTime().isBefore(previous.getHealthTime())
+                : !update.getFixTime().isBefore(previous.getFixTime());
+    }
+
+    /**
+     * Position part of a LocationUpdatedEvent, or null if it has no usable fix
+     */
+    LiveDeviceState parsePosition(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            JsonNode location = event.path("locationData");
+
+            UUID deviceId = uuid(location.path("deviceId"), event.path("deviceId"));
+            UUID companyId = uuid(location.path("companyId"), event.path("companyId"));
+            Instant fixTime = instant(location.path("deviceTime"), location.path("serverTime"), event.path("timestamp"));
+            Double latitude = number(location.path("latitude"));
+            Double longitude = number(location.path("longitude"));
+            if (deviceId == null || companyId == null || fixTime == null || latitude == null || longitude == null
+                    || Math.abs(latitude) > 90 || Math.abs(longitude) > 180
+                    || !location.path("valid").asBoolean(true)) {
+                return null;
+            }
+
+            Instant received = instant(location.path("serverTime"));
+            return LiveDeviceState.builder()
+                    .deviceId(deviceId)
+                    .companyId(companyId)
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .speed(number(location.path("speed")))
+                    .course(number(location.path("course")))
+                    .ignition(location.path("ignition").isBoolean() ? location.path("ignition").asBoolean() : null)
+                    .fixTime(fixTime)
+                    .lastSeen(received != null ? received : fixTime)
+                    .build();
+        } catch (Exception e) {
+            logger.debug("Dropping unreadable location event: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Health part of a DeviceHeartbeatEvent, or null if it cannot be used
+     */
+    LiveDeviceState parseHeartbeat(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            JsonNode health = event.path("deviceHealth");
+
+            UUID deviceId = uuid(event.path("deviceId"), health.path("deviceId"));
+            UUID companyId = uuid(event.path("companyId"), health.path("companyId"));
+            Instant healthTime = instant(health.path("checkedTime"), health.path("reportedTime"), event.path("timestamp"));
+            if (deviceId == null || companyId == null || healthTime == null) {
+                return null;
+            }
+
+            JsonNode score = health.path("healthScore");
+            return LiveDeviceState.builder()
+                    .deviceId(deviceId)
+                    .companyId(companyId)
+                    .status(health.path("status").isTextual() ? health.path("status").asText() : null)
+                    .healthStatus(health.path("healthStatus").isTextual() ? health.path("healthStatus").asText() : null)
+                    .healthScore(score.isNumber() ? score.asInt() : null)
+                    .batteryLevel(number(health.path("batteryLevel")))
+                    .healthTime(healthTime)
+                    .lastSeen(instant(health.path("lastCommunication")))
+                    .build();
+        } catch (Exception e) {
+            logger.debug("Dropping unreadable heartbeat event: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static UUID uuid(JsonNode... candidates) {
+        for (JsonNode node : candidates) {
+            if (node.isTextual()) {
+                return UUID.fromString(node.asText());
+            }
+        }
+        return null;
+    }
+
+    private static Double number(JsonNode node) {
+        return node.isNumber() ? node.asDouble() : null;
+    }
+
+    // The bridge's JSON serializer writes Instants as epoch seconds with a fraction; ISO strings are accepted too
+    private static Instant instant(JsonNode... candidates) {
+        for (JsonNode node : candidates) {
+            if (node.isNumber()) {
+                BigDecimal seconds = node.decimalValue();
+                return Instant.ofEpochSecond(seconds.longValue(),
+                        seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+            }
+            if (node.isTextual()) {
+                return Instant.parse(node.asText());
+            }
+        }
+        return null;
+    }
+}
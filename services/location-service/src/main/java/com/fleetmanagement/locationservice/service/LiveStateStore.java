@@ -0,0 +1,116 @@
+package com.fleetmanagement.locationservice.service;
+
+import com.fleetmanagement.locationservice.domain.LiveDeviceState;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Live State Store
+ *
+ * In-memory map of company to device to last known state, filled by the
+ * changelog reader. Writes come from that single thread; reads are lock-free
+ * and see each device's state atomically. Listeners are told of every state
+ * that changed, with the state it replaced.
+ */
+@Component
+public class LiveStateStore {
+
+    public enum Part { POSITION, HEALTH }
+
+    private final Map<UUID, Map<UUID, LiveDeviceState>> devicesByCompany = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> companyByDevice = new ConcurrentHashMap<>();
+    private final List<BiConsumer<LiveDeviceState, LiveDeviceState>> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean ready;
+
+    /**
+     * Merges one part of a device's state; returns false if it was not newer
+     */
+    public boolean apply(Part part, LiveDeviceState update) {
+        UUID deviceId = update.getDeviceId();
+        UUID companyId = update.getCompanyId();
+        if (deviceId == null || companyId == null) {
+            return false;
+        }
+
+        UUID previousCompany = companyByDevice.get(deviceId);
+        LiveDeviceState previous = previousCompany != null ? devicesByCompany.get(previousCompany).get(deviceId) : null;
+        boolean moved = previousCompany != null && !previousCompany.equals(companyId);
+
+        LiveDeviceState base = previous != null ? previous : LiveDeviceState.builder().deviceId(deviceId).build();
+        LiveDeviceState current = part == Part.POSITION ? base.withPosition(update) : base.withHealth(update);
+        if (current == previous && !moved) {
+            return false;
+        }
+        current = current.toBuilder().companyId(companyId).build();
+
+        // A device moved to another company leaves its old company's map
+        devicesByCompany.computeIfAbsent(companyId, id -> new ConcurrentHashMap<>()).put(deviceId, current);
+        companyByDevice.put(deviceId, companyId);
+        if (moved) {
+            devicesByCompany.get(previousCompany).remove(deviceId);
+        }
+        for (BiConsumer<LiveDeviceState, LiveDeviceState> listener : listeners) {
+            listener.accept(previous, current);
+        }
+        return true;
+    }
+
+    public LiveDeviceState get(UUID deviceId) {
+        UUID companyId = companyByDevice.get(deviceId);
+        return companyId != null ? devicesByCompany.get(companyId).get(deviceId) : null;
+    }
+
+    /**
+     * Current states passing the filter
+     */
+    public List<LiveDeviceState> snapshot(LiveStateFilter filter) {
+        List<LiveDeviceState> states = new ArrayList<>();
+        if (filter.deviceIds() != null) {
+            for (UUID deviceId : filter.deviceIds()) {
+                LiveDeviceState state = get(deviceId);
+                if (state != null && filter.matches(state)) {
+                    states.add(state);
+                }
+            }
+            return states;
+        }
+
+        Iterable<Map<UUID, LiveDeviceState>> companies = filter.companyId() != null
+                ? List.of(devicesByCompany.getOrDefault(filter.companyId(), Map.of()))
+                : devicesByCompany.values();
+        for (Map<UUID, LiveDeviceState> devices : companies) {
+            for (LiveDeviceState state : devices.values()) {
+                if (filter.matches(state)) {
+                    states.add(state);
+                }
+            }
+        }
+        return states;
+    }
+
+    public int size() {
+        return companyByDevice.size();
+    }
+
+    public void addListener(BiConsumer<LiveDeviceState, LiveDeviceState> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Whether the changelog has been replayed up to where it ended at startup
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        this.ready = true;
+    }
+}
@@ -0,0 +1,183 @@
+package com.fleetmanagement.locationservice.service;
+
+import com.fleetmanagement.locationservice.domain.LiveDeviceState;
+import com.fleetmanagement.locationservice.dto.response.LiveSnapshotResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Live State Stream Service
+ *
+ * Serves snapshots of the live state and pushes changes to Server-Sent Events
+ * subscribers. Each subscriber gets a snapshot first, then "delta" events with
+ * the devices that changed since its last one. Changes are coalesced per
+ * device between flushes, so a slow client receives fewer, newer states
+ * rather than a growing backlog, and a send in progress for one client never
+ * holds up the others.
+ */
+@Service
+public class LiveStateStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveStateStreamService.class);
+
+    private final LiveStateStore store;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+
+    @Value("${app.live-state.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMillis;
+
+    @Value("${app.live-state.stream.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMillis;
+
+    @Value("${app.live-state.stream.max-subscriptions:2000}")
+    private int maxSubscriptions;
+
+    @Autowired
+    public LiveStateStreamService(LiveStateStore store,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.live-state.stream.sender-threads:4}") int senderThreads) {
+        this.store = store;
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-state-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        store.addListener(this::onChange);
+        Gauge.builder("location.live.subscriptions", subscriptions, Set::size).register(meterRegistry);
+    }
+
+    public LiveSnapshotResponse snapshot(LiveStateFilter filter) {
+        List<LiveDeviceState> devices = store.snapshot(filter);
+        return LiveSnapshotResponse.builder()
+                .complete(store.isReady())
+                .generatedAt(Instant.now())
+                .count(devices.size())
+                .devices(devices)
+                .build();
+    }
+
+    /**
+     * Opens a stream for the filter; the snapshot is taken after the
+     * subscription is registered, so a change may arrive twice but never not at all
+     */
+    public SseEmitter subscribe(LiveStateFilter filter) {
+        if (subscriptions.size() >= maxSubscriptions) {
+            throw new IllegalStateException("Too many live map subscriptions");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscription subscription = new Subscription(filter, emitter);
+        // Held until the snapshot is out so no delta overtakes it
+        subscription.sending.set(true);
+        subscriptions.add(subscription);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(error -> subscriptions.remove(subscription));
+
+        try {
+            emitter.send(SseEmitter.event().name("snapshot").data(snapshot(filter), MediaType.APPLICATION_JSON));
+            subscription.lastSent = System.currentTimeMillis();
+        } catch (IOException e) {
+            subscriptions.remove(subscription);
+            emitter.completeWithError(e);
+        } finally {
+            subscription.sending.set(false);
+        }
+        return emitter;
+    }
+
+    private void onChange(LiveDeviceState previous, LiveDeviceState current) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.filter.matches(previous, current)) {
+                subscription.pending.put(current.getDeviceId(), current);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.live-state.stream.flush-interval-ms:250}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Subscription subscription : subscriptions) {
+            boolean heartbeatDue = now - subscription.lastSent >= heartbeatIntervalMillis;
+            if ((subscription.pending.isEmpty() && !heartbeatDue) || !subscription.sending.compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                sender.execute(() -> send(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.sending.set(false);
+            }
+        }
+    }
+
+    private void send(Subscription subscription) {
+        try {
+            List<LiveDeviceState> changes = new ArrayList<>(subscription.pending.size());
+            for (UUID deviceId : subscription.pending.keySet()) {
+                LiveDeviceState state = subscription.pending.remove(deviceId);
+                if (state != null) {
+                    changes.add(state);
+                }
+            }
+
+            if (!changes.isEmpty()) {
+                subscription.emitter.send(SseEmitter.event().name("delta").data(changes, MediaType.APPLICATION_JSON));
+            } else {
+                subscription.emitter.send(SseEmitter.event().comment("keepalive"));
+            }
+            subscription.lastSent = System.currentTimeMillis();
+        } catch (Exception e) {
+            logger.debug("Dropping live map subscriber: {}", e.getMessage());
+            subscriptions.remove(subscription);
+            subscription.emitter.completeWithError(e);
+        } finally {
+            subscription.sending.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (Subscription subscription : subscriptions) {
+            subscription.emitter.complete();
+        }
+        subscriptions.clear();
+    }
+
+    private static final class Subscription {
+
+        private final LiveStateFilter filter;
+        private final SseEmitter emitter;
+        private final Map<UUID, LiveDeviceState> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long lastSent;
+
+        private Subscription(LiveStateFilter filter, SseEmitter emitter) {
+            this.filter = filter;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.fleetmanagement.locationservice.service;
+
+import com.fleetmanagement.locationservice.domain.LocationPoint;
+import com.fleetmanagement.locationservice.dto.response.LocationHistoryResponse;
+import com.fleetmanagement.locationservice.dto.response.TrackPointResponse;
+import com.fleetmanagement.locationservice.repository.LocationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Location History Service
+ *
+ * Serves device tracks. A range with no more positions than requested is
+ * returned as stored; larger ranges are downsampled in the database into
+ * equal time buckets, so the response size is bounded by maxPoints however
+ * long the range.
+ */
+@Service
+public class LocationHistoryService {
+
+    private final LocationRepository locationRepository;
+    private final int maxPointsLimit;
+    private final Duration maxRange;
+
+    @Autowired
+    public LocationHistoryService(LocationRepository locationRepository,
+                                  @Value("${app.history.max-points:5000}") int maxPointsLimit,
+                                  @Value("${app.history.max-range-days:93}") long maxRangeDays) {
+        this.locationRepository = locationRepository;
+        this.maxPointsLimit = maxPointsLimit;
+        this.maxRange = Duration.ofDays(maxRangeDays);
+    }
+
+    /**
+     * Track of a device in [from, to); companyId restricts it to that company's positions, null for all
+     */
+    public LocationHistoryResponse getHistory(UUID deviceId, UUID companyId, Instant from, Instant to, int maxPoints) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(from, to).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("Range must not exceed " + maxRange.toDays() + " days");
+        }
+        if (maxPoints < 2 || maxPoints > maxPointsLimit) {
+            throw new IllegalArgumentException("maxPoints must be between 2 and " + maxPointsLimit);
+        }
+
+        // One row past the limit tells whether the raw track fits
+        List<TrackPointResponse> points = locationRepository.findTrack(deviceId, companyId, from, to, maxPoints + 1);
+        Long bucketSeconds = null;
+        if (points.size() > maxPoints) {
+            long rangeSeconds = Duration.between(from, to).getSeconds();
+            bucketSeconds = Math.max(1L, (rangeSeconds + maxPoints - 1) / maxPoints);
+            points = locationRepository.findDownsampledTrack(deviceId, companyId, from, to, bucketSeconds);
+        }
+
+        return LocationHistoryResponse.builder()
+                .deviceId(deviceId)
+                .from(from)
+                .to(to)
+                .downsampled(bucketSeconds != null)
+                .bucketSeconds(bucketSeconds)
+                .pointCount(points.size())
+                .points(points)
+                .build();
+    }
+
+    public Optional<LocationPoint> getLatest(UUID deviceId, UUID companyId) {
+        return locationRepository.findLatest(deviceId, companyId);
+    }
+}
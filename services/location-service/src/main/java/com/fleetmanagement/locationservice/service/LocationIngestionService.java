@@ -0,0 +1,151 @@
+package com.fleetmanagement.locationservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.locationservice.domain.LocationPoint;
+import com.fleetmanagement.locationservice.repository.LocationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Location Ingestion Service
+ *
+ * Consumes device.location.updated events from the bridge in poll-sized
+ * batches and stores each batch with a single COPY. Malformed positions are
+ * counted and dropped; a failed write is thrown back to the container, which
+ * retries the whole batch before offsets are committed.
+ */
+@Service
+public class LocationIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationIngestionService.class);
+
+    private final LocationRepository locationRepository;
+    private final ObjectMapper objectMapper;
+    private final Counter receivedCounter;
+    private final Counter storedCounter;
+    private final Counter rejectedCounter;
+    private final Timer writeTimer;
+
+    @Autowired
+    public LocationIngestionService(LocationRepository locationRepository,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry) {
+        this.locationRepository = locationRepository;
+        this.objectMapper = objectMapper;
+        this.receivedCounter = meterRegistry.counter("location.ingest.positions", "result", "received");
+        this.storedCounter = meterRegistry.counter("location.ingest.positions", "result", "stored");
+        this.rejectedCounter = meterRegistry.counter("location.ingest.positions", "result", "rejected");
+        this.writeTimer = meterRegistry.timer("location.ingest.batch.write");
+    }
+
+    @KafkaListener(
+            topics = "${app.kafka.topics.location-updates:device.location.updated}",
+            containerFactory = "locationBatchListenerFactory"
+    )
+    public void onLocationBatch(List<String> messages) {
+        receivedCounter.increment(messages.size());
+
+        List<LocationPoint> points = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            LocationPoint point = parse(message);
+            if (point != null) {
+                points.add(point);
+            } else {
+                rejectedCounter.increment();
+            }
+        }
+
+        int inserted = writeTimer.record(() -> locationRepository.insertBatch(points));
+        storedCounter.increment(inserted);
+        logger.debug("Stored {} of {} positions ({} duplicates or rejected)",
+                inserted, messages.size(), messages.size() - inserted);
+    }
+
+    /**
+     * Position of a LocationUpdatedEvent, or null if it cannot be stored
+     */
+    LocationPoint parse(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            JsonNode location = event.path("locationData");
+
+            UUID deviceId = uuid(location.path("deviceId"), event.path("deviceId"));
+            Double latitude = number(location.path("latitude"));
+            Double longitude = number(location.path("longitude"));
+            Instant time = instant(location.path("deviceTime"), location.path("serverTime"), event.path("timestamp"));
+            if (deviceId == null || latitude == null || longitude == null || time == null
+                    || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                return null;
+            }
+
+            JsonNode satellites = location.path("satelliteCount");
+            return LocationPoint.builder()
+                    .time(time)
+                    .deviceId(deviceId)
+                    .companyId(uuid(location.path("companyId"), event.path("companyId")))
+                    .traccarDeviceId(location.path("traccarDeviceId").isNumber() ? location.path("traccarDeviceId").asLong() : null)
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .altitude(number(location.path("altitude")))
+                    .speed(number(location.path("speed")))
+                    .course(number(location.path("course")))
+                    .accuracy(number(location.path("accuracy")))
+                    .odometer(number(location.path("odometer")))
+                    .ignition(bool(location.path("ignition")))
+                    .valid(bool(location.path("valid")))
+                    .satellites(satellites.isNumber() ? satellites.asInt() : null)
+                    .hdop(number(location.path("hdop")))
+                    .protocol(location.path("protocol").isTextual() ? location.path("protocol").asText() : null)
+                    .serverTime(instant(location.path("serverTime")))
+                    .build();
+        } catch (Exception e) {
+            logger.debug("Dropping unreadable location event: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static UUID uuid(JsonNode... candidates) {
+        for (JsonNode node : candidates) {
+            if (node.isTextual()) {
+                return UUID.fromString(node.asText());
+            }
+        }
+        return null;
+    }
+
+    private static Double number(JsonNode node) {
+        return node.isNumber() ? node.asDouble() : null;
+    }
+
+    private static Boolean bool(JsonNode node) {
+        return node.isBoolean() ? node.asBoolean() : null;
+    }
+
+    // The bridge's JSON serializer writes Instants as epoch seconds with a fraction; ISO strings are accepted too
+    private static Instant instant(JsonNode... candidates) {
+        for (JsonNode node : candidates) {
+            if (node.isNumber()) {
+                BigDecimal seconds = node.decimalValue();
+                return Instant.ofEpochSecond(seconds.longValue(),
+                        seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+            }
+            if (node.isTextual()) {
+                return Instant.parse(node.asText());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+-- Location history stored in a TimescaleDB hypertable
+CREATE EXTENSION IF NOT EXISTS timescaledb;
+
+CREATE TABLE IF NOT EXISTS device_locations (
+    time              TIMESTAMPTZ      NOT NULL,
+    device_id         UUID             NOT NULL,
+    company_id        UUID,
+    traccar_device_id BIGINT,
+    latitude          DOUBLE PRECISION NOT NULL,
+    longitude         DOUBLE PRECISION NOT NULL,
+    altitude          DOUBLE PRECISION,
+    speed             DOUBLE PRECISION,
+    course            DOUBLE PRECISION,
+    accuracy          DOUBLE PRECISION,
+    odometer          DOUBLE PRECISION,
+    ignition          BOOLEAN,
+    valid             BOOLEAN,
+    satellites        INTEGER,
+    hdop              DOUBLE PRECISION,
+    protocol          VARCHAR(50),
+    server_time       TIMESTAMPTZ
+);
+
+-- Daily chunks, hash-partitioned by device so a device's track stays in few partitions
+SELECT create_hypertable('device_locations', 'time',
+                         partitioning_column => 'device_id',
+                         number_partitions => 4,
+                         chunk_time_interval => INTERVAL '1 day',
+                         if_not_exists => TRUE);
+
+-- Replayed Kafka batches must not duplicate positions
+CREATE UNIQUE INDEX IF NOT EXISTS ux_device_locations_device_time
+    ON device_locations (device_id, time DESC);
+
+CREATE INDEX IF NOT EXISTS idx_device_locations_company_time
+    ON device_locations (company_id, time DESC);
+
+-- Compress chunks older than a week; each device's positions are stored together in time order
+ALTER TABLE device_locations SET (
+    timescaledb.compress,
+    timescaledb.compress_segmentby = 'device_id',
+    timescaledb.compress_orderby = 'time DESC'
+);
+
+SELECT add_compression_policy('device_locations', INTERVAL '7 days', if_not_exists => TRUE);
@@ -6,11 +6,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients; // ADD THIS
 import org.springframework.retry.annotation.EnableRetry; // ADD THIS
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients  // NEW: Enable Feign clients
 @EnableRetry
 @EnableAsync
+@EnableScheduling
 // NEW: Enable retry functionality
 public class UserServiceApplication {
     public static void main(String[] args) {
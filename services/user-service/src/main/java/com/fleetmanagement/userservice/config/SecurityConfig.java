@@ -1,10 +1,13 @@
 package com.fleetmanagement.userservice.config;
 
-import com.fleetmanagement.userservice.repository.UserSessionRepository;
+import com.fleetmanagement.common.security.GatewayHeaderSigner;
+import com.fleetmanagement.common.security.PrincipalResolver;
 import com.fleetmanagement.userservice.security.JwtAuthenticationEntryPoint;
 import com.fleetmanagement.userservice.security.JwtAuthenticationFilter;
 import com.fleetmanagement.userservice.service.JwtTokenService;
+import com.fleetmanagement.userservice.service.RedisSessionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -12,7 +15,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -20,6 +25,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -28,29 +35,55 @@ public class SecurityConfig {
 
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtTokenService jwtTokenService;
-    private final UserSessionRepository sessionRepository;
+    private final RedisSessionService sessionService;
 
     @Autowired
     public SecurityConfig(JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
                           JwtTokenService jwtTokenService,
-                          UserSessionRepository sessionRepository) {
+                          RedisSessionService sessionService) {
         this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
         this.jwtTokenService = jwtTokenService;
-        this.sessionRepository = sessionRepository;
+        this.sessionService = sessionService;
     }
 
+    /**
+     * Encodes with the configured algorithm ({id} prefixed); hashes stored before
+     * ids were used are plain BCrypt and still match
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${app.security.password.bcrypt-strength:12}") int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algorithm.toLowerCase(), encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
+    }
+
+    /**
+     * Resolves the caller once per request; identity headers signed by the gateway
+     * are trusted only when enabled and the shared secret is configured
+     */
+    @Bean
+    public PrincipalResolver principalResolver(@Value("${app.security.gateway-headers.enabled:false}") boolean trustGatewayHeaders,
+                                               @Value("${app.security.gateway-headers.secret:}") String gatewaySecret) {
+        GatewayHeaderSigner gatewaySigner = trustGatewayHeaders && !gatewaySecret.isEmpty()
+                ? new GatewayHeaderSigner(gatewaySecret)
+                : null;
+        return new PrincipalResolver(jwtTokenService.getVerifier(), gatewaySigner);
     }
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenService, sessionRepository);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(PrincipalResolver principalResolver) {
+        return new JwtAuthenticationFilter(jwtTokenService, sessionService, principalResolver);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -76,7 +109,7 @@ public class SecurityConfig {
 
 
         // Add JWT filter
-        http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -139,6 +139,32 @@ public class DriverController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/validate-batch")
+    @Operation(summary = "Validate drivers", description = "Validate many drivers for assignment in one call")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Driver validation completed")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER')")
+    public ResponseEntity<ApiResponse<List<DriverValidationResponse>>> validateDrivers(
+            @RequestParam @Parameter(description = "Company ID") UUID companyId,
+            @RequestBody List<UUID> userIds,
+            Authentication authentication) {
+
+        logger.debug("Validate {} drivers in company: {}", userIds.size(), companyId);
+
+        UUID requestingUserCompanyId = getCompanyIdFromAuth(authentication);
+        if (!hasAccessToCompany(requestingUserCompanyId, companyId, authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        List<DriverValidationResponse> validations = driverService.validateDrivers(userIds, companyId);
+
+        ApiResponse<List<DriverValidationResponse>> response = ApiResponse.success(
+                validations,
+                "Driver validation completed"
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{userId}/assign-vehicle")
     @Operation(summary = "Notify driver assignment", description = "Notify user service that driver has been assigned to a vehicle")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Driver assignment notification processed")
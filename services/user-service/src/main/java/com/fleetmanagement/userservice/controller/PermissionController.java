@@ -0,0 +1,126 @@
+package com.fleetmanagement.userservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.userservice.dto.request.PermissionCheckBatchRequest;
+import com.fleetmanagement.userservice.dto.request.PermissionCheckRequest;
+import com.fleetmanagement.userservice.dto.response.ApiResponse;
+import com.fleetmanagement.userservice.dto.response.PermissionCheckResult;
+import com.fleetmanagement.userservice.service.PermissionService;
+import com.fleetmanagement.userservice.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/permissions")
+@Tag(name = "Permissions", description = "Batch authorization for downstream services")
+@Validated
+public class PermissionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionController.class);
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final PermissionService permissionService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.permissions.batch.chunk-size:1000}")
+    private int chunkSize;
+
+    @Autowired
+    public PermissionController(PermissionService permissionService, UserService userService, ObjectMapper objectMapper) {
+        this.permissionService = permissionService;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(value = "/check-batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Check permissions", description = "Evaluate many (user, resource, permission) checks in one call")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Permission checks evaluated")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<PermissionCheckResult>>> checkPermissions(
+            @Valid @RequestBody PermissionCheckBatchRequest request,
+            Authentication authentication) {
+
+        List<PermissionCheckRequest> checks = request.getChecks();
+        logger.debug("Batch permission check of {} tuples", checks.size());
+
+        UUID scopeCompanyId = getScopeCompanyId(authentication);
+        List<PermissionCheckResult> results = new ArrayList<>(checks.size());
+        for (int offset = 0; offset < checks.size(); offset += chunkSize) {
+            List<PermissionCheckRequest> chunk = checks.subList(offset, Math.min(offset + chunkSize, checks.size()));
+            results.addAll(permissionService.checkPermissions(chunk, offset, scopeCompanyId));
+        }
+
+        ApiResponse<List<PermissionCheckResult>> response = ApiResponse.success(
+                results,
+                "Permission checks evaluated"
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Same checks, streamed as one JSON result per line while later chunks are still being evaluated
+     */
+    @PostMapping(value = "/check-batch", produces = NDJSON)
+    @Operation(summary = "Check permissions (streaming)", description = "Evaluate many permission checks, streaming newline-delimited JSON results")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Permission checks streamed")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamPermissionChecks(
+            @Valid @RequestBody PermissionCheckBatchRequest request,
+            Authentication authentication) {
+
+        List<PermissionCheckRequest> checks = request.getChecks();
+        logger.debug("Streaming batch permission check of {} tuples", checks.size());
+
+        UUID scopeCompanyId = getScopeCompanyId(authentication);
+        StreamingResponseBody body = outputStream -> {
+            for (int offset = 0; offset < checks.size(); offset += chunkSize) {
+                List<PermissionCheckRequest> chunk = checks.subList(offset, Math.min(offset + chunkSize, checks.size()));
+                for (PermissionCheckResult result : permissionService.checkPermissions(chunk, offset, scopeCompanyId)) {
+                    outputStream.write(objectMapper.writeValueAsBytes(result));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    /**
+     * Super admins may ask about any user; everyone else only about users of their own company
+     */
+    private UUID getScopeCompanyId(Authentication authentication) {
+        if (authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_SUPER_ADMIN"))) {
+            return null;
+        }
+        // The principal name is the caller's user ID
+        UUID companyId = userService.getUserById(UUID.fromString(authentication.getName())).getCompanyId();
+        if (companyId == null) {
+            throw new AccessDeniedException("Caller does not belong to a company");
+        }
+        return companyId;
+    }
+}
@@ -247,6 +247,16 @@ public class UserController {
         return ResponseEntity.ok(statistics);
     }
 
+    @GetMapping("/company/{companyId}/statistics")
+    @Operation(summary = "Get company user statistics", description = "Get user statistics for one company")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @PreAuthorize("hasRole('SUPER_ADMIN') or (hasRole('COMPANY_ADMIN') and @userService.belongsToCompany(authentication.name, #companyId))")
+    public ResponseEntity<Map<String, Object>> getCompanyUserStatistics(@PathVariable UUID companyId) {
+        logger.debug("Get user statistics for company: {}", companyId);
+
+        return ResponseEntity.ok(userService.getUserStatistics(companyId));
+    }
+
     @GetMapping("/me")
     @Operation(summary = "Get current user", description = "Get current authenticated user information")
     @ApiResponse(responseCode = "200", description = "Current user information")
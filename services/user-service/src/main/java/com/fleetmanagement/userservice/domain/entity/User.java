@@ -184,10 +184,6 @@ public class User {
     @Column(name = "license_expiry")
     private LocalDateTime licenseExpiry;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @Builder.Default
-    private Set<UserSession> sessions = new HashSet<>();
-
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private Set<UserPermission> permissions = new HashSet<>();
@@ -0,0 +1,25 @@
+package com.fleetmanagement.userservice.domain.enums;
+
+public enum SessionEventType {
+    CREATED("Created", "Session was opened by a login"),
+    REFRESHED("Refreshed", "Access token was reissued from the refresh token"),
+    REVOKED("Revoked", "Session was ended by logout or an administrative action"),
+    EVICTED("Evicted", "Session was closed by the concurrent session limit"),
+    EXPIRED("Expired", "Session reached its idle or absolute timeout");
+
+    private final String displayName;
+    private final String description;
+
+    SessionEventType(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,22 @@
+package com.fleetmanagement.userservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheckBatchRequest {
+
+    @NotEmpty(message = "At least one permission check is required")
+    @Size(max = 50000, message = "At most 50000 permission checks per request")
+    private List<@Valid PermissionCheckRequest> checks;
+}
@@ -0,0 +1,34 @@
+package com.fleetmanagement.userservice.dto.request;
+
+import com.fleetmanagement.userservice.domain.enums.PermissionType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One (user, resource, permission) tuple to authorize. When companyId is set
+ * the resource belongs to that company and only its users (or super admins)
+ * can be allowed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheckRequest {
+
+    @NotNull(message = "User ID is required")
+    private UUID userId;
+
+    @NotBlank(message = "Resource is required")
+    private String resource;
+
+    @NotNull(message = "Permission is required")
+    private PermissionType permission;
+
+    private UUID companyId;
+}
@@ -0,0 +1,25 @@
+package com.fleetmanagement.userservice.dto.response;
+
+import com.fleetmanagement.userservice.domain.enums.PermissionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Decision for one permission check; index is the position of the check in the request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheckResult {
+
+    private int index;
+    private UUID userId;
+    private String resource;
+    private PermissionType permission;
+    private boolean allowed;
+}
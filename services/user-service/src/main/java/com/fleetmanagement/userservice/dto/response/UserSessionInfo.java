@@ -24,8 +24,10 @@ public class UserSessionInfo {
     private String deviceInfo;
     private String ipAddress;
     private String jwtToken;
+    private String refreshToken;
     private LocalDateTime createdAt;
     private LocalDateTime lastActivityAt;
+    private LocalDateTime expiresAt;
     private boolean isActive;
     private String userAgent;
     private String location;
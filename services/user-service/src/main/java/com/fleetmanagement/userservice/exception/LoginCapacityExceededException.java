@@ -0,0 +1,12 @@
+package com.fleetmanagement.userservice.exception;
+
+public class LoginCapacityExceededException extends RuntimeException {
+
+    public LoginCapacityExceededException(String message) {
+        super(message);
+    }
+
+    public LoginCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
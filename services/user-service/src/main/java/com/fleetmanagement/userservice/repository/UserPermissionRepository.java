@@ -12,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,6 +29,11 @@ public interface UserPermissionRepository extends JpaRepository<UserPermission,
 
     List<UserPermission> findByUserIdAndResource(UUID userId, String resource);
 
+    @Query("SELECT p FROM UserPermission p WHERE p.user.id IN :userIds AND p.granted = true " +
+            "AND (p.expiresAt IS NULL OR p.expiresAt > :now)")
+    List<UserPermission> findActiveGrantsByUserIds(@Param("userIds") Collection<UUID> userIds,
+                                                   @Param("now") LocalDateTime now);
+
     Optional<UserPermission> findByUserIdAndResourceAndPermissionType(UUID userId,
                                                                       String resource,
                                                                       PermissionType permissionType);
@@ -134,6 +134,14 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
     @Query("SELECT COUNT(u) FROM User u WHERE u.companyId = :companyId AND u.role = :role")
     long countByCompanyIdAndRole(@Param("companyId") UUID companyId, @Param("role") UserRole role);
 
+    /**
+     * Company user counts in one pass: rows of (status, role, count, logged in since)
+     */
+    @Query("SELECT u.status, u.role, COUNT(u), SUM(CASE WHEN u.lastLogin >= :since THEN 1 ELSE 0 END) " +
+            "FROM User u WHERE u.companyId = :companyId GROUP BY u.status, u.role")
+    List<Object[]> countByCompanyIdGroupedByStatusAndRole(@Param("companyId") UUID companyId,
+                                                          @Param("since") LocalDateTime since);
+
     @Query("SELECT COUNT(u) FROM User u WHERE u.lastLogin >= :since")
     long countActiveUsersSince(@Param("since") LocalDateTime since);
 
@@ -1,8 +1,10 @@
 package com.fleetmanagement.userservice.security;
 
-import com.fleetmanagement.userservice.domain.entity.UserSession;
-import com.fleetmanagement.userservice.repository.UserSessionRepository;
+import com.fleetmanagement.common.security.PrincipalResolver;
+import com.fleetmanagement.common.security.VerifiedPrincipal;
 import com.fleetmanagement.userservice.service.JwtTokenService;
+import com.fleetmanagement.userservice.service.RedisSessionService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,25 +20,27 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * JWT Authentication Filter - Fixed to avoid circular dependency
  *
  * This filter validates JWT tokens and sets authentication context
- * without depending on AuthenticationService
+ * without depending on AuthenticationService. The caller is resolved once per
+ * request (signed gateway headers when trusted, otherwise one token parse).
  */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtTokenService jwtTokenService;
-    private final UserSessionRepository sessionRepository;
+    private final RedisSessionService sessionService;
+    private final PrincipalResolver principalResolver;
 
-    public JwtAuthenticationFilter(JwtTokenService jwtTokenService, UserSessionRepository sessionRepository) {
+    public JwtAuthenticationFilter(JwtTokenService jwtTokenService, RedisSessionService sessionService,
+                                   PrincipalResolver principalResolver) {
         this.jwtTokenService = jwtTokenService;
-        this.sessionRepository = sessionRepository;
+        this.sessionService = sessionService;
+        this.principalResolver = principalResolver;
     }
 
     @Override
@@ -46,21 +50,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = getJwtFromRequest(request);
+            VerifiedPrincipal principal = StringUtils.hasText(jwt) ? principalResolver.resolve(request, jwt) : null;
 
-            if (StringUtils.hasText(jwt) && jwtTokenService.validateAccessToken(jwt)) {
+            if (principal != null && principal.isAccessToken()) {
 
                 // Basic session validation - check if session exists and is active
-                if (isSessionValid(jwt)) {
-                    // Extract user information from JWT
-                    UUID userId = jwtTokenService.getUserIdFromToken(jwt);
-                    String username = jwtTokenService.getUsernameFromToken(jwt);
-                    String role = jwtTokenService.getRoleFromToken(jwt);
+                if (isSessionValid(principal, jwt)) {
+                    String username = principal.getUsername();
+                    String role = principal.getRole();
 
                     logger.debug("Valid JWT token found for user: {}", username);
 
                     // Create UserDetails
                     UserDetails userDetails = User.builder()
-                            .username(userId.toString()) // Use userId as principal
+                            .username(principal.getUserId().toString()) // Use userId as principal
                             .password("") // Password not needed for JWT authentication
                             .authorities("ROLE_" + role)
                             .build();
@@ -76,6 +79,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     logger.debug("Successfully authenticated user: {} with role: {}", username, role);
                 }
             }
+        } catch (JwtException | IllegalArgumentException ex) {
+            logger.debug("JWT validation failed: {}", ex.getMessage());
+            SecurityContextHolder.clearContext();
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
             // Clear security context on error
@@ -86,20 +92,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Simple session validation - checks if session exists and is active
+     * Simple session validation - checks if the token's session exists, is active and still issued this token
      */
-    private boolean isSessionValid(String sessionToken) {
+    private boolean isSessionValid(VerifiedPrincipal principal, String sessionToken) {
         try {
-            UserSession session = sessionRepository.findBySessionToken(sessionToken)
-                    .orElse(null);
-
-            if (session == null) {
-                return false;
-            }
-
-            // Check if session is active and not expired
-            return session.isActive() && session.getExpiresAt().isAfter(LocalDateTime.now());
-
+            return sessionService.isSessionTokenValid(principal.getSessionId(), sessionToken);
         } catch (Exception e) {
             logger.error("Error validating session: {}", e.getMessage());
             return false;
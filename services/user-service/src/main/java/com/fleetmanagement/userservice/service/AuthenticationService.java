@@ -3,28 +3,25 @@ package com.fleetmanagement.userservice.service;
 import com.fleetmanagement.userservice.domain.enums.UserRole;
 import com.fleetmanagement.userservice.dto.request.CreateUserRequest;
 import com.fleetmanagement.userservice.domain.entity.User;
-import com.fleetmanagement.userservice.domain.entity.UserSession;
-import com.fleetmanagement.userservice.domain.enums.SessionStatus;
 import com.fleetmanagement.userservice.domain.enums.UserStatus;
 import com.fleetmanagement.userservice.dto.request.LoginRequest;
 import com.fleetmanagement.userservice.dto.request.RefreshTokenRequest;
 import com.fleetmanagement.userservice.dto.response.AuthenticationResponse;
+import com.fleetmanagement.userservice.dto.response.UserSessionInfo;
 import com.fleetmanagement.userservice.exception.AuthenticationFailedException;
 import com.fleetmanagement.userservice.exception.ResourceNotFoundException;
 import com.fleetmanagement.userservice.repository.UserRepository;
-import com.fleetmanagement.userservice.repository.UserSessionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -34,10 +31,10 @@ public class AuthenticationService {
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationService.class);
 
     private final UserRepository userRepository;
-    private final UserSessionRepository sessionRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginActivityService loginActivityService;
     private final JwtTokenService jwtTokenService;
-    private final UserSessionService sessionService;
+    private final RedisSessionService sessionService;
     private final CacheService cacheService;
 
     @Value("${app.security.account-lockout.max-attempts:5}")
@@ -46,24 +43,18 @@ public class AuthenticationService {
     @Value("${app.security.account-lockout.lockout-duration:900000}") // 15 minutes
     private long lockoutDuration;
 
-    @Value("${app.security.session.max-concurrent-sessions:3}")
-    private int maxConcurrentSessions;
-
-    @Value("${jwt.expiration:86400000}")  // 24 hours default
-    private long jwtExpiration;
-
     @Value("${jwt.refresh-expiration:604800000}")  // 7 days default
     private long refreshExpiration;
 
     @Autowired
     public AuthenticationService(UserRepository userRepository,
-                                 UserSessionRepository sessionRepository,
-                                 PasswordEncoder passwordEncoder,
+                                 PasswordHashingService passwordHashingService,
+                                 LoginActivityService loginActivityService,
                                  JwtTokenService jwtTokenService,
-                                 UserSessionService sessionService, CacheService cacheService) {
+                                 RedisSessionService sessionService, CacheService cacheService) {
         this.userRepository = userRepository;
-        this.sessionRepository = sessionRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.loginActivityService = loginActivityService;
         this.jwtTokenService = jwtTokenService;
         this.sessionService = sessionService;
         this.cacheService = cacheService;
@@ -85,7 +76,7 @@ public class AuthenticationService {
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
+                .passwordHash(passwordHashingService.encode(request.getPassword()))
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .role(request.getRole() != null ? request.getRole() : UserRole.DRIVER)                  // ADD: Missing role
@@ -119,7 +110,12 @@ public class AuthenticationService {
     }
     /**
      * Authenticate user and create session
+     *
+     * Runs outside a transaction so no database connection is held while the
+     * password is verified on the hashing pool; last-login, events and hash
+     * upgrades are written asynchronously by {@link LoginActivityService}.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthenticationResponse authenticate(LoginRequest request, String ipAddress, String userAgent) {
         logger.info("Authentication attempt for username/email: {}", request.getUsernameOrEmail());
 
@@ -131,11 +127,14 @@ public class AuthenticationService {
         validateAccountStatus(user);
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
             handleFailedLogin(user);
             throw new AuthenticationFailedException("Invalid credentials");
         }
 
+        // Upgrade the stored hash to the configured algorithm/cost in the background
+        loginActivityService.rehashIfNeeded(user, request.getPassword());
+
         // Check if password change is required
         if (user.getForcePasswordChange()) {
             return AuthenticationResponse.builder()
@@ -151,49 +150,18 @@ public class AuthenticationService {
             userRepository.save(user);
         }
 
-        // Manage concurrent sessions
-        manageConcurrentSessions(user);
-
-        // Create session WITHOUT saving it first
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime expiresAt = now.plusSeconds(jwtExpiration / 1000);
-        LocalDateTime refreshExpiresAt = now.plusSeconds(refreshExpiration / 1000);
-
-        UserSession session = new UserSession();
-        session.setUser(user);
-        session.setExpiresAt(expiresAt);
-        session.setRefreshExpiresAt(refreshExpiresAt);
-        session.setIpAddress(ipAddress);
-        session.setUserAgent(userAgent);
-        session.setStatus(SessionStatus.ACTIVE);
-        session.setLastAccessed(now);
-
-        String tempSessionId = UUID.randomUUID().toString();
-        String accessToken = jwtTokenService.generateAccessToken(user, tempSessionId);
-        String refreshToken = jwtTokenService.generateRefreshToken(user, tempSessionId);
-
-        session.setSessionToken(accessToken);
-        session.setRefreshToken(refreshToken);
-        UserSession savedSession = sessionRepository.save(session);
+        // The session id is chosen up front so the tokens can carry it; the store
+        // enforces the concurrent session limit when the session is created
+        UUID sessionId = UUID.randomUUID();
+        String accessToken = jwtTokenService.generateAccessToken(user, sessionId.toString());
+        String refreshToken = jwtTokenService.generateRefreshToken(user, sessionId.toString());
+        long refreshExpiresAt = System.currentTimeMillis() + refreshExpiration;
 
-// Cache the session
-        cacheService.cacheSession(accessToken, savedSession);
+        sessionService.createSession(user, sessionId.toString(), null, ipAddress, userAgent,
+                accessToken, refreshToken, refreshExpiresAt);
 
-        if (!tempSessionId.equals(savedSession.getId().toString())) {
-            accessToken = jwtTokenService.generateAccessToken(user, savedSession.getId().toString());
-            refreshToken = jwtTokenService.generateRefreshToken(user, savedSession.getId().toString());
-
-            savedSession.setSessionToken(accessToken);
-            savedSession.setRefreshToken(refreshToken);
-            sessionRepository.save(savedSession);
-
-            // Cache the updated session
-            cacheService.cacheSession(accessToken, savedSession);
-        }
-
-        // Update last login
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        // Update last login and publish the login event (batched)
+        loginActivityService.recordLogin(user, ipAddress);
 
         // Create token info
         Map<String, Object> tokenInfo = jwtTokenService.createTokenInfo(accessToken, refreshToken);
@@ -208,7 +176,7 @@ public class AuthenticationService {
                 .role(user.getRole())
                 .companyId(user.getCompanyId())
                 .emailVerified(user.getEmailVerified())
-                .sessionId(savedSession.getId())
+                .sessionId(sessionId)
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
                 .tokenType("Bearer")
@@ -234,16 +202,17 @@ public class AuthenticationService {
         UUID sessionUuid = UUID.fromString(sessionId);
 
         // Find session
-        UserSession session = sessionRepository.findById(sessionUuid)
+        UserSessionInfo session = sessionService.getSession(sessionId)
                 .orElseThrow(() -> new AuthenticationFailedException("Session not found"));
 
         // Validate session
-        if (!session.isActive() || !session.getRefreshToken().equals(request.getRefreshToken())) {
+        if (!session.isActive() || !request.getRefreshToken().equals(session.getRefreshToken())) {
             throw new AuthenticationFailedException("Invalid or expired session");
         }
 
         // Get user
-        User user = session.getUser();
+        User user = userRepository.findById(session.getUserId())
+                .orElseThrow(() -> new AuthenticationFailedException("Invalid or expired session"));
 
         // Check account status
         validateAccountStatus(user);
@@ -251,10 +220,10 @@ public class AuthenticationService {
         // Generate new access token
         String newAccessToken = jwtTokenService.generateAccessToken(user, sessionId);
 
-        // Update session
-        session.setSessionToken(newAccessToken);
-        session.updateLastAccessed();
-        sessionRepository.save(session);
+        // Update session; fails if it was revoked in the meantime
+        if (sessionService.refreshSession(sessionId, request.getRefreshToken(), newAccessToken).isEmpty()) {
+            throw new AuthenticationFailedException("Invalid or expired session");
+        }
 
         // Create token info
         Map<String, Object> tokenInfo = jwtTokenService.createTokenInfo(newAccessToken, request.getRefreshToken());
@@ -269,7 +238,7 @@ public class AuthenticationService {
                 .role(user.getRole())
                 .companyId(user.getCompanyId())
                 .emailVerified(user.getEmailVerified())
-                .sessionId(session.getId())
+                .sessionId(sessionUuid)
                 .accessToken(newAccessToken)
                 .refreshToken(request.getRefreshToken())
                 .tokenType("Bearer")
@@ -292,39 +261,24 @@ public class AuthenticationService {
 
         try {
             // Find session by token
-            UserSession session = sessionRepository.findBySessionToken(sessionToken)
+            UserSessionInfo session = findSession(sessionToken)
                     .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
 
             if (logoutAllSessions) {
-                // Get all active sessions for this user
-                List<UserSession> userSessions = sessionRepository
-                        .findActiveSessionsByUserId(session.getUser().getId(), LocalDateTime.now());
-
                 // Revoke all active sessions for the user
-                sessionRepository.revokeAllActiveSessionsByUserId(session.getUser().getId());
-
-                // Remove all sessions from cache
-                for (UserSession userSession : userSessions) {
-                    if (userSession.getSessionToken() != null) {
-                        cacheService.evictSession(userSession.getSessionToken());
-                    }
-                }
+                sessionService.invalidateAllUserSessions(session.getUserId());
 
-                logger.info("All sessions revoked for user ID: {}", session.getUser().getId());
+                logger.info("All sessions revoked for user ID: {}", session.getUserId());
             } else {
                 // Revoke only current session
-                session.revoke();
-                sessionRepository.save(session);
+                sessionService.invalidateSession(session.getSessionId());
 
-                // Remove from cache
-                cacheService.evictSession(sessionToken);
-
-                logger.info("Session revoked: {}", session.getId());
+                logger.info("Session revoked: {}", session.getSessionId());
             }
 
             // Optional: Clear user cache if logging out from all sessions
             if (logoutAllSessions) {
-                cacheService.evictUser(session.getUser().getId());
+                cacheService.evictUser(session.getUserId());
             }
 
         } catch (ResourceNotFoundException e) {
@@ -350,18 +304,11 @@ public class AuthenticationService {
                 return false;
             }
 
-            // Find session in database
-            UserSession session = sessionRepository.findBySessionToken(sessionToken)
-                    .orElse(null);
-
-            if (session == null || !session.isActive()) {
+            // Check the session in the store; records activity
+            if (!sessionService.isSessionTokenValid(jwtTokenService.getSessionIdFromToken(sessionToken), sessionToken)) {
                 return false;
             }
 
-            // Update last accessed time
-            session.updateLastAccessed();
-            sessionRepository.save(session);
-
             return true;
         } catch (Exception e) {
             logger.error("Error validating session: {}", e.getMessage());
@@ -384,14 +331,15 @@ public class AuthenticationService {
         }
 
         // Find session
-        UserSession session = sessionRepository.findBySessionToken(sessionToken)
+        UserSessionInfo session = findSession(sessionToken)
                 .orElseThrow(() -> new AuthenticationFailedException("Session not found"));
 
         if (!session.isActive()) {
             throw new AuthenticationFailedException("Session is not active");
         }
 
-        return session.getUser();
+        return userRepository.findById(session.getUserId())
+                .orElseThrow(() -> new AuthenticationFailedException("Session not found"));
     }
 
     /**
@@ -404,19 +352,19 @@ public class AuthenticationService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Verify current password
-        if (!passwordEncoder.matches(currentPassword, user.getPasswordHash())) {
+        if (!passwordHashingService.matches(currentPassword, user.getPasswordHash())) {
             throw new AuthenticationFailedException("Current password is incorrect");
         }
 
         // Update password
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
+        user.setPasswordHash(passwordHashingService.encode(newPassword));
         user.setLastPasswordChange(LocalDateTime.now());
         user.setForcePasswordChange(false);
 
         userRepository.save(user);
 
         // Revoke all other sessions to force re-login
-        sessionRepository.revokeAllActiveSessionsByUserId(userId);
+        sessionService.invalidateAllUserSessions(userId);
 
         logger.info("Password changed successfully for user ID: {}", userId);
     }
@@ -434,7 +382,7 @@ public class AuthenticationService {
         userRepository.save(user);
 
         // Revoke all active sessions
-        sessionRepository.revokeAllActiveSessionsByUserId(userId);
+        sessionService.invalidateAllUserSessions(userId);
 
         logger.info("Password change forced for user ID: {}", userId);
     }
@@ -453,7 +401,7 @@ public class AuthenticationService {
         }
 
         // Update password
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
+        user.setPasswordHash(passwordHashingService.encode(newPassword));
         user.setLastPasswordChange(LocalDateTime.now());
         user.setPasswordResetToken(null);
         user.setPasswordResetExpiry(null);
@@ -462,7 +410,7 @@ public class AuthenticationService {
         userRepository.save(user);
 
         // Revoke all active sessions
-        sessionRepository.revokeAllActiveSessionsByUserId(user.getId());
+        sessionService.invalidateAllUserSessions(user.getId());
 
         logger.info("Password reset successfully for user ID: {}", user.getId());
     }
@@ -528,40 +476,32 @@ public class AuthenticationService {
                 user.getId(), user.getFailedLoginAttempts());
     }
 
-    private void manageConcurrentSessions(User user) {
-        long activeSessionCount = sessionRepository.countActiveSessionsByUserId(user.getId(), LocalDateTime.now());
-
-        if (activeSessionCount >= maxConcurrentSessions) {
-            // Find oldest session and revoke it
-            sessionRepository.findActiveSessionsByUserId(user.getId(), LocalDateTime.now())
-                    .stream()
-                    .findFirst()
-                    .ifPresent(oldSession -> {
-                        oldSession.revoke();
-                        sessionRepository.save(oldSession);
-                        logger.info("Revoked oldest session for user ID: {} due to concurrent session limit",
-                                user.getId());
-                    });
+    /**
+     * The stored session for an access token, if the token is still the session's current one
+     */
+    private Optional<UserSessionInfo> findSession(String sessionToken) {
+        String sessionId = jwtTokenService.getSessionIdFromSignedToken(sessionToken);
+        if (sessionId == null) {
+            return Optional.empty();
         }
+        return sessionService.getSession(sessionId)
+                .filter(session -> sessionToken.equals(session.getJwtToken()));
     }
 
     /**
      * Get active sessions for user
      */
-    @Transactional(readOnly = true)
     public long getActiveSessionCount(UUID userId) {
-        return sessionRepository.countActiveSessionsByUserId(userId, LocalDateTime.now());
+        return sessionService.countUserSessions(userId);
     }
 
     /**
      * Revoke specific session
      */
     public void revokeSession(UUID sessionId) {
-        UserSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
-
-        session.revoke();
-        sessionRepository.save(session);
+        if (!sessionService.invalidateSession(sessionId.toString())) {
+            throw new ResourceNotFoundException("Session not found");
+        }
 
         logger.info("Session revoked: {}", sessionId);
     }
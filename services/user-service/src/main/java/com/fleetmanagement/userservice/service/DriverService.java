@@ -16,7 +16,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -96,8 +100,28 @@ public class DriverService {
         return convertToDriverResponse(driver);
     }
 
+    @Transactional(readOnly = true)
     public DriverValidationResponse validateDriver(UUID userId, UUID companyId) {
-        return new DriverValidationResponse();
+        return userRepository.findById(userId)
+                .map(user -> buildValidation(user, companyId))
+                .orElseGet(() -> notFoundValidation(userId));
+    }
+
+    /**
+     * Validate many drivers with a single lookup, one result per requested ID
+     */
+    @Transactional(readOnly = true)
+    public List<DriverValidationResponse> validateDrivers(List<UUID> userIds, UUID companyId) {
+        Map<UUID, User> users = new HashMap<>();
+        userRepository.findAllById(new LinkedHashSet<>(userIds)).forEach(user -> users.put(user.getId(), user));
+
+        return userIds.stream()
+                .distinct()
+                .map(userId -> {
+                    User user = users.get(userId);
+                    return user != null ? buildValidation(user, companyId) : notFoundValidation(userId);
+                })
+                .collect(Collectors.toList());
     }
 
     public void notifyDriverAssignment(UUID userId, DriverAssignmentNotification notification) {
@@ -114,6 +138,51 @@ public class DriverService {
         return driver.getStatus().name().equals("ACTIVE");
     }
 
+    private DriverValidationResponse buildValidation(User user, UUID companyId) {
+        boolean hasValidLicense = user.getLicenseNumber() != null &&
+                (user.getLicenseExpiry() == null || user.getLicenseExpiry().isAfter(LocalDateTime.now()));
+
+        String reason = null;
+        if (!companyId.equals(user.getCompanyId())) {
+            reason = "User does not belong to company";
+        } else if (user.getRole() != UserRole.DRIVER) {
+            reason = "User is not a driver";
+        } else if (!user.isActive()) {
+            reason = "Driver account is not active";
+        } else if (!hasValidLicense) {
+            reason = "Driver license is missing or expired";
+        }
+        boolean valid = companyId.equals(user.getCompanyId()) && user.getRole() == UserRole.DRIVER;
+
+        return DriverValidationResponse.builder()
+                .isValid(valid)
+                .isAvailable(reason == null)
+                .isActive(user.isActive())
+                .userId(user.getId())
+                .username(user.getUsername())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .phoneNumber(user.getPhoneNumber())
+                .role(user.getRole())
+                .hasValidLicense(hasValidLicense)
+                .isEmailVerified(user.isEmailVerified())
+                .isAccountLocked(user.isAccountLocked())
+                .message(reason == null ? "Driver is available for assignment" : reason)
+                .reason(reason)
+                .build();
+    }
+
+    private DriverValidationResponse notFoundValidation(UUID userId) {
+        return DriverValidationResponse.builder()
+                .isValid(false)
+                .isAvailable(false)
+                .userId(userId)
+                .message("User not found")
+                .reason("User not found")
+                .build();
+    }
+
     private DriverResponse convertToDriverResponse(User user) {
         return DriverResponse.builder()
                 .id(user.getId())
@@ -51,6 +51,9 @@ public class EventPublishingService {
     @Value("${app.kafka.topics.user-status-changed:user.status.changed}")
     private String userStatusChangedTopic;
 
+    @Value("${app.kafka.topics.user-logged-in:user.logged-in}")
+    private String userLoggedInTopic;
+
     @Value("${app.kafka.events.enabled:true}")
     private boolean eventsEnabled;
 
@@ -229,6 +232,34 @@ public class EventPublishingService {
         }
     }
 
+    /**
+     * Publish user logged in event
+     */
+    public void publishUserLoggedInEvent(UUID userId, UUID companyId, UserRole role,
+                                         String ipAddress, LocalDateTime loggedInAt) {
+        if (!eventsEnabled) {
+            return;
+        }
+
+        try {
+            UserLoggedInEvent event = UserLoggedInEvent.builder()
+                    .eventId(UUID.randomUUID())
+                    .userId(userId)
+                    .companyId(companyId)
+                    .role(role)
+                    .ipAddress(ipAddress)
+                    .loggedInAt(loggedInAt)
+                    .eventTimestamp(LocalDateTime.now())
+                    .build();
+
+            publishEvent(userLoggedInTopic, userId.toString(), event);
+            logger.debug("Published user logged in event for user: {}", userId);
+
+        } catch (Exception e) {
+            logger.error("Failed to publish user logged in event for user: {}", userId, e);
+        }
+    }
+
     // Private helper method to publish events
     private void publishEvent(String topic, String key, Object event) {
         try {
@@ -341,4 +372,18 @@ public class EventPublishingService {
         private LocalDateTime changedAt;
         private LocalDateTime eventTimestamp;
     }
-}
\ No newline at end of file
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class UserLoggedInEvent {
+        private UUID eventId;
+        private UUID userId;
+        private UUID companyId;
+        private UserRole role;
+        private String ipAddress;
+        private LocalDateTime loggedInAt;
+        private LocalDateTime eventTimestamp;
+    }
+}
@@ -1,13 +1,20 @@
 // JwtTokenService.java - For JJWT 0.12.3
 package com.fleetmanagement.userservice.service;
 
+import com.fleetmanagement.common.security.JwtVerifier;
+import com.fleetmanagement.common.security.RequestPrincipalCache;
+import com.fleetmanagement.common.security.VerifiedPrincipal;
 import com.fleetmanagement.userservice.domain.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.crypto.SecretKey;
 import java.time.LocalDateTime;
@@ -27,6 +34,7 @@ public class JwtTokenService {
     private final long refreshExpiration;
     private final String issuer;
     private final String audience;
+    private final JwtVerifier verifier;
 
     public JwtTokenService(@Value("${jwt.secret}") String secret,
                            @Value("${jwt.expiration}") long jwtExpiration,
@@ -38,6 +46,7 @@ public class JwtTokenService {
         this.refreshExpiration = refreshExpiration;
         this.issuer = issuer;
         this.audience = audience;
+        this.verifier = new JwtVerifier(secret, issuer, audience);
     }
 
     /**
@@ -95,65 +104,70 @@ public class JwtTokenService {
      * Extract user ID from JWT token
      */
     public UUID getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return UUID.fromString(claims.getSubject());
+        return verifyToken(token).getUserId();
     }
 
     /**
      * Extract username from JWT token
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("username", String.class);
+        return verifyToken(token).getUsername();
     }
 
     /**
      * Extract session ID from JWT token
      */
     public String getSessionIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("sessionId", String.class);
+        return verifyToken(token).getSessionId();
+    }
+
+    /**
+     * Extract session ID from a JWT token with a valid signature, even if it has expired
+     */
+    public String getSessionIdFromSignedToken(String token) {
+        try {
+            return verifyToken(token).getSessionId();
+        } catch (IllegalArgumentException e) {
+            if (e.getCause() instanceof ExpiredJwtException expired) {
+                return expired.getClaims().get("sessionId", String.class);
+            }
+            return null;
+        }
     }
 
     /**
      * Extract user role from JWT token
      */
     public String getRoleFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("role", String.class);
+        return verifyToken(token).getRole();
     }
 
     /**
      * Extract company ID from JWT token
      */
     public UUID getCompanyIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        String companyIdStr = claims.get("companyId", String.class);
-        return companyIdStr != null ? UUID.fromString(companyIdStr) : null;
+        return verifyToken(token).getCompanyId();
     }
 
     /**
      * Extract token type from JWT token
      */
     public String getTokenTypeFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("tokenType", String.class);
+        return verifyToken(token).getTokenType();
     }
 
     /**
      * Extract expiration date from JWT token
      */
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getExpiration();
+        return new Date(verifyToken(token).getExpiresAtMillis());
     }
 
     /**
      * Extract issued date from JWT token
      */
     public Date getIssuedDateFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getIssuedAt();
+        return new Date(verifyToken(token).getIssuedAtMillis());
     }
 
     /**
@@ -173,58 +187,23 @@ public class JwtTokenService {
      * Validate JWT token
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .requireIssuer(issuer)
-                    .requireAudience(audience)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException e) {
-            logger.error("Invalid JWT signature: {}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
-        }
-        return false;
+        return tryVerify(token) != null;
     }
 
     /**
      * Validate token and check if it's an access token
      */
     public boolean validateAccessToken(String token) {
-        if (!validateToken(token)) {
-            return false;
-        }
-        try {
-            String tokenType = getTokenTypeFromToken(token);
-            return "ACCESS".equals(tokenType);
-        } catch (Exception e) {
-            logger.error("Error validating access token: {}", e.getMessage());
-            return false;
-        }
+        VerifiedPrincipal principal = tryVerify(token);
+        return principal != null && principal.isAccessToken();
     }
 
     /**
      * Validate token and check if it's a refresh token
      */
     public boolean validateRefreshToken(String token) {
-        if (!validateToken(token)) {
-            return false;
-        }
-        try {
-            String tokenType = getTokenTypeFromToken(token);
-            return "REFRESH".equals(tokenType);
-        } catch (Exception e) {
-            logger.error("Error validating refresh token: {}", e.getMessage());
-            return false;
-        }
+        VerifiedPrincipal principal = tryVerify(token);
+        return principal != null && principal.isRefreshToken();
     }
 
     /**
@@ -240,19 +219,45 @@ public class JwtTokenService {
     }
 
     /**
-     * Extract all claims from JWT token
+     * Verify a token once per request: the result is cached on the current request,
+     * so the filter, services and controllers handling it share one parse
      */
-    private Claims getClaimsFromToken(String token) {
+    public VerifiedPrincipal verifyToken(String token) {
+        HttpServletRequest request = currentRequest();
+        VerifiedPrincipal principal = RequestPrincipalCache.get(request, token);
+        if (principal != null) {
+            return principal;
+        }
         try {
-            return Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            principal = verifier.verify(token);
         } catch (Exception e) {
             logger.error("Error extracting claims from token: {}", e.getMessage());
             throw new IllegalArgumentException("Invalid token", e);
         }
+        if (request != null) {
+            RequestPrincipalCache.put(request, token, principal);
+        }
+        return principal;
+    }
+
+    /**
+     * Shared verifier (signing key, issuer and audience) for request principal resolution
+     */
+    public JwtVerifier getVerifier() {
+        return verifier;
+    }
+
+    private VerifiedPrincipal tryVerify(String token) {
+        try {
+            return verifyToken(token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
     }
 
     /**
@@ -0,0 +1,203 @@
+package com.fleetmanagement.userservice.service;
+
+import com.fleetmanagement.userservice.domain.entity.User;
+import com.fleetmanagement.userservice.domain.enums.UserRole;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Login Activity Service
+ *
+ * Takes the side effects of a successful login off the request path:
+ * - last-login columns, coalesced per user and written in one JDBC batch
+ * - user logged in events, published from the flush instead of the request
+ * - password rehashes to the configured algorithm/cost, computed on the
+ *   hashing pool and written only if the stored hash is still the old one
+ *
+ * Best effort: on a crash the last flush interval of last-login updates and
+ * events is lost, and a failed rehash is retried on the user's next login.
+ */
+@Service
+public class LoginActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginActivityService.class);
+
+    private static final String UPDATE_LAST_LOGIN_SQL =
+            "UPDATE users SET last_login = ?, last_login_at = ?, last_login_ip = ? WHERE id = ?";
+    private static final String UPDATE_PASSWORD_HASH_SQL =
+            "UPDATE users SET password_hash = ? WHERE id = ? AND password_hash = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventPublishingService eventPublishingService;
+    private final PasswordHashingService passwordHashingService;
+
+    /**
+     * Latest login per user not yet written
+     */
+    private final Map<UUID, LoginRecord> pendingLogins = new ConcurrentHashMap<>();
+    private final BlockingQueue<LoginRecord> pendingEvents;
+    private final Map<UUID, PasswordRehash> pendingRehashes = new ConcurrentHashMap<>();
+    private final Set<UUID> rehashesInFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    @Value("${app.security.login.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.security.password.rehash-on-login:true}")
+    private boolean rehashOnLogin;
+
+    @Autowired
+    public LoginActivityService(JdbcTemplate jdbcTemplate,
+                                EventPublishingService eventPublishingService,
+                                PasswordHashingService passwordHashingService,
+                                @Value("${app.security.login.event-queue-capacity:20000}") int eventQueueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublishingService = eventPublishingService;
+        this.passwordHashingService = passwordHashingService;
+        this.pendingEvents = new ArrayBlockingQueue<>(eventQueueCapacity);
+    }
+
+    /**
+     * Record a successful login; the user row and the event are written on the next flush
+     */
+    public void recordLogin(User user, String ipAddress) {
+        LoginRecord login = new LoginRecord(user.getId(), user.getCompanyId(), user.getRole(),
+                ipAddress, LocalDateTime.now());
+        pendingLogins.put(user.getId(), login);
+        if (!pendingEvents.offer(login)) {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Upgrade the user's stored hash in the background if it is weaker than configured
+     */
+    public void rehashIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPasswordHash();
+        if (!rehashOnLogin || !passwordHashingService.needsRehash(currentHash)
+                || !rehashesInFlight.add(user.getId())) {
+            return;
+        }
+
+        UUID userId = user.getId();
+        passwordHashingService.encodeAsync(rawPassword).whenComplete((newHash, error) -> {
+            if (error != null) {
+                // Pool saturated or hashing failed; the next login tries again
+                rehashesInFlight.remove(userId);
+                logger.debug("Skipped password rehash for user {}: {}", userId, error.getMessage());
+            } else {
+                pendingRehashes.put(userId, new PasswordRehash(userId, currentHash, newHash));
+            }
+        });
+    }
+
+    /**
+     * Write pending login side effects (scheduled task)
+     */
+    @Scheduled(fixedDelayString = "${app.security.login.flush-interval-ms:1000}")
+    public void flush() {
+        flushLastLogins();
+        flushRehashes();
+        publishEvents();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void flushLastLogins() {
+        List<LoginRecord> batch = new ArrayList<>(Math.min(batchSize, pendingLogins.size()));
+        for (LoginRecord login : pendingLogins.values()) {
+            // A newer login for the same user stays pending for the next flush
+            if (pendingLogins.remove(login.userId(), login)) {
+                batch.add(login);
+            }
+            if (batch.size() >= batchSize) {
+                writeLastLogins(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeLastLogins(batch);
+        }
+    }
+
+    private void writeLastLogins(List<LoginRecord> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, batch, batch.size(), (ps, login) -> {
+                Timestamp at = Timestamp.valueOf(login.loggedInAt());
+                ps.setTimestamp(1, at);
+                ps.setTimestamp(2, at);
+                ps.setString(3, login.ipAddress());
+                ps.setObject(4, login.userId());
+            });
+        } catch (Exception e) {
+            logger.error("Failed to write last login for {} users: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void flushRehashes() {
+        if (pendingRehashes.isEmpty()) {
+            return;
+        }
+
+        List<PasswordRehash> batch = new ArrayList<>(pendingRehashes.size());
+        for (PasswordRehash rehash : pendingRehashes.values()) {
+            if (pendingRehashes.remove(rehash.userId(), rehash)) {
+                batch.add(rehash);
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_PASSWORD_HASH_SQL, batch, batch.size(), (ps, rehash) -> {
+                ps.setString(1, rehash.newHash());
+                ps.setObject(2, rehash.userId());
+                ps.setString(3, rehash.oldHash());
+            });
+            logger.info("Upgraded password hashes for {} users", batch.size());
+        } catch (Exception e) {
+            logger.error("Failed to write {} password rehashes: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.forEach(rehash -> rehashesInFlight.remove(rehash.userId()));
+        }
+    }
+
+    private void publishEvents() {
+        long dropped = droppedEvents.getAndSet(0);
+        if (dropped > 0) {
+            logger.warn("Dropped {} user logged in events because the queue was full", dropped);
+        }
+
+        LoginRecord login;
+        while ((login = pendingEvents.poll()) != null) {
+            eventPublishingService.publishUserLoggedInEvent(login.userId(), login.companyId(), login.role(),
+                    login.ipAddress(), login.loggedInAt());
+        }
+    }
+
+    private record LoginRecord(UUID userId, UUID companyId, UserRole role,
+                               String ipAddress, LocalDateTime loggedInAt) {
+    }
+
+    private record PasswordRehash(UUID userId, String oldHash, String newHash) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.fleetmanagement.userservice.service;
+
+import com.fleetmanagement.userservice.exception.LoginCapacityExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password Hashing Service
+ *
+ * Runs password hashing and verification on a dedicated, bounded pool so a
+ * login storm queues CPU-heavy work behind a fixed number of threads instead
+ * of on every request thread. When the queue is full, or a caller waited
+ * longer than the configured timeout, the request is rejected with
+ * {@link LoginCapacityExceededException} (503) rather than piling up.
+ *
+ * Also decides when a stored hash should be upgraded to the configured
+ * algorithm and cost.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final BCryptPasswordEncoder plainBcrypt;
+    private final boolean bcryptConfigured;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService monitoredExecutor;
+    private final long timeoutMillis;
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+                                  @Value("${app.security.password.bcrypt-strength:12}") int bcryptStrength,
+                                  @Value("${app.security.password.hashing.threads:0}") int threads,
+                                  @Value("${app.security.password.hashing.queue-capacity:256}") int queueCapacity,
+                                  @Value("${app.security.password.hashing.timeout-ms:5000}") long timeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.plainBcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        this.bcryptConfigured = "bcrypt".equalsIgnoreCase(algorithm);
+        this.timeoutMillis = timeoutMillis;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.monitoredExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+
+        logger.info("Password hashing pool started with {} threads and a queue of {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Verify a raw password against a stored hash on the hashing pool
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Hash a password with the configured algorithm on the hashing pool
+     */
+    public String encode(String rawPassword) {
+        return await(submit(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Hash a password in the background; completes exceptionally if the pool is saturated
+     */
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), monitoredExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Whether a stored hash uses a different algorithm or a lower cost than configured
+     *
+     * Hashes stored before algorithm ids were added are plain BCrypt; they only
+     * need upgrading when the configured algorithm or strength differs.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        if (!encodedPassword.startsWith("{")) {
+            return !bcryptConfigured || plainBcrypt.upgradeEncoding(encodedPassword);
+        }
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return monitoredExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new LoginCapacityExceededException("Too many concurrent logins, please retry shortly");
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new LoginCapacityExceededException("Too many concurrent logins, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoginCapacityExceededException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
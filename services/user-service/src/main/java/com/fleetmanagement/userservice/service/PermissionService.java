@@ -5,22 +5,44 @@ import com.fleetmanagement.userservice.domain.entity.User;
 import com.fleetmanagement.userservice.domain.entity.UserPermission;
 import com.fleetmanagement.userservice.domain.enums.PermissionType;
 import com.fleetmanagement.userservice.domain.enums.UserRole;
+import com.fleetmanagement.userservice.dto.request.PermissionCheckRequest;
+import com.fleetmanagement.userservice.dto.response.PermissionCheckResult;
 import com.fleetmanagement.userservice.exception.ResourceNotFoundException;
 import com.fleetmanagement.userservice.repository.UserPermissionRepository;
 import com.fleetmanagement.userservice.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Permission Service
+ *
+ * Permission checks are answered from per-user {@link UserPermissionSet}s
+ * compiled from role defaults and explicit grants and held in a local cache.
+ * Grants, revocations and role changes invalidate the user's entry on every
+ * instance through a Redis channel once the change is committed.
+ */
 @Service
 @Transactional
 public class PermissionService {
@@ -30,6 +52,12 @@ public class PermissionService {
     private final UserPermissionRepository permissionRepository;
     private final UserRepository userRepository;
     private final CacheService cacheService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<UUID, UserPermissionSet> permissionSets;
+
+    @Value("${app.permissions.invalidation-channel:user:permissions:invalidate}")
+    private String invalidationChannel;
 
     // Define resource categories and their default permissions
     private static final Map<String, Set<PermissionType>> DEFAULT_ROLE_PERMISSIONS = new HashMap<>();
@@ -67,10 +95,54 @@ public class PermissionService {
     @Autowired
     public PermissionService(UserPermissionRepository permissionRepository,
                              UserRepository userRepository,
-                             CacheService cacheService) {
+                             CacheService cacheService,
+                             StringRedisTemplate stringRedisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             @Value("${app.permissions.cache.maximum-size:50000}") long maximumSize,
+                             @Value("${app.permissions.cache.ttl-minutes:15}") long ttlMinutes) {
         this.permissionRepository = permissionRepository;
         this.userRepository = userRepository;
         this.cacheService = cacheService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+
+        long ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+        this.permissionSets = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<UUID, UserPermissionSet>() {
+                    @Override
+                    public long expireAfterCreate(UUID userId, UserPermissionSet permissions, long currentTime) {
+                        // A set must not outlive the earliest grant expiry it includes
+                        LocalDateTime validUntil = permissions.getValidUntil();
+                        if (validUntil == null) {
+                            return ttlNanos;
+                        }
+                        long untilExpiry = Duration.between(LocalDateTime.now(), validUntil).toNanos();
+                        return Math.max(0, Math.min(ttlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID userId, UserPermissionSet permissions, long currentTime, long currentDuration) {
+                        return expireAfterCreate(userId, permissions, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID userId, UserPermissionSet permissions, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                permissionSets.invalidate(UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8)));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring malformed permission invalidation message");
+            }
+        }, new ChannelTopic(invalidationChannel));
     }
 
     /**
@@ -78,41 +150,8 @@ public class PermissionService {
      */
     public boolean hasPermission(UUID userId, String resource, PermissionType permissionType) {
         try {
-            // Check cache first
-            String cacheKey = String.format("%s:%s:%s", userId, resource, permissionType);
-            Object cached = cacheService.get("permission:" + cacheKey);
-            if (cached instanceof Boolean) {
-                return (Boolean) cached;
-            }
-
-            // Get user and check role-based permissions first
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-            // Super admins have all permissions
-            if (user.getRole() == UserRole.SUPER_ADMIN) {
-                cacheService.set("permission:" + cacheKey, true, java.time.Duration.ofMinutes(15));
-                return true;
-            }
-
-            // Check role-based default permissions
-            boolean hasRolePermission = hasRoleBasedPermission(user.getRole(), resource, permissionType);
-
-            // Check database for explicit permissions (can override role permissions)
-            boolean hasExplicitPermission = permissionRepository.hasPermission(
-                    userId, resource, permissionType, LocalDateTime.now());
-
-            // User has permission if either role allows it OR explicit permission is granted
-            boolean result = hasRolePermission || hasExplicitPermission;
-
-            // Cache the result
-            cacheService.set("permission:" + cacheKey, result, java.time.Duration.ofMinutes(15));
-
-            logger.debug("Permission check for user {} on resource {} with type {}: {} (role: {}, explicit: {})",
-                    userId, resource, permissionType, result, hasRolePermission, hasExplicitPermission);
-
-            return result;
-
+            UserPermissionSet permissions = getPermissionSet(userId);
+            return permissions != null && permissions.has(resource, permissionType);
         } catch (Exception e) {
             logger.error("Error checking permission for user {} on resource {}: {}",
                     userId, resource, e.getMessage());
@@ -126,8 +165,17 @@ public class PermissionService {
     public Map<String, Boolean> hasPermissions(UUID userId, String resource, PermissionType... permissionTypes) {
         Map<String, Boolean> results = new HashMap<>();
 
+        int mask = 0;
+        try {
+            UserPermissionSet permissions = getPermissionSet(userId);
+            mask = permissions != null ? permissions.maskFor(resource) : 0;
+        } catch (Exception e) {
+            logger.error("Error checking permissions for user {} on resource {}: {}",
+                    userId, resource, e.getMessage());
+        }
+
         for (PermissionType permissionType : permissionTypes) {
-            results.put(permissionType.name(), hasPermission(userId, resource, permissionType));
+            results.put(permissionType.name(), (mask & UserPermissionSet.bit(permissionType)) != 0);
         }
 
         return results;
@@ -138,20 +186,17 @@ public class PermissionService {
      */
     public boolean hasCompanyPermission(UUID userId, String resource, PermissionType permissionType, UUID resourceCompanyId) {
         try {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-            // Super admins can access any company's resources
-            if (user.getRole() == UserRole.SUPER_ADMIN) {
-                return hasPermission(userId, resource, permissionType);
+            UserPermissionSet permissions = getPermissionSet(userId);
+            if (permissions == null) {
+                return false;
             }
 
-            // Users can only access resources from their own company
-            if (!user.getCompanyId().equals(resourceCompanyId)) {
+            // Super admins can access any company's resources; others only their own company's
+            if (!permissions.isSuperAdmin() && !Objects.equals(permissions.getCompanyId(), resourceCompanyId)) {
                 return false;
             }
 
-            return hasPermission(userId, resource, permissionType);
+            return permissions.has(resource, permissionType);
 
         } catch (Exception e) {
             logger.error("Error checking company permission: {}", e.getMessage());
@@ -159,6 +204,66 @@ public class PermissionService {
         }
     }
 
+    /**
+     * Compiled effective permissions of a user, or null if the user does not exist
+     */
+    public UserPermissionSet getPermissionSet(UUID userId) {
+        return permissionSets.get(userId, this::compilePermissionSet);
+    }
+
+    /**
+     * Compiled permissions of many users, loading all missing ones together
+     */
+    public Map<UUID, UserPermissionSet> getPermissionSets(Collection<UUID> userIds) {
+        return permissionSets.getAll(userIds, this::compilePermissionSets);
+    }
+
+    /**
+     * Evaluate many (user, resource, permission) checks against the compiled permission sets.
+     * When scopeCompanyId is set, users outside that company are always denied (the caller may
+     * only ask about its own company).
+     *
+     * @param offset index of the first check within the whole request
+     */
+    @Transactional(readOnly = true)
+    public List<PermissionCheckResult> checkPermissions(List<PermissionCheckRequest> checks, int offset,
+                                                        UUID scopeCompanyId) {
+        Set<UUID> userIds = new HashSet<>();
+        for (PermissionCheckRequest check : checks) {
+            userIds.add(check.getUserId());
+        }
+        Map<UUID, UserPermissionSet> sets = getPermissionSets(userIds);
+
+        List<PermissionCheckResult> results = new ArrayList<>(checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            PermissionCheckRequest check = checks.get(i);
+            results.add(PermissionCheckResult.builder()
+                    .index(offset + i)
+                    .userId(check.getUserId())
+                    .resource(check.getResource())
+                    .permission(check.getPermission())
+                    .allowed(isAllowed(sets.get(check.getUserId()), check, scopeCompanyId))
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * Drop the user's compiled permissions on all instances once the current transaction commits
+     */
+    public void invalidatePermissions(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishInvalidation(userId);
+                }
+            });
+        } else {
+            publishInvalidation(userId);
+        }
+    }
+
     /**
      * Get all user permissions
      */
@@ -351,6 +456,7 @@ public class PermissionService {
 
         // Mark expired permissions as revoked
         permissionRepository.revokeExpiredPermissions(now);
+        // Cached sets already expire with their earliest grant; nothing to invalidate here
 
         // Delete very old expired permissions (older than 90 days)
         LocalDateTime deleteBefore = now.minusDays(90);
@@ -435,24 +541,11 @@ public class PermissionService {
      */
     @Transactional(readOnly = true)
     public Set<PermissionType> getUserPermissionTypes(UUID userId, String resource) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        Set<PermissionType> permissionTypes = new HashSet<>();
-
-        // Add role-based permissions
-        Set<PermissionType> rolePermissions = DEFAULT_ROLE_PERMISSIONS.get(user.getRole().name());
-        if (rolePermissions != null) {
-            permissionTypes.addAll(rolePermissions);
+        UserPermissionSet permissions = getPermissionSet(userId);
+        if (permissions == null) {
+            throw new ResourceNotFoundException("User not found");
         }
-
-        // Add explicit permissions
-        List<UserPermission> explicitPermissions = permissionRepository.findByUserIdAndResource(userId, resource);
-        explicitPermissions.stream()
-                .filter(p -> p.getGranted() && (p.getExpiresAt() == null || p.getExpiresAt().isAfter(LocalDateTime.now())))
-                .forEach(p -> permissionTypes.add(p.getPermissionType()));
-
-        return permissionTypes;
+        return permissions.typesFor(resource);
     }
 
     /**
@@ -487,28 +580,71 @@ public class PermissionService {
 
     // Helper methods
 
-    private boolean hasRoleBasedPermission(UserRole role, String resource, PermissionType permissionType) {
-        Set<PermissionType> rolePermissions = DEFAULT_ROLE_PERMISSIONS.get(role.name());
-        return rolePermissions != null && rolePermissions.contains(permissionType);
+    private UserPermissionSet compilePermissionSet(UUID userId) {
+        return compilePermissionSets(Set.of(userId)).get(userId);
     }
 
-    private void clearUserPermissionCache(UUID userId) {
-        try {
-            cacheService.evictUserPermissions(userId);
+    /**
+     * Compile the sets of many users with one user query and one grant query; unknown users are left out
+     */
+    private Map<UUID, UserPermissionSet> compilePermissionSets(Set<? extends UUID> userIds) {
+        Map<UUID, UserPermissionSet.Builder> builders = new HashMap<>();
+        for (User user : userRepository.findAllById(new ArrayList<UUID>(userIds))) {
+            builders.put(user.getId(), new UserPermissionSet.Builder(user.getId(), user.getCompanyId(),
+                    user.getRole() == UserRole.SUPER_ADMIN,
+                    user.getRole() != null ? DEFAULT_ROLE_PERMISSIONS.get(user.getRole().name()) : null));
+        }
+        if (builders.isEmpty()) {
+            return Collections.emptyMap();
+        }
 
-            // Also clear specific permission cache entries
-            for (PermissionType type : PermissionType.values()) {
-                String pattern = userId + ":*:" + type;
-                // Note: This is a simplified approach. In production, you might want to use
-                // Redis pattern matching to clear all matching keys
+        for (UserPermission permission : permissionRepository.findActiveGrantsByUserIds(builders.keySet(), LocalDateTime.now())) {
+            UserPermissionSet.Builder builder = builders.get(permission.getUser().getId());
+            if (builder != null) {
+                builder.grant(permission.getResource(), permission.getPermissionType(), permission.getExpiresAt());
             }
+        }
+
+        Map<UUID, UserPermissionSet> permissionSets = new HashMap<>(builders.size() * 2);
+        builders.forEach((userId, builder) -> permissionSets.put(userId, builder.build()));
+        logger.debug("Compiled permissions for {} users", permissionSets.size());
+        return permissionSets;
+    }
+
+    private static boolean isAllowed(UserPermissionSet permissions, PermissionCheckRequest check, UUID scopeCompanyId) {
+        if (permissions == null) {
+            return false;
+        }
+        if (scopeCompanyId != null && !scopeCompanyId.equals(permissions.getCompanyId())) {
+            return false;
+        }
+        if (check.getCompanyId() != null && !permissions.isSuperAdmin()
+                && !check.getCompanyId().equals(permissions.getCompanyId())) {
+            return false;
+        }
+        return permissions.has(check.getResource(), check.getPermission());
+    }
 
+    private void clearUserPermissionCache(UUID userId) {
+        try {
+            cacheService.evictUserPermissions(userId);
+            invalidatePermissions(userId);
             logger.debug("Permission cache cleared for user: {}", userId);
         } catch (Exception e) {
             logger.error("Error clearing permission cache for user {}: {}", userId, e.getMessage());
         }
     }
 
+    private void publishInvalidation(UUID userId) {
+        permissionSets.invalidate(userId);
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel, userId.toString());
+        } catch (Exception e) {
+            // Other instances fall back to the cache TTL
+            logger.error("Error publishing permission invalidation for user {}: {}", userId, e.getMessage());
+        }
+    }
+
     /**
      * Check if user has admin permissions
      */
@@ -1,30 +1,51 @@
 package com.fleetmanagement.userservice.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fleetmanagement.userservice.domain.entity.User;
+import com.fleetmanagement.userservice.domain.enums.SessionEventType;
+import com.fleetmanagement.userservice.domain.enums.UserRole;
 import com.fleetmanagement.userservice.dto.response.UserSessionInfo;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scripting.support.ResourceScriptSource;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Redis Session Service
  *
- * Service for managing user sessions in Redis including:
+ * The session store of the user service, including:
  * - Session creation and storage
  * - Multi-device session management
  * - Session invalidation and cleanup
  * - Active session tracking
+ *
+ * Redis is the system of record. Each session is a hash under
+ * user:session:{id} that expires with the session. A per-user sorted set
+ * scored by last activity backs the concurrent session limit and session
+ * listing. The global sessions:expiry sorted set, scored by the earlier of
+ * the idle and absolute deadlines, drives cleanup without scanning keys.
+ * Creation, limit enforcement, refresh and invalidation run as Lua scripts
+ * so the indexes never drift from the session data. Activity updates are
+ * coalesced locally and written at most once per flush interval per session.
+ * Lifecycle events go to the batched audit log in {@link SessionAuditService}.
  */
 @Service
 public class RedisSessionService {
@@ -33,11 +54,22 @@ public class RedisSessionService {
 
     private static final String USER_SESSION_PREFIX = "user:session:";
     private static final String USER_SESSIONS_SET_PREFIX = "user:sessions:";
-    private static final String ACTIVE_SESSIONS_PREFIX = "active:sessions:";
-    private static final String SESSION_ACTIVITY_PREFIX = "session:activity:";
+    private static final String SESSION_EXPIRY_KEY = "sessions:expiry";
+
+    private static final int ACTIVITY_FLUSH_BATCH_SIZE = 500;
 
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final SessionAuditService auditService;
+    private final RedisScript<List> createScript;
+    private final RedisScript<Long> touchScript;
+    private final RedisScript<String> refreshScript;
+    private final RedisScript<List> invalidateScript;
+    private final RedisScript<List> expireScript;
+
+    /**
+     * Latest activity per session not yet written to Redis
+     */
+    private final Map<String, Long> pendingActivity = new ConcurrentHashMap<>();
 
     @Value("${app.session.max-concurrent-sessions:5}")
     private int maxConcurrentSessions;
@@ -45,27 +77,42 @@ public class RedisSessionService {
     @Value("${app.session.timeout-hours:24}")
     private long sessionTimeoutHours;
 
-    @Value("${app.session.activity-timeout-minutes:30}")
+    @Value("${app.session.activity-timeout-minutes:0}")
     private long activityTimeoutMinutes;
 
     @Value("${app.session.cleanup-enabled:true}")
     private boolean cleanupEnabled;
 
+    @Value("${app.session.cleanup-batch-size:500}")
+    private int cleanupBatchSize;
+
     @Autowired
-    public RedisSessionService(RedisTemplate<String, Object> redisTemplate,
-                               ObjectMapper objectMapper) {
+    public RedisSessionService(StringRedisTemplate redisTemplate, SessionAuditService auditService) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.auditService = auditService;
+        this.createScript = script("scripts/session_create.lua", List.class);
+        this.touchScript = script("scripts/session_touch.lua", Long.class);
+        this.refreshScript = script("scripts/session_refresh.lua", String.class);
+        this.invalidateScript = script("scripts/session_invalidate.lua", List.class);
+        this.expireScript = script("scripts/session_expire.lua", List.class);
     }
 
     /**
-     * Create a new session for user
+     * Create a new session for user with the default session timeout
      */
     public UserSessionInfo createSession(User user, String deviceInfo, String ipAddress, String jwtToken) {
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(sessionTimeoutHours);
+        return createSession(user, generateSessionId(), deviceInfo, ipAddress, null, jwtToken, null, expiresAt);
+    }
+
+    /**
+     * Create a new session for user under a caller-chosen id (the id embedded in its tokens)
+     */
+    public UserSessionInfo createSession(User user, String sessionId, String deviceInfo, String ipAddress,
+                                         String userAgent, String jwtToken, String refreshToken, long expiresAt) {
         logger.info("Creating session for user: {} from device: {}", user.getId(), deviceInfo);
 
-        String sessionId = generateSessionId();
-        LocalDateTime now = LocalDateTime.now();
+        long now = System.currentTimeMillis();
 
         UserSessionInfo sessionInfo = UserSessionInfo.builder()
                 .sessionId(sessionId)
@@ -76,23 +123,40 @@ public class RedisSessionService {
                 .companyId(user.getCompanyId())
                 .deviceInfo(deviceInfo)
                 .ipAddress(ipAddress)
+                .userAgent(userAgent)
                 .jwtToken(jwtToken)
-                .createdAt(now)
-                .lastActivityAt(now)
+                .refreshToken(refreshToken)
+                .createdAt(toLocalDateTime(now))
+                .lastActivityAt(toLocalDateTime(now))
+                .expiresAt(toLocalDateTime(expiresAt))
                 .isActive(true)
                 .build();
 
-        // Store session data
-        storeSession(sessionInfo);
-
-        // Add to user's session set
-        addToUserSessions(user.getId(), sessionId);
-
-        // Enforce concurrent session limits
-        enforceConcurrentSessionLimit(user.getId());
-
-        // Track in active sessions
-        trackActiveSession(sessionId, user.getId());
+        // Store, index and enforce the concurrent session limit in one round trip
+        List<String> args = new ArrayList<>(40);
+        args.add(sessionId);
+        args.add(String.valueOf(now));
+        args.add(String.valueOf(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(expiresAt - now))));
+        args.add(String.valueOf(expiryScore(now, expiresAt)));
+        args.add(String.valueOf(Math.max(1, maxConcurrentSessions)));
+        args.add(USER_SESSION_PREFIX);
+        addSessionFields(args, sessionInfo, now, expiresAt);
+
+        List<String> keys = List.of(
+                USER_SESSION_PREFIX + sessionId,
+                USER_SESSIONS_SET_PREFIX + user.getId(),
+                SESSION_EXPIRY_KEY);
+        @SuppressWarnings("unchecked")
+        List<String> evicted = redisTemplate.execute(createScript, keys, args.toArray());
+
+        if (evicted != null && !evicted.isEmpty()) {
+            for (String evictedId : evicted) {
+                pendingActivity.remove(evictedId);
+                auditService.record(evictedId, user.getId(), SessionEventType.EVICTED);
+            }
+            logger.info("Removed oldest sessions {} for user {} due to concurrent session limit", evicted, user.getId());
+        }
+        auditService.record(sessionId, user.getId(), SessionEventType.CREATED, ipAddress, userAgent);
 
         logger.info("Session created successfully: {} for user: {}", sessionId, user.getId());
         return sessionInfo;
@@ -104,71 +168,83 @@ public class RedisSessionService {
     public Optional<UserSessionInfo> getSession(String sessionId) {
         logger.debug("Retrieving session: {}", sessionId);
 
-        String sessionKey = USER_SESSION_PREFIX + sessionId;
-        String sessionData = (String) redisTemplate.opsForValue().get(sessionKey);
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(USER_SESSION_PREFIX + sessionId);
 
-        if (sessionData == null) {
+        if (fields.isEmpty()) {
             logger.debug("Session not found: {}", sessionId);
             return Optional.empty();
         }
 
-        try {
-            UserSessionInfo sessionInfo = objectMapper.readValue(sessionData, UserSessionInfo.class);
-            return Optional.of(sessionInfo);
-        } catch (JsonProcessingException e) {
-            logger.error("Error deserializing session data for session: {}", sessionId, e);
-            return Optional.empty();
-        }
+        return Optional.of(toSessionInfo(fields));
     }
 
     /**
      * Update session activity
+     *
+     * Recorded locally and written to Redis on the next activity flush.
      */
     public void updateSessionActivity(String sessionId) {
         logger.debug("Updating activity for session: {}", sessionId);
+        pendingActivity.merge(sessionId, System.currentTimeMillis(), Math::max);
+    }
 
-        Optional<UserSessionInfo> sessionOpt = getSession(sessionId);
-        if (sessionOpt.isEmpty()) {
-            logger.warn("Cannot update activity for non-existent session: {}", sessionId);
-            return;
+    /**
+     * Check that a session exists, has not expired and still belongs to the access token
+     *
+     * Reads only the fields it needs and records activity for the next flush.
+     */
+    public boolean isSessionTokenValid(String sessionId, String accessToken) {
+        if (sessionId == null || accessToken == null) {
+            return false;
         }
 
-        UserSessionInfo sessionInfo = sessionOpt.get();
-        sessionInfo.setLastActivityAt(LocalDateTime.now());
+        List<Object> fields = redisTemplate.opsForHash().multiGet(USER_SESSION_PREFIX + sessionId,
+                List.of("jwtToken", "expiresAt", "lastActivityAt", "active"));
+        if (fields == null || fields.get(0) == null || !accessToken.equals(fields.get(0))) {
+            return false;
+        }
 
-        storeSession(sessionInfo);
-        updateSessionActivityTimestamp(sessionId);
+        long now = System.currentTimeMillis();
+        if (!Boolean.parseBoolean((String) fields.get(3))
+                || Long.parseLong((String) fields.get(1)) <= now
+                || isIdleExpired(lastActivity(sessionId, Long.parseLong((String) fields.get(2))), now)) {
+            return false;
+        }
+
+        updateSessionActivity(sessionId);
+        return true;
+    }
+
+    /**
+     * Replace a session's access token after a refresh
+     *
+     * Returns the session's user id, or empty if the session is gone or the refresh token no longer matches.
+     */
+    public Optional<UUID> refreshSession(String sessionId, String refreshToken, String newAccessToken) {
+        String userId = redisTemplate.execute(refreshScript, List.of(USER_SESSION_PREFIX + sessionId),
+                refreshToken, newAccessToken, String.valueOf(System.currentTimeMillis()));
+        if (userId == null) {
+            return Optional.empty();
+        }
+
+        UUID user = UUID.fromString(userId);
+        auditService.record(sessionId, user, SessionEventType.REFRESHED);
+        return Optional.of(user);
     }
 
     /**
      * Invalidate a specific session
      */
-    public void invalidateSession(String sessionId) {
+    public boolean invalidateSession(String sessionId) {
         logger.info("Invalidating session: {}", sessionId);
 
-        Optional<UserSessionInfo> sessionOpt = getSession(sessionId);
-        if (sessionOpt.isEmpty()) {
+        if (invalidateSessions(List.of(sessionId)) == 0) {
             logger.warn("Cannot invalidate non-existent session: {}", sessionId);
-            return;
+            return false;
         }
 
-        UserSessionInfo sessionInfo = sessionOpt.get();
-        UUID userId = sessionInfo.getUserId();
-
-        // Remove session data
-        String sessionKey = USER_SESSION_PREFIX + sessionId;
-        redisTemplate.delete(sessionKey);
-
-        // Remove from user's session set
-        removeFromUserSessions(userId, sessionId);
-
-        // Remove from active sessions
-        removeFromActiveSessions(sessionId);
-
-        // Remove activity tracking
-        removeSessionActivity(sessionId);
-
         logger.info("Session invalidated successfully: {}", sessionId);
+        return true;
     }
 
     /**
@@ -178,12 +254,17 @@ public class RedisSessionService {
         logger.info("Invalidating all sessions for user: {}", userId);
 
         Set<String> userSessions = getUserSessions(userId);
+        long invalidated = invalidateSessions(userSessions);
 
-        for (String sessionId : userSessions) {
-            invalidateSession(sessionId);
-        }
+        logger.info("Invalidated {} sessions for user: {}", invalidated, userId);
+    }
 
-        logger.info("Invalidated {} sessions for user: {}", userSessions.size(), userId);
+    /**
+     * Number of sessions a user currently holds
+     */
+    public long countUserSessions(UUID userId) {
+        Long count = redisTemplate.opsForZSet().zCard(USER_SESSIONS_SET_PREFIX + userId);
+        return count != null ? count : 0;
     }
 
     /**
@@ -192,13 +273,27 @@ public class RedisSessionService {
     public List<UserSessionInfo> getUserActiveSessions(UUID userId) {
         logger.debug("Retrieving active sessions for user: {}", userId);
 
-        Set<String> sessionIds = getUserSessions(userId);
+        List<String> sessionIds = new ArrayList<>(getUserSessions(userId));
+        if (sessionIds.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        return sessionIds.stream()
-                .map(this::getSession)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(session -> session.isActive())
+        // One pipelined round trip for all session hashes
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (String sessionId : sessionIds) {
+                    operations.opsForHash().entries(USER_SESSION_PREFIX + sessionId);
+                }
+                return null;
+            }
+        });
+
+        return results.stream()
+                .filter(result -> result instanceof Map && !((Map<?, ?>) result).isEmpty())
+                .map(result -> toSessionInfo((Map<?, ?>) result))
+                .filter(UserSessionInfo::isActive)
                 .sorted((s1, s2) -> s2.getLastActivityAt().compareTo(s1.getLastActivityAt()))
                 .collect(Collectors.toList());
     }
@@ -224,7 +319,7 @@ public class RedisSessionService {
         LocalDateTime lastActivity = sessionInfo.getLastActivityAt();
         LocalDateTime activityThreshold = LocalDateTime.now().minusMinutes(activityTimeoutMinutes);
 
-        if (lastActivity.isBefore(activityThreshold)) {
+        if (activityTimeoutMinutes > 0 && lastActivity.isBefore(activityThreshold)) {
             logger.debug("Session {} expired due to inactivity", sessionId);
             invalidateSession(sessionId);
             return false;
@@ -239,11 +334,12 @@ public class RedisSessionService {
     public void forceLogoutFromDevice(UUID userId, String deviceInfo) {
         logger.info("Force logout for user: {} from device: {}", userId, deviceInfo);
 
-        List<UserSessionInfo> userSessions = getUserActiveSessions(userId);
-
-        userSessions.stream()
+        List<String> sessionIds = getUserActiveSessions(userId).stream()
                 .filter(session -> deviceInfo.equals(session.getDeviceInfo()))
-                .forEach(session -> invalidateSession(session.getSessionId()));
+                .map(UserSessionInfo::getSessionId)
+                .collect(Collectors.toList());
+
+        invalidateSessions(sessionIds);
     }
 
     /**
@@ -273,9 +369,43 @@ public class RedisSessionService {
                 .build();
     }
 
+    /**
+     * Write coalesced activity to Redis (scheduled task)
+     */
+    @Scheduled(fixedDelayString = "${app.session.activity-flush-interval-ms:10000}")
+    public void flushSessionActivity() {
+        if (pendingActivity.isEmpty()) {
+            return;
+        }
+
+        List<String> args = newActivityArgs();
+        for (Map.Entry<String, Long> entry : pendingActivity.entrySet()) {
+            // A session touched again since we read it keeps its entry for the next flush
+            if (pendingActivity.remove(entry.getKey(), entry.getValue())) {
+                args.add(entry.getKey());
+                args.add(String.valueOf(entry.getValue()));
+            }
+            if (args.size() >= 3 + 2 * ACTIVITY_FLUSH_BATCH_SIZE) {
+                writeActivity(args);
+                args = newActivityArgs();
+            }
+        }
+        if (args.size() > 3) {
+            writeActivity(args);
+        }
+    }
+
     /**
      * Clean up expired sessions (scheduled task)
      */
+    @Scheduled(fixedDelayString = "${app.session.cleanup-interval-ms:60000}")
+    public void scheduledCleanup() {
+        cleanupExpiredSessions();
+    }
+
+    /**
+     * Clean up expired sessions
+     */
     public int cleanupExpiredSessions() {
         if (!cleanupEnabled) {
             return 0;
@@ -283,99 +413,179 @@ public class RedisSessionService {
 
         logger.info("Starting cleanup of expired sessions");
 
-        Set<String> activeSessionKeys = redisTemplate.keys(ACTIVE_SESSIONS_PREFIX + "*");
-        int cleanedUp = 0;
-
-        for (String activeSessionKey : activeSessionKeys) {
-            String sessionId = activeSessionKey.substring(ACTIVE_SESSIONS_PREFIX.length());
+        // Activity recorded on this node may still extend some of the due sessions
+        flushSessionActivity();
 
-            if (!isSessionValid(sessionId)) {
-                cleanedUp++;
+        String now = String.valueOf(System.currentTimeMillis());
+        int cleanedUp = 0;
+        int due;
+        do {
+            @SuppressWarnings("unchecked")
+            List<String> result = redisTemplate.execute(expireScript, List.of(SESSION_EXPIRY_KEY),
+                    USER_SESSION_PREFIX, USER_SESSIONS_SET_PREFIX, now, String.valueOf(cleanupBatchSize));
+            if (result == null || result.isEmpty()) {
+                break;
             }
-        }
+            due = Integer.parseInt(result.get(0));
+            cleanedUp += due;
+            auditRemoved(result.subList(1, result.size()), SessionEventType.EXPIRED);
+        } while (due >= cleanupBatchSize);
 
         logger.info("Cleaned up {} expired sessions", cleanedUp);
         return cleanedUp;
     }
 
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flushSessionActivity();
+        } catch (Exception e) {
+            logger.warn("Could not flush session activity on shutdown: {}", e.getMessage());
+        }
+    }
+
     // Private helper methods
 
-    private void storeSession(UserSessionInfo sessionInfo) {
-        try {
-            String sessionKey = USER_SESSION_PREFIX + sessionInfo.getSessionId();
-            String sessionData = objectMapper.writeValueAsString(sessionInfo);
+    private long invalidateSessions(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return 0;
+        }
+
+        List<String> args = new ArrayList<>(sessionIds.size() + 2);
+        args.add(USER_SESSION_PREFIX);
+        args.add(USER_SESSIONS_SET_PREFIX);
+        args.addAll(sessionIds);
+        sessionIds.forEach(pendingActivity::remove);
+
+        @SuppressWarnings("unchecked")
+        List<String> removed = redisTemplate.execute(invalidateScript, List.of(SESSION_EXPIRY_KEY), args.toArray());
+        if (removed == null) {
+            return 0;
+        }
+        auditRemoved(removed, SessionEventType.REVOKED);
+        return removed.size() / 2;
+    }
 
-            redisTemplate.opsForValue().set(sessionKey, sessionData, sessionTimeoutHours, TimeUnit.HOURS);
-        } catch (JsonProcessingException e) {
-            logger.error("Error serializing session data for session: {}", sessionInfo.getSessionId(), e);
-            throw new RuntimeException("Failed to store session data", e);
+    /**
+     * Audit (session id, user id) pairs returned by the invalidate and expire scripts
+     */
+    private void auditRemoved(List<String> pairs, SessionEventType eventType) {
+        for (int i = 0; i + 1 < pairs.size(); i += 2) {
+            pendingActivity.remove(pairs.get(i));
+            auditService.record(pairs.get(i), UUID.fromString(pairs.get(i + 1)), eventType);
         }
     }
 
     private Set<String> getUserSessions(UUID userId) {
-        String userSessionsKey = USER_SESSIONS_SET_PREFIX + userId;
-        Set<Object> sessionObjects = redisTemplate.opsForSet().members(userSessionsKey);
+        Set<String> sessionIds = redisTemplate.opsForZSet().reverseRange(USER_SESSIONS_SET_PREFIX + userId, 0, -1);
+        return sessionIds != null ? sessionIds : new LinkedHashSet<>();
+    }
 
-        return sessionObjects != null ?
-                sessionObjects.stream()
-                        .map(Object::toString)
-                        .collect(Collectors.toSet()) :
-                new HashSet<>();
+    private List<String> newActivityArgs() {
+        List<String> args = new ArrayList<>(3 + 2 * ACTIVITY_FLUSH_BATCH_SIZE);
+        args.add(USER_SESSION_PREFIX);
+        args.add(USER_SESSIONS_SET_PREFIX);
+        args.add(String.valueOf(TimeUnit.MINUTES.toMillis(activityTimeoutMinutes)));
+        return args;
     }
 
-    private void addToUserSessions(UUID userId, String sessionId) {
-        String userSessionsKey = USER_SESSIONS_SET_PREFIX + userId;
-        redisTemplate.opsForSet().add(userSessionsKey, sessionId);
-        redisTemplate.expire(userSessionsKey, sessionTimeoutHours, TimeUnit.HOURS);
+    private void writeActivity(List<String> args) {
+        try {
+            redisTemplate.execute(touchScript, List.of(SESSION_EXPIRY_KEY), args.toArray());
+        } catch (Exception e) {
+            logger.warn("Could not write session activity, retrying on next flush: {}", e.getMessage());
+            for (int i = 3; i < args.size(); i += 2) {
+                pendingActivity.merge(args.get(i), Long.parseLong(args.get(i + 1)), Math::max);
+            }
+        }
     }
 
-    private void removeFromUserSessions(UUID userId, String sessionId) {
-        String userSessionsKey = USER_SESSIONS_SET_PREFIX + userId;
-        redisTemplate.opsForSet().remove(userSessionsKey, sessionId);
+    /**
+     * Score in the expiry index: the absolute expiry, or the idle deadline if that comes first
+     */
+    private long expiryScore(long lastActivityAt, long expiresAt) {
+        if (activityTimeoutMinutes <= 0) {
+            return expiresAt;
+        }
+        return Math.min(lastActivityAt + TimeUnit.MINUTES.toMillis(activityTimeoutMinutes), expiresAt);
     }
 
-    private void enforceConcurrentSessionLimit(UUID userId) {
-        Set<String> userSessions = getUserSessions(userId);
+    private boolean isIdleExpired(long lastActivityAt, long now) {
+        return activityTimeoutMinutes > 0 && lastActivityAt + TimeUnit.MINUTES.toMillis(activityTimeoutMinutes) <= now;
+    }
 
-        if (userSessions.size() > maxConcurrentSessions) {
-            // Get sessions sorted by last activity (oldest first)
-            List<UserSessionInfo> sessions = userSessions.stream()
-                    .map(this::getSession)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .sorted(Comparator.comparing(UserSessionInfo::getLastActivityAt))
-                    .collect(Collectors.toList());
-
-            // Remove oldest sessions to enforce limit
-            int sessionsToRemove = sessions.size() - maxConcurrentSessions;
-            for (int i = 0; i < sessionsToRemove; i++) {
-                String sessionToRemove = sessions.get(i).getSessionId();
-                logger.info("Removing oldest session {} for user {} due to concurrent session limit",
-                        sessionToRemove, userId);
-                invalidateSession(sessionToRemove);
-            }
+    private long lastActivity(String sessionId, long stored) {
+        Long pending = pendingActivity.get(sessionId);
+        return pending != null && pending > stored ? pending : stored;
+    }
+
+    private static void addSessionFields(List<String> args, UserSessionInfo sessionInfo, long now, long expiresAt) {
+        addField(args, "sessionId", sessionInfo.getSessionId());
+        addField(args, "userId", sessionInfo.getUserId());
+        addField(args, "username", sessionInfo.getUsername());
+        addField(args, "email", sessionInfo.getEmail());
+        addField(args, "role", sessionInfo.getRole() != null ? sessionInfo.getRole().name() : null);
+        addField(args, "companyId", sessionInfo.getCompanyId());
+        addField(args, "deviceInfo", sessionInfo.getDeviceInfo());
+        addField(args, "ipAddress", sessionInfo.getIpAddress());
+        addField(args, "jwtToken", sessionInfo.getJwtToken());
+        addField(args, "refreshToken", sessionInfo.getRefreshToken());
+        addField(args, "createdAt", now);
+        addField(args, "lastActivityAt", now);
+        addField(args, "expiresAt", expiresAt);
+        addField(args, "active", sessionInfo.isActive());
+        addField(args, "userAgent", sessionInfo.getUserAgent());
+        addField(args, "location", sessionInfo.getLocation());
+    }
+
+    private static void addField(List<String> args, String field, Object value) {
+        if (value != null) {
+            args.add(field);
+            args.add(value.toString());
         }
     }
 
-    private void trackActiveSession(String sessionId, UUID userId) {
-        String activeSessionKey = ACTIVE_SESSIONS_PREFIX + sessionId;
-        redisTemplate.opsForValue().set(activeSessionKey, userId.toString(), sessionTimeoutHours, TimeUnit.HOURS);
+    private UserSessionInfo toSessionInfo(Map<?, ?> fields) {
+        String sessionId = string(fields, "sessionId");
+        long lastActivity = lastActivity(sessionId, Long.parseLong(string(fields, "lastActivityAt")));
+
+        String userId = string(fields, "userId");
+        String role = string(fields, "role");
+        String companyId = string(fields, "companyId");
+        return UserSessionInfo.builder()
+                .sessionId(sessionId)
+                .userId(userId != null ? UUID.fromString(userId) : null)
+                .username(string(fields, "username"))
+                .email(string(fields, "email"))
+                .role(role != null ? UserRole.valueOf(role) : null)
+                .companyId(companyId != null ? UUID.fromString(companyId) : null)
+                .deviceInfo(string(fields, "deviceInfo"))
+                .ipAddress(string(fields, "ipAddress"))
+                .jwtToken(string(fields, "jwtToken"))
+                .refreshToken(string(fields, "refreshToken"))
+                .createdAt(toLocalDateTime(Long.parseLong(string(fields, "createdAt"))))
+                .lastActivityAt(toLocalDateTime(lastActivity))
+                .expiresAt(toLocalDateTime(Long.parseLong(string(fields, "expiresAt"))))
+                .isActive(Boolean.parseBoolean(string(fields, "active")))
+                .userAgent(string(fields, "userAgent"))
+                .location(string(fields, "location"))
+                .build();
     }
 
-    private void removeFromActiveSessions(String sessionId) {
-        String activeSessionKey = ACTIVE_SESSIONS_PREFIX + sessionId;
-        redisTemplate.delete(activeSessionKey);
+    private static String string(Map<?, ?> fields, String field) {
+        Object value = fields.get(field);
+        return value != null ? value.toString() : null;
     }
 
-    private void updateSessionActivityTimestamp(String sessionId) {
-        String activityKey = SESSION_ACTIVITY_PREFIX + sessionId;
-        long timestamp = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
-        redisTemplate.opsForValue().set(activityKey, timestamp, activityTimeoutMinutes, TimeUnit.MINUTES);
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
     }
 
-    private void removeSessionActivity(String sessionId) {
-        String activityKey = SESSION_ACTIVITY_PREFIX + sessionId;
-        redisTemplate.delete(activityKey);
+    private static <T> RedisScript<T> script(String path, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(resultType);
+        return script;
     }
 
     private String generateSessionId() {
@@ -0,0 +1,106 @@
+package com.fleetmanagement.userservice.service;
+
+import com.fleetmanagement.userservice.domain.enums.SessionEventType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Session Audit Service
+ *
+ * Append-only history of session lifecycle events in Postgres. Sessions
+ * themselves live in Redis; events are queued in memory and inserted in
+ * batches off the request path. The log is best effort: when the queue is
+ * full or a batch insert fails the events are dropped and counted.
+ */
+@Service
+public class SessionAuditService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionAuditService.class);
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO user_session_events (session_id, user_id, event_type, ip_address, user_agent, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<SessionEvent> queue;
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    @Value("${app.session.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.session.audit.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    public SessionAuditService(JdbcTemplate jdbcTemplate,
+                               @Value("${app.session.audit.queue-capacity:10000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public void record(String sessionId, UUID userId, SessionEventType eventType) {
+        record(sessionId, userId, eventType, null, null);
+    }
+
+    public void record(String sessionId, UUID userId, SessionEventType eventType, String ipAddress, String userAgent) {
+        if (!enabled || sessionId == null || userId == null) {
+            return;
+        }
+        SessionEvent event = new SessionEvent(sessionId, userId, eventType, ipAddress, userAgent, LocalDateTime.now());
+        if (!queue.offer(event)) {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Insert queued events in batches (scheduled task)
+     */
+    @Scheduled(fixedDelayString = "${app.session.audit.flush-interval-ms:1000}")
+    public void flush() {
+        long dropped = droppedEvents.getAndSet(0);
+        if (dropped > 0) {
+            logger.warn("Dropped {} session audit events because the queue was full", dropped);
+        }
+
+        List<SessionEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, batch, batch.size(), (ps, event) -> {
+                    ps.setString(1, event.sessionId());
+                    ps.setObject(2, event.userId());
+                    ps.setString(3, event.eventType().name());
+                    ps.setString(4, event.ipAddress());
+                    ps.setString(5, event.userAgent());
+                    ps.setTimestamp(6, Timestamp.valueOf(event.occurredAt()));
+                });
+            } catch (Exception e) {
+                logger.error("Failed to write {} session audit events: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private record SessionEvent(String sessionId, UUID userId, SessionEventType eventType,
+                                String ipAddress, String userAgent, LocalDateTime occurredAt) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.fleetmanagement.userservice.service;
+
+import com.fleetmanagement.userservice.domain.enums.PermissionType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * User Permission Set
+ *
+ * Effective permissions of one user compiled into bitmasks (one bit per
+ * {@link PermissionType}): the role defaults, which apply to every resource,
+ * and one mask per resource with explicit grants. A check is a map lookup and
+ * a bit test. The set is only valid until the earliest grant in it expires.
+ */
+public final class UserPermissionSet {
+
+    private static final int ALL = (1 << PermissionType.values().length) - 1;
+
+    private final UUID userId;
+    private final UUID companyId;
+    private final boolean superAdmin;
+    private final int roleMask;
+    private final Map<String, Integer> resourceMasks;
+    private final LocalDateTime validUntil;
+
+    UserPermissionSet(UUID userId, UUID companyId, boolean superAdmin, int roleMask,
+                      Map<String, Integer> resourceMasks, LocalDateTime validUntil) {
+        this.userId = userId;
+        this.companyId = companyId;
+        this.superAdmin = superAdmin;
+        this.roleMask = superAdmin ? ALL : roleMask;
+        this.resourceMasks = resourceMasks;
+        this.validUntil = validUntil;
+    }
+
+    public static int bit(PermissionType permissionType) {
+        return 1 << permissionType.ordinal();
+    }
+
+    public static int mask(Collection<PermissionType> permissionTypes) {
+        int mask = 0;
+        for (PermissionType permissionType : permissionTypes) {
+            mask |= bit(permissionType);
+        }
+        return mask;
+    }
+
+    public boolean has(String resource, PermissionType permissionType) {
+        return (maskFor(resource) & bit(permissionType)) != 0;
+    }
+
+    /**
+     * Whether every permission in the mask is held on the resource
+     */
+    public boolean hasAll(String resource, int mask) {
+        return (maskFor(resource) & mask) == mask;
+    }
+
+    public int maskFor(String resource) {
+        if (roleMask == ALL) {
+            return ALL;
+        }
+        Integer explicit = resourceMasks.get(resource);
+        return explicit != null ? roleMask | explicit : roleMask;
+    }
+
+    public Set<PermissionType> typesFor(String resource) {
+        int mask = maskFor(resource);
+        Set<PermissionType> types = EnumSet.noneOf(PermissionType.class);
+        for (PermissionType permissionType : PermissionType.values()) {
+            if ((mask & bit(permissionType)) != 0) {
+                types.add(permissionType);
+            }
+        }
+        return types;
+    }
+
+    public UUID getUserId() { return userId; }
+    public UUID getCompanyId() { return companyId; }
+    public boolean isSuperAdmin() { return superAdmin; }
+
+    /**
+     * Time of the earliest grant expiry, or null if no grant expires
+     */
+    public LocalDateTime getValidUntil() { return validUntil; }
+
+    /**
+     * Collects role defaults and explicit grants into a permission set
+     */
+    static final class Builder {
+        private final UUID userId;
+        private final UUID companyId;
+        private final boolean superAdmin;
+        private final int roleMask;
+        private final Map<String, Integer> resourceMasks = new HashMap<>();
+        private LocalDateTime validUntil;
+
+        Builder(UUID userId, UUID companyId, boolean superAdmin, Collection<PermissionType> rolePermissions) {
+            this.userId = userId;
+            this.companyId = companyId;
+            this.superAdmin = superAdmin;
+            this.roleMask = rolePermissions != null ? mask(rolePermissions) : 0;
+        }
+
+        Builder grant(String resource, PermissionType permissionType, LocalDateTime expiresAt) {
+            resourceMasks.merge(resource, bit(permissionType), (a, b) -> a | b);
+            if (expiresAt != null && (validUntil == null || expiresAt.isBefore(validUntil))) {
+                validUntil = expiresAt;
+            }
+            return this;
+        }
+
+        UserPermissionSet build() {
+            return new UserPermissionSet(userId, companyId, superAdmin, roleMask, Map.copyOf(resourceMasks), validUntil);
+        }
+    }
+}
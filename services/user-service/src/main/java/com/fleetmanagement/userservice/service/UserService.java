@@ -25,6 +25,7 @@ import org.springframework.util.StringUtils;
 import jakarta.persistence.criteria.Predicate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +51,9 @@ public class UserService {
 
     @Autowired
     private EventPublishingService eventPublishingService;
+
+    @Autowired
+    private PermissionService permissionService;
     @Autowired
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
@@ -301,6 +305,7 @@ public class UserService {
         // Clear cache
         cacheService.evictUser(userId);
         cacheService.evictUserPermissions(userId);
+        permissionService.invalidatePermissions(userId);
 
         logger.info("User role updated successfully for ID: {}", savedUser.getId());
         return convertToUserResponse(savedUser);
@@ -353,6 +358,7 @@ public class UserService {
         // Clear cache
         cacheService.evictUser(userId);
         cacheService.evictUserPermissions(userId);
+        permissionService.invalidatePermissions(userId);
 
         logger.info("User deleted successfully: {} from company: {} by user: {}", userId, companyId, deletedBy);
     }
@@ -524,21 +530,37 @@ public class UserService {
         Map<String, Object> stats = new HashMap<>();
 
         if (companyId != null) {
-            stats.put("totalUsers", userRepository.countByCompanyId(companyId));
-            stats.put("activeUsers", userRepository.countByCompanyIdAndStatus(companyId, UserStatus.ACTIVE));
-            stats.put("inactiveUsers", userRepository.countByCompanyIdAndStatus(companyId, UserStatus.INACTIVE));
-            stats.put("lockedUsers", userRepository.countByCompanyIdAndStatus(companyId, UserStatus.LOCKED));
-            stats.put("suspendedUsers", userRepository.countByCompanyIdAndStatus(companyId, UserStatus.SUSPENDED));
+            // One grouped query instead of a COUNT per status and per role
+            LocalDateTime lastWeek = LocalDateTime.now().minusDays(7);
+            Map<UserStatus, Long> byStatus = new EnumMap<>(UserStatus.class);
+            Map<UserRole, Long> byRole = new EnumMap<>(UserRole.class);
+            long total = 0;
+            long activeLastWeek = 0;
+            for (Object[] row : userRepository.countByCompanyIdGroupedByStatusAndRole(companyId, lastWeek)) {
+                long count = ((Number) row[2]).longValue();
+                byStatus.merge((UserStatus) row[0], count, Long::sum);
+                byRole.merge((UserRole) row[1], count, Long::sum);
+                total += count;
+                activeLastWeek += row[3] != null ? ((Number) row[3]).longValue() : 0;
+            }
+
+            stats.put("totalUsers", total);
+            stats.put("activeUsers", byStatus.getOrDefault(UserStatus.ACTIVE, 0L));
+            stats.put("inactiveUsers", byStatus.getOrDefault(UserStatus.INACTIVE, 0L));
+            stats.put("lockedUsers", byStatus.getOrDefault(UserStatus.LOCKED, 0L));
+            stats.put("suspendedUsers", byStatus.getOrDefault(UserStatus.SUSPENDED, 0L));
 
             // Role statistics
             for (UserRole role : UserRole.values()) {
-                stats.put(role.name().toLowerCase() + "Count",
-                        userRepository.countByCompanyIdAndRole(companyId, role));
+                stats.put(role.name().toLowerCase() + "Count", byRole.getOrDefault(role, 0L));
             }
+            // Names used by the company service statistics view
+            stats.put("adminCount", byRole.getOrDefault(UserRole.COMPANY_ADMIN, 0L));
+            stats.put("managerCount", byRole.getOrDefault(UserRole.FLEET_MANAGER, 0L));
+            stats.put("viewerCount", byRole.getOrDefault(UserRole.VIEWER, 0L));
 
             // Activity statistics
-            LocalDateTime lastWeek = LocalDateTime.now().minusDays(7);
-            stats.put("activeUsersLastWeek", userRepository.countActiveUsersByCompanySince(companyId, lastWeek));
+            stats.put("activeUsersLastWeek", activeLastWeek);
         } else {
             stats.put("totalUsers", userRepository.count());
             LocalDateTime lastWeek = LocalDateTime.now().minusDays(7);
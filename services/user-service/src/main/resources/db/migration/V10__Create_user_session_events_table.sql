@@ -0,0 +1,17 @@
+-- V10__Create_user_session_events_table.sql
+-- Append-only session audit log; live sessions are kept in Redis
+
+CREATE TABLE IF NOT EXISTS user_session_events (
+                                                   id BIGSERIAL PRIMARY KEY,
+                                                   session_id VARCHAR(64) NOT NULL,
+                                                   user_id UUID NOT NULL,
+                                                   event_type VARCHAR(20) NOT NULL,
+                                                   ip_address VARCHAR(45),
+                                                   user_agent TEXT,
+                                                   occurred_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_session_events_user ON user_session_events(user_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_user_session_events_session ON user_session_events(session_id);
+
+COMMENT ON TABLE user_session_events IS 'Session lifecycle history written in batches by the user service (sessions live in Redis)';
@@ -0,0 +1,36 @@
+-- Store a new session hash and index it for its user (scored by last activity)
+-- and for expiry, evicting the user's least recently active sessions first so
+-- that at most ARGV[5] remain. The user index lives as long as its longest
+-- session. Returns the ids of the evicted sessions.
+local session_key = KEYS[1]
+local user_sessions_key = KEYS[2]
+local expiry_key = KEYS[3]
+
+local session_id = ARGV[1]
+local now = ARGV[2]
+local ttl = tonumber(ARGV[3])
+local expires_at = ARGV[4]
+local max_sessions = tonumber(ARGV[5])
+local session_prefix = ARGV[6]
+
+local evicted = {}
+local excess = redis.call('ZCARD', user_sessions_key) - (max_sessions - 1)
+if excess > 0 then
+  local oldest = redis.call('ZRANGE', user_sessions_key, 0, excess - 1)
+  for _, id in ipairs(oldest) do
+    redis.call('DEL', session_prefix .. id)
+    redis.call('ZREM', user_sessions_key, id)
+    redis.call('ZREM', expiry_key, id)
+    evicted[#evicted + 1] = id
+  end
+end
+
+redis.call('HSET', session_key, unpack(ARGV, 7))
+redis.call('EXPIRE', session_key, ttl)
+redis.call('ZADD', user_sessions_key, now, session_id)
+if redis.call('TTL', user_sessions_key) < ttl then
+  redis.call('EXPIRE', user_sessions_key, ttl)
+end
+redis.call('ZADD', expiry_key, expires_at, session_id)
+
+return evicted
@@ -0,0 +1,24 @@
+-- Remove up to ARGV[4] sessions whose expiry score is at or before ARGV[3],
+-- with their user index entries. Returns the number of index entries removed
+-- (fewer than ARGV[4] means nothing else is due) followed by flattened
+-- (session id, user id) pairs for the sessions whose data still existed.
+local expiry_key = KEYS[1]
+
+local session_prefix = ARGV[1]
+local user_sessions_prefix = ARGV[2]
+
+local due = redis.call('ZRANGEBYSCORE', expiry_key, '-inf', ARGV[3], 'LIMIT', 0, tonumber(ARGV[4]))
+local result = { tostring(#due) }
+for _, id in ipairs(due) do
+  local session_key = session_prefix .. id
+  local user_id = redis.call('HGET', session_key, 'userId')
+  if user_id then
+    redis.call('DEL', session_key)
+    redis.call('ZREM', user_sessions_prefix .. user_id, id)
+    result[#result + 1] = id
+    result[#result + 1] = user_id
+  end
+  redis.call('ZREM', expiry_key, id)
+end
+
+return result
@@ -0,0 +1,23 @@
+-- Remove the sessions ARGV[3..] together with their user and expiry index
+-- entries. Returns (session id, user id) pairs, flattened, for the sessions
+-- that still existed.
+local expiry_key = KEYS[1]
+
+local session_prefix = ARGV[1]
+local user_sessions_prefix = ARGV[2]
+
+local removed = {}
+for i = 3, #ARGV do
+  local id = ARGV[i]
+  local session_key = session_prefix .. id
+  local user_id = redis.call('HGET', session_key, 'userId')
+  if user_id then
+    redis.call('DEL', session_key)
+    redis.call('ZREM', user_sessions_prefix .. user_id, id)
+    removed[#removed + 1] = id
+    removed[#removed + 1] = user_id
+  end
+  redis.call('ZREM', expiry_key, id)
+end
+
+return removed
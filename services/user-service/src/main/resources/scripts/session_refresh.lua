@@ -0,0 +1,12 @@
+-- Replace the access token of an existing session whose refresh token is
+-- ARGV[1]; a session invalidated concurrently is not recreated. Returns the
+-- session's user id, or nil if the session is gone or the token differs.
+local session_key = KEYS[1]
+
+local fields = redis.call('HMGET', session_key, 'userId', 'refreshToken')
+if not fields[1] or fields[2] ~= ARGV[1] then
+  return nil
+end
+
+redis.call('HSET', session_key, 'jwtToken', ARGV[2], 'lastActivityAt', ARGV[3])
+return fields[1]
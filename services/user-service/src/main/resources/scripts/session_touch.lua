@@ -0,0 +1,29 @@
+-- Apply coalesced activity: ARGV[4..] are (session id, last activity millis)
+-- pairs. Sessions that no longer exist are skipped and an older timestamp
+-- never overwrites a newer one. With an idle timeout (ARGV[3] > 0) the expiry
+-- score becomes the earlier of the idle deadline and the session's absolute
+-- expiresAt. Returns the number of sessions updated.
+local expiry_key = KEYS[1]
+
+local session_prefix = ARGV[1]
+local user_sessions_prefix = ARGV[2]
+local idle_millis = tonumber(ARGV[3])
+
+local touched = 0
+for i = 4, #ARGV, 2 do
+  local id = ARGV[i]
+  local at = tonumber(ARGV[i + 1])
+  local session_key = session_prefix .. id
+  local fields = redis.call('HMGET', session_key, 'userId', 'expiresAt', 'lastActivityAt')
+  if fields[1] and at > tonumber(fields[3] or 0) then
+    redis.call('HSET', session_key, 'lastActivityAt', ARGV[i + 1])
+    redis.call('ZADD', user_sessions_prefix .. fields[1], ARGV[i + 1], id)
+    if idle_millis > 0 then
+      local expires_at = math.min(at + idle_millis, tonumber(fields[2]))
+      redis.call('ZADD', expiry_key, string.format('%d', expires_at), id)
+    end
+    touched = touched + 1
+  end
+end
+
+return touched
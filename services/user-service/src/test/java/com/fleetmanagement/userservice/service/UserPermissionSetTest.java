@@ -0,0 +1,98 @@
+package com.fleetmanagement.userservice.service;
+
+import com.fleetmanagement.userservice.domain.enums.PermissionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the compiled per-user permission bitmasks
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("User Permission Set Tests")
+class UserPermissionSetTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID companyId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Role defaults apply to every resource")
+    void roleDefaultsShouldApplyEverywhere() {
+        UserPermissionSet permissions = new UserPermissionSet.Builder(userId, companyId, false,
+                List.of(PermissionType.READ)).build();
+
+        assertThat(permissions.has("vehicles", PermissionType.READ)).isTrue();
+        assertThat(permissions.has("reports", PermissionType.READ)).isTrue();
+        assertThat(permissions.has("vehicles", PermissionType.WRITE)).isFalse();
+        assertThat(permissions.typesFor("anything")).containsExactly(PermissionType.READ);
+    }
+
+    @Test
+    @DisplayName("Explicit grants add to the role defaults on their resource only")
+    void grantsShouldApplyToTheirResource() {
+        UserPermissionSet permissions = new UserPermissionSet.Builder(userId, companyId, false,
+                List.of(PermissionType.READ))
+                .grant("vehicles", PermissionType.WRITE, null)
+                .grant("vehicles", PermissionType.DELETE, null)
+                .grant("reports", PermissionType.EXPORT, null)
+                .build();
+
+        assertThat(permissions.typesFor("vehicles"))
+                .containsExactlyInAnyOrder(PermissionType.READ, PermissionType.WRITE, PermissionType.DELETE);
+        assertThat(permissions.typesFor("reports")).containsExactlyInAnyOrder(PermissionType.READ, PermissionType.EXPORT);
+        assertThat(permissions.has("drivers", PermissionType.WRITE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("hasAll requires every permission in the mask")
+    void hasAllShouldRequireEveryBit() {
+        UserPermissionSet permissions = new UserPermissionSet.Builder(userId, companyId, false, null)
+                .grant("vehicles", PermissionType.READ, null)
+                .grant("vehicles", PermissionType.WRITE, null)
+                .build();
+
+        int readWrite = UserPermissionSet.mask(EnumSet.of(PermissionType.READ, PermissionType.WRITE));
+        int readWriteDelete = readWrite | UserPermissionSet.bit(PermissionType.DELETE);
+
+        assertThat(permissions.hasAll("vehicles", readWrite)).isTrue();
+        assertThat(permissions.hasAll("vehicles", readWriteDelete)).isFalse();
+        assertThat(permissions.hasAll("vehicles", 0)).isTrue();
+        assertThat(permissions.maskFor("drivers")).isZero();
+    }
+
+    @Test
+    @DisplayName("Super admins hold every permission on every resource")
+    void superAdminShouldHoldEverything() {
+        UserPermissionSet permissions = new UserPermissionSet.Builder(userId, companyId, true, List.of()).build();
+
+        assertThat(permissions.isSuperAdmin()).isTrue();
+        assertThat(permissions.typesFor("anything")).containsExactlyInAnyOrder(PermissionType.values());
+        assertThat(permissions.hasAll("anything", UserPermissionSet.mask(EnumSet.allOf(PermissionType.class)))).isTrue();
+    }
+
+    @Test
+    @DisplayName("The set is valid until the earliest grant expiry")
+    void validUntilShouldBeEarliestExpiry() {
+        LocalDateTime soon = LocalDateTime.now().plusHours(1);
+        LocalDateTime later = soon.plusDays(1);
+
+        UserPermissionSet permissions = new UserPermissionSet.Builder(userId, companyId, false, null)
+                .grant("vehicles", PermissionType.READ, later)
+                .grant("drivers", PermissionType.READ, null)
+                .grant("reports", PermissionType.READ, soon)
+                .build();
+
+        assertThat(permissions.getValidUntil()).isEqualTo(soon);
+        assertThat(new UserPermissionSet.Builder(userId, companyId, false, null)
+                .grant("vehicles", PermissionType.READ, null)
+                .build()
+                .getValidUntil()).isNull();
+    }
+}
@@ -0,0 +1,28 @@
+package com.fleetmanagement.vehicleservice.client;
+
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration of the company-service client only. Not a
+ * {@code @Configuration}, so component scanning does not pick it up and the
+ * service token is never sent to other services.
+ */
+public class CompanyServiceAuthConfig {
+
+    /**
+     * Identify this service on outgoing calls; with a service token configured,
+     * company-service accepts calls made without a user (quota lease syncs)
+     */
+    @Bean
+    public RequestInterceptor serviceAuthInterceptor(@Value("${spring.application.name:vehicle-service}") String serviceName,
+                                                     @Value("${app.integration.service-token:}") String serviceToken) {
+        return requestTemplate -> {
+            requestTemplate.header("X-Service-Name", serviceName);
+            if (!serviceToken.isEmpty()) {
+                requestTemplate.header("X-Service-Token", serviceToken);
+            }
+        };
+    }
+}
@@ -1,14 +1,18 @@
 package com.fleetmanagement.vehicleservice.client;
 
+import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @FeignClient(
         name = "company-service",
         path = "/api/companies",
-        fallback = CompanyServiceClientFallback.class
+        fallback = CompanyServiceClientFallback.class,
+        configuration = CompanyServiceAuthConfig.class
 )
 public interface CompanyServiceClient {
 
@@ -21,6 +25,16 @@ public interface CompanyServiceClient {
     @PostMapping("/{companyId}/vehicles/decrement")
     ResponseEntity<Void> decrementVehicleCount(@PathVariable UUID companyId);
 
+    @PostMapping("/{companyId}/vehicles/reserve")
+    ResponseEntity<VehicleApiResponse<VehicleSlotReservationResponse>> reserveVehicleSlots(@PathVariable UUID companyId,
+                                                                                            @RequestParam int count);
+
+    @PostMapping("/{companyId}/vehicles/release")
+    ResponseEntity<VehicleApiResponse<Void>> releaseVehicleSlots(@PathVariable UUID companyId, @RequestParam int count);
+
+    @PostMapping("/quota/leases")
+    ResponseEntity<VehicleApiResponse<List<QuotaLeaseResponse>>> syncQuotaLeases(@RequestBody QuotaLeaseBatchRequest request);
+
     @GetMapping("/{companyId}/validation")
     ResponseEntity<CompanyValidationResponse> validateCompanyLimits(@PathVariable UUID companyId);
 
@@ -32,6 +46,130 @@ public interface CompanyServiceClient {
 
     // ===== INNER DTO CLASSES =====
 
+    class QuotaLeaseBatchRequest {
+        private List<QuotaLeaseSyncRequest> leases;
+
+        public QuotaLeaseBatchRequest() {}
+
+        public QuotaLeaseBatchRequest(List<QuotaLeaseSyncRequest> leases) {
+            this.leases = leases;
+        }
+
+        public List<QuotaLeaseSyncRequest> getLeases() { return leases; }
+        public void setLeases(List<QuotaLeaseSyncRequest> leases) { this.leases = leases; }
+    }
+
+    class QuotaLeaseSyncRequest {
+        private UUID companyId;
+        private String resourceType;
+        private String holderId;
+        private long sequence;
+        private int consumed;
+        private int released;
+        private int desiredSlots;
+
+        public QuotaLeaseSyncRequest() {}
+
+        public UUID getCompanyId() { return companyId; }
+        public void setCompanyId(UUID companyId) { this.companyId = companyId; }
+
+        public String getResourceType() { return resourceType; }
+        public void setResourceType(String resourceType) { this.resourceType = resourceType; }
+
+        public String getHolderId() { return holderId; }
+        public void setHolderId(String holderId) { this.holderId = holderId; }
+
+        public long getSequence() { return sequence; }
+        public void setSequence(long sequence) { this.sequence = sequence; }
+
+        public int getConsumed() { return consumed; }
+        public void setConsumed(int consumed) { this.consumed = consumed; }
+
+        public int getReleased() { return released; }
+        public void setReleased(int released) { this.released = released; }
+
+        public int getDesiredSlots() { return desiredSlots; }
+        public void setDesiredSlots(int desiredSlots) { this.desiredSlots = desiredSlots; }
+    }
+
+    class QuotaLeaseResponse {
+        private UUID companyId;
+        private String resourceType;
+        private String holderId;
+        private long sequence;
+        private boolean applied;
+        private int leasedSlots;
+        private int currentCount;
+        private int maxCount;
+        private long leaseTtlSeconds;
+        private LocalDateTime expiresAt;
+        private String error;
+
+        public QuotaLeaseResponse() {}
+
+        public UUID getCompanyId() { return companyId; }
+        public void setCompanyId(UUID companyId) { this.companyId = companyId; }
+
+        public String getResourceType() { return resourceType; }
+        public void setResourceType(String resourceType) { this.resourceType = resourceType; }
+
+        public String getHolderId() { return holderId; }
+        public void setHolderId(String holderId) { this.holderId = holderId; }
+
+        public long getSequence() { return sequence; }
+        public void setSequence(long sequence) { this.sequence = sequence; }
+
+        public boolean isApplied() { return applied; }
+        public void setApplied(boolean applied) { this.applied = applied; }
+
+        public int getLeasedSlots() { return leasedSlots; }
+        public void setLeasedSlots(int leasedSlots) { this.leasedSlots = leasedSlots; }
+
+        public int getCurrentCount() { return currentCount; }
+        public void setCurrentCount(int currentCount) { this.currentCount = currentCount; }
+
+        public int getMaxCount() { return maxCount; }
+        public void setMaxCount(int maxCount) { this.maxCount = maxCount; }
+
+        public long getLeaseTtlSeconds() { return leaseTtlSeconds; }
+        public void setLeaseTtlSeconds(long leaseTtlSeconds) { this.leaseTtlSeconds = leaseTtlSeconds; }
+
+        public LocalDateTime getExpiresAt() { return expiresAt; }
+        public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+
+    class VehicleSlotReservationResponse {
+        private UUID companyId;
+        private int requested;
+        private int granted;
+        private int currentVehicles;
+        private int maxVehicles;
+        private String message;
+
+        public VehicleSlotReservationResponse() {}
+
+        public UUID getCompanyId() { return companyId; }
+        public void setCompanyId(UUID companyId) { this.companyId = companyId; }
+
+        public int getRequested() { return requested; }
+        public void setRequested(int requested) { this.requested = requested; }
+
+        public int getGranted() { return granted; }
+        public void setGranted(int granted) { this.granted = granted; }
+
+        public int getCurrentVehicles() { return currentVehicles; }
+        public void setCurrentVehicles(int currentVehicles) { this.currentVehicles = currentVehicles; }
+
+        public int getMaxVehicles() { return maxVehicles; }
+        public void setMaxVehicles(int maxVehicles) { this.maxVehicles = maxVehicles; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+
     class CanAddVehicleResponse {
         private boolean canAdd;
         private String reason;
@@ -1,10 +1,13 @@
 package com.fleetmanagement.vehicleservice.client;
 
 import com.fleetmanagement.vehicleservice.client.CompanyServiceClient.*;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import java.util.List;
 import java.util.UUID;
 
 @Component
@@ -38,6 +41,33 @@ public class CompanyServiceClientFallback implements CompanyServiceClient {
         return ResponseEntity.ok().build();
     }
 
+    @Override
+    public ResponseEntity<VehicleApiResponse<VehicleSlotReservationResponse>> reserveVehicleSlots(UUID companyId, int count) {
+        logger.warn("Company Service unavailable - no vehicle slots reserved for company: {}", companyId);
+
+        // Bulk imports must not exceed the subscription while limits cannot be checked
+        VehicleSlotReservationResponse fallbackResponse = new VehicleSlotReservationResponse();
+        fallbackResponse.setCompanyId(companyId);
+        fallbackResponse.setRequested(count);
+        fallbackResponse.setGranted(0);
+        fallbackResponse.setMessage("Company Service temporarily unavailable");
+
+        return ResponseEntity.ok(VehicleApiResponse.success(fallbackResponse));
+    }
+
+    @Override
+    public ResponseEntity<VehicleApiResponse<Void>> releaseVehicleSlots(UUID companyId, int count) {
+        logger.warn("Company Service unavailable - could not release {} vehicle slots for company: {}", count, companyId);
+        return ResponseEntity.ok().build();
+    }
+
+    @Override
+    public ResponseEntity<VehicleApiResponse<List<QuotaLeaseResponse>>> syncQuotaLeases(QuotaLeaseBatchRequest request) {
+        logger.warn("Company Service unavailable - quota leases not synced ({} companies)", request.getLeases().size());
+        // No body: callers keep their pending deltas and retry with the same sequence
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
     @Override
     public ResponseEntity<CompanyValidationResponse> validateCompanyLimits(UUID companyId) {
         logger.warn("Company Service unavailable - using fallback for company validation: {}", companyId);
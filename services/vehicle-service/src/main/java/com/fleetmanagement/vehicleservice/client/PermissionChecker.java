@@ -0,0 +1,88 @@
+package com.fleetmanagement.vehicleservice.client;
+
+import com.fleetmanagement.vehicleservice.client.PermissionServiceClient.*;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Permission Checker
+ *
+ * Authorizes many (user, resource, permission) tuples with one call to the
+ * user service per batch, e.g. a whole page of vehicles at once instead of
+ * one check per row. Checks that get no answer are denied.
+ */
+@Component
+public class PermissionChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionChecker.class);
+
+    private final PermissionServiceClient permissionServiceClient;
+
+    @Value("${app.permissions.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    public PermissionChecker(PermissionServiceClient permissionServiceClient) {
+        this.permissionServiceClient = permissionServiceClient;
+    }
+
+    /**
+     * Decisions in the order of the checks (bit i set = check i allowed)
+     */
+    public BitSet checkAll(List<PermissionCheck> checks) {
+        BitSet allowed = new BitSet(checks.size());
+        for (int offset = 0; offset < checks.size(); offset += batchSize) {
+            List<PermissionCheck> batch = checks.subList(offset, Math.min(offset + batchSize, checks.size()));
+            try {
+                ResponseEntity<VehicleApiResponse<List<PermissionCheckResult>>> response =
+                        permissionServiceClient.checkPermissions(new PermissionCheckBatchRequest(new ArrayList<>(batch)));
+                if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null
+                        || response.getBody().getData() == null) {
+                    logger.warn("Permission check batch of {} failed with status {}", batch.size(), response.getStatusCode());
+                    continue;
+                }
+                for (PermissionCheckResult result : response.getBody().getData()) {
+                    int index = result.getIndex();
+                    if (result.isAllowed() && index >= 0 && index < batch.size()) {
+                        allowed.set(offset + index);
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.error("Permission check batch of {} failed: {}", batch.size(), e.getMessage());
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * Keep only the items the user holds the permission on
+     */
+    public <T> List<T> filterAllowed(UUID userId, String permission, UUID companyId,
+                                     List<T> items, Function<T, String> resource) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        List<PermissionCheck> checks = new ArrayList<>(items.size());
+        for (T item : items) {
+            checks.add(new PermissionCheck(userId, resource.apply(item), permission, companyId));
+        }
+
+        BitSet allowed = checkAll(checks);
+        List<T> filtered = new ArrayList<>(allowed.cardinality());
+        for (int i = allowed.nextSetBit(0); i >= 0; i = allowed.nextSetBit(i + 1)) {
+            filtered.add(items.get(i));
+        }
+        return filtered;
+    }
+}
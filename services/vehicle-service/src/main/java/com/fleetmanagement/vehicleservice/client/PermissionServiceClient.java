@@ -0,0 +1,84 @@
+package com.fleetmanagement.vehicleservice.client;
+
+import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batch authorization against the user service's compiled permissions.
+ * Use {@link PermissionChecker} rather than calling this directly.
+ */
+@FeignClient(
+        name = "user-service",
+        path = "/api/permissions",
+        fallback = PermissionServiceClientFallback.class,
+        configuration = UserServiceAuthConfig.class
+)
+public interface PermissionServiceClient {
+
+    @PostMapping(value = "/check-batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<VehicleApiResponse<List<PermissionCheckResult>>> checkPermissions(@RequestBody PermissionCheckBatchRequest request);
+
+    class PermissionCheck {
+        private UUID userId;
+        private String resource;
+        private String permission;
+        private UUID companyId;
+
+        public PermissionCheck() {}
+
+        public PermissionCheck(UUID userId, String resource, String permission, UUID companyId) {
+            this.userId = userId;
+            this.resource = resource;
+            this.permission = permission;
+            this.companyId = companyId;
+        }
+
+        public UUID getUserId() { return userId; }
+        public void setUserId(UUID userId) { this.userId = userId; }
+        public String getResource() { return resource; }
+        public void setResource(String resource) { this.resource = resource; }
+        public String getPermission() { return permission; }
+        public void setPermission(String permission) { this.permission = permission; }
+        public UUID getCompanyId() { return companyId; }
+        public void setCompanyId(UUID companyId) { this.companyId = companyId; }
+    }
+
+    class PermissionCheckBatchRequest {
+        private List<PermissionCheck> checks;
+
+        public PermissionCheckBatchRequest() {}
+
+        public PermissionCheckBatchRequest(List<PermissionCheck> checks) {
+            this.checks = checks;
+        }
+
+        public List<PermissionCheck> getChecks() { return checks; }
+        public void setChecks(List<PermissionCheck> checks) { this.checks = checks; }
+    }
+
+    class PermissionCheckResult {
+        private int index;
+        private UUID userId;
+        private String resource;
+        private String permission;
+        private boolean allowed;
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+        public UUID getUserId() { return userId; }
+        public void setUserId(UUID userId) { this.userId = userId; }
+        public String getResource() { return resource; }
+        public void setResource(String resource) { this.resource = resource; }
+        public String getPermission() { return permission; }
+        public void setPermission(String permission) { this.permission = permission; }
+        public boolean isAllowed() { return allowed; }
+        public void setAllowed(boolean allowed) { this.allowed = allowed; }
+    }
+}
@@ -0,0 +1,25 @@
+package com.fleetmanagement.vehicleservice.client;
+
+import com.fleetmanagement.vehicleservice.client.PermissionServiceClient.*;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class PermissionServiceClientFallback implements PermissionServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionServiceClientFallback.class);
+
+    @Override
+    public ResponseEntity<VehicleApiResponse<List<PermissionCheckResult>>> checkPermissions(PermissionCheckBatchRequest request) {
+        // Fail closed: without an answer every check is denied
+        logger.warn("User Service unavailable - denying {} permission checks",
+                request.getChecks() != null ? request.getChecks().size() : 0);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+}
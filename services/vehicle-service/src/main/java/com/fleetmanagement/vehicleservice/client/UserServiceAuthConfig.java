@@ -0,0 +1,30 @@
+package com.fleetmanagement.vehicleservice.client;
+
+import feign.RequestInterceptor;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Feign configuration of the user-service clients. User-service authorizes
+ * driver and permission calls against the user on whose behalf they are
+ * made, so the incoming request's bearer token is passed on. Not a
+ * {@code @Configuration}, so component scanning does not pick it up.
+ */
+public class UserServiceAuthConfig {
+
+    @Bean
+    public RequestInterceptor userAuthInterceptor() {
+        return requestTemplate -> {
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                HttpServletRequest request = attributes.getRequest();
+                String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+                if (authorization != null) {
+                    requestTemplate.header(HttpHeaders.AUTHORIZATION, authorization);
+                }
+            }
+        };
+    }
+}
@@ -1,31 +1,71 @@
 package com.fleetmanagement.vehicleservice.client;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
+import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Driver lookups, validation and assignment notifications against the user
+ * service's driver API. Responses come in the user service's ApiResponse
+ * envelope; {@link #data} unwraps one.
+ */
+@FeignClient(
+        name = "user-service",
+        contextId = "userServiceClient",
+        path = "/api/drivers",
+        fallback = UserServiceClientFallback.class,
+        configuration = UserServiceAuthConfig.class
+)
 public interface UserServiceClient {
-    @GetMapping("/drivers/available")
-    List<DriverResponse> getAvailableDrivers(@RequestParam UUID companyId);
-
-    @GetMapping("/drivers/company/{companyId}")
-    List<DriverResponse> getCompanyDrivers(@PathVariable UUID companyId);
-
-
-    @GetMapping("/{userId}/validate-driver")
-    DriverValidationResponse validateDriver(@PathVariable UUID userId, @RequestParam UUID companyId);
-
-    // Add these missing methods to match the fallback implementation
-    @PostMapping("/{driverId}/assignments/notify")
-    void notifyDriverAssignment(@PathVariable UUID driverId, @RequestBody DriverAssignmentNotification notification);
-
-    @DeleteMapping("/{driverId}/assignments/{vehicleId}")
-    void notifyDriverUnassignment(@PathVariable UUID driverId, @PathVariable UUID vehicleId);
 
+    @GetMapping("/available")
+    ResponseEntity<VehicleApiResponse<List<DriverResponse>>> getAvailableDrivers(@RequestParam("companyId") UUID companyId);
+
+    @GetMapping("/company/{companyId}")
+    ResponseEntity<DriverPage> getCompanyDrivers(@PathVariable("companyId") UUID companyId,
+                                                 @RequestParam("page") int page,
+                                                 @RequestParam("size") int size);
+
+    @GetMapping("/{userId}/validate")
+    ResponseEntity<VehicleApiResponse<DriverValidationResponse>> validateDriver(@PathVariable("userId") UUID userId,
+                                                                              @RequestParam("companyId") UUID companyId);
+
+    @PostMapping("/validate-batch")
+    ResponseEntity<VehicleApiResponse<List<DriverValidationResponse>>> validateDrivers(@RequestParam("companyId") UUID companyId,
+                                                                                     @RequestBody List<UUID> userIds);
+
+    @PostMapping("/{userId}/assign-vehicle")
+    ResponseEntity<VehicleApiResponse<Void>> notifyDriverAssignment(@PathVariable("userId") UUID driverId,
+                                                                    @RequestBody DriverAssignmentNotification notification);
+
+    @PostMapping("/{userId}/unassign-vehicle")
+    ResponseEntity<VehicleApiResponse<Void>> notifyDriverUnassignment(@PathVariable("userId") UUID driverId,
+                                                                      @RequestParam("companyId") UUID companyId);
+
+    /**
+     * Payload of a successful response, or null if the call failed or carried none
+     */
+    static <T> T data(ResponseEntity<VehicleApiResponse<T>> response) {
+        if (response == null || !response.getStatusCode().is2xxSuccessful() || response.getBody() == null
+                || !response.getBody().isSuccess()) {
+            return null;
+        }
+        return response.getBody().getData();
+    }
 
+    class DriverPage {
+        private List<DriverResponse> content;
+        private long totalElements;
 
+        public List<DriverResponse> getContent() { return content; }
+        public void setContent(List<DriverResponse> content) { this.content = content; }
+        public long getTotalElements() { return totalElements; }
+        public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+    }
 
     class DriverResponse {
         private UUID id;
@@ -110,12 +150,16 @@ public interface UserServiceClient {
 
 
     class DriverValidationResponse {
+        private UUID userId;
         private boolean valid;
         private boolean available;
         private String message;
+        @JsonAlias("reason")
         private String unavailabilityReason;
         private List<String> validationErrors;
         // getters and setters ...
+        public UUID getUserId() { return userId; }
+        public void setUserId(UUID userId) { this.userId = userId; }
         public boolean isValid() { return valid; }
         public void setValid(boolean valid) { this.valid = valid; }
         public boolean isAvailable() { return available; }
@@ -1,10 +1,12 @@
 package com.fleetmanagement.vehicleservice.client;
 
+import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,37 +16,39 @@ public class UserServiceClientFallback implements UserServiceClient {
     private static final Logger logger = LoggerFactory.getLogger(UserServiceClientFallback.class);
 
     @Override
-    public List<DriverResponse> getAvailableDrivers(UUID companyId) {
+    public ResponseEntity<VehicleApiResponse<List<DriverResponse>>> getAvailableDrivers(UUID companyId) {
         logger.warn("Fallback: getAvailableDrivers called for company: {}", companyId);
-        return Collections.emptyList();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
 
     @Override
-    public List<DriverResponse> getCompanyDrivers(UUID companyId) {
+    public ResponseEntity<DriverPage> getCompanyDrivers(UUID companyId, int page, int size) {
         logger.warn("Fallback: getCompanyDrivers called for company: {}", companyId);
-        return Collections.emptyList();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
 
     @Override
-    public void notifyDriverAssignment(UUID driverId, DriverAssignmentNotification notification) {
+    public ResponseEntity<VehicleApiResponse<Void>> notifyDriverAssignment(UUID driverId, DriverAssignmentNotification notification) {
         logger.warn("Fallback: notifyDriverAssignment called for driver: {}", driverId);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
 
     @Override
-    public void notifyDriverUnassignment(UUID driverId, UUID vehicleId) {
-        logger.warn("Fallback: notifyDriverUnassignment called for driver: {} and vehicle: {}", driverId, vehicleId);
+    public ResponseEntity<VehicleApiResponse<Void>> notifyDriverUnassignment(UUID driverId, UUID companyId) {
+        logger.warn("Fallback: notifyDriverUnassignment called for driver: {} in company: {}", driverId, companyId);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
 
     @Override
-    public DriverValidationResponse validateDriver(UUID userId, UUID companyId) {
+    public ResponseEntity<VehicleApiResponse<DriverValidationResponse>> validateDriver(UUID userId, UUID companyId) {
+        // Fail closed: callers treat a missing validation as an invalid driver
         logger.warn("Fallback: validateDriver called for user: {} and company: {}", userId, companyId);
-        DriverValidationResponse response = new DriverValidationResponse();
-        response.setValid(false);
-        response.setAvailable(false);
-        response.setMessage("User service unavailable");
-        response.setUnavailabilityReason("Service temporarily unavailable");
-        return response;
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
 
-
-}
\ No newline at end of file
+    @Override
+    public ResponseEntity<VehicleApiResponse<List<DriverValidationResponse>>> validateDrivers(UUID companyId, List<UUID> userIds) {
+        logger.warn("Fallback: validateDrivers called for {} users in company: {}", userIds.size(), companyId);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.fleetmanagement.vehicleservice.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.Map;
+
+/**
+ * Kafka consumer configuration for analytics ingestion
+ *
+ * ClickHouse wants few large inserts, so the consumer waits for a sizeable
+ * fetch (fetch.min.bytes, bounded by fetch.max.wait.ms) and hands the whole
+ * poll to the listener, which writes it as one block. Offsets are committed
+ * only after the block is stored; a failed insert is retried with backoff for
+ * a bounded time, after which the block goes to the topic's dead-letter topic
+ * (suffix .DLT) so one poison block cannot stall its partition.
+ */
+@Configuration
+public class AnalyticsKafkaConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> analyticsBatchListenerFactory(
+            KafkaProperties kafkaProperties,
+            @Value("${app.analytics.ingest.concurrency:2}") int concurrency,
+            @Value("${app.analytics.ingest.max-poll-records:20000}") int maxPollRecords,
+            @Value("${app.analytics.ingest.fetch-min-bytes:1048576}") int fetchMinBytes,
+            @Value("${app.analytics.ingest.fetch-max-wait-ms:2000}") int fetchMaxWaitMs,
+            @Value("${app.analytics.ingest.retry.initial-interval-ms:1000}") long initialIntervalMillis,
+            @Value("${app.analytics.ingest.retry.max-interval-ms:60000}") long maxIntervalMillis,
+            @Value("${app.analytics.ingest.retry.max-elapsed-ms:900000}") long maxElapsedMillis) {
+
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        // Retry the same block; ClickHouse drops it as a duplicate if an earlier attempt landed
+        ExponentialBackOff backOff = new ExponentialBackOff(initialIntervalMillis, 2.0);
+        backOff.setMaxInterval(maxIntervalMillis);
+        backOff.setMaxElapsedTime(maxElapsedMillis);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(deadLetterRecoverer(kafkaProperties), backOff));
+
+        return factory;
+    }
+
+    /**
+     * Republishes failed records unchanged; the shared template would JSON-encode the raw values again
+     */
+    private static DeadLetterPublishingRecoverer deadLetterRecoverer(KafkaProperties kafkaProperties) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+        return new DeadLetterPublishingRecoverer(template,
+                (record, exception) -> new TopicPartition(record.topic() + ".DLT", -1));
+    }
+}
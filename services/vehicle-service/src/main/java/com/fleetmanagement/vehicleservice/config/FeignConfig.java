@@ -32,4 +32,4 @@ public class FeignConfig {
                 3      // maxAttempts
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package com.fleetmanagement.vehicleservice.controller;
+
+import com.fleetmanagement.vehicleservice.dto.response.FleetUtilizationResponse;
+import com.fleetmanagement.vehicleservice.dto.response.UsagePeriodResponse;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
+import com.fleetmanagement.vehicleservice.service.FleetAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/vehicles/analytics")
+@Tag(name = "Fleet Analytics", description = "Fleet utilization reports from the analytics store")
+@Validated
+public class FleetAnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetAnalyticsController.class);
+
+    private final FleetAnalyticsService analyticsService;
+
+    @Autowired
+    public FleetAnalyticsController(FleetAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * Utilization of every vehicle of the company over a range of days
+     */
+    @GetMapping("/utilization")
+    @Operation(summary = "Get fleet utilization", description = "Trips, distance, driving and idle time per vehicle and per day (UTC days, inclusive)")
+    @ApiResponse(responseCode = "200", description = "Report generated successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid report range")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<VehicleApiResponse<FleetUtilizationResponse>> getFleetUtilization(
+            @Parameter(description = "First day of the report") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day of the report") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+        logger.debug("Fleet utilization request for company {} from {} to {}", companyId, from, to);
+
+        FleetUtilizationResponse report = analyticsService.getFleetUtilization(companyId, from, to);
+
+        VehicleApiResponse<FleetUtilizationResponse> response = VehicleApiResponse.<FleetUtilizationResponse>builder()
+                .success(true)
+                .data(report)
+                .message("Fleet utilization retrieved successfully")
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Usage of one vehicle per hour or per day
+     */
+    @GetMapping("/vehicles/{vehicleId}/usage")
+    @Operation(summary = "Get vehicle usage", description = "Trips, distance, driving and idle time of a vehicle per hour or day (UTC)")
+    @ApiResponse(responseCode = "200", description = "Usage retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid report range")
+    @ApiResponse(responseCode = "404", description = "Vehicle not found")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<VehicleApiResponse<List<UsagePeriodResponse>>> getVehicleUsage(
+            @PathVariable UUID vehicleId,
+            @Parameter(description = "First day of the report") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day of the report") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "HOUR or DAY") @RequestParam(defaultValue = "DAY") FleetAnalyticsService.Granularity granularity,
+            Authentication authentication) {
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+        logger.debug("Usage request for vehicle {} from {} to {} by {}", vehicleId, from, to, granularity);
+
+        List<UsagePeriodResponse> usage = analyticsService.getVehicleUsage(companyId, vehicleId, from, to, granularity);
+
+        VehicleApiResponse<List<UsagePeriodResponse>> response = VehicleApiResponse.<List<UsagePeriodResponse>>builder()
+                .success(true)
+                .data(usage)
+                .message("Vehicle usage retrieved successfully")
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    private UUID getCompanyIdFromAuth(Authentication authentication) {
+        // Extract company ID from JWT token details
+        return UUID.fromString(authentication.getDetails().toString());
+    }
+}
@@ -1,6 +1,8 @@
 package com.fleetmanagement.vehicleservice.controller;
 
 import com.fleetmanagement.vehicleservice.dto.request.AssignDriverRequest;
+import com.fleetmanagement.vehicleservice.dto.request.BulkAssignDriverRequest;
+import com.fleetmanagement.vehicleservice.dto.response.BulkAssignmentResponse;
 import com.fleetmanagement.vehicleservice.dto.response.VehicleAssignmentResponse;
 import com.fleetmanagement.vehicleservice.service.VehicleAssignmentService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -66,6 +68,35 @@ public class VehicleAssignmentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(apiResponse);
     }
 
+    /**
+     * Assign a shift roster of drivers to vehicles
+     */
+    @PostMapping("/bulk")
+    @Operation(summary = "Bulk assign drivers", description = "Create a roster of driver-vehicle assignments with one-pass conflict detection")
+    @ApiResponse(responseCode = "201", description = "Roster processed")
+    @ApiResponse(responseCode = "400", description = "Invalid roster data")
+    @ApiResponse(responseCode = "409", description = "Roster rejected (all-or-nothing mode)")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER')")
+    public ResponseEntity<VehicleApiResponse<BulkAssignmentResponse>> bulkAssignDrivers(
+            @Valid @RequestBody BulkAssignDriverRequest request,
+            Authentication authentication) {
+
+        logger.info("Bulk assign request with {} assignments", request.getAssignments().size());
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+        UUID assignedBy = getUserIdFromAuth(authentication);
+
+        BulkAssignmentResponse response = assignmentService.bulkAssignDrivers(request, companyId, assignedBy);
+
+        VehicleApiResponse<BulkAssignmentResponse> apiResponse = VehicleApiResponse.<BulkAssignmentResponse>builder()
+                .success(response.getFailed() == 0)
+                .data(response)
+                .message(response.getCreated() + " of " + response.getTotalRequested() + " assignments created")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(apiResponse);
+    }
+
     /**
      * Get assignments for a specific driver
      */
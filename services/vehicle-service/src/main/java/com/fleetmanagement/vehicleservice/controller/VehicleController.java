@@ -2,12 +2,18 @@ package com.fleetmanagement.vehicleservice.controller;
 
 import com.fleetmanagement.vehicleservice.client.UserServiceClient;
 import com.fleetmanagement.vehicleservice.client.UserServiceClient.DriverResponse;
+import com.fleetmanagement.vehicleservice.dto.request.BulkVehicleRequest;
 import com.fleetmanagement.vehicleservice.dto.request.CreateVehicleRequest;
+import com.fleetmanagement.vehicleservice.dto.request.MileageIncrementRequest;
 import com.fleetmanagement.vehicleservice.dto.request.UpdateVehicleRequest;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleDueItemResponse;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleImportStatusResponse;
 import com.fleetmanagement.vehicleservice.dto.response.VehicleResponse;
 import com.fleetmanagement.vehicleservice.dto.response.VehicleStatisticsResponse;
 import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import com.fleetmanagement.vehicleservice.service.VehicleDueDateService;
+import com.fleetmanagement.vehicleservice.service.VehicleImportService;
 import com.fleetmanagement.vehicleservice.service.VehicleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,13 +27,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.UUID;
 
@@ -39,13 +51,21 @@ public class VehicleController {
 
     private static final Logger logger = LoggerFactory.getLogger(VehicleController.class);
 
+    // Upper bound for the driver picker; user-service pages its driver list
+    private static final int MAX_COMPANY_DRIVERS = 1000;
+
     private final VehicleService vehicleService;
     private final UserServiceClient userServiceClient;
+    private final VehicleDueDateService dueDateService;
+    private final VehicleImportService vehicleImportService;
 
     @Autowired
-    public VehicleController(VehicleService vehicleService, UserServiceClient userServiceClient) {
+    public VehicleController(VehicleService vehicleService, UserServiceClient userServiceClient,
+                             VehicleDueDateService dueDateService, VehicleImportService vehicleImportService) {
         this.vehicleService = vehicleService;
         this.userServiceClient = userServiceClient;
+        this.dueDateService = dueDateService;
+        this.vehicleImportService = vehicleImportService;
     }
 
     /**
@@ -77,6 +97,136 @@ public class VehicleController {
         return ResponseEntity.status(HttpStatus.CREATED).body(apiResponse);
     }
 
+    /**
+     * Create many vehicles at once from a JSON list
+     */
+    @PostMapping("/bulk")
+    @Operation(summary = "Bulk create vehicles", description = "Create up to the bulk operation limit of vehicles in one request; invalid rows are reported individually")
+    @ApiResponse(responseCode = "200", description = "Bulk creation processed")
+    @ApiResponse(responseCode = "400", description = "Request exceeds the bulk operation limit")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER')")
+    public ResponseEntity<VehicleApiResponse<VehicleImportStatusResponse>> bulkCreateVehicles(
+            @Valid @RequestBody BulkVehicleRequest request,
+            Authentication authentication) {
+
+        logger.info("Bulk create request for {} vehicles by user: {}", request.getVehicles().size(), authentication.getName());
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+        UUID createdBy = getUserIdFromAuth(authentication);
+
+        VehicleImportStatusResponse result = vehicleImportService.importVehicles(request, companyId, createdBy);
+
+        VehicleApiResponse<VehicleImportStatusResponse> response = VehicleApiResponse.<VehicleImportStatusResponse>builder()
+                .success(result.getCreatedRows() > 0 || result.getFailedRows() == 0)
+                .data(result)
+                .message(result.getMessage())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Apply mileage driven since the last push (bridge service; internal path, not exposed by the gateway)
+     */
+    @PostMapping("/mileage/increments")
+    @Operation(summary = "Increment vehicle mileage", description = "Add kilometers driven to many vehicles in one batch")
+    @ApiResponse(responseCode = "200", description = "Mileage updated")
+    public ResponseEntity<VehicleApiResponse<Integer>> incrementMileage(
+            @RequestHeader("Idempotency-Key") UUID batchId,
+            @RequestBody List<@Valid MileageIncrementRequest> increments) {
+
+        logger.debug("Mileage batch {} for {} vehicles", batchId, increments.size());
+
+        int updated = vehicleService.applyMileageIncrements(batchId, increments);
+
+        VehicleApiResponse<Integer> response = VehicleApiResponse.<Integer>builder()
+                .success(true)
+                .data(updated)
+                .message("Mileage updated for " + updated + " vehicles")
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Start a background import of a CSV or NDJSON vehicle file
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import vehicles", description = "Upload a CSV (with header row) or NDJSON file of vehicles; progress is polled through the returned job ID")
+    @ApiResponse(responseCode = "202", description = "Import accepted")
+    @ApiResponse(responseCode = "400", description = "Unsupported format or an import is already running")
+    @ApiResponse(responseCode = "503", description = "Too many imports queued")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER')")
+    public ResponseEntity<VehicleApiResponse<VehicleImportStatusResponse>> importVehicles(
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "csv or ndjson; detected from the file name when omitted") @RequestParam(required = false) String format,
+            Authentication authentication) {
+
+        logger.info("Vehicle import request for file: {} by user: {}", file.getOriginalFilename(), authentication.getName());
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+        UUID createdBy = getUserIdFromAuth(authentication);
+
+        VehicleImportStatusResponse status = vehicleImportService.submitImport(file, format, companyId, createdBy);
+
+        VehicleApiResponse<VehicleImportStatusResponse> response = VehicleApiResponse.<VehicleImportStatusResponse>builder()
+                .success(true)
+                .data(status)
+                .message("Vehicle import accepted")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * Get progress of a vehicle import
+     */
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Get import status", description = "Get progress and row counts of a vehicle import job")
+    @ApiResponse(responseCode = "200", description = "Import status retrieved successfully")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER')")
+    public ResponseEntity<VehicleApiResponse<VehicleImportStatusResponse>> getImportStatus(
+            @PathVariable UUID jobId,
+            Authentication authentication) {
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+
+        VehicleImportStatusResponse status = vehicleImportService.getJobStatus(jobId, companyId);
+
+        VehicleApiResponse<VehicleImportStatusResponse> response = VehicleApiResponse.<VehicleImportStatusResponse>builder()
+                .success(true)
+                .data(status)
+                .message("Import status retrieved successfully")
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Download the rejected rows of a finished vehicle import
+     */
+    @GetMapping(value = "/import/{jobId}/errors", produces = "text/csv")
+    @Operation(summary = "Get import errors", description = "Download a CSV of the rows rejected by a finished import job")
+    @ApiResponse(responseCode = "200", description = "Error file returned")
+    @ApiResponse(responseCode = "204", description = "No rows were rejected")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER')")
+    public ResponseEntity<Resource> getImportErrors(
+            @PathVariable UUID jobId,
+            Authentication authentication) {
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+
+        Path errorFile = vehicleImportService.getErrorFile(jobId, companyId);
+        if (errorFile == null) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"vehicle-import-" + jobId + "-errors.csv\"")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(new FileSystemResource(errorFile));
+    }
+
     /**
      * Get all vehicles for company with pagination
      */
@@ -209,7 +359,10 @@ public class VehicleController {
         UUID companyId = getCompanyIdFromAuth(authentication);
 
         // Get available drivers from User Service
-        List<DriverResponse> drivers = userServiceClient.getCompanyDrivers(companyId);
+        List<DriverResponse> drivers = UserServiceClient.data(userServiceClient.getAvailableDrivers(companyId));
+        if (drivers == null) {
+            drivers = List.of();
+        }
 
 
         VehicleApiResponse<List<DriverResponse>> response = VehicleApiResponse.<List<DriverResponse>>builder()
@@ -221,6 +374,32 @@ public class VehicleController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get service, insurance, registration and document items due soon
+     */
+    @GetMapping("/due")
+    @Operation(summary = "Get due items", description = "Get maintenance and compliance items due within the next N days, overdue items included")
+    @ApiResponse(responseCode = "200", description = "Due items retrieved successfully")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<VehicleApiResponse<List<VehicleDueItemResponse>>> getDueItems(
+            @Parameter(description = "Look-ahead window in days") @RequestParam(defaultValue = "30") int days,
+            Authentication authentication) {
+
+        logger.debug("Get items due within {} days", days);
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+
+        List<VehicleDueItemResponse> items = dueDateService.getDueItems(companyId, Math.max(days, 0));
+
+        VehicleApiResponse<List<VehicleDueItemResponse>> response = VehicleApiResponse.<List<VehicleDueItemResponse>>builder()
+                .success(true)
+                .data(items)
+                .message("Due items retrieved successfully")
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get vehicle statistics for company
      */
@@ -246,6 +425,36 @@ public class VehicleController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get vehicle statistics for a given company (company dashboard aggregation)
+     */
+    @GetMapping("/company/{companyId}/statistics")
+    @Operation(summary = "Get company vehicle statistics", description = "Get vehicle statistics for a specific company")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @PreAuthorize("hasRole('SUPER_ADMIN') or hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<VehicleApiResponse<VehicleStatisticsResponse>> getCompanyVehicleStatistics(
+            @PathVariable UUID companyId,
+            Authentication authentication) {
+
+        logger.debug("Get vehicle statistics for company: {}", companyId);
+
+        boolean superAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_SUPER_ADMIN"));
+        if (!superAdmin && !companyId.equals(getCompanyIdFromAuth(authentication))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        VehicleStatisticsResponse statistics = vehicleService.getVehicleStatistics(companyId);
+
+        VehicleApiResponse<VehicleStatisticsResponse> response = VehicleApiResponse.<VehicleStatisticsResponse>builder()
+                .success(true)
+                .data(statistics)
+                .message("Vehicle statistics retrieved successfully")
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Search vehicles with filters
      */
@@ -291,7 +500,10 @@ public class VehicleController {
 
         UUID companyId = getCompanyIdFromAuth(authentication);
 
-        List<DriverResponse> drivers = userServiceClient.getCompanyDrivers(companyId);
+        ResponseEntity<UserServiceClient.DriverPage> page =
+                userServiceClient.getCompanyDrivers(companyId, 0, MAX_COMPANY_DRIVERS);
+        List<DriverResponse> drivers = page.getStatusCode().is2xxSuccessful() && page.getBody() != null
+                && page.getBody().getContent() != null ? page.getBody().getContent() : List.of();
 
 
         VehicleApiResponse<List<DriverResponse>> response = VehicleApiResponse.<List<DriverResponse>>builder()
@@ -21,6 +21,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -210,6 +211,95 @@ public class VehicleGroupController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Get complete group hierarchy
+     */
+    @GetMapping("/hierarchy")
+    @Operation(summary = "Get group hierarchy", description = "Retrieve all groups with their level in the hierarchy")
+    @ApiResponse(responseCode = "200", description = "Group hierarchy retrieved successfully")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<VehicleApiResponse<List<VehicleGroupHierarchyResponse>>> getGroupHierarchy(
+            Authentication authentication) {
+
+        logger.debug("Get group hierarchy request");
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+
+        List<VehicleGroupHierarchyResponse> hierarchy = vehicleGroupService.getGroupHierarchy(companyId);
+
+        VehicleApiResponse<List<VehicleGroupHierarchyResponse>> response = VehicleApiResponse.success(hierarchy);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get group statistics
+     */
+    @GetMapping("/statistics")
+    @Operation(summary = "Get group statistics", description = "Retrieve group counts, depth and vehicle rollups")
+    @ApiResponse(responseCode = "200", description = "Group statistics retrieved successfully")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER')")
+    public ResponseEntity<VehicleApiResponse<VehicleGroupStatisticsResponse>> getGroupStatistics(
+            Authentication authentication) {
+
+        logger.debug("Get group statistics request");
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+
+        VehicleGroupStatisticsResponse statistics = vehicleGroupService.getGroupStatistics(companyId);
+
+        VehicleApiResponse<VehicleGroupStatisticsResponse> response = VehicleApiResponse.success(statistics);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get vehicles in a group
+     */
+    @GetMapping("/{groupId}/vehicles")
+    @Operation(summary = "Get group vehicles", description = "Retrieve vehicle IDs in a group, optionally including all descendant groups")
+    @ApiResponse(responseCode = "200", description = "Group vehicles retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Vehicle group not found")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<VehicleApiResponse<Set<UUID>>> getGroupVehicles(
+            @PathVariable @Parameter(description = "Vehicle group ID") UUID groupId,
+            @RequestParam(defaultValue = "true") @Parameter(description = "Include descendant groups") boolean recursive,
+            Authentication authentication) {
+
+        logger.debug("Get vehicles request for group: {} (recursive: {})", groupId, recursive);
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+
+        Set<UUID> vehicleIds = vehicleGroupService.getVehicleIdsInGroup(groupId, companyId, recursive);
+
+        VehicleApiResponse<Set<UUID>> response = VehicleApiResponse.success(vehicleIds);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get all descendant groups of a group
+     */
+    @GetMapping("/{groupId}/descendants")
+    @Operation(summary = "Get descendant groups", description = "Retrieve IDs of all groups below a group")
+    @ApiResponse(responseCode = "200", description = "Descendant groups retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Vehicle group not found")
+    @PreAuthorize("hasRole('COMPANY_ADMIN') or hasRole('FLEET_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<VehicleApiResponse<List<UUID>>> getDescendantGroups(
+            @PathVariable @Parameter(description = "Vehicle group ID") UUID groupId,
+            Authentication authentication) {
+
+        logger.debug("Get descendant groups request for group: {}", groupId);
+
+        UUID companyId = getCompanyIdFromAuth(authentication);
+
+        List<UUID> descendantIds = vehicleGroupService.getDescendantGroupIds(groupId, companyId);
+
+        VehicleApiResponse<List<UUID>> response = VehicleApiResponse.success(descendantIds);
+
+        return ResponseEntity.ok(response);
+    }
     private UUID getCompanyIdFromAuth(Authentication authentication) {
         if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
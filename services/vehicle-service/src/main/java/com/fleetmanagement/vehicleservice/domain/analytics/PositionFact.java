@@ -0,0 +1,31 @@
+package com.fleetmanagement.vehicleservice.domain.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One device position, a row of the ClickHouse device_positions table
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionFact {
+
+    private UUID companyId;
+    private UUID deviceId;
+    private Instant fixTime;
+
+    private double latitude;
+    private double longitude;
+    private double speedKmh;
+    private double course;
+    private Double altitude;
+    private Boolean ignition;
+    private Double odometerMeters;
+}
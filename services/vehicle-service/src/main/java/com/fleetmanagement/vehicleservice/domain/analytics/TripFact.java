@@ -0,0 +1,37 @@
+package com.fleetmanagement.vehicleservice.domain.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One completed trip, a row of the ClickHouse trips table
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripFact {
+
+    private String eventId;
+    private UUID companyId;
+    private UUID vehicleId; // null when the device had no vehicle
+    private UUID deviceId;
+
+    private Instant startTime;
+    private Instant endTime;
+    private double distanceMeters;
+    private long tripSeconds;
+    private long idleSeconds;
+    private double maxSpeedKmh;
+
+    private double startLatitude;
+    private double startLongitude;
+    private double endLatitude;
+    private double endLongitude;
+    private String endReason;
+}
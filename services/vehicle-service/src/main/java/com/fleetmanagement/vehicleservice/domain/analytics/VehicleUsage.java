@@ -0,0 +1,21 @@
+package com.fleetmanagement.vehicleservice.domain.analytics;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Trip totals of one vehicle, or of the fleet, over one period
+ *
+ * @param periodStart start of the hour or day, null for a whole report range
+ * @param vehicles    distinct vehicles contributing to the totals
+ */
+public record VehicleUsage(UUID vehicleId,
+                           Instant periodStart,
+                           long vehicles,
+                           long trips,
+                           double distanceMeters,
+                           long tripSeconds,
+                           long idleSeconds,
+                           double maxSpeedKmh,
+                           long activeDays) {
+}
@@ -0,0 +1,37 @@
+package com.fleetmanagement.vehicleservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mileage Batch Entity
+ *
+ * Id of a mileage batch pushed by the bridge, recorded in the transaction
+ * that applies it so a resent batch is recognised and not applied twice.
+ * Rows are written by VehicleBatchRepository and purged after a retention
+ * period far longer than the bridge keeps retrying.
+ */
+@Entity
+@Table(name = "mileage_batches",
+        indexes = {
+                @Index(name = "idx_mileage_batches_applied_at", columnList = "applied_at")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MileageBatch {
+
+    @Id
+    @Column(updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,32 @@
+package com.fleetmanagement.vehicleservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scheduled Job Run Entity
+ *
+ * Marks a run of a cluster-wide scheduled job, keyed by job name and run
+ * date, so only the first vehicle-service instance to claim a run does the
+ * work. Claimed by ScheduledJobRunRepository.
+ */
+@Entity
+@Table(name = "scheduled_job_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduledJobRun {
+
+    @Id
+    @Column(name = "run_key", length = 100, updatable = false, nullable = false)
+    private String runKey;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+}
@@ -0,0 +1,67 @@
+package com.fleetmanagement.vehicleservice.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.util.UUID;
+
+/**
+ * Vehicle Group Closure Entity
+ *
+ * Closure table for the vehicle group hierarchy. Holds one row for every
+ * (ancestor, descendant) pair including the self-path at depth 0, so subtree
+ * and ancestor lookups are a single indexed join instead of a recursive query.
+ * Rows are maintained by VehicleGroupHierarchyService on group create/move/delete.
+ */
+@Entity
+@Table(name = "vehicle_group_closure",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_vehicle_group_closure_path",
+                        columnNames = {"ancestor_id", "descendant_id"})
+        },
+        indexes = {
+                @Index(name = "idx_group_closure_ancestor", columnList = "ancestor_id, depth"),
+                @Index(name = "idx_group_closure_descendant", columnList = "descendant_id"),
+                @Index(name = "idx_group_closure_company", columnList = "company_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VehicleGroupClosure {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @Column(updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    @NotNull(message = "Company ID is required")
+    private UUID companyId;
+
+    @Column(name = "ancestor_id", nullable = false)
+    @NotNull(message = "Ancestor group ID is required")
+    private UUID ancestorId;
+
+    @Column(name = "descendant_id", nullable = false)
+    @NotNull(message = "Descendant group ID is required")
+    private UUID descendantId;
+
+    @Column(nullable = false)
+    @Min(value = 0, message = "Depth must be non-negative")
+    private Integer depth;
+
+    /**
+     * Check if this row is the self-path of a group
+     */
+    public boolean isSelfPath() {
+        return depth != null && depth == 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.fleetmanagement.vehicleservice.domain.enums;
+
+/**
+ * Due Item Type Enum
+ * Represents the kinds of dated obligations tracked for a vehicle
+ */
+public enum DueItemType {
+    SERVICE_DATE("Service (date)", "Scheduled service by calendar date"),
+    SERVICE_MILEAGE("Service (mileage)", "Scheduled service by projected mileage"),
+    INSURANCE_EXPIRY("Insurance expiry", "Vehicle insurance expires"),
+    REGISTRATION_EXPIRY("Registration expiry", "Vehicle registration expires"),
+    DOCUMENT_EXPIRY("Document expiry", "Vehicle document expires");
+
+    private final String displayName;
+    private final String description;
+
+    DueItemType(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,33 @@
+package com.fleetmanagement.vehicleservice.domain.enums;
+
+/**
+ * Vehicle Import Status Enum
+ * Represents the lifecycle of a bulk vehicle import job
+ */
+public enum VehicleImportStatus {
+    QUEUED("Queued", "Import accepted and waiting for a worker"),
+    RUNNING("Running", "Rows are being validated and inserted"),
+    COMPLETED("Completed", "All rows were imported"),
+    COMPLETED_WITH_ERRORS("Completed with errors", "Import finished but some rows were rejected"),
+    FAILED("Failed", "Import aborted before all rows were processed");
+
+    private final String displayName;
+    private final String description;
+
+    VehicleImportStatus(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == COMPLETED_WITH_ERRORS || this == FAILED;
+    }
+}
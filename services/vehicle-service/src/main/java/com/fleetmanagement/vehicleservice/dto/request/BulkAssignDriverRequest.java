@@ -0,0 +1,31 @@
+package com.fleetmanagement.vehicleservice.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+
+/**
+ * Bulk Assign Driver Request DTO
+ *
+ * A shift roster of driver-vehicle assignments created in one pass.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAssignDriverRequest {
+
+    @NotEmpty(message = "At least one assignment is required")
+    private List<@Valid AssignDriverRequest> assignments;
+
+    /**
+     * Reject the whole roster if any assignment fails validation
+     */
+    @Builder.Default
+    private boolean allOrNothing = false;
+}
@@ -0,0 +1,26 @@
+package com.fleetmanagement.vehicleservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Bulk Vehicle Request DTO
+ *
+ * Rows are validated one by one during import, so an invalid row is reported
+ * in the result instead of rejecting the whole request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkVehicleRequest {
+
+    @NotEmpty(message = "At least one vehicle is required")
+    private List<CreateVehicleRequest> vehicles;
+}
@@ -0,0 +1,32 @@
+package com.fleetmanagement.vehicleservice.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Mileage Increment Request DTO
+ *
+ * Kilometers a vehicle was driven since the bridge's last mileage push
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MileageIncrementRequest {
+
+    @NotNull(message = "Vehicle ID is required")
+    private UUID vehicleId;
+
+    @NotNull(message = "Company ID is required")
+    private UUID companyId;
+
+    @NotNull(message = "Kilometers are required")
+    @Min(value = 1, message = "Kilometers must be positive")
+    private Integer kilometers;
+}
@@ -0,0 +1,45 @@
+package com.fleetmanagement.vehicleservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk Assignment Response DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkAssignmentResponse {
+
+    private int totalRequested;
+
+    private int created;
+
+    private int failed;
+
+    private List<VehicleAssignmentResponse> assignments;
+
+    private List<ItemError> errors;
+
+    /**
+     * Rejected roster entry, identified by its position in the request
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+        private int index;
+        private UUID vehicleId;
+        private UUID driverId;
+        private String message;
+    }
+}
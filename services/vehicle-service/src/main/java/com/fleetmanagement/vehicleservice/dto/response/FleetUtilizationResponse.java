@@ -0,0 +1,48 @@
+package com.fleetmanagement.vehicleservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fleet Utilization Response DTO
+ *
+ * Utilization report of a company's fleet over whole days (UTC)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetUtilizationResponse {
+
+    private UUID companyId;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    // Fleet totals
+    private int totalVehicles;
+
+    private int activeVehicles;
+
+    private long totalTrips;
+
+    private double totalDistanceKm;
+
+    private double totalDrivingHours;
+
+    private double totalIdleHours;
+
+    private double averageUtilizationPercent;
+
+    // Breakdown
+    private List<VehicleUtilizationResponse> vehicles;
+
+    private List<UsagePeriodResponse> daily;
+}
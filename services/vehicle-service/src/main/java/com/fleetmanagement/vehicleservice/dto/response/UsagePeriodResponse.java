@@ -0,0 +1,34 @@
+package com.fleetmanagement.vehicleservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Usage Period Response DTO
+ *
+ * Trip totals of one vehicle or of the fleet within one hour or day
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsagePeriodResponse {
+
+    private Instant periodStart;
+
+    private long activeVehicles;
+
+    private long trips;
+
+    private double distanceKm;
+
+    private double drivingHours;
+
+    private double idleHours;
+
+    private double maxSpeedKmh;
+}
@@ -0,0 +1,46 @@
+package com.fleetmanagement.vehicleservice.dto.response;
+
+import com.fleetmanagement.vehicleservice.domain.enums.DueItemType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Vehicle Due Item Response DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VehicleDueItemResponse {
+
+    private UUID vehicleId;
+
+    private UUID companyId;
+
+    private String vehicleName;
+
+    private String licensePlate;
+
+    private DueItemType type;
+
+    private UUID documentId;
+
+    private String description;
+
+    private LocalDate dueDate;
+
+    private long daysUntilDue;
+
+    private boolean overdue;
+
+    private Integer dueMileage;
+
+    private Integer currentMileage;
+}
@@ -0,0 +1,68 @@
+package com.fleetmanagement.vehicleservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fleetmanagement.vehicleservice.domain.enums.VehicleImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Vehicle Import Status Response DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VehicleImportStatusResponse {
+
+    private UUID jobId;
+
+    private UUID companyId;
+
+    private VehicleImportStatus status;
+
+    private String format;
+
+    private String fileName;
+
+    private int processedRows;
+
+    private int createdRows;
+
+    private int failedRows;
+
+    private Integer percentComplete;
+
+    private boolean errorFileAvailable;
+
+    private String message;
+
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    // Only filled for synchronous bulk requests; file imports expose the error file instead
+    private List<RowError> errors;
+
+    /**
+     * Rejected import row, identified by its 1-based position in the input
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String licensePlate;
+        private String vin;
+        private String message;
+    }
+}
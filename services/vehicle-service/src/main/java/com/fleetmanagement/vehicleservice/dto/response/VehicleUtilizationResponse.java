@@ -0,0 +1,41 @@
+package com.fleetmanagement.vehicleservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Vehicle Utilization Response DTO
+ *
+ * Trip totals of one vehicle over a report range
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleUtilizationResponse {
+
+    private UUID vehicleId;
+
+    private String name;
+
+    private String licensePlate;
+
+    private long trips;
+
+    private double distanceKm;
+
+    private double drivingHours;
+
+    private double idleHours;
+
+    private double maxSpeedKmh;
+
+    private long activeDays;
+
+    // Share of the range spent on trips
+    private double utilizationPercent;
+}
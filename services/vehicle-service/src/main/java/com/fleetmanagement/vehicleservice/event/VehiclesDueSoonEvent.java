@@ -0,0 +1,33 @@
+package com.fleetmanagement.vehicleservice.event;
+
+import com.fleetmanagement.vehicleservice.dto.response.VehicleDueItemResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Vehicles Due Soon Event
+ *
+ * One message per company carrying every service, insurance, registration
+ * and document item due within the scan window.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehiclesDueSoonEvent {
+
+    private UUID eventId;
+    private String eventType;
+    private UUID companyId;
+    private LocalDate windowEnd;
+    private int itemCount;
+    private List<VehicleDueItemResponse> items;
+    private LocalDateTime timestamp;
+}
@@ -11,7 +11,9 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -70,6 +72,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    @ExceptionHandler(AssignmentConflictException.class)
+    public ResponseEntity<VehicleApiResponse<List<String>>> handleAssignmentConflicts(AssignmentConflictException ex) {
+        logger.warn("Assignment conflicts: {}", ex.getMessage());
+
+        VehicleApiResponse<List<String>> response = VehicleApiResponse.<List<String>>builder()
+                .success(false)
+                .data(ex.getConflicts())
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<VehicleApiResponse<Map<String, String>>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
@@ -105,6 +121,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<VehicleApiResponse<Void>> handleRejectedExecution(RejectedExecutionException ex) {
+        logger.warn("Background work rejected: {}", ex.getMessage());
+
+        VehicleApiResponse<Void> response = VehicleApiResponse.<Void>builder()
+                .success(false)
+                .message("Too many operations in progress, please try again later")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<VehicleApiResponse<Void>> handleGenericException(Exception ex) {
         logger.error("Unexpected error occurred", ex);
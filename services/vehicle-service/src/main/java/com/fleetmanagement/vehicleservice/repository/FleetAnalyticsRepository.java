@@ -0,0 +1,284 @@
+package com.fleetmanagement.vehicleservice.repository;
+
+import com.clickhouse.jdbc.ClickHouseDataSource;
+import com.fleetmanagement.vehicleservice.domain.analytics.PositionFact;
+import com.fleetmanagement.vehicleservice.domain.analytics.TripFact;
+import com.fleetmanagement.vehicleservice.domain.analytics.VehicleUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Fleet Analytics Repository
+ *
+ * Trip and position facts in ClickHouse (analytics_service_db). Inserts go
+ * through the input() table function, which makes the driver stream each
+ * batch as a single RowBinary block instead of rendering SQL per row; the
+ * materialized views roll every block up per vehicle per hour and day as it
+ * lands. Reports read those rollups, never the raw facts.
+ *
+ * Not a DataSource bean on purpose: the PostgreSQL datasource stays the only
+ * one Spring Boot configures.
+ */
+@Repository
+public class FleetAnalyticsRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetAnalyticsRepository.class);
+
+    private static final UUID NO_VEHICLE = new UUID(0L, 0L);
+
+    private static final String INSERT_TRIPS_SQL = "INSERT INTO trips (" +
+            "event_id, company_id, vehicle_id, device_id, start_time, end_time, distance_m, trip_s, idle_s, " +
+            "max_speed_kmh, start_lat, start_lon, end_lat, end_lon, end_reason) " +
+            "SELECT * FROM input('event_id String, company_id UUID, vehicle_id UUID, device_id UUID, " +
+            "start_time DateTime64(3, ''UTC''), end_time DateTime64(3, ''UTC''), distance_m Float64, " +
+            "trip_s UInt32, idle_s UInt32, max_speed_kmh Float32, start_lat Float64, start_lon Float64, " +
+            "end_lat Float64, end_lon Float64, end_reason String')";
+
+    private static final String INSERT_POSITIONS_SQL = "INSERT INTO device_positions (" +
+            "company_id, device_id, fix_time, latitude, longitude, speed_kmh, course, altitude, ignition, odometer_m) " +
+            "SELECT * FROM input('company_id UUID, device_id UUID, fix_time DateTime64(3, ''UTC''), " +
+            "latitude Float64, longitude Float64, speed_kmh Float32, course Float32, altitude Nullable(Float32), " +
+            "ignition Nullable(Bool), odometer_m Nullable(Float64)')";
+
+    private static final String USAGE_COLUMNS = "sum(trips), sum(distance_m), sum(trip_s), sum(idle_s), max(max_speed_kmh)";
+
+    private static final String VEHICLE_TOTALS_SQL = "SELECT vehicle_id, " + USAGE_COLUMNS + ", uniqExact(day) " +
+            "FROM vehicle_usage_daily WHERE company_id = ? AND day >= ? AND day <= ? " +
+            "GROUP BY vehicle_id";
+
+    private static final String VEHICLE_DAILY_SQL = "SELECT day, " + USAGE_COLUMNS + " " +
+            "FROM vehicle_usage_daily WHERE company_id = ? AND vehicle_id = ? AND day >= ? AND day <= ? " +
+            "GROUP BY day ORDER BY day";
+
+    private static final String VEHICLE_HOURLY_SQL = "SELECT hour, " + USAGE_COLUMNS + " " +
+            "FROM vehicle_usage_hourly WHERE company_id = ? AND vehicle_id = ? AND hour >= ? AND hour < ? " +
+            "GROUP BY hour ORDER BY hour";
+
+    private static final String FLEET_DAILY_SQL = "SELECT day, uniqExact(vehicle_id), " + USAGE_COLUMNS + " " +
+            "FROM vehicle_usage_daily WHERE company_id = ? AND day >= ? AND day <= ? " +
+            "GROUP BY day ORDER BY day";
+
+    private final ClickHouseDataSource dataSource;
+    private final boolean initSchema;
+
+    public FleetAnalyticsRepository(@Value("${app.analytics.clickhouse.url:jdbc:ch://localhost:8123/analytics_service_db}") String url,
+                                    @Value("${app.analytics.clickhouse.username:fleet_user}") String username,
+                                    @Value("${app.analytics.clickhouse.password:fleet_password_2024}") String password,
+                                    @Value("${app.analytics.clickhouse.init-schema:true}") boolean initSchema) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        // Retried blocks are deduplicated in the rollups too, not only in the raw tables
+        properties.setProperty("custom_settings", "deduplicate_blocks_in_dependent_materialized_views=1");
+        this.dataSource = new ClickHouseDataSource(url, properties);
+        this.initSchema = initSchema;
+    }
+
+    @PostConstruct
+    public void createSchema() {
+        if (!initSchema) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String sql : schemaStatements()) {
+                statement.execute(sql);
+            }
+            logger.info("Fleet analytics schema is up to date");
+        } catch (SQLException | IOException e) {
+            // Reports and ingestion fail on their own until ClickHouse is reachable; the service still starts
+            logger.warn("Could not apply fleet analytics schema: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Insert trips as one block
+     */
+    public void insertTrips(List<TripFact> trips) throws SQLException {
+        if (trips.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_TRIPS_SQL)) {
+            for (TripFact trip : trips) {
+                ps.setString(1, trip.getEventId());
+                ps.setObject(2, trip.getCompanyId());
+                ps.setObject(3, trip.getVehicleId() != null ? trip.getVehicleId() : NO_VEHICLE);
+                ps.setObject(4, trip.getDeviceId());
+                ps.setObject(5, utc(trip.getStartTime()));
+                ps.setObject(6, utc(trip.getEndTime()));
+                ps.setDouble(7, trip.getDistanceMeters());
+                ps.setLong(8, trip.getTripSeconds());
+                ps.setLong(9, trip.getIdleSeconds());
+                ps.setFloat(10, (float) trip.getMaxSpeedKmh());
+                ps.setDouble(11, trip.getStartLatitude());
+                ps.setDouble(12, trip.getStartLongitude());
+                ps.setDouble(13, trip.getEndLatitude());
+                ps.setDouble(14, trip.getEndLongitude());
+                ps.setString(15, trip.getEndReason() != null ? trip.getEndReason() : "");
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Insert positions as one block
+     */
+    public void insertPositions(List<PositionFact> positions) throws SQLException {
+        if (positions.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_POSITIONS_SQL)) {
+            for (PositionFact position : positions) {
+                ps.setObject(1, position.getCompanyId());
+                ps.setObject(2, position.getDeviceId());
+                ps.setObject(3, utc(position.getFixTime()));
+                ps.setDouble(4, position.getLatitude());
+                ps.setDouble(5, position.getLongitude());
+                ps.setFloat(6, (float) position.getSpeedKmh());
+                ps.setFloat(7, (float) position.getCourse());
+                ps.setObject(8, position.getAltitude() != null ? position.getAltitude().floatValue() : null, Types.REAL);
+                ps.setObject(9, position.getIgnition(), Types.BOOLEAN);
+                ps.setObject(10, position.getOdometerMeters(), Types.DOUBLE);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Totals per vehicle over whole days, only vehicles that drove
+     */
+    public List<VehicleUsage> findVehicleTotals(UUID companyId, LocalDate from, LocalDate to) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(VEHICLE_TOTALS_SQL)) {
+            ps.setObject(1, companyId);
+            ps.setObject(2, from);
+            ps.setObject(3, to);
+            List<VehicleUsage> totals = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new VehicleUsage(rs.getObject(1, UUID.class), null, 1,
+                            rs.getLong(2), rs.getDouble(3), rs.getLong(4), rs.getLong(5), rs.getDouble(6), rs.getLong(7)));
+                }
+            }
+            return totals;
+        }
+    }
+
+    /**
+     * Usage of one vehicle per day
+     */
+    public List<VehicleUsage> findVehicleDaily(UUID companyId, UUID vehicleId, LocalDate from, LocalDate to) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(VEHICLE_DAILY_SQL)) {
+            ps.setObject(1, companyId);
+            ps.setObject(2, vehicleId);
+            ps.setObject(3, from);
+            ps.setObject(4, to);
+            return readSeries(ps, vehicleId);
+        }
+    }
+
+    /**
+     * Usage of one vehicle per hour, from inclusive to exclusive
+     */
+    public List<VehicleUsage> findVehicleHourly(UUID companyId, UUID vehicleId, Instant from, Instant to) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(VEHICLE_HOURLY_SQL)) {
+            ps.setObject(1, companyId);
+            ps.setObject(2, vehicleId);
+            ps.setObject(3, utc(from));
+            ps.setObject(4, utc(to));
+            return readSeries(ps, vehicleId);
+        }
+    }
+
+    /**
+     * Usage of the whole fleet per day
+     */
+    public List<VehicleUsage> findFleetDaily(UUID companyId, LocalDate from, LocalDate to) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(FLEET_DAILY_SQL)) {
+            ps.setObject(1, companyId);
+            ps.setObject(2, from);
+            ps.setObject(3, to);
+            List<VehicleUsage> series = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    series.add(new VehicleUsage(null, periodStart(rs.getObject(1)), rs.getLong(2),
+                            rs.getLong(3), rs.getDouble(4), rs.getLong(5), rs.getLong(6), rs.getDouble(7), 1));
+                }
+            }
+            return series;
+        }
+    }
+
+    private List<VehicleUsage> readSeries(PreparedStatement ps, UUID vehicleId) throws SQLException {
+        List<VehicleUsage> series = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                series.add(new VehicleUsage(vehicleId, periodStart(rs.getObject(1)), 1,
+                        rs.getLong(2), rs.getDouble(3), rs.getLong(4), rs.getLong(5), rs.getDouble(6), 1));
+            }
+        }
+        return series;
+    }
+
+    private static Instant periodStart(Object value) {
+        if (value instanceof LocalDate day) {
+            return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        if (value instanceof LocalDateTime time) {
+            return time.toInstant(ZoneOffset.UTC);
+        }
+        return ((OffsetDateTime) value).toInstant();
+    }
+
+    // Columns are UTC; passing UTC wall-clock time keeps the driver from applying the JVM zone
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static List<String> schemaStatements() throws IOException {
+        String script = new String(new ClassPathResource("clickhouse/analytics-schema.sql").getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8);
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : script.split("\n")) {
+            int comment = line.indexOf("--");
+            withoutComments.append(comment >= 0 ? line.substring(0, comment) : line).append('\n');
+        }
+
+        List<String> statements = new ArrayList<>();
+        for (String statement : withoutComments.toString().split(";")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+}
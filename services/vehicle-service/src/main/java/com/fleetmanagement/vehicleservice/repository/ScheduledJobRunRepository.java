@@ -0,0 +1,26 @@
+package com.fleetmanagement.vehicleservice.repository;
+
+import com.fleetmanagement.vehicleservice.domain.entity.ScheduledJobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Scheduled Job Run Repository Interface
+ *
+ * Claims runs of cluster-wide scheduled jobs, one instance per run.
+ */
+@Repository
+public interface ScheduledJobRunRepository extends JpaRepository<ScheduledJobRun, String> {
+
+    // Claims a run in its own transaction; no row inserted means another instance claimed it first
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO scheduled_job_runs (run_key, claimed_at) VALUES (:runKey, now()) " +
+            "ON CONFLICT (run_key) DO NOTHING", nativeQuery = true)
+    int claim(@Param("runKey") String runKey);
+}
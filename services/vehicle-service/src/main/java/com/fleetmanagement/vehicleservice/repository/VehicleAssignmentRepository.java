@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -38,6 +39,50 @@ public interface VehicleAssignmentRepository extends JpaRepository<VehicleAssign
                                                               @Param("startDate") LocalDate startDate,
                                                               @Param("endDate") LocalDate endDate);
 
+    // Authoritative overlap checks; an open end is passed as a far future date
+    @Query("SELECT CASE WHEN COUNT(va) > 0 THEN true ELSE false END FROM VehicleAssignment va " +
+            "WHERE va.driverId = :driverId AND va.status IN ('ACTIVE', 'CHECKED_IN') " +
+            "AND va.startDate <= :endDate AND (va.endDate IS NULL OR va.endDate >= :startDate)")
+    boolean existsDriverOverlap(@Param("driverId") UUID driverId,
+                                @Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT CASE WHEN COUNT(va) > 0 THEN true ELSE false END FROM VehicleAssignment va " +
+            "WHERE va.vehicleId = :vehicleId AND va.status IN ('ACTIVE', 'CHECKED_IN') " +
+            "AND va.startDate <= :endDate AND (va.endDate IS NULL OR va.endDate >= :startDate)")
+    boolean existsVehicleOverlap(@Param("vehicleId") UUID vehicleId,
+                                 @Param("startDate") LocalDate startDate,
+                                 @Param("endDate") LocalDate endDate);
+
+    // Serializes reservations of one driver or vehicle across instances; held until the transaction ends
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(:lockName))", nativeQuery = true)
+    Integer lockSchedule(@Param("lockName") String lockName);
+
+    // Roster variant of the overlap checks: [id, vehicleId, driverId, startDate, endDate] of blocking assignments
+    // of any of the drivers or vehicles that overlap the roster's whole period
+    @Query("SELECT va.id, va.vehicleId, va.driverId, va.startDate, va.endDate FROM VehicleAssignment va " +
+            "WHERE (va.driverId IN :driverIds OR va.vehicleId IN :vehicleIds) " +
+            "AND va.status IN ('ACTIVE', 'CHECKED_IN') " +
+            "AND va.startDate <= :endDate AND (va.endDate IS NULL OR va.endDate >= :startDate)")
+    List<Object[]> findBlockingEntries(@Param("driverIds") Collection<UUID> driverIds,
+                                       @Param("vehicleIds") Collection<UUID> vehicleIds,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+
+    // Takes the comma-separated advisory locks in the given order in one round trip; held until the transaction ends
+    @Query(value = "SELECT COUNT(pg_advisory_xact_lock(hashtext(locks.name))) FROM " +
+            "(SELECT name FROM unnest(string_to_array(:lockNames, ',')) WITH ORDINALITY AS t(name, pos) " +
+            "ORDER BY pos) locks", nativeQuery = true)
+    Long lockSchedules(@Param("lockNames") String lockNames);
+
+    // Schedule snapshot: [id, vehicleId, driverId, startDate, endDate] of assignments still blocking from a date on
+    @Query("SELECT va.id, va.vehicleId, va.driverId, va.startDate, va.endDate FROM VehicleAssignment va " +
+            "WHERE va.companyId = :companyId " +
+            "AND va.status IN ('ACTIVE', 'CHECKED_IN') " +
+            "AND (va.endDate IS NULL OR va.endDate >= :fromDate)")
+    List<Object[]> findScheduleEntriesByCompany(@Param("companyId") UUID companyId,
+                                                @Param("fromDate") LocalDate fromDate);
+
     // Active assignments
     @Query("SELECT va FROM VehicleAssignment va WHERE va.companyId = :companyId " +
             "AND va.status IN ('ACTIVE', 'CHECKED_IN') " +
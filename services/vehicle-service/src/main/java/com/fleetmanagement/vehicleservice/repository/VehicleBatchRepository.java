@@ -0,0 +1,132 @@
+package com.fleetmanagement.vehicleservice.repository;
+
+import com.fleetmanagement.vehicleservice.domain.entity.Vehicle;
+import com.fleetmanagement.vehicleservice.dto.request.MileageIncrementRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Vehicle Batch Repository
+ *
+ * Plain JDBC batch insert for bulk imports. Bypasses the persistence context
+ * so thousands of rows are written without entity bookkeeping; with
+ * reWriteBatchedInserts on the datasource URL the PostgreSQL driver folds each
+ * batch into multi-row INSERT statements. Callers supply IDs and audit fields.
+ * Mileage increments from the bridge go through the same path as one batch of
+ * relative updates, guarded by the batch id so a resent batch is skipped.
+ */
+@Repository
+public class VehicleBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO vehicles (" +
+            "id, company_id, name, vin, license_plate, make, model, year, color, " +
+            "vehicle_type, vehicle_category, fuel_type, status, current_mileage, purchase_price, purchase_date, " +
+            "service_interval_months, service_interval_mileage, insurance_expiry_date, registration_expiry_date, " +
+            "notes, created_at, updated_at, created_by, updated_by, version" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Relative update, so concurrent pushes never overwrite each other; the version bump
+    // makes a concurrent JPA edit of the same vehicle fail instead of losing the increment
+    private static final String INCREMENT_MILEAGE_SQL = "UPDATE vehicles " +
+            "SET current_mileage = COALESCE(current_mileage, 0) + ?, updated_at = ?, version = version + 1 " +
+            "WHERE id = ? AND company_id = ?";
+
+    // Claims a batch id; no row inserted means the batch was applied before
+    private static final String RECORD_MILEAGE_BATCH_SQL = "INSERT INTO mileage_batches (id, applied_at) " +
+            "VALUES (?, ?) ON CONFLICT (id) DO NOTHING";
+
+    private static final String PURGE_MILEAGE_BATCHES_SQL = "DELETE FROM mileage_batches WHERE applied_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public VehicleBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert all vehicles in one JDBC batch; must run inside a transaction
+     */
+    public void insertAll(List<Vehicle> vehicles) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, vehicles, vehicles.size(), (ps, vehicle) -> {
+            ps.setObject(1, vehicle.getId());
+            ps.setObject(2, vehicle.getCompanyId());
+            ps.setString(3, vehicle.getName());
+            ps.setString(4, vehicle.getVin());
+            ps.setString(5, vehicle.getLicensePlate());
+            ps.setString(6, vehicle.getMake());
+            ps.setString(7, vehicle.getModel());
+            ps.setInt(8, vehicle.getYear());
+            ps.setString(9, vehicle.getColor());
+            ps.setString(10, vehicle.getVehicleType().name());
+            ps.setString(11, vehicle.getVehicleCategory() != null ? vehicle.getVehicleCategory().name() : null);
+            ps.setString(12, vehicle.getFuelType().name());
+            ps.setString(13, vehicle.getStatus().name());
+            ps.setObject(14, vehicle.getCurrentMileage(), Types.INTEGER);
+            ps.setBigDecimal(15, vehicle.getPurchasePrice());
+            ps.setDate(16, vehicle.getPurchaseDate() != null ? Date.valueOf(vehicle.getPurchaseDate()) : null);
+            ps.setObject(17, vehicle.getServiceIntervalMonths(), Types.INTEGER);
+            ps.setObject(18, vehicle.getServiceIntervalMileage(), Types.INTEGER);
+            ps.setDate(19, vehicle.getInsuranceExpiryDate() != null ? Date.valueOf(vehicle.getInsuranceExpiryDate()) : null);
+            ps.setDate(20, vehicle.getRegistrationExpiryDate() != null ? Date.valueOf(vehicle.getRegistrationExpiryDate()) : null);
+            ps.setString(21, vehicle.getNotes());
+            ps.setTimestamp(22, Timestamp.valueOf(vehicle.getCreatedAt()));
+            ps.setTimestamp(23, Timestamp.valueOf(vehicle.getUpdatedAt()));
+            ps.setObject(24, vehicle.getCreatedBy());
+            ps.setObject(25, vehicle.getUpdatedBy());
+            ps.setLong(26, vehicle.getVersion());
+        });
+    }
+
+    /**
+     * Record a mileage batch as applied; false if it already was. Must run in
+     * the transaction that applies the batch, so a rollback releases the id.
+     */
+    public boolean recordMileageBatch(UUID batchId) {
+        return jdbcTemplate.update(RECORD_MILEAGE_BATCH_SQL, batchId, Timestamp.valueOf(LocalDateTime.now())) > 0;
+    }
+
+    /**
+     * Forget mileage batches applied before the cutoff; returns how many
+     */
+    public int purgeMileageBatches(LocalDateTime cutoff) {
+        return jdbcTemplate.update(PURGE_MILEAGE_BATCHES_SQL, Timestamp.valueOf(cutoff));
+    }
+
+    /**
+     * Add kilometers to each vehicle's mileage in one JDBC batch; returns the
+     * IDs of the vehicles that were updated
+     */
+    public List<UUID> incrementMileage(List<MileageIncrementRequest> increments) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INCREMENT_MILEAGE_SQL, increments, increments.size(), (ps, increment) -> {
+            ps.setInt(1, increment.getKilometers());
+            ps.setTimestamp(2, now);
+            ps.setObject(3, increment.getVehicleId());
+            ps.setObject(4, increment.getCompanyId());
+        });
+
+        List<UUID> updated = new ArrayList<>(increments.size());
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // SUCCESS_NO_INFO (-2) means the driver did not report a count for a rewritten batch
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    updated.add(increments.get(i).getVehicleId());
+                }
+                i++;
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,40 @@
+package com.fleetmanagement.vehicleservice.repository;
+
+import com.fleetmanagement.vehicleservice.domain.entity.VehicleDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Vehicle Document Repository Interface
+ *
+ * Provides data access methods for VehicleDocument entities with:
+ * - Multi-tenant support (company-scoped queries)
+ * - Expiry lookups for compliance tracking
+ */
+@Repository
+public interface VehicleDocumentRepository extends JpaRepository<VehicleDocument, UUID> {
+
+    // Basic queries
+    Optional<VehicleDocument> findByIdAndCompanyId(UUID id, UUID companyId);
+
+    List<VehicleDocument> findByVehicleIdAndCompanyId(UUID vehicleId, UUID companyId);
+
+    // Expiry queries
+    @Query("SELECT d FROM VehicleDocument d WHERE d.companyId = :companyId AND d.isActive = true " +
+            "AND d.expiryDate BETWEEN CURRENT_DATE AND :endDate")
+    List<VehicleDocument> findExpiringDocuments(@Param("companyId") UUID companyId,
+                                                @Param("endDate") LocalDate endDate);
+
+    // Due-date sources: [id, companyId, vehicleId, vehicleName, licensePlate, documentType, documentName, expiryDate]
+    @Query("SELECT d.id, d.companyId, v.id, v.name, v.licensePlate, d.documentType, d.documentName, d.expiryDate " +
+            "FROM VehicleDocument d JOIN d.vehicle v " +
+            "WHERE d.isActive = true AND d.expiryDate IS NOT NULL AND v.status NOT IN ('RETIRED', 'SOLD')")
+    List<Object[]> findDueDateSources();
+}
@@ -0,0 +1,98 @@
+package com.fleetmanagement.vehicleservice.repository;
+
+import com.fleetmanagement.vehicleservice.domain.entity.VehicleGroupClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Vehicle Group Closure Repository Interface
+ *
+ * Provides maintenance and lookup operations for the vehicle group closure table:
+ * - Path insertion on group creation
+ * - Subtree relinking on group move
+ * - Path removal on group deletion
+ * - Non-recursive descendant/ancestor lookups
+ * - Advisory locks that serialize hierarchy changes across instances
+ */
+@Repository
+public interface VehicleGroupClosureRepository extends JpaRepository<VehicleGroupClosure, UUID> {
+
+    // Lookup queries
+    @Query("SELECT c.descendantId FROM VehicleGroupClosure c WHERE c.ancestorId = :groupId AND c.depth > 0")
+    List<UUID> findDescendantIds(@Param("groupId") UUID groupId);
+
+    @Query("SELECT c.ancestorId FROM VehicleGroupClosure c WHERE c.descendantId = :groupId AND c.depth > 0 ORDER BY c.depth")
+    List<UUID> findAncestorIds(@Param("groupId") UUID groupId);
+
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM VehicleGroupClosure c " +
+            "WHERE c.ancestorId = :ancestorId AND c.descendantId = :descendantId")
+    boolean existsPath(@Param("ancestorId") UUID ancestorId, @Param("descendantId") UUID descendantId);
+
+    @Query("SELECT COUNT(c) FROM VehicleGroupClosure c WHERE c.depth = 0")
+    long countSelfPaths();
+
+    // Serialization of hierarchy changes; held until the transaction ends
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(:lockName))", nativeQuery = true)
+    Integer lockHierarchy(@Param("lockName") String lockName);
+
+    // Maintenance - group creation
+    @Modifying
+    @Query(value = "INSERT INTO vehicle_group_closure (id, company_id, ancestor_id, descendant_id, depth) " +
+            "VALUES (gen_random_uuid(), :companyId, :groupId, :groupId, 0)",
+            nativeQuery = true)
+    int insertSelfPath(@Param("companyId") UUID companyId, @Param("groupId") UUID groupId);
+
+    @Modifying
+    @Query(value = "INSERT INTO vehicle_group_closure (id, company_id, ancestor_id, descendant_id, depth) " +
+            "SELECT gen_random_uuid(), c.company_id, c.ancestor_id, :groupId, c.depth + 1 " +
+            "FROM vehicle_group_closure c WHERE c.descendant_id = :parentGroupId",
+            nativeQuery = true)
+    int insertAncestorPaths(@Param("groupId") UUID groupId, @Param("parentGroupId") UUID parentGroupId);
+
+    // Maintenance - group move (detach subtree from old ancestors, attach under new parent)
+    @Modifying
+    @Query(value = "DELETE FROM vehicle_group_closure " +
+            "WHERE descendant_id IN (SELECT descendant_id FROM vehicle_group_closure WHERE ancestor_id = :groupId) " +
+            "AND ancestor_id NOT IN (SELECT descendant_id FROM vehicle_group_closure WHERE ancestor_id = :groupId)",
+            nativeQuery = true)
+    int detachSubtree(@Param("groupId") UUID groupId);
+
+    @Modifying
+    @Query(value = "INSERT INTO vehicle_group_closure (id, company_id, ancestor_id, descendant_id, depth) " +
+            "SELECT gen_random_uuid(), sup.company_id, sup.ancestor_id, sub.descendant_id, sup.depth + sub.depth + 1 " +
+            "FROM vehicle_group_closure sup " +
+            "CROSS JOIN vehicle_group_closure sub " +
+            "WHERE sup.descendant_id = :parentGroupId AND sub.ancestor_id = :groupId",
+            nativeQuery = true)
+    int attachSubtree(@Param("groupId") UUID groupId, @Param("parentGroupId") UUID parentGroupId);
+
+    // Maintenance - group deletion
+    @Modifying
+    @Query("DELETE FROM VehicleGroupClosure c WHERE c.ancestorId = :groupId OR c.descendantId = :groupId")
+    int deleteAllPathsFor(@Param("groupId") UUID groupId);
+
+    // Full rebuild from parent pointers (one-time backfill for pre-existing groups)
+    @Modifying
+    @Query(value = "DELETE FROM vehicle_group_closure", nativeQuery = true)
+    int deleteAllPaths();
+
+    @Modifying
+    @Query(value = "INSERT INTO vehicle_group_closure (id, company_id, ancestor_id, descendant_id, depth) " +
+            "WITH RECURSIVE paths AS (" +
+            "  SELECT id AS ancestor_id, id AS descendant_id, company_id, 0 AS depth " +
+            "  FROM vehicle_groups " +
+            "  UNION ALL " +
+            "  SELECT p.ancestor_id, vg.id, vg.company_id, p.depth + 1 " +
+            "  FROM paths p " +
+            "  INNER JOIN vehicle_groups vg ON vg.parent_group_id = p.descendant_id " +
+            "  WHERE p.depth < 64" +
+            ") SELECT gen_random_uuid(), company_id, ancestor_id, descendant_id, depth FROM paths",
+            nativeQuery = true)
+    int rebuildAllPaths();
+}
@@ -102,49 +102,39 @@ public interface VehicleGroupRepository extends JpaRepository<VehicleGroup, UUID
                                     @Param("searchTerm") String searchTerm,
                                     Pageable pageable);
 
-    // Advanced hierarchical queries
-    @Query(value = "WITH RECURSIVE group_hierarchy AS (" +
-            "  SELECT id, name, parent_group_id, 0 as level " +
-            "  FROM vehicle_groups " +
-            "  WHERE company_id = :companyId AND parent_group_id IS NULL " +
-            "  UNION ALL " +
-            "  SELECT vg.id, vg.name, vg.parent_group_id, gh.level + 1 " +
-            "  FROM vehicle_groups vg " +
-            "  INNER JOIN group_hierarchy gh ON vg.parent_group_id = gh.id " +
-            "  WHERE vg.company_id = :companyId" +
-            ") SELECT * FROM group_hierarchy ORDER BY level, name",
+    // Advanced hierarchical queries (served from the vehicle_group_closure table)
+    @Query(value = "SELECT vg.id, vg.name, vg.parent_group_id, c.depth AS level " +
+            "FROM vehicle_groups vg " +
+            "INNER JOIN vehicle_group_closure c ON c.descendant_id = vg.id " +
+            "INNER JOIN vehicle_groups root ON root.id = c.ancestor_id AND root.parent_group_id IS NULL " +
+            "WHERE vg.company_id = :companyId " +
+            "ORDER BY level, vg.name",
             nativeQuery = true)
     List<Object[]> findGroupHierarchy(@Param("companyId") UUID companyId);
 
-    @Query(value = "WITH RECURSIVE group_descendants AS (" +
-            "  SELECT id, name, parent_group_id " +
-            "  FROM vehicle_groups " +
-            "  WHERE id = :groupId " +
-            "  UNION ALL " +
-            "  SELECT vg.id, vg.name, vg.parent_group_id " +
-            "  FROM vehicle_groups vg " +
-            "  INNER JOIN group_descendants gd ON vg.parent_group_id = gd.id" +
-            ") SELECT vg.* FROM vehicle_groups vg " +
-            "INNER JOIN group_descendants gd ON vg.id = gd.id " +
-            "WHERE vg.id != :groupId",
+    @Query(value = "SELECT vg.* FROM vehicle_groups vg " +
+            "INNER JOIN vehicle_group_closure c ON c.descendant_id = vg.id " +
+            "WHERE c.ancestor_id = :groupId AND c.depth > 0",
             nativeQuery = true)
     List<VehicleGroup> findAllDescendants(@Param("groupId") UUID groupId);
 
-    @Query(value = "WITH RECURSIVE group_ancestors AS (" +
-            "  SELECT id, name, parent_group_id " +
-            "  FROM vehicle_groups " +
-            "  WHERE id = :groupId " +
-            "  UNION ALL " +
-            "  SELECT vg.id, vg.name, vg.parent_group_id " +
-            "  FROM vehicle_groups vg " +
-            "  INNER JOIN group_ancestors ga ON vg.id = ga.parent_group_id" +
-            ") SELECT vg.* FROM vehicle_groups vg " +
-            "INNER JOIN group_ancestors ga ON vg.id = ga.id " +
-            "WHERE vg.id != :groupId " +
-            "ORDER BY vg.id",
+    @Query(value = "SELECT vg.* FROM vehicle_groups vg " +
+            "INNER JOIN vehicle_group_closure c ON c.ancestor_id = vg.id " +
+            "WHERE c.descendant_id = :groupId AND c.depth > 0 " +
+            "ORDER BY c.depth",
             nativeQuery = true)
     List<VehicleGroup> findAllAncestors(@Param("groupId") UUID groupId);
 
+    // Tree snapshot queries - flat rows used to build the in-memory company tree
+    @Query("SELECT vg.id, p.id, vg.name, vg.groupType, vg.isActive, vg.sortOrder FROM VehicleGroup vg " +
+            "LEFT JOIN vg.parentGroup p " +
+            "WHERE vg.companyId = :companyId")
+    List<Object[]> findTreeNodesByCompany(@Param("companyId") UUID companyId);
+
+    @Query("SELECT vm.vehicleGroup.id, vm.vehicle.id FROM VehicleGroupMembership vm " +
+            "WHERE vm.vehicleGroup.companyId = :companyId")
+    List<Object[]> findMembershipPairsByCompany(@Param("companyId") UUID companyId);
+
     // Batch operations
     @Modifying
     @Query("UPDATE VehicleGroup vg SET vg.isActive = :isActive, vg.updatedBy = :updatedBy, vg.updatedAt = CURRENT_TIMESTAMP " +
@@ -190,17 +180,9 @@ public interface VehicleGroupRepository extends JpaRepository<VehicleGroup, UUID
     boolean isChildOf(@Param("childId") UUID childId, @Param("parentId") UUID parentId);
 
     // Circular reference detection
-    @Query(value = "WITH RECURSIVE group_path AS (" +
-            "  SELECT id, parent_group_id, ARRAY[id] as path " +
-            "  FROM vehicle_groups " +
-            "  WHERE id = :groupId " +
-            "  UNION ALL " +
-            "  SELECT vg.id, vg.parent_group_id, gp.path || vg.id " +
-            "  FROM vehicle_groups vg " +
-            "  INNER JOIN group_path gp ON vg.id = gp.parent_group_id " +
-            "  WHERE NOT vg.id = ANY(gp.path)" +
-            ") SELECT CASE WHEN COUNT(*) > 0 THEN true ELSE false END " +
-            "FROM group_path WHERE :potentialParentId = ANY(path)",
+    @Query(value = "SELECT CASE WHEN COUNT(*) > 0 THEN true ELSE false END " +
+            "FROM vehicle_group_closure c " +
+            "WHERE c.descendant_id = :groupId AND c.ancestor_id = :potentialParentId",
             nativeQuery = true)
     boolean wouldCreateCircularReference(@Param("groupId") UUID groupId, @Param("potentialParentId") UUID potentialParentId);
 
@@ -85,6 +85,13 @@ public interface VehicleRepository extends JpaRepository<Vehicle, UUID>, JpaSpec
 
     Page<Vehicle> findByCompanyIdAndCurrentDriverIdIsNull(UUID companyId, Pageable pageable);
 
+    /**
+     * Company vehicle counts in one pass: rows of (type, status, count, assigned count)
+     */
+    @Query("SELECT v.vehicleType, v.status, COUNT(v), SUM(CASE WHEN v.currentDriverId IS NOT NULL THEN 1 ELSE 0 END) " +
+            "FROM Vehicle v WHERE v.companyId = :companyId GROUP BY v.vehicleType, v.status")
+    List<Object[]> countByCompanyIdGroupedByTypeAndStatus(@Param("companyId") UUID companyId);
+
     @Query("SELECT COUNT(v) FROM Vehicle v WHERE v.companyId = :companyId AND v.currentDriverId IS NOT NULL")
     long countAssignedVehiclesByCompanyId(@Param("companyId") UUID companyId);
 
@@ -113,6 +120,22 @@ public interface VehicleRepository extends JpaRepository<Vehicle, UUID>, JpaSpec
     List<Vehicle> findVehiclesWithExpiringRegistration(@Param("companyId") UUID companyId,
                                                        @Param("endDate") LocalDate endDate);
 
+    // Bulk import uniqueness sources
+    @Query("SELECT v.licensePlate FROM Vehicle v WHERE v.companyId = :companyId")
+    List<String> findLicensePlatesByCompanyId(@Param("companyId") UUID companyId);
+
+    @Query("SELECT v.vin FROM Vehicle v WHERE v.vin IN :vins")
+    List<String> findExistingVins(@Param("vins") java.util.Collection<String> vins);
+
+    // Due-date sources: [id, companyId, name, licensePlate, currentMileage, nextServiceDueDate,
+    // nextServiceDueMileage, insuranceExpiryDate, registrationExpiryDate] across all companies
+    @Query("SELECT v.id, v.companyId, v.name, v.licensePlate, v.currentMileage, v.nextServiceDueDate, " +
+            "v.nextServiceDueMileage, v.insuranceExpiryDate, v.registrationExpiryDate FROM Vehicle v " +
+            "WHERE v.status NOT IN ('RETIRED', 'SOLD') AND (v.nextServiceDueDate IS NOT NULL OR " +
+            "v.nextServiceDueMileage IS NOT NULL OR v.insuranceExpiryDate IS NOT NULL OR " +
+            "v.registrationExpiryDate IS NOT NULL)")
+    List<Object[]> findDueDateSources();
+
     // Location-based queries
     @Query("SELECT v FROM Vehicle v WHERE v.companyId = :companyId AND " +
             "v.currentLocationLat IS NOT NULL AND v.currentLocationLng IS NOT NULL")
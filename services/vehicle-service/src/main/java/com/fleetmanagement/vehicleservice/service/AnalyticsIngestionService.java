@@ -0,0 +1,218 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.vehicleservice.domain.analytics.PositionFact;
+import com.fleetmanagement.vehicleservice.domain.analytics.TripFact;
+import com.fleetmanagement.vehicleservice.repository.FleetAnalyticsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analytics Ingestion Service
+ *
+ * Copies the bridge's trip and position events into the ClickHouse fleet
+ * analytics store, one insert per consumer poll. Malformed events are counted
+ * and dropped; a failed insert is thrown back to the container, which retries
+ * the same batch before offsets are committed. Trips without a vehicle are
+ * stored under the zero vehicle id, which the usage rollups leave out, and
+ * are counted and logged so missing vehicle links do not go unnoticed.
+ */
+@Service
+public class AnalyticsIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsIngestionService.class);
+
+    private static final double METERS_PER_KILOMETER = 1000.0;
+
+    private final FleetAnalyticsRepository analyticsRepository;
+    private final ObjectMapper objectMapper;
+    private final Counter storedTrips;
+    private final Counter rejectedTrips;
+    private final Counter unassignedTrips;
+    private final Counter storedPositions;
+    private final Counter rejectedPositions;
+    private final Timer writeTimer;
+
+    @Autowired
+    public AnalyticsIngestionService(FleetAnalyticsRepository analyticsRepository,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        this.analyticsRepository = analyticsRepository;
+        this.objectMapper = objectMapper;
+        this.storedTrips = meterRegistry.counter("analytics.ingest.trips", "result", "stored");
+        this.rejectedTrips = meterRegistry.counter("analytics.ingest.trips", "result", "rejected");
+        this.unassignedTrips = meterRegistry.counter("analytics.ingest.trips.unassigned");
+        this.storedPositions = meterRegistry.counter("analytics.ingest.positions", "result", "stored");
+        this.rejectedPositions = meterRegistry.counter("analytics.ingest.positions", "result", "rejected");
+        this.writeTimer = meterRegistry.timer("analytics.ingest.batch.write");
+    }
+
+    @KafkaListener(
+            topics = "${app.analytics.ingest.topics.trips:device.trip.completed}",
+            groupId = "${app.analytics.ingest.group-id:vehicle-service-analytics}",
+            containerFactory = "analyticsBatchListenerFactory",
+            autoStartup = "${app.analytics.ingest.enabled:true}"
+    )
+    public void onTripBatch(List<String> messages) throws SQLException {
+        List<TripFact> trips = new ArrayList<>(messages.size());
+        int unassigned = 0;
+        for (String message : messages) {
+            TripFact trip = parseTrip(message);
+            if (trip == null) {
+                rejectedTrips.increment();
+                continue;
+            }
+            if (trip.getVehicleId() == null) {
+                unassigned++;
+            }
+            trips.add(trip);
+        }
+        if (unassigned > 0) {
+            unassignedTrips.increment(unassigned);
+            logger.warn("{} of {} trips have no vehicle and are left out of vehicle usage", unassigned, trips.size());
+        }
+
+        long started = System.nanoTime();
+        analyticsRepository.insertTrips(trips);
+        writeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        storedTrips.increment(trips.size());
+        logger.debug("Stored {} of {} trips", trips.size(), messages.size());
+    }
+
+    @KafkaListener(
+            topics = "${app.analytics.ingest.topics.positions:device.location.updated}",
+            groupId = "${app.analytics.ingest.group-id:vehicle-service-analytics}",
+            containerFactory = "analyticsBatchListenerFactory",
+            autoStartup = "${app.analytics.ingest.enabled:true}"
+    )
+    public void onPositionBatch(List<String> messages) throws SQLException {
+        List<PositionFact> positions = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            PositionFact position = parsePosition(message);
+            if (position != null) {
+                positions.add(position);
+            } else {
+                rejectedPositions.increment();
+            }
+        }
+
+        long started = System.nanoTime();
+        analyticsRepository.insertPositions(positions);
+        writeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        storedPositions.increment(positions.size());
+        logger.debug("Stored {} of {} positions", positions.size(), messages.size());
+    }
+
+    /**
+     * Trip of a TripCompletedEvent, or null if it cannot be stored
+     */
+    TripFact parseTrip(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            UUID deviceId = uuid(event.path("deviceId"));
+            UUID companyId = uuid(event.path("companyId"));
+            Instant startTime = instant(event.path("startTime"));
+            Instant endTime = instant(event.path("endTime"));
+            if (deviceId == null || companyId == null || startTime == null || endTime == null) {
+                return null;
+            }
+
+            return TripFact.builder()
+                    .eventId(event.path("eventId").asText(""))
+                    .companyId(companyId)
+                    .vehicleId(uuid(event.path("vehicleId")))
+                    .deviceId(deviceId)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .distanceMeters(event.path("distanceKm").asDouble() * METERS_PER_KILOMETER)
+                    .tripSeconds(Math.max(0, event.path("durationSeconds").asLong()))
+                    .idleSeconds(Math.max(0, event.path("idleSeconds").asLong()))
+                    .maxSpeedKmh(event.path("maxSpeedKmh").asDouble())
+                    .startLatitude(event.path("startLatitude").asDouble())
+                    .startLongitude(event.path("startLongitude").asDouble())
+                    .endLatitude(event.path("endLatitude").asDouble())
+                    .endLongitude(event.path("endLongitude").asDouble())
+                    .endReason(event.path("endReason").asText(""))
+                    .build();
+        } catch (Exception e) {
+            logger.debug("Dropping unreadable trip event: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Position of a LocationUpdatedEvent, or null if it cannot be stored
+     */
+    PositionFact parsePosition(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            JsonNode location = event.path("locationData");
+
+            UUID deviceId = uuid(location.path("deviceId"), event.path("deviceId"));
+            UUID companyId = uuid(location.path("companyId"), event.path("companyId"));
+            Instant fixTime = instant(location.path("deviceTime"), location.path("serverTime"), event.path("timestamp"));
+            JsonNode latitude = location.path("latitude");
+            JsonNode longitude = location.path("longitude");
+            if (deviceId == null || companyId == null || fixTime == null || !latitude.isNumber() || !longitude.isNumber()
+                    || Math.abs(latitude.asDouble()) > 90 || Math.abs(longitude.asDouble()) > 180
+                    || !location.path("valid").asBoolean(true)) {
+                return null;
+            }
+
+            return PositionFact.builder()
+                    .companyId(companyId)
+                    .deviceId(deviceId)
+                    .fixTime(fixTime)
+                    .latitude(latitude.asDouble())
+                    .longitude(longitude.asDouble())
+                    .speedKmh(location.path("speed").asDouble())
+                    .course(location.path("course").asDouble())
+                    .altitude(location.path("altitude").isNumber() ? location.path("altitude").asDouble() : null)
+                    .ignition(location.path("ignition").isBoolean() ? location.path("ignition").asBoolean() : null)
+                    .odometerMeters(location.path("odometer").isNumber() ? location.path("odometer").asDouble() : null)
+                    .build();
+        } catch (Exception e) {
+            logger.debug("Dropping unreadable location event: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static UUID uuid(JsonNode... candidates) {
+        for (JsonNode node : candidates) {
+            if (node.isTextual()) {
+                return UUID.fromString(node.asText());
+            }
+        }
+        return null;
+    }
+
+    // The bridge's JSON serializer writes Instants as epoch seconds with a fraction; ISO strings are accepted too
+    private static Instant instant(JsonNode... candidates) {
+        for (JsonNode node : candidates) {
+            if (node.isNumber()) {
+                BigDecimal seconds = node.decimalValue();
+                return Instant.ofEpochSecond(seconds.longValue(),
+                        seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+            }
+            if (node.isTextual()) {
+                return Instant.parse(node.asText());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,201 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assignment Interval Tree
+ *
+ * AVL-balanced interval tree over closed [start, end] ranges of epoch days.
+ * Each node is augmented with the maximum end of its subtree so overlap
+ * queries skip whole branches. Values are matched by identity on removal.
+ * Not thread-safe; callers synchronize on the owning schedule.
+ */
+final class AssignmentIntervalTree<V> {
+
+    private static final class Node<V> {
+        final long start;
+        final long end;
+        final V value;
+        long maxEnd;
+        int height = 1;
+        Node<V> left;
+        Node<V> right;
+
+        Node(long start, long end, V value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<V> root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void insert(long start, long end, V value) {
+        root = insert(root, new Node<>(start, end, value));
+        size++;
+    }
+
+    public boolean remove(long start, long end, V value) {
+        int before = size;
+        root = remove(root, start, end, value);
+        return size < before;
+    }
+
+    /**
+     * Collect all values whose interval overlaps [start, end]
+     */
+    public List<V> findOverlapping(long start, long end) {
+        List<V> result = new ArrayList<>();
+        collectOverlapping(root, start, end, result);
+        return result;
+    }
+
+    public boolean hasOverlap(long start, long end) {
+        Node<V> node = root;
+        while (node != null) {
+            if (node.start <= end && start <= node.end) {
+                return true;
+            }
+            // If the left branch can reach start, any overlap on the right implies one on the left
+            if (node.left != null && node.left.maxEnd >= start) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    // Tree operations
+
+    private void collectOverlapping(Node<V> node, long start, long end, List<V> result) {
+        if (node == null || node.maxEnd < start) {
+            return;
+        }
+        collectOverlapping(node.left, start, end, result);
+        if (node.start <= end) {
+            if (start <= node.end) {
+                result.add(node.value);
+            }
+            collectOverlapping(node.right, start, end, result);
+        }
+    }
+
+    private Node<V> insert(Node<V> node, Node<V> inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.start < node.start) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        return rebalance(node);
+    }
+
+    private Node<V> remove(Node<V> node, long start, long end, V value) {
+        if (node == null) {
+            return null;
+        }
+        if (start < node.start) {
+            node.left = remove(node.left, start, end, value);
+        } else if (start > node.start) {
+            node.right = remove(node.right, start, end, value);
+        } else if (node.value == value && node.end == end) {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<V> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node<V> replacement = new Node<>(successor.start, successor.end, successor.value);
+            replacement.left = node.left;
+            replacement.right = removeMin(node.right);
+            return rebalance(replacement);
+        } else {
+            // Equal starts may sit on either side after rotations
+            int before = size;
+            node.left = remove(node.left, start, end, value);
+            if (size == before) {
+                node.right = remove(node.right, start, end, value);
+            }
+        }
+        return rebalance(node);
+    }
+
+    private Node<V> removeMin(Node<V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private Node<V> rebalance(Node<V> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<V> rotateRight(Node<V> node) {
+        Node<V> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<V> rotateLeft(Node<V> node) {
+        Node<V> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node<V> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private int height(Node<V> node) {
+        return node != null ? node.height : 0;
+    }
+}
@@ -0,0 +1,425 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fleetmanagement.vehicleservice.exception.VehicleAssignmentConflictException;
+import com.fleetmanagement.vehicleservice.repository.VehicleAssignmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assignment Schedule Service
+ *
+ * Keeps per-company interval trees of blocking (ACTIVE / CHECKED_IN, not yet
+ * ended) assignments keyed by vehicle and by driver as a pre-filter: a
+ * conflict found there is confirmed with one query and rejected without
+ * taking any lock. The decision itself is made by the database inside the
+ * reserving transaction, under advisory locks on the driver and the vehicle
+ * that are held until commit, so two instances can never both accept
+ * overlapping assignments. A schedule that disagrees with the database is
+ * dropped and reloaded; otherwise it is reloaded after a TTL. A roster is
+ * reserved as a whole: all of its locks in one statement, then one overlap
+ * query for all of its drivers and vehicles. Reservations made inside a
+ * transaction are dropped again if that transaction rolls back.
+ */
+@Service
+public class AssignmentScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssignmentScheduleService.class);
+
+    static final String DRIVER_CONFLICT = "Driver is already assigned to another vehicle during this period";
+    static final String VEHICLE_CONFLICT = "Vehicle is already assigned to another driver during this period";
+
+    // Largest date PostgreSQL accepts comfortably; used for open-ended ranges in fallback queries
+    private static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+
+    private final VehicleAssignmentRepository assignmentRepository;
+
+    private final Map<UUID, CompanySchedule> schedules = new ConcurrentHashMap<>();
+
+    @Value("${app.vehicle.assignment.schedule-ttl-seconds:600}")
+    private long scheduleTtlSeconds;
+
+    @Autowired
+    public AssignmentScheduleService(VehicleAssignmentRepository assignmentRepository) {
+        this.assignmentRepository = assignmentRepository;
+    }
+
+    /**
+     * Reserve a vehicle/driver slot, failing if either already has an overlapping assignment
+     */
+    public Slot reserve(UUID companyId, UUID vehicleId, UUID driverId, LocalDate startDate, LocalDate endDate) {
+        CompanySchedule schedule = getSchedule(companyId);
+        Slot slot = new Slot(vehicleId, driverId, toDay(startDate), toEndDay(endDate));
+
+        // Pre-filter: reject known conflicts without locking
+        String cached;
+        boolean inFlight;
+        synchronized (schedule) {
+            cached = schedule.findConflict(slot);
+            inFlight = cached != null && schedule.overlapsPending(slot);
+        }
+        if (cached != null) {
+            // Reservations not persisted yet, such as earlier entries of the same roster, are only known here
+            if (inFlight) {
+                throw new VehicleAssignmentConflictException(cached);
+            }
+            String stored = findStoredConflict(driverId, vehicleId, startDate, endDate);
+            if (stored != null) {
+                throw new VehicleAssignmentConflictException(stored);
+            }
+            logger.debug("Assignment schedule of company {} is stale, reloading", companyId);
+            schedule.stale = true;
+        }
+
+        // Authoritative check: concurrent reservations of this driver or vehicle wait for our commit
+        lockSchedules(driverId, vehicleId);
+        String conflict = findStoredConflict(driverId, vehicleId, startDate, endDate);
+        if (conflict != null) {
+            // Committed elsewhere after the snapshot was loaded
+            schedule.stale = true;
+            throw new VehicleAssignmentConflictException(conflict);
+        }
+
+        schedule = getSchedule(companyId);
+        synchronized (schedule) {
+            schedule.add(slot);
+        }
+        releaseOnRollback(companyId, schedule, List.of(slot));
+        return slot;
+    }
+
+    /**
+     * Reserve the slots of a whole roster under one set of locks and one overlap query.
+     * Returns one result per request, in order: the reserved slot or the conflict that
+     * rejected it. Earlier accepted entries of the same roster block later ones.
+     */
+    public List<SlotResult> reserveAll(UUID companyId, List<SlotRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Set<String> locks = new HashSet<>();
+        Set<UUID> driverIds = new HashSet<>();
+        Set<UUID> vehicleIds = new HashSet<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (SlotRequest request : requests) {
+            locks.add(driverLock(request.driverId()));
+            locks.add(vehicleLock(request.vehicleId()));
+            driverIds.add(request.driverId());
+            vehicleIds.add(request.vehicleId());
+            LocalDate end = request.endDate() != null ? request.endDate() : OPEN_END;
+            from = from == null || request.startDate().isBefore(from) ? request.startDate() : from;
+            to = to == null || end.isAfter(to) ? end : to;
+        }
+
+        lock(locks);
+        CompanySchedule roster = new CompanySchedule();
+        for (Object[] row : assignmentRepository.findBlockingEntries(driverIds, vehicleIds, from, to)) {
+            roster.add(toSlot(row));
+        }
+
+        CompanySchedule schedule = getSchedule(companyId);
+        List<SlotResult> results = new ArrayList<>(requests.size());
+        List<Slot> reserved = new ArrayList<>();
+        for (SlotRequest request : requests) {
+            Slot slot = new Slot(request.vehicleId(), request.driverId(),
+                    toDay(request.startDate()), toEndDay(request.endDate()));
+            String conflict = roster.findConflict(slot);
+            if (conflict != null) {
+                synchronized (schedule) {
+                    if (schedule.findConflict(slot) == null) {
+                        // Committed elsewhere after the snapshot was loaded
+                        schedule.stale = true;
+                    }
+                }
+                results.add(new SlotResult(null, conflict));
+                continue;
+            }
+            roster.add(slot);
+            reserved.add(slot);
+            results.add(new SlotResult(slot, null));
+        }
+
+        schedule = getSchedule(companyId);
+        synchronized (schedule) {
+            reserved.forEach(schedule::add);
+        }
+        releaseOnRollback(companyId, schedule, reserved);
+        return results;
+    }
+
+    /**
+     * Attach the persisted assignment ID to a reserved slot
+     */
+    public void bind(UUID companyId, Slot slot, UUID assignmentId) {
+        CompanySchedule schedule = schedules.get(companyId);
+        if (schedule == null) {
+            return;
+        }
+        synchronized (schedule) {
+            slot.assignmentId = assignmentId;
+            schedule.byAssignment.put(assignmentId, slot);
+            schedule.pending.remove(slot);
+        }
+    }
+
+    /**
+     * Stop an assignment from blocking its vehicle and driver once the current transaction commits
+     */
+    public void releaseAfterCommit(UUID companyId, UUID assignmentId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(companyId, assignmentId);
+                }
+            });
+        } else {
+            release(companyId, assignmentId);
+        }
+    }
+
+    /**
+     * Drop the cached schedule of a company
+     */
+    public void evict(UUID companyId) {
+        schedules.remove(companyId);
+    }
+
+    private void release(UUID companyId, UUID assignmentId) {
+        CompanySchedule schedule = schedules.get(companyId);
+        if (schedule == null) {
+            return;
+        }
+        synchronized (schedule) {
+            Slot slot = schedule.byAssignment.remove(assignmentId);
+            if (slot != null) {
+                schedule.remove(slot);
+            }
+        }
+    }
+
+    private void releaseOnRollback(UUID companyId, CompanySchedule reservedIn, List<Slot> slots) {
+        if (slots.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                // The schedule may have been reloaded since, carrying the slots over
+                CompanySchedule current = schedules.get(companyId);
+                for (Slot slot : slots) {
+                    discard(reservedIn, slot);
+                    if (current != null && current != reservedIn) {
+                        discard(current, slot);
+                    }
+                }
+            }
+        });
+    }
+
+    private void discard(CompanySchedule schedule, Slot slot) {
+        synchronized (schedule) {
+            schedule.remove(slot);
+            if (slot.assignmentId != null) {
+                schedule.byAssignment.remove(slot.assignmentId, slot);
+            }
+        }
+    }
+
+    private String findStoredConflict(UUID driverId, UUID vehicleId, LocalDate startDate, LocalDate endDate) {
+        LocalDate queryEnd = endDate != null ? endDate : OPEN_END;
+        if (assignmentRepository.existsDriverOverlap(driverId, startDate, queryEnd)) {
+            return DRIVER_CONFLICT;
+        }
+        if (assignmentRepository.existsVehicleOverlap(vehicleId, startDate, queryEnd)) {
+            return VEHICLE_CONFLICT;
+        }
+        return null;
+    }
+
+    private void lockSchedules(UUID driverId, UUID vehicleId) {
+        lock(List.of(driverLock(driverId), vehicleLock(vehicleId)));
+    }
+
+    /**
+     * Take the given driver and vehicle locks in a fixed order, so two reservations never wait on each other
+     */
+    private void lock(Collection<String> names) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Assignments must be reserved inside a transaction");
+        }
+        List<String> locks = new ArrayList<>(names);
+        Collections.sort(locks);
+        assignmentRepository.lockSchedules(String.join(",", locks));
+    }
+
+    private static String driverLock(UUID driverId) {
+        return "assignment:driver:" + driverId;
+    }
+
+    private static String vehicleLock(UUID vehicleId) {
+        return "assignment:vehicle:" + vehicleId;
+    }
+
+    private CompanySchedule getSchedule(UUID companyId) {
+        CompanySchedule schedule = schedules.get(companyId);
+        if (schedule != null && !schedule.isExpired(scheduleTtlSeconds)) {
+            return schedule;
+        }
+
+        CompanySchedule loaded = load(companyId);
+        if (schedule != null) {
+            // Keep reservations of transactions that have not committed yet
+            synchronized (schedule) {
+                schedule.pendingSlots().forEach(loaded::add);
+            }
+        }
+        schedules.put(companyId, loaded);
+        return loaded;
+    }
+
+    private CompanySchedule load(UUID companyId) {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+
+        CompanySchedule schedule = new CompanySchedule();
+        for (Object[] row : assignmentRepository.findScheduleEntriesByCompany(companyId, today)) {
+            Slot slot = toSlot(row);
+            schedule.add(slot);
+            schedule.byAssignment.put(slot.assignmentId, slot);
+        }
+
+        logger.debug("Loaded assignment schedule for company {}: {} assignments, {} ms",
+                companyId, schedule.byAssignment.size(), (System.nanoTime() - start) / 1_000_000);
+        return schedule;
+    }
+
+    // Row layout: [id, vehicleId, driverId, startDate, endDate]
+    private static Slot toSlot(Object[] row) {
+        Slot slot = new Slot((UUID) row[1], (UUID) row[2], toDay((LocalDate) row[3]), toEndDay((LocalDate) row[4]));
+        slot.assignmentId = (UUID) row[0];
+        return slot;
+    }
+
+    private static long toDay(LocalDate date) {
+        return date != null ? date.toEpochDay() : Long.MIN_VALUE;
+    }
+
+    private static long toEndDay(LocalDate date) {
+        return date != null ? date.toEpochDay() : Long.MAX_VALUE;
+    }
+
+    /**
+     * A reserved vehicle/driver date range, bound to an assignment once persisted
+     */
+    public static final class Slot {
+        private final UUID vehicleId;
+        private final UUID driverId;
+        private final long start;
+        private final long end;
+        private volatile UUID assignmentId;
+
+        private Slot(UUID vehicleId, UUID driverId, long start, long end) {
+            this.vehicleId = vehicleId;
+            this.driverId = driverId;
+            this.start = start;
+            this.end = end;
+        }
+
+        public UUID getAssignmentId() {
+            return assignmentId;
+        }
+    }
+
+    /**
+     * One roster entry to reserve
+     */
+    public record SlotRequest(UUID vehicleId, UUID driverId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    /**
+     * The slot reserved for a roster entry, or the conflict that rejected it
+     */
+    public record SlotResult(Slot slot, String conflict) {
+    }
+
+    private static final class CompanySchedule {
+        private final long loadedAt = System.currentTimeMillis();
+        private final Map<UUID, AssignmentIntervalTree<Slot>> byVehicle = new HashMap<>();
+        private final Map<UUID, AssignmentIntervalTree<Slot>> byDriver = new HashMap<>();
+        private final Map<UUID, Slot> byAssignment = new HashMap<>();
+        private final Set<Slot> pending = new HashSet<>();
+        // Set when the snapshot disagreed with the database; reloaded on next use, keeping pending slots
+        private volatile boolean stale;
+
+        private String findConflict(Slot slot) {
+            AssignmentIntervalTree<Slot> driverTree = byDriver.get(slot.driverId);
+            if (driverTree != null && driverTree.hasOverlap(slot.start, slot.end)) {
+                return DRIVER_CONFLICT;
+            }
+            AssignmentIntervalTree<Slot> vehicleTree = byVehicle.get(slot.vehicleId);
+            if (vehicleTree != null && vehicleTree.hasOverlap(slot.start, slot.end)) {
+                return VEHICLE_CONFLICT;
+            }
+            return null;
+        }
+
+        private boolean overlapsPending(Slot slot) {
+            return hasPendingOverlap(byDriver.get(slot.driverId), slot) || hasPendingOverlap(byVehicle.get(slot.vehicleId), slot);
+        }
+
+        private static boolean hasPendingOverlap(AssignmentIntervalTree<Slot> tree, Slot slot) {
+            return tree != null && tree.findOverlapping(slot.start, slot.end).stream()
+                    .anyMatch(other -> other.assignmentId == null);
+        }
+
+        private void add(Slot slot) {
+            byVehicle.computeIfAbsent(slot.vehicleId, id -> new AssignmentIntervalTree<>()).insert(slot.start, slot.end, slot);
+            byDriver.computeIfAbsent(slot.driverId, id -> new AssignmentIntervalTree<>()).insert(slot.start, slot.end, slot);
+            if (slot.assignmentId == null) {
+                pending.add(slot);
+            }
+        }
+
+        private void remove(Slot slot) {
+            removeFrom(byVehicle, slot.vehicleId, slot);
+            removeFrom(byDriver, slot.driverId, slot);
+            pending.remove(slot);
+        }
+
+        private List<Slot> pendingSlots() {
+            return new ArrayList<>(pending);
+        }
+
+        private boolean isExpired(long ttlSeconds) {
+            return stale || (ttlSeconds > 0 && System.currentTimeMillis() - loadedAt >= ttlSeconds * 1000);
+        }
+
+        private static void removeFrom(Map<UUID, AssignmentIntervalTree<Slot>> trees, UUID key, Slot slot) {
+            AssignmentIntervalTree<Slot> tree = trees.get(key);
+            if (tree != null && tree.remove(slot.start, slot.end, slot) && tree.isEmpty()) {
+                trees.remove(key);
+            }
+        }
+    }
+}
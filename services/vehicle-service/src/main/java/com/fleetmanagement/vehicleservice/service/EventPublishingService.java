@@ -0,0 +1,67 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fleetmanagement.vehicleservice.dto.response.VehicleDueItemResponse;
+import com.fleetmanagement.vehicleservice.event.VehiclesDueSoonEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Event Publishing Service
+ *
+ * Publishes vehicle-service domain events to Kafka.
+ */
+@Service
+public class EventPublishingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventPublishingService.class);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${app.kafka.topics.vehicle-due-soon:vehicle.due.soon}")
+    private String vehicleDueSoonTopic;
+
+    @Value("${app.kafka.events.enabled:true}")
+    private boolean eventsEnabled;
+
+    @Autowired
+    public EventPublishingService(KafkaTemplate<String, Object> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Publish the due-soon items of one company as a single event
+     */
+    public void publishVehiclesDueSoonEvent(UUID companyId, LocalDate windowEnd, List<VehicleDueItemResponse> items) {
+        if (!eventsEnabled) {
+            return;
+        }
+
+        VehiclesDueSoonEvent event = VehiclesDueSoonEvent.builder()
+                .eventId(UUID.randomUUID())
+                .eventType("VEHICLES_DUE_SOON")
+                .companyId(companyId)
+                .windowEnd(windowEnd)
+                .itemCount(items.size())
+                .items(items)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        kafkaTemplate.send(vehicleDueSoonTopic, companyId.toString(), event)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        logger.error("Failed to publish due-soon event for company: {}", companyId, ex);
+                    } else {
+                        logger.debug("Published due-soon event for company {} with {} items", companyId, items.size());
+                    }
+                });
+    }
+}
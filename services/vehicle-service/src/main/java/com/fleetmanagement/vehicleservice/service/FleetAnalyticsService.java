@@ -0,0 +1,177 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fleetmanagement.vehicleservice.domain.analytics.VehicleUsage;
+import com.fleetmanagement.vehicleservice.domain.entity.Vehicle;
+import com.fleetmanagement.vehicleservice.dto.response.FleetUtilizationResponse;
+import com.fleetmanagement.vehicleservice.dto.response.UsagePeriodResponse;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleUtilizationResponse;
+import com.fleetmanagement.vehicleservice.exception.VehicleNotFoundException;
+import com.fleetmanagement.vehicleservice.exception.VehicleServiceException;
+import com.fleetmanagement.vehicleservice.repository.FleetAnalyticsRepository;
+import com.fleetmanagement.vehicleservice.repository.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fleet Analytics Service
+ *
+ * Utilization reports over the trip rollups in ClickHouse. Ranges are whole
+ * UTC days; vehicle names come from PostgreSQL so vehicles that never drove
+ * in the range are reported with zero usage.
+ */
+@Service
+public class FleetAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetAnalyticsService.class);
+
+    private static final double METERS_PER_KILOMETER = 1000.0;
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    public enum Granularity { HOUR, DAY }
+
+    private final FleetAnalyticsRepository analyticsRepository;
+    private final VehicleRepository vehicleRepository;
+
+    @Value("${app.analytics.reports.max-days:731}")
+    private long maxReportDays;
+
+    @Value("${app.analytics.reports.max-hourly-days:31}")
+    private long maxHourlyDays;
+
+    @Autowired
+    public FleetAnalyticsService(FleetAnalyticsRepository analyticsRepository, VehicleRepository vehicleRepository) {
+        this.analyticsRepository = analyticsRepository;
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    /**
+     * Utilization of every vehicle of the company, with daily fleet totals
+     */
+    public FleetUtilizationResponse getFleetUtilization(UUID companyId, LocalDate from, LocalDate to) {
+        long days = validateRange(from, to, maxReportDays);
+
+        List<VehicleUsage> totals;
+        List<VehicleUsage> daily;
+        try {
+            totals = analyticsRepository.findVehicleTotals(companyId, from, to);
+            daily = analyticsRepository.findFleetDaily(companyId, from, to);
+        } catch (SQLException e) {
+            logger.error("Fleet utilization query failed for company {}", companyId, e);
+            throw new VehicleServiceException("Fleet analytics are unavailable", e);
+        }
+
+        Map<UUID, VehicleUsage> usageByVehicle = totals.stream()
+                .collect(Collectors.toMap(VehicleUsage::vehicleId, Function.identity()));
+        List<VehicleUtilizationResponse> vehicles = new ArrayList<>();
+        for (Vehicle vehicle : vehicleRepository.findByCompanyId(companyId)) {
+            vehicles.add(toUtilization(vehicle, usageByVehicle.remove(vehicle.getId()), days));
+        }
+        // Trips of vehicles deleted since still count towards the fleet
+        for (VehicleUsage usage : usageByVehicle.values()) {
+            vehicles.add(toUtilization(null, usage, days));
+        }
+        vehicles.sort(Comparator.comparingDouble(VehicleUtilizationResponse::getUtilizationPercent).reversed());
+
+        double drivingHours = vehicles.stream().mapToDouble(VehicleUtilizationResponse::getDrivingHours).sum();
+        double idleHours = vehicles.stream().mapToDouble(VehicleUtilizationResponse::getIdleHours).sum();
+        return FleetUtilizationResponse.builder()
+                .companyId(companyId)
+                .from(from)
+                .to(to)
+                .totalVehicles(vehicles.size())
+                .activeVehicles(totals.size())
+                .totalTrips(vehicles.stream().mapToLong(VehicleUtilizationResponse::getTrips).sum())
+                .totalDistanceKm(vehicles.stream().mapToDouble(VehicleUtilizationResponse::getDistanceKm).sum())
+                .totalDrivingHours(drivingHours)
+                .totalIdleHours(idleHours)
+                .averageUtilizationPercent(vehicles.isEmpty() ? 0.0
+                        : vehicles.stream().mapToDouble(VehicleUtilizationResponse::getUtilizationPercent).average().orElse(0.0))
+                .vehicles(vehicles)
+                .daily(daily.stream().map(this::toPeriod).toList())
+                .build();
+    }
+
+    /**
+     * Usage of one vehicle per hour or day
+     */
+    public List<UsagePeriodResponse> getVehicleUsage(UUID companyId, UUID vehicleId, LocalDate from, LocalDate to,
+                                                     Granularity granularity) {
+        validateRange(from, to, granularity == Granularity.HOUR ? maxHourlyDays : maxReportDays);
+        vehicleRepository.findByIdAndCompanyId(vehicleId, companyId)
+                .orElseThrow(() -> new VehicleNotFoundException("Vehicle not found with ID: " + vehicleId));
+
+        try {
+            List<VehicleUsage> series = granularity == Granularity.HOUR
+                    ? analyticsRepository.findVehicleHourly(companyId, vehicleId,
+                            from.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                            to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                    : analyticsRepository.findVehicleDaily(companyId, vehicleId, from, to);
+            return series.stream().map(this::toPeriod).toList();
+        } catch (SQLException e) {
+            logger.error("Vehicle usage query failed for vehicle {}", vehicleId, e);
+            throw new VehicleServiceException("Fleet analytics are unavailable", e);
+        }
+    }
+
+    private long validateRange(LocalDate from, LocalDate to, long maxDays) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Report range must end on or after its start");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > maxDays) {
+            throw new IllegalArgumentException("Report range must not exceed " + maxDays + " days");
+        }
+        return days;
+    }
+
+    private VehicleUtilizationResponse toUtilization(Vehicle vehicle, VehicleUsage usage, long days) {
+        VehicleUtilizationResponse.VehicleUtilizationResponseBuilder builder = VehicleUtilizationResponse.builder()
+                .vehicleId(vehicle != null ? vehicle.getId() : usage.vehicleId())
+                .name(vehicle != null ? vehicle.getName() : null)
+                .licensePlate(vehicle != null ? vehicle.getLicensePlate() : null);
+        if (usage == null) {
+            return builder.build();
+        }
+        return builder
+                .trips(usage.trips())
+                .distanceKm(usage.distanceMeters() / METERS_PER_KILOMETER)
+                .drivingHours(drivingSeconds(usage) / SECONDS_PER_HOUR)
+                .idleHours(usage.idleSeconds() / SECONDS_PER_HOUR)
+                .maxSpeedKmh(usage.maxSpeedKmh())
+                .activeDays(usage.activeDays())
+                .utilizationPercent(usage.tripSeconds() * 100.0 / (days * 24 * SECONDS_PER_HOUR))
+                .build();
+    }
+
+    private UsagePeriodResponse toPeriod(VehicleUsage usage) {
+        return UsagePeriodResponse.builder()
+                .periodStart(usage.periodStart())
+                .activeVehicles(usage.vehicles())
+                .trips(usage.trips())
+                .distanceKm(usage.distanceMeters() / METERS_PER_KILOMETER)
+                .drivingHours(drivingSeconds(usage) / SECONDS_PER_HOUR)
+                .idleHours(usage.idleSeconds() / SECONDS_PER_HOUR)
+                .maxSpeedKmh(usage.maxSpeedKmh())
+                .build();
+    }
+
+    // Trip time includes stops with the engine running; those count as idle, not driving
+    private static long drivingSeconds(VehicleUsage usage) {
+        return Math.max(0, usage.tripSeconds() - usage.idleSeconds());
+    }
+}
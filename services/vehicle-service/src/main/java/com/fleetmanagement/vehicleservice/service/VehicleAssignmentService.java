@@ -7,8 +7,12 @@ import com.fleetmanagement.vehicleservice.domain.entity.Vehicle;
 import com.fleetmanagement.vehicleservice.domain.entity.VehicleAssignment;
 import com.fleetmanagement.vehicleservice.domain.enums.AssignmentStatus;
 import com.fleetmanagement.vehicleservice.domain.enums.AssignmentType;
+import com.fleetmanagement.vehicleservice.domain.enums.VehicleStatus;
 import com.fleetmanagement.vehicleservice.dto.request.AssignDriverRequest;
+import com.fleetmanagement.vehicleservice.dto.request.BulkAssignDriverRequest;
+import com.fleetmanagement.vehicleservice.dto.response.BulkAssignmentResponse;
 import com.fleetmanagement.vehicleservice.dto.response.VehicleAssignmentResponse;
+import com.fleetmanagement.vehicleservice.exception.AssignmentConflictException;
 import com.fleetmanagement.vehicleservice.exception.DriverNotAvailableException;
 import com.fleetmanagement.vehicleservice.exception.VehicleAssignmentConflictException;
 import com.fleetmanagement.vehicleservice.exception.VehicleNotFoundException;
@@ -18,9 +22,16 @@ import org.slf4j.Logger;
 
 
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 
@@ -40,14 +51,23 @@ public class VehicleAssignmentService {
     private final VehicleAssignmentRepository assignmentRepository;
     private final VehicleRepository vehicleRepository;
     private final UserServiceClient userServiceClient;
+    private final AssignmentScheduleService scheduleService;
+
+    @Value("${app.vehicle.assignment.conflict-check-enabled:true}")
+    private boolean conflictCheckEnabled;
+
+    @Value("${app.vehicle.bulk-operation-limit:1000}")
+    private int bulkOperationLimit;
 
     @Autowired
     public VehicleAssignmentService(VehicleAssignmentRepository assignmentRepository,
                                     VehicleRepository vehicleRepository,
-                                    UserServiceClient userServiceClient) {
+                                    UserServiceClient userServiceClient,
+                                    AssignmentScheduleService scheduleService) {
         this.assignmentRepository = assignmentRepository;
         this.vehicleRepository = vehicleRepository;
         this.userServiceClient = userServiceClient;
+        this.scheduleService = scheduleService;
     }
 
     /**
@@ -63,40 +83,155 @@ public class VehicleAssignmentService {
         validateDriverAvailability(request.getDriverId(), companyId);
 
         // 2. VALIDATE VEHICLE AVAILABILITY
-        validateVehicleAvailability(request.getVehicleId(), companyId);
+        Vehicle vehicle = validateVehicleAvailability(request.getVehicleId(), companyId);
 
-        // 3. CHECK FOR ASSIGNMENT CONFLICTS
-        validateAssignmentConflicts(request.getDriverId(), request.getVehicleId(),
-                request.getStartDate(), request.getEndDate());
+        // 3. CHECK FOR ASSIGNMENT CONFLICTS AND RESERVE THE SLOT
+        AssignmentScheduleService.Slot slot = reserveSlot(request, companyId);
 
-        // 4. GET VEHICLE DETAILS FOR NOTIFICATION
-        Vehicle vehicle = vehicleRepository.findByIdAndCompanyId(request.getVehicleId(), companyId)
-                .orElseThrow(() -> new VehicleNotFoundException("Vehicle not found: " + request.getVehicleId()));
-
-        // 5. CREATE ASSIGNMENT
-        VehicleAssignment assignment = VehicleAssignment.builder()
-                .vehicleId(request.getVehicleId())
-                .driverId(request.getDriverId())
-                .companyId(companyId)
-                .assignmentType(request.getAssignmentType() != null ? request.getAssignmentType() : AssignmentType.TEMPORARY)
-                .startDate(request.getStartDate())
-                .endDate(request.getEndDate())
-                .status(AssignmentStatus.ACTIVE)
-                .notes(request.getNotes())
-                .assignedBy(assignedBy)
-                .createdBy(assignedBy)
-                .updatedBy(assignedBy)
-                .build();
+        // 4. CREATE ASSIGNMENT
+        VehicleAssignment assignment = buildAssignment(request, companyId, assignedBy);
 
         VehicleAssignment savedAssignment = assignmentRepository.save(assignment);
+        bindSlot(companyId, slot, savedAssignment);
         logger.info("Vehicle assignment created successfully with ID: {}", savedAssignment.getId());
 
-        // 6. NOTIFY USER SERVICE ABOUT ASSIGNMENT
+        // 5. NOTIFY USER SERVICE ABOUT ASSIGNMENT
         notifyDriverAssignment(request.getDriverId(), vehicle, assignment);
 
         return mapToResponse(savedAssignment);
     }
 
+    /**
+     * Assign a whole shift roster: drivers are validated in one user-service call and
+     * conflicts (against existing assignments and within the roster) are detected in one pass
+     */
+    @Transactional
+    @CacheEvict(value = {"assignments", "driverAssignments", "vehicleAssignments"}, allEntries = true)
+    public BulkAssignmentResponse bulkAssignDrivers(BulkAssignDriverRequest request, UUID companyId, UUID assignedBy) {
+        List<AssignDriverRequest> items = request.getAssignments();
+        if (items.size() > bulkOperationLimit) {
+            throw new IllegalArgumentException("Roster exceeds the bulk operation limit of " + bulkOperationLimit);
+        }
+        logger.info("Bulk assigning {} drivers for company {}", items.size(), companyId);
+
+        // 1. LOAD ALL VEHICLES AND VALIDATE ALL DRIVERS UP FRONT
+        Set<UUID> vehicleIds = new LinkedHashSet<>();
+        Set<UUID> driverIds = new LinkedHashSet<>();
+        for (AssignDriverRequest item : items) {
+            vehicleIds.add(item.getVehicleId());
+            driverIds.add(item.getDriverId());
+        }
+
+        Map<UUID, Vehicle> vehicles = new HashMap<>();
+        for (Vehicle vehicle : vehicleRepository.findAllById(vehicleIds)) {
+            if (companyId.equals(vehicle.getCompanyId())) {
+                vehicles.put(vehicle.getId(), vehicle);
+            }
+        }
+        Map<UUID, String> driverProblems = validateDrivers(driverIds, companyId);
+
+        // 2. VALIDATE EACH ROSTER ENTRY
+        List<BulkAssignmentResponse.ItemError> errors = new ArrayList<>();
+        List<Integer> candidates = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            AssignDriverRequest item = items.get(i);
+            try {
+                String problem = driverProblems.get(item.getDriverId());
+                if (problem != null) {
+                    throw new DriverNotAvailableException(problem);
+                }
+                Vehicle vehicle = vehicles.get(item.getVehicleId());
+                if (vehicle == null) {
+                    throw new VehicleNotFoundException("Vehicle not found: " + item.getVehicleId());
+                }
+                checkAssignable(vehicle);
+                if (item.getEndDate() != null && item.getEndDate().isBefore(item.getStartDate())) {
+                    throw new VehicleAssignmentConflictException("End date must not be before start date");
+                }
+                candidates.add(i);
+            } catch (DriverNotAvailableException | VehicleNotFoundException | VehicleAssignmentConflictException e) {
+                errors.add(itemError(i, item, e.getMessage()));
+            }
+        }
+
+        // 3. RESERVE ALL VALID ENTRIES AT ONCE
+        List<VehicleAssignment> accepted = new ArrayList<>();
+        List<AssignmentScheduleService.Slot> slots = new ArrayList<>();
+        List<AssignmentScheduleService.SlotResult> reservations = reserveSlots(
+                candidates.stream().map(items::get).toList(), companyId);
+        for (int c = 0; c < candidates.size(); c++) {
+            int index = candidates.get(c);
+            AssignDriverRequest item = items.get(index);
+            AssignmentScheduleService.SlotResult reservation = reservations != null ? reservations.get(c) : null;
+            if (reservation != null && reservation.conflict() != null) {
+                errors.add(itemError(index, item, reservation.conflict()));
+                continue;
+            }
+            slots.add(reservation != null ? reservation.slot() : null);
+            accepted.add(buildAssignment(item, companyId, assignedBy));
+        }
+        errors.sort(Comparator.comparingInt(BulkAssignmentResponse.ItemError::getIndex));
+
+        if (request.isAllOrNothing() && !errors.isEmpty()) {
+            // Rolling back releases the slots reserved so far
+            throw new AssignmentConflictException(
+                    "Roster rejected: " + errors.size() + " of " + items.size() + " assignments failed",
+                    errors.stream().map(error -> "#" + error.getIndex() + ": " + error.getMessage()).toList());
+        }
+
+        // 4. PERSIST ACCEPTED ASSIGNMENTS IN ONE BATCH
+        List<VehicleAssignment> saved = assignmentRepository.saveAll(accepted);
+        for (int i = 0; i < saved.size(); i++) {
+            bindSlot(companyId, slots.get(i), saved.get(i));
+        }
+
+        for (VehicleAssignment assignment : saved) {
+            notifyDriverAssignment(assignment.getDriverId(), vehicles.get(assignment.getVehicleId()), assignment);
+        }
+
+        logger.info("Bulk assignment for company {} completed: {} created, {} failed",
+                companyId, saved.size(), errors.size());
+
+        return BulkAssignmentResponse.builder()
+                .totalRequested(items.size())
+                .created(saved.size())
+                .failed(errors.size())
+                .assignments(saved.stream().map(this::mapToResponse).toList())
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * Validate a set of drivers with a single User Service call, returning the problem per rejected driver
+     */
+    private Map<UUID, String> validateDrivers(Set<UUID> driverIds, UUID companyId) {
+        Map<UUID, String> problems = new HashMap<>();
+        try {
+            List<DriverValidationResponse> validations = UserServiceClient.data(
+                    userServiceClient.validateDrivers(companyId, new ArrayList<>(driverIds)));
+            Map<UUID, DriverValidationResponse> byDriver = new HashMap<>();
+            if (validations != null) {
+                for (DriverValidationResponse validation : validations) {
+                    if (validation.getUserId() != null) {
+                        byDriver.put(validation.getUserId(), validation);
+                    }
+                }
+            }
+            for (UUID driverId : driverIds) {
+                String problem = describeDriverProblem(byDriver.get(driverId));
+                if (problem != null) {
+                    problems.put(driverId, problem);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to validate {} drivers for company: {}", driverIds.size(), companyId, e);
+            String problem = "Unable to validate driver availability: " + e.getMessage();
+            driverIds.forEach(driverId -> problems.put(driverId, problem));
+        }
+        return problems;
+    }
+
     /**
      * Validate driver availability with User Service
      */
@@ -104,22 +239,12 @@ public class VehicleAssignmentService {
         try {
             logger.debug("Validating driver availability: {} for company: {}", driverId, companyId);
 
-            DriverValidationResponse validation = userServiceClient.validateDriver(driverId, companyId);
+            DriverValidationResponse validation = UserServiceClient.data(
+                    userServiceClient.validateDriver(driverId, companyId));
 
-            if (validation == null) {
-                throw new DriverNotAvailableException("Unable to validate driver availability");
-            }
-            if (!validation.isValid()) {
-                String errors = validation.getValidationErrors() != null
-                        ? String.join(", ", validation.getValidationErrors())
-                        : "Driver validation failed";
-                throw new DriverNotAvailableException("Driver validation failed: " + errors);
-            }
-            if (!validation.isAvailable()) {
-                String reason = validation.getUnavailabilityReason() != null
-                        ? validation.getUnavailabilityReason()
-                        : "Driver is not available";
-                throw new DriverNotAvailableException("Driver not available: " + reason);
+            String problem = describeDriverProblem(validation);
+            if (problem != null) {
+                throw new DriverNotAvailableException(problem);
             }
             logger.info("Driver availability validated successfully: {}", driverId);
         } catch (DriverNotAvailableException e) {
@@ -130,45 +255,106 @@ public class VehicleAssignmentService {
         }
     }
 
+    /**
+     * Describe why a driver validation result rejects the driver, or null if the driver can be assigned
+     */
+    private String describeDriverProblem(DriverValidationResponse validation) {
+        if (validation == null) {
+            return "Unable to validate driver availability";
+        }
+        if (!validation.isValid()) {
+            String errors = validation.getValidationErrors() != null
+                    ? String.join(", ", validation.getValidationErrors())
+                    : validation.getUnavailabilityReason() != null
+                    ? validation.getUnavailabilityReason()
+                    : "Driver validation failed";
+            return "Driver validation failed: " + errors;
+        }
+        if (!validation.isAvailable()) {
+            String reason = validation.getUnavailabilityReason() != null
+                    ? validation.getUnavailabilityReason()
+                    : "Driver is not available";
+            return "Driver not available: " + reason;
+        }
+        return null;
+    }
+
     /**
      * Validate vehicle availability for assignment
      */
-    private void validateVehicleAvailability(UUID vehicleId, UUID companyId) {
+    private Vehicle validateVehicleAvailability(UUID vehicleId, UUID companyId) {
         // Check if vehicle exists and belongs to company
         Vehicle vehicle = vehicleRepository.findByIdAndCompanyId(vehicleId, companyId)
                 .orElseThrow(() -> new VehicleNotFoundException("Vehicle not found: " + vehicleId));
 
-        // Check if vehicle is in assignable status
-        if (vehicle.getStatus() != com.fleetmanagement.vehicleservice.domain.enums.VehicleStatus.ACTIVE) {
+        checkAssignable(vehicle);
+
+        logger.debug("Vehicle availability validated: {}", vehicleId);
+        return vehicle;
+    }
+
+    /**
+     * Check if vehicle is in assignable status
+     */
+    private void checkAssignable(Vehicle vehicle) {
+        if (vehicle.getStatus() != VehicleStatus.ACTIVE) {
             throw new VehicleAssignmentConflictException("Vehicle is not available for assignment. Status: " + vehicle.getStatus());
         }
+    }
 
-        logger.debug("Vehicle availability validated: {}", vehicleId);
+    /**
+     * Check for assignment conflicts against the in-memory schedule and reserve the period
+     */
+    private AssignmentScheduleService.Slot reserveSlot(AssignDriverRequest request, UUID companyId) {
+        if (!conflictCheckEnabled) {
+            return null;
+        }
+        return scheduleService.reserve(companyId, request.getVehicleId(), request.getDriverId(),
+                request.getStartDate(), request.getEndDate());
     }
 
     /**
-     * Check for assignment conflicts
+     * Reserve the periods of several roster entries at once, or null if conflict checks are disabled
      */
-    private void validateAssignmentConflicts(UUID driverId, UUID vehicleId, LocalDate startDate, LocalDate endDate) {
-        // Check for overlapping driver assignments
-        List<VehicleAssignment> driverConflicts = assignmentRepository.findOverlappingDriverAssignments(
-                driverId, startDate, endDate);
-
-        if (!driverConflicts.isEmpty()) {
-            throw new VehicleAssignmentConflictException(
-                    "Driver is already assigned to another vehicle during this period");
+    private List<AssignmentScheduleService.SlotResult> reserveSlots(List<AssignDriverRequest> requests, UUID companyId) {
+        if (!conflictCheckEnabled) {
+            return null;
         }
+        return scheduleService.reserveAll(companyId, requests.stream()
+                .map(request -> new AssignmentScheduleService.SlotRequest(request.getVehicleId(), request.getDriverId(),
+                        request.getStartDate(), request.getEndDate()))
+                .toList());
+    }
 
-        // Check for overlapping vehicle assignments
-        List<VehicleAssignment> vehicleConflicts = assignmentRepository.findOverlappingVehicleAssignments(
-                vehicleId, startDate, endDate);
+    private static BulkAssignmentResponse.ItemError itemError(int index, AssignDriverRequest item, String message) {
+        return BulkAssignmentResponse.ItemError.builder()
+                .index(index)
+                .vehicleId(item.getVehicleId())
+                .driverId(item.getDriverId())
+                .message(message)
+                .build();
+    }
 
-        if (!vehicleConflicts.isEmpty()) {
-            throw new VehicleAssignmentConflictException(
-                    "Vehicle is already assigned to another driver during this period");
+    private void bindSlot(UUID companyId, AssignmentScheduleService.Slot slot, VehicleAssignment assignment) {
+        if (slot != null) {
+            scheduleService.bind(companyId, slot, assignment.getId());
         }
+    }
 
-        logger.debug("No assignment conflicts found for driver: {} and vehicle: {}", driverId, vehicleId);
+    private VehicleAssignment buildAssignment(AssignDriverRequest request, UUID companyId, UUID assignedBy) {
+        return VehicleAssignment.builder()
+                .vehicleId(request.getVehicleId())
+                .driverId(request.getDriverId())
+                .companyId(companyId)
+                .assignmentType(request.getAssignmentType() != null ? request.getAssignmentType() : AssignmentType.TEMPORARY)
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .status(AssignmentStatus.ACTIVE)
+                .notes(request.getNotes())
+                .assignedBy(assignedBy)
+                .createdBy(assignedBy)
+                .updatedBy(assignedBy)
+                .build();
     }
 
     /**
@@ -187,7 +373,10 @@ public class VehicleAssignmentService {
                 notification.setAssignmentType(assignment.getAssignmentType().name());
             }
 
-            userServiceClient.notifyDriverAssignment(driverId, notification);
+            if (!userServiceClient.notifyDriverAssignment(driverId, notification).getStatusCode().is2xxSuccessful()) {
+                logger.warn("User Service did not accept driver assignment notification for driver: {}", driverId);
+                return;
+            }
             logger.info("Driver assignment notification sent successfully: {}", driverId);
 
         } catch (Exception e) {
@@ -218,11 +407,16 @@ public class VehicleAssignmentService {
         assignment.setUpdatedAt(LocalDateTime.now());
 
         VehicleAssignment updatedAssignment = assignmentRepository.save(assignment);
+        scheduleService.releaseAfterCommit(companyId, assignmentId);
 
         // NOTIFY USER SERVICE ABOUT UNASSIGNMENT
         try {
-            userServiceClient.notifyDriverUnassignment(assignment.getDriverId(), assignment.getVehicleId());
-            logger.info("Driver unassignment notification sent: {}", assignment.getDriverId());
+            if (userServiceClient.notifyDriverUnassignment(assignment.getDriverId(), companyId)
+                    .getStatusCode().is2xxSuccessful()) {
+                logger.info("Driver unassignment notification sent: {}", assignment.getDriverId());
+            } else {
+                logger.warn("User Service did not accept driver unassignment notification: {}", assignment.getDriverId());
+            }
         } catch (Exception e) {
             logger.error("Failed to notify driver unassignment: {}", assignment.getDriverId(), e);
         }
@@ -324,6 +518,7 @@ public class VehicleAssignmentService {
         assignment.setUpdatedAt(LocalDateTime.now());
 
         VehicleAssignment updatedAssignment = assignmentRepository.save(assignment);
+        scheduleService.releaseAfterCommit(companyId, assignmentId);
         logger.info("Assignment checked out successfully: {}", assignmentId);
 
         return mapToResponse(updatedAssignment);
@@ -0,0 +1,135 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fleetmanagement.vehicleservice.domain.enums.DueItemType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Vehicle Due Date Index
+ *
+ * Calendar of due items for all tenants, bucketed by epoch day. Entries are
+ * grouped by owner (a vehicle for service/insurance/registration dates, a
+ * document for document expiries) so an owner's entries can be replaced as a
+ * unit when it changes. Reads are lock-free; writes are serialized.
+ */
+public final class VehicleDueDateIndex {
+
+    private final ConcurrentSkipListMap<Long, Set<Entry>> buckets = new ConcurrentSkipListMap<>();
+    private final Map<UUID, List<Entry>> entriesByOwner = new HashMap<>();
+
+    /**
+     * Replace all entries of an owner (an empty list removes the owner)
+     */
+    public synchronized void replace(UUID ownerId, List<Entry> entries) {
+        List<Entry> previous = entriesByOwner.remove(ownerId);
+        if (previous != null) {
+            previous.forEach(this::unbucket);
+        }
+        if (!entries.isEmpty()) {
+            List<Entry> copy = List.copyOf(entries);
+            entriesByOwner.put(ownerId, copy);
+            copy.forEach(this::bucket);
+        }
+    }
+
+    /**
+     * Replace the whole index content
+     */
+    public synchronized void replaceAll(Map<UUID, List<Entry>> entries) {
+        buckets.clear();
+        entriesByOwner.clear();
+        entries.forEach((ownerId, ownerEntries) -> {
+            if (!ownerEntries.isEmpty()) {
+                entriesByOwner.put(ownerId, List.copyOf(ownerEntries));
+                ownerEntries.forEach(this::bucket);
+            }
+        });
+    }
+
+    /**
+     * Collect entries due on or before a date, optionally restricted to one company
+     */
+    public List<Entry> findDueOnOrBefore(LocalDate date, UUID companyId) {
+        List<Entry> result = new ArrayList<>();
+        NavigableMap<Long, Set<Entry>> range = buckets.headMap(date.toEpochDay(), true);
+        for (Collection<Entry> bucket : range.values()) {
+            for (Entry entry : bucket) {
+                if (companyId == null || companyId.equals(entry.companyId)) {
+                    result.add(entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized List<Entry> getEntries(UUID ownerId) {
+        return entriesByOwner.getOrDefault(ownerId, Collections.emptyList());
+    }
+
+    public synchronized int size() {
+        return entriesByOwner.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void bucket(Entry entry) {
+        buckets.computeIfAbsent(entry.dueDate.toEpochDay(), day -> ConcurrentHashMap.newKeySet()).add(entry);
+    }
+
+    private void unbucket(Entry entry) {
+        buckets.computeIfPresent(entry.dueDate.toEpochDay(), (day, bucket) -> {
+            bucket.remove(entry);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    /**
+     * A single dated obligation of a vehicle
+     */
+    public static final class Entry {
+        private final UUID companyId;
+        private final UUID vehicleId;
+        private final String vehicleName;
+        private final String licensePlate;
+        private final DueItemType type;
+        private final UUID documentId;
+        private final String description;
+        private final LocalDate dueDate;
+        private final Integer dueMileage;
+        private final Integer currentMileage;
+
+        public Entry(UUID companyId, UUID vehicleId, String vehicleName, String licensePlate, DueItemType type,
+                     UUID documentId, String description, LocalDate dueDate, Integer dueMileage, Integer currentMileage) {
+            this.companyId = companyId;
+            this.vehicleId = vehicleId;
+            this.vehicleName = vehicleName;
+            this.licensePlate = licensePlate;
+            this.type = type;
+            this.documentId = documentId;
+            this.description = description;
+            this.dueDate = dueDate;
+            this.dueMileage = dueMileage;
+            this.currentMileage = currentMileage;
+        }
+
+        public UUID getCompanyId() { return companyId; }
+        public UUID getVehicleId() { return vehicleId; }
+        public String getVehicleName() { return vehicleName; }
+        public String getLicensePlate() { return licensePlate; }
+        public DueItemType getType() { return type; }
+        public UUID getDocumentId() { return documentId; }
+        public String getDescription() { return description; }
+        public LocalDate getDueDate() { return dueDate; }
+        public Integer getDueMileage() { return dueMileage; }
+        public Integer getCurrentMileage() { return currentMileage; }
+    }
+}
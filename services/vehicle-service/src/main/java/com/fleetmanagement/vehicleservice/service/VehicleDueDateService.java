@@ -0,0 +1,324 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fleetmanagement.vehicleservice.domain.entity.Vehicle;
+import com.fleetmanagement.vehicleservice.domain.entity.VehicleDocument;
+import com.fleetmanagement.vehicleservice.domain.enums.DocumentType;
+import com.fleetmanagement.vehicleservice.domain.enums.DueItemType;
+import com.fleetmanagement.vehicleservice.domain.enums.VehicleStatus;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleDueItemResponse;
+import com.fleetmanagement.vehicleservice.repository.VehicleDocumentRepository;
+import com.fleetmanagement.vehicleservice.repository.ScheduledJobRunRepository;
+import com.fleetmanagement.vehicleservice.repository.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Vehicle Due Date Service
+ *
+ * Maintains a single VehicleDueDateIndex of next service (by date and by
+ * projected mileage), insurance, registration and document expiry dates for
+ * all companies. The index is rebuilt at startup and before each daily scan,
+ * and patched after commit whenever a vehicle, document or mileage changes.
+ * The daily scan publishes one due-soon event per company; every instance
+ * refreshes its index, but only the one that claims the day publishes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class VehicleDueDateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleDueDateService.class);
+
+    // Mileage projections further out than this are not worth indexing
+    private static final long MAX_PROJECTION_DAYS = 3650;
+
+    private static final String DUE_SOON_JOB = "vehicles-due-soon";
+
+    private final VehicleRepository vehicleRepository;
+    private final VehicleDocumentRepository documentRepository;
+    private final EventPublishingService eventPublishingService;
+    private final ScheduledJobRunRepository jobRunRepository;
+
+    private final VehicleDueDateIndex index = new VehicleDueDateIndex();
+    private final Map<UUID, MileageTrack> mileageTracks = new ConcurrentHashMap<>();
+
+    @Value("${app.vehicle.due-dates.default-daily-mileage:100}")
+    private double defaultDailyMileage;
+
+    @Value("${app.vehicle.due-dates.due-soon-days:30}")
+    private int dueSoonDays;
+
+    @Value("${app.vehicle.due-dates.scan-enabled:true}")
+    private boolean scanEnabled;
+
+    @Autowired
+    public VehicleDueDateService(VehicleRepository vehicleRepository,
+                                 VehicleDocumentRepository documentRepository,
+                                 EventPublishingService eventPublishingService,
+                                 ScheduledJobRunRepository jobRunRepository) {
+        this.vehicleRepository = vehicleRepository;
+        this.documentRepository = documentRepository;
+        this.eventPublishingService = eventPublishingService;
+        this.jobRunRepository = jobRunRepository;
+    }
+
+    /**
+     * Build the index once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        Map<UUID, List<VehicleDueDateIndex.Entry>> entries = new HashMap<>();
+
+        for (Object[] row : vehicleRepository.findDueDateSources()) {
+            UUID vehicleId = (UUID) row[0];
+            entries.put(vehicleId, vehicleEntries(vehicleId, (UUID) row[1], (String) row[2], (String) row[3],
+                    (Integer) row[4], (LocalDate) row[5], (Integer) row[6], (LocalDate) row[7], (LocalDate) row[8], today));
+        }
+        for (Object[] row : documentRepository.findDueDateSources()) {
+            UUID documentId = (UUID) row[0];
+            entries.put(documentId, List.of(documentEntry(documentId, (UUID) row[1], (UUID) row[2], (String) row[3],
+                    (String) row[4], (DocumentType) row[5], (String) row[6], (LocalDate) row[7])));
+        }
+
+        index.replaceAll(entries);
+        logger.info("Rebuilt due-date index: {} entries from {} owners in {} ms",
+                index.size(), entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Daily scan: refresh projections and publish due-soon items in bulk, one event per company
+     */
+    @Scheduled(cron = "${app.vehicle.due-dates.scan-cron:0 0 6 * * *}")
+    public void publishDueSoon() {
+        if (!scanEnabled) {
+            return;
+        }
+        rebuild();
+
+        LocalDate today = LocalDate.now();
+        if (jobRunRepository.claim(DUE_SOON_JOB + ":" + today) == 0) {
+            logger.info("Due-soon items for {} were already published by another instance", today);
+            return;
+        }
+        LocalDate windowEnd = today.plusDays(dueSoonDays);
+        Map<UUID, List<VehicleDueItemResponse>> byCompany = index.findDueOnOrBefore(windowEnd, null).stream()
+                .map(entry -> toResponse(entry, today))
+                .collect(Collectors.groupingBy(VehicleDueItemResponse::getCompanyId));
+
+        byCompany.forEach((companyId, items) -> {
+            items.sort(Comparator.comparing(VehicleDueItemResponse::getDueDate));
+            try {
+                eventPublishingService.publishVehiclesDueSoonEvent(companyId, windowEnd, items);
+            } catch (Exception e) {
+                logger.error("Failed to publish due-soon items for company: {}", companyId, e);
+            }
+        });
+        logger.info("Published due-soon items for {} companies", byCompany.size());
+    }
+
+    /**
+     * Get items of a company due within the next N days (overdue items included)
+     */
+    public List<VehicleDueItemResponse> getDueItems(UUID companyId, int days) {
+        LocalDate today = LocalDate.now();
+        return index.findDueOnOrBefore(today.plusDays(days), companyId).stream()
+                .map(entry -> toResponse(entry, today))
+                .sorted(Comparator.comparing(VehicleDueItemResponse::getDueDate))
+                .toList();
+    }
+
+    /**
+     * Re-index a vehicle's own due dates once the current transaction commits
+     */
+    public void onVehicleChanged(Vehicle vehicle) {
+        List<VehicleDueDateIndex.Entry> entries = isTracked(vehicle.getStatus())
+                ? vehicleEntries(vehicle.getId(), vehicle.getCompanyId(), vehicle.getName(), vehicle.getLicensePlate(),
+                vehicle.getCurrentMileage(), vehicle.getNextServiceDueDate(), vehicle.getNextServiceDueMileage(),
+                vehicle.getInsuranceExpiryDate(), vehicle.getRegistrationExpiryDate(), LocalDate.now())
+                : List.of();
+        UUID vehicleId = vehicle.getId();
+        afterCommit(() -> {
+            index.replace(vehicleId, entries);
+            if (entries.isEmpty()) {
+                mileageTracks.remove(vehicleId);
+            }
+        });
+    }
+
+    /**
+     * Record a mileage reading and re-project the vehicle's mileage-based service date
+     */
+    public void onMileageUpdated(Vehicle vehicle) {
+        if (vehicle.getCurrentMileage() != null) {
+            mileageTracks.compute(vehicle.getId(), (id, track) -> track == null
+                    ? new MileageTrack(vehicle.getCurrentMileage(), LocalDate.now().toEpochDay(), defaultDailyMileage)
+                    : track.observe(vehicle.getCurrentMileage(), LocalDate.now().toEpochDay()));
+        }
+        onVehicleChanged(vehicle);
+    }
+
+    /**
+     * Re-index a document's expiry once the current transaction commits
+     */
+    public void onDocumentChanged(VehicleDocument document) {
+        Vehicle vehicle = document.getVehicle();
+        List<VehicleDueDateIndex.Entry> entries = Boolean.TRUE.equals(document.getIsActive())
+                && document.getExpiryDate() != null && vehicle != null && isTracked(vehicle.getStatus())
+                ? List.of(documentEntry(document.getId(), document.getCompanyId(), vehicle.getId(), vehicle.getName(),
+                vehicle.getLicensePlate(), document.getDocumentType(), document.getDocumentName(), document.getExpiryDate()))
+                : List.of();
+        UUID documentId = document.getId();
+        afterCommit(() -> index.replace(documentId, entries));
+    }
+
+    /**
+     * Drop a document's expiry once the current transaction commits
+     */
+    public void onDocumentRemoved(UUID documentId) {
+        afterCommit(() -> index.replace(documentId, List.of()));
+    }
+
+    // Entry construction
+
+    private List<VehicleDueDateIndex.Entry> vehicleEntries(UUID vehicleId, UUID companyId, String name, String licensePlate,
+                                                           Integer currentMileage, LocalDate nextServiceDate,
+                                                           Integer nextServiceMileage, LocalDate insuranceExpiry,
+                                                           LocalDate registrationExpiry, LocalDate today) {
+        List<VehicleDueDateIndex.Entry> entries = new ArrayList<>(4);
+        if (nextServiceDate != null) {
+            entries.add(new VehicleDueDateIndex.Entry(companyId, vehicleId, name, licensePlate, DueItemType.SERVICE_DATE,
+                    null, "Scheduled service", nextServiceDate, null, currentMileage));
+        }
+        if (nextServiceMileage != null) {
+            LocalDate projected = projectMileageDate(vehicleId, currentMileage, nextServiceMileage, today);
+            if (projected != null) {
+                entries.add(new VehicleDueDateIndex.Entry(companyId, vehicleId, name, licensePlate, DueItemType.SERVICE_MILEAGE,
+                        null, "Service due at " + nextServiceMileage, projected, nextServiceMileage, currentMileage));
+            }
+        }
+        if (insuranceExpiry != null) {
+            entries.add(new VehicleDueDateIndex.Entry(companyId, vehicleId, name, licensePlate, DueItemType.INSURANCE_EXPIRY,
+                    null, "Insurance expires", insuranceExpiry, null, null));
+        }
+        if (registrationExpiry != null) {
+            entries.add(new VehicleDueDateIndex.Entry(companyId, vehicleId, name, licensePlate, DueItemType.REGISTRATION_EXPIRY,
+                    null, "Registration expires", registrationExpiry, null, null));
+        }
+        return entries;
+    }
+
+    private VehicleDueDateIndex.Entry documentEntry(UUID documentId, UUID companyId, UUID vehicleId, String vehicleName,
+                                                    String licensePlate, DocumentType documentType, String documentName,
+                                                    LocalDate expiryDate) {
+        String description = (documentType != null ? documentType.getDisplayName() + ": " : "") + documentName + " expires";
+        return new VehicleDueDateIndex.Entry(companyId, vehicleId, vehicleName, licensePlate, DueItemType.DOCUMENT_EXPIRY,
+                documentId, description, expiryDate, null, null);
+    }
+
+    /**
+     * Project the day a vehicle reaches a mileage from its observed (or default) daily mileage
+     */
+    private LocalDate projectMileageDate(UUID vehicleId, Integer currentMileage, int dueMileage, LocalDate today) {
+        int mileage = currentMileage != null ? currentMileage : 0;
+        int remaining = dueMileage - mileage;
+        if (remaining <= 0) {
+            return today;
+        }
+        MileageTrack track = mileageTracks.get(vehicleId);
+        double dailyMileage = track != null ? track.dailyMileage : defaultDailyMileage;
+        if (dailyMileage <= 0) {
+            return null;
+        }
+        long days = (long) Math.ceil(remaining / dailyMileage);
+        return days > MAX_PROJECTION_DAYS ? null : today.plusDays(days);
+    }
+
+    private VehicleDueItemResponse toResponse(VehicleDueDateIndex.Entry entry, LocalDate today) {
+        long daysUntilDue = ChronoUnit.DAYS.between(today, entry.getDueDate());
+        return VehicleDueItemResponse.builder()
+                .vehicleId(entry.getVehicleId())
+                .companyId(entry.getCompanyId())
+                .vehicleName(entry.getVehicleName())
+                .licensePlate(entry.getLicensePlate())
+                .type(entry.getType())
+                .documentId(entry.getDocumentId())
+                .description(entry.getDescription())
+                .dueDate(entry.getDueDate())
+                .daysUntilDue(daysUntilDue)
+                .overdue(daysUntilDue < 0)
+                .dueMileage(entry.getDueMileage())
+                .currentMileage(entry.getCurrentMileage())
+                .build();
+    }
+
+    private boolean isTracked(VehicleStatus status) {
+        return status != VehicleStatus.RETIRED && status != VehicleStatus.SOLD;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Smoothed daily mileage of a vehicle, derived from successive readings
+     */
+    private static final class MileageTrack {
+        private static final double SMOOTHING = 0.3;
+
+        private final int mileage;
+        private final long day;
+        private final double dailyMileage;
+
+        private MileageTrack(int mileage, long day, double dailyMileage) {
+            this.mileage = mileage;
+            this.day = day;
+            this.dailyMileage = dailyMileage;
+        }
+
+        private MileageTrack observe(int newMileage, long newDay) {
+            if (newDay <= day || newMileage < mileage) {
+                // Same-day readings keep the original baseline so the next day's delta is complete
+                return newMileage < mileage ? new MileageTrack(newMileage, newDay, dailyMileage) : this;
+            }
+            double observed = (double) (newMileage - mileage) / (newDay - day);
+            return new MileageTrack(newMileage, newDay, SMOOTHING * observed + (1 - SMOOTHING) * dailyMileage);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fleetmanagement.vehicleservice.repository.VehicleGroupClosureRepository;
+import com.fleetmanagement.vehicleservice.repository.VehicleGroupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vehicle Group Hierarchy Service
+ *
+ * Keeps the vehicle_group_closure table in step with group create/move/delete
+ * inside the caller's transaction, and serves a per-company in-memory
+ * VehicleGroupTree so subtree and rollup queries never recurse.
+ * Cached trees are dropped after commit of any hierarchy change and expire
+ * after a TTL so changes made by other instances are picked up.
+ */
+@Service
+@Transactional
+public class VehicleGroupHierarchyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleGroupHierarchyService.class);
+
+    private static final String REBUILD_LOCK = "vehicle_group_closure:rebuild";
+
+    private final VehicleGroupRepository vehicleGroupRepository;
+    private final VehicleGroupClosureRepository closureRepository;
+
+    private final Map<UUID, VehicleGroupTree> companyTrees = new ConcurrentHashMap<>();
+
+    @Value("${app.vehicle.group-tree.ttl-seconds:300}")
+    private long treeTtlSeconds;
+
+    @Autowired
+    public VehicleGroupHierarchyService(VehicleGroupRepository vehicleGroupRepository,
+                                        VehicleGroupClosureRepository closureRepository) {
+        this.vehicleGroupRepository = vehicleGroupRepository;
+        this.closureRepository = closureRepository;
+    }
+
+    /**
+     * Backfill closure rows for groups created before the closure table existed.
+     * Instances starting together take turns; the later ones find the table
+     * consistent and leave it alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureClosureTable() {
+        closureRepository.lockHierarchy(REBUILD_LOCK);
+        long groups = vehicleGroupRepository.count();
+        long selfPaths = closureRepository.countSelfPaths();
+        if (groups != selfPaths) {
+            logger.info("Rebuilding vehicle group closure table ({} groups, {} self paths)", groups, selfPaths);
+            rebuildClosureTable();
+        }
+    }
+
+    /**
+     * Rebuild the whole closure table from parent pointers, in one transaction
+     * so readers see either the old or the new table
+     */
+    public void rebuildClosureTable() {
+        closureRepository.lockHierarchy(REBUILD_LOCK);
+        closureRepository.deleteAllPaths();
+        int paths = closureRepository.rebuildAllPaths();
+        companyTrees.clear();
+        logger.info("Rebuilt vehicle group closure table with {} paths", paths);
+    }
+
+    /**
+     * Serialize hierarchy changes of a company until the current transaction
+     * ends, so checks against the closure table stay valid until commit
+     */
+    public void lockCompanyHierarchy(UUID companyId) {
+        closureRepository.lockHierarchy("vehicle_group_closure:" + companyId);
+    }
+
+    /**
+     * Whether moving a group under the given parent would make it its own ancestor.
+     * Reads the closure table, so call it after lockCompanyHierarchy.
+     */
+    @Transactional(readOnly = true)
+    public boolean wouldCreateCycle(UUID groupId, UUID newParentGroupId) {
+        return newParentGroupId != null && closureRepository.existsPath(groupId, newParentGroupId);
+    }
+
+    /**
+     * Record closure paths for a newly created group
+     */
+    public void onGroupCreated(UUID groupId, UUID parentGroupId, UUID companyId) {
+        lockCompanyHierarchy(companyId);
+        closureRepository.insertSelfPath(companyId, groupId);
+        if (parentGroupId != null) {
+            closureRepository.insertAncestorPaths(groupId, parentGroupId);
+        }
+        evictAfterCommit(companyId);
+    }
+
+    /**
+     * Relink a group's subtree under a new parent (null moves it to the root level)
+     */
+    public void onGroupMoved(UUID groupId, UUID newParentGroupId, UUID companyId) {
+        lockCompanyHierarchy(companyId);
+        int detached = closureRepository.detachSubtree(groupId);
+        int attached = newParentGroupId != null ? closureRepository.attachSubtree(groupId, newParentGroupId) : 0;
+        logger.debug("Moved group {} under {}: {} paths removed, {} paths added",
+                groupId, newParentGroupId, detached, attached);
+        evictAfterCommit(companyId);
+    }
+
+    /**
+     * Remove closure paths of a deleted (leaf) group
+     */
+    public void onGroupDeleted(UUID groupId, UUID companyId) {
+        lockCompanyHierarchy(companyId);
+        closureRepository.deleteAllPathsFor(groupId);
+        evictAfterCommit(companyId);
+    }
+
+    /**
+     * Get the cached tree for a company, building it on first use or after expiry
+     */
+    @Transactional(readOnly = true)
+    public VehicleGroupTree getTree(UUID companyId) {
+        VehicleGroupTree tree = companyTrees.get(companyId);
+        if (tree == null || isExpired(tree)) {
+            tree = buildTree(companyId);
+            companyTrees.put(companyId, tree);
+        }
+        return tree;
+    }
+
+    /**
+     * Drop the cached tree once the current transaction commits
+     */
+    public void evictAfterCommit(UUID companyId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    companyTrees.remove(companyId);
+                }
+            });
+        } else {
+            companyTrees.remove(companyId);
+        }
+    }
+
+    private VehicleGroupTree buildTree(UUID companyId) {
+        long start = System.nanoTime();
+
+        List<Object[]> nodes = vehicleGroupRepository.findTreeNodesByCompany(companyId);
+        List<Object[]> memberships = vehicleGroupRepository.findMembershipPairsByCompany(companyId);
+        VehicleGroupTree tree = VehicleGroupTree.build(companyId, nodes, memberships);
+
+        logger.debug("Built group tree for company {}: {} groups, depth {}, {} ms",
+                companyId, tree.size(), tree.getMaxDepth(), (System.nanoTime() - start) / 1_000_000);
+        return tree;
+    }
+
+    private boolean isExpired(VehicleGroupTree tree) {
+        return treeTtlSeconds > 0 &&
+                Duration.between(tree.getBuiltAt(), LocalDateTime.now()).getSeconds() >= treeTtlSeconds;
+    }
+}
@@ -39,12 +39,15 @@ public class VehicleGroupService {
     private static final Logger logger = LoggerFactory.getLogger(VehicleGroupService.class);
 
     private final VehicleGroupRepository vehicleGroupRepository;
+    private final VehicleGroupHierarchyService hierarchyService;
     private final CacheService cacheService;
 
     @Autowired
     public VehicleGroupService(VehicleGroupRepository vehicleGroupRepository,
+                               VehicleGroupHierarchyService hierarchyService,
                                CacheService cacheService) {
         this.vehicleGroupRepository = vehicleGroupRepository;
+        this.hierarchyService = hierarchyService;
         this.cacheService = cacheService;
     }
 
@@ -94,6 +97,7 @@ public class VehicleGroupService {
                 .build();
 
         vehicleGroup = vehicleGroupRepository.save(vehicleGroup);
+        hierarchyService.onGroupCreated(vehicleGroup.getId(), request.getParentGroupId(), companyId);
 
         logger.info("Successfully created vehicle group: {} with ID: {}", vehicleGroup.getName(), vehicleGroup.getId());
         return mapToVehicleGroupResponse(vehicleGroup);
@@ -130,8 +134,12 @@ public class VehicleGroupService {
         }
 
         // Validate parent group change
-        if (request.getParentGroupId() != null) {
-            if (!vehicleGroup.isValidHierarchy(findParentGroup(request.getParentGroupId(), companyId))) {
+        UUID currentParentId = vehicleGroup.getParentGroup() != null ? vehicleGroup.getParentGroup().getId() : null;
+        boolean parentChanged = request.getParentGroupId() != null && !request.getParentGroupId().equals(currentParentId);
+        if (parentChanged) {
+            // Checked against the closure table under the company lock; the cached tree may be stale
+            hierarchyService.lockCompanyHierarchy(companyId);
+            if (hierarchyService.wouldCreateCycle(groupId, request.getParentGroupId())) {
                 throw new VehicleGroupValidationException("Invalid hierarchy: would create circular reference");
             }
         }
@@ -140,6 +148,11 @@ public class VehicleGroupService {
         updateVehicleGroupFields(vehicleGroup, request, updatedBy);
 
         vehicleGroup = vehicleGroupRepository.save(vehicleGroup);
+        if (parentChanged) {
+            hierarchyService.onGroupMoved(groupId, request.getParentGroupId(), companyId);
+        } else {
+            hierarchyService.evictAfterCommit(companyId);
+        }
 
         logger.info("Successfully updated vehicle group: {}", groupId);
         return mapToVehicleGroupResponse(vehicleGroup);
@@ -159,6 +172,7 @@ public class VehicleGroupService {
         validateVehicleGroupDeletion(vehicleGroup);
 
         vehicleGroupRepository.delete(vehicleGroup);
+        hierarchyService.onGroupDeleted(groupId, companyId);
 
         logger.info("Successfully deleted vehicle group: {}", groupId);
     }
@@ -209,19 +223,31 @@ public class VehicleGroupService {
     /**
      * Get complete group hierarchy for a company
      */
+    @Transactional(readOnly = true)
     public List<VehicleGroupHierarchyResponse> getGroupHierarchy(UUID companyId) {
-        logger.debug("Building group hierarchy for company: {}", companyId);
+        logger.debug("Fetching group hierarchy for company: {}", companyId);
 
-        List<Object[]> hierarchyData = vehicleGroupRepository.findGroupHierarchy(companyId);
+        return hierarchyService.getTree(companyId).toHierarchyResponses();
+    }
 
-        return hierarchyData.stream()
-                .map(row -> VehicleGroupHierarchyResponse.builder()
-                        .rootGroupId((UUID) row[0])
-                        .rootGroupName((String) row[1])
-                        .parentGroupId((UUID) row[2])
-                        .level((Integer) row[3])
-                        .build())
-                .collect(Collectors.toList());
+    /**
+     * Get IDs of all descendant groups of a group (recursively)
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> getDescendantGroupIds(UUID groupId, UUID companyId) {
+        VehicleGroupTree tree = getTreeContaining(groupId, companyId);
+        return tree.getDescendantIds(groupId);
+    }
+
+    /**
+     * Get IDs of all vehicles in a group, optionally including its descendant groups
+     */
+    @Transactional(readOnly = true)
+    public Set<UUID> getVehicleIdsInGroup(UUID groupId, UUID companyId, boolean recursive) {
+        logger.debug("Fetching vehicles in group: {} (recursive: {})", groupId, recursive);
+
+        VehicleGroupTree tree = getTreeContaining(groupId, companyId);
+        return recursive ? tree.getSubtreeVehicleIds(groupId) : tree.getDirectVehicleIds(groupId);
     }
     private Specification<VehicleGroup> createVehicleGroupSpecification(VehicleGroupSearchRequest req, UUID companyId) {
         return (root, query, cb) -> {
@@ -319,6 +345,7 @@ public class VehicleGroupService {
         logger.debug("Updating sort order for group: {} to {}", groupId, newSortOrder);
 
         vehicleGroupRepository.updateGroupSortOrder(companyId, groupId, newSortOrder, updatedBy);
+        hierarchyService.evictAfterCommit(companyId);
     }
 
     /**
@@ -334,6 +361,7 @@ public class VehicleGroupService {
         vehicleGroup.setUpdatedBy(updatedBy);
 
         vehicleGroup = vehicleGroupRepository.save(vehicleGroup);
+        hierarchyService.evictAfterCommit(companyId);
 
         return mapToVehicleGroupResponse(vehicleGroup);
     }
@@ -341,30 +369,12 @@ public class VehicleGroupService {
     /**
      * Get group statistics
      */
+    @Transactional(readOnly = true)
     public VehicleGroupStatisticsResponse getGroupStatistics(UUID companyId) {
-        logger.debug("Generating group statistics for company: {}", companyId);
-
-        List<Object[]> groupCountByType = vehicleGroupRepository.getGroupCountByType(companyId);
-        long activeGroupsCount = vehicleGroupRepository.countActiveGroupsByCompany(companyId);
-        long rootGroupsCount = vehicleGroupRepository.countRootGroupsByCompany(companyId);
-
-        Map<GroupType, Integer> typeDistribution = new HashMap<>();
-        for (Object[] row : groupCountByType) {
-            typeDistribution.put((GroupType) row[0], ((Number) row[1]).intValue());
-        }
-
-        // Derive vehiclesByGroupType (example uses same distribution; replace with real vehicle counts if available)
-        Map<String, Integer> vehiclesByGroupType = typeDistribution.entrySet().stream()
-                .collect(Collectors.toMap(e -> e.getKey().name(), Map.Entry::getValue));
+        logger.debug("Fetching group statistics for company: {}", companyId);
 
-        return VehicleGroupStatisticsResponse.builder()
-                .companyId(companyId)
-                .totalActiveGroups((int) activeGroupsCount)
-                .rootGroups((int) rootGroupsCount)
-                .groupsByType(typeDistribution)
-                .vehiclesByGroupType(vehiclesByGroupType)
-                .generatedAt(java.time.LocalDateTime.now())
-                .build();
+        // Statistics are computed once per cached tree snapshot
+        return hierarchyService.getTree(companyId).getStatistics();
     }
 
     // Private helper methods
@@ -374,6 +384,14 @@ public class VehicleGroupService {
                 .orElseThrow(() -> new VehicleGroupNotFoundException("Parent group not found: " + parentGroupId));
     }
 
+    private VehicleGroupTree getTreeContaining(UUID groupId, UUID companyId) {
+        VehicleGroupTree tree = hierarchyService.getTree(companyId);
+        if (!tree.contains(groupId)) {
+            throw new VehicleGroupNotFoundException("Vehicle group not found: " + groupId);
+        }
+        return tree;
+    }
+
     private void validateVehicleGroupDeletion(VehicleGroup vehicleGroup) {
         // Check for child groups
         if (vehicleGroup.hasChildGroups()) {
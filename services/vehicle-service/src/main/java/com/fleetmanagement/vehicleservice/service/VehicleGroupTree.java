@@ -0,0 +1,386 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fleetmanagement.vehicleservice.domain.enums.GroupType;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleGroupHierarchyResponse;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleGroupStatisticsResponse;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Vehicle Group Tree
+ *
+ * Immutable, pre-order flattened snapshot of one company's group hierarchy.
+ * Every subtree occupies a contiguous index range [index, subtreeEnd), so
+ * ancestor checks are a range comparison and subtree vehicle rollups are a
+ * prefix-sum difference. Built once per company by VehicleGroupHierarchyService.
+ */
+public final class VehicleGroupTree {
+
+    private static final UUID[] NO_VEHICLES = new UUID[0];
+
+    private final UUID companyId;
+    private final LocalDateTime builtAt;
+
+    // Pre-order arrays, indexed by position in the flattened tree
+    private final UUID[] ids;
+    private final UUID[] parentIds;
+    private final String[] names;
+    private final GroupType[] groupTypes;
+    private final boolean[] active;
+    private final int[] depths;
+    private final int[] subtreeEnds;
+    private final UUID[][] directVehicles;
+    private final long[] membershipPrefix;
+
+    // Group indexes ordered by (depth, name) for hierarchy listings
+    private final int[] levelOrder;
+
+    private final Map<UUID, Integer> indexById;
+    private final int rootCount;
+    private final int maxDepth;
+
+    private volatile VehicleGroupStatisticsResponse statistics;
+
+    private VehicleGroupTree(UUID companyId, int size) {
+        this.companyId = companyId;
+        this.builtAt = LocalDateTime.now();
+        this.ids = new UUID[size];
+        this.parentIds = new UUID[size];
+        this.names = new String[size];
+        this.groupTypes = new GroupType[size];
+        this.active = new boolean[size];
+        this.depths = new int[size];
+        this.subtreeEnds = new int[size];
+        this.directVehicles = new UUID[size][];
+        this.membershipPrefix = new long[size + 1];
+        this.levelOrder = new int[size];
+        this.indexById = new HashMap<>(Math.max(16, size * 2));
+        this.rootCount = 0;
+        this.maxDepth = 0;
+    }
+
+    private VehicleGroupTree(VehicleGroupTree arrays, int rootCount, int maxDepth) {
+        this.companyId = arrays.companyId;
+        this.builtAt = arrays.builtAt;
+        this.ids = arrays.ids;
+        this.parentIds = arrays.parentIds;
+        this.names = arrays.names;
+        this.groupTypes = arrays.groupTypes;
+        this.active = arrays.active;
+        this.depths = arrays.depths;
+        this.subtreeEnds = arrays.subtreeEnds;
+        this.directVehicles = arrays.directVehicles;
+        this.membershipPrefix = arrays.membershipPrefix;
+        this.levelOrder = arrays.levelOrder;
+        this.indexById = Collections.unmodifiableMap(arrays.indexById);
+        this.rootCount = rootCount;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Build a tree snapshot from flat group rows and membership pairs.
+     *
+     * @param nodeRows       rows of [id, parentId, name, groupType, isActive, sortOrder]
+     * @param membershipRows rows of [groupId, vehicleId]
+     */
+    public static VehicleGroupTree build(UUID companyId, List<Object[]> nodeRows, List<Object[]> membershipRows) {
+        int size = nodeRows.size();
+        Map<UUID, Object[]> rowsById = new HashMap<>(Math.max(16, size * 2));
+        for (Object[] row : nodeRows) {
+            rowsById.put((UUID) row[0], row);
+        }
+
+        // Children lists ordered by sort order, then name
+        Map<UUID, List<Object[]>> childrenByParent = new HashMap<>();
+        List<Object[]> roots = new ArrayList<>();
+        for (Object[] row : nodeRows) {
+            UUID parentId = (UUID) row[1];
+            if (parentId == null || !rowsById.containsKey(parentId)) {
+                roots.add(row);
+            } else {
+                childrenByParent.computeIfAbsent(parentId, k -> new ArrayList<>()).add(row);
+            }
+        }
+        Comparator<Object[]> siblingOrder = Comparator
+                .comparing((Object[] row) -> row[5] != null ? (Integer) row[5] : 0)
+                .thenComparing(row -> (String) row[2], Comparator.nullsLast(Comparator.naturalOrder()));
+        roots.sort(siblingOrder);
+        childrenByParent.values().forEach(children -> children.sort(siblingOrder));
+
+        Map<UUID, List<UUID>> vehiclesByGroup = new HashMap<>();
+        for (Object[] row : membershipRows) {
+            vehiclesByGroup.computeIfAbsent((UUID) row[0], k -> new ArrayList<>()).add((UUID) row[1]);
+        }
+
+        VehicleGroupTree tree = new VehicleGroupTree(companyId, size);
+        int position = 0;
+        int maxDepth = 0;
+
+        // Iterative pre-order walk; a frame is {row, depth}, a null row closes the last opened subtree
+        Deque<Object[]> stack = new ArrayDeque<>();
+        Deque<Integer> openIndexes = new ArrayDeque<>();
+        for (int r = roots.size() - 1; r >= 0; r--) {
+            stack.push(new Object[]{roots.get(r), 0});
+        }
+        while (!stack.isEmpty()) {
+            Object[] frame = stack.pop();
+            if (frame[0] == null) {
+                // Close marker: subtree of this index ends at the current position
+                int closed = openIndexes.pop();
+                tree.subtreeEnds[closed] = position;
+                continue;
+            }
+            Object[] row = (Object[]) frame[0];
+            int depth = (Integer) frame[1];
+            UUID id = (UUID) row[0];
+            if (tree.indexById.containsKey(id)) {
+                continue;
+            }
+
+            int index = position++;
+            tree.indexById.put(id, index);
+            tree.ids[index] = id;
+            tree.parentIds[index] = (UUID) row[1];
+            tree.names[index] = (String) row[2];
+            tree.groupTypes[index] = (GroupType) row[3];
+            tree.active[index] = Boolean.TRUE.equals(row[4]);
+            tree.depths[index] = depth;
+            List<UUID> vehicles = vehiclesByGroup.get(id);
+            tree.directVehicles[index] = vehicles != null ? vehicles.toArray(NO_VEHICLES) : NO_VEHICLES;
+            maxDepth = Math.max(maxDepth, depth);
+
+            openIndexes.push(index);
+            stack.push(new Object[]{null, depth});
+            List<Object[]> children = childrenByParent.get(id);
+            if (children != null) {
+                for (int c = children.size() - 1; c >= 0; c--) {
+                    stack.push(new Object[]{children.get(c), depth + 1});
+                }
+            }
+        }
+
+        // Groups unreachable from a root (corrupt parent cycles) are dropped from the snapshot
+        int built = position;
+        for (int i = 0; i < built; i++) {
+            tree.membershipPrefix[i + 1] = tree.membershipPrefix[i] + tree.directVehicles[i].length;
+        }
+
+        Integer[] order = new Integer[built];
+        for (int i = 0; i < built; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator
+                .comparingInt((Integer i) -> tree.depths[i])
+                .thenComparing(i -> tree.names[i], Comparator.nullsLast(Comparator.naturalOrder())));
+        for (int i = 0; i < built; i++) {
+            tree.levelOrder[i] = order[i];
+        }
+
+        return new VehicleGroupTree(tree.trimmed(built), roots.size(), maxDepth);
+    }
+
+    private VehicleGroupTree trimmed(int built) {
+        if (built == ids.length) {
+            return this;
+        }
+        VehicleGroupTree copy = new VehicleGroupTree(companyId, built);
+        System.arraycopy(ids, 0, copy.ids, 0, built);
+        System.arraycopy(parentIds, 0, copy.parentIds, 0, built);
+        System.arraycopy(names, 0, copy.names, 0, built);
+        System.arraycopy(groupTypes, 0, copy.groupTypes, 0, built);
+        System.arraycopy(active, 0, copy.active, 0, built);
+        System.arraycopy(depths, 0, copy.depths, 0, built);
+        System.arraycopy(subtreeEnds, 0, copy.subtreeEnds, 0, built);
+        System.arraycopy(directVehicles, 0, copy.directVehicles, 0, built);
+        System.arraycopy(membershipPrefix, 0, copy.membershipPrefix, 0, built + 1);
+        System.arraycopy(levelOrder, 0, copy.levelOrder, 0, built);
+        copy.indexById.putAll(indexById);
+        return copy;
+    }
+
+    // Lookups
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(UUID groupId) {
+        return groupId != null && indexById.containsKey(groupId);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Get the depth of a group (0 for roots), or -1 if unknown
+     */
+    public int getDepth(UUID groupId) {
+        Integer index = indexOf(groupId);
+        return index != null ? depths[index] : -1;
+    }
+
+    /**
+     * Check if ancestorId is a strict ancestor of descendantId
+     */
+    public boolean isAncestor(UUID ancestorId, UUID descendantId) {
+        Integer a = indexOf(ancestorId);
+        Integer d = indexOf(descendantId);
+        return a != null && d != null && a < d && d < subtreeEnds[a];
+    }
+
+    /**
+     * Get all descendant group IDs (excluding the group itself), in pre-order
+     */
+    public List<UUID> getDescendantIds(UUID groupId) {
+        Integer index = indexOf(groupId);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(ids).subList(index + 1, subtreeEnds[index]));
+    }
+
+    /**
+     * Get ancestor group IDs from the direct parent up to the root
+     */
+    public List<UUID> getAncestorIds(UUID groupId) {
+        Integer index = indexOf(groupId);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        List<UUID> ancestors = new ArrayList<>(depths[index]);
+        UUID parentId = parentIds[index];
+        while (parentId != null && indexById.containsKey(parentId) && ancestors.size() <= maxDepth) {
+            ancestors.add(parentId);
+            parentId = parentIds[indexById.get(parentId)];
+        }
+        return ancestors;
+    }
+
+    /**
+     * Get distinct vehicle IDs assigned to the group or any of its descendants
+     */
+    public Set<UUID> getSubtreeVehicleIds(UUID groupId) {
+        Integer index = indexOf(groupId);
+        if (index == null) {
+            return Collections.emptySet();
+        }
+        Set<UUID> vehicleIds = new LinkedHashSet<>();
+        for (int i = index; i < subtreeEnds[index]; i++) {
+            Collections.addAll(vehicleIds, directVehicles[i]);
+        }
+        return vehicleIds;
+    }
+
+    /**
+     * Get vehicle IDs assigned directly to the group
+     */
+    public Set<UUID> getDirectVehicleIds(UUID groupId) {
+        Integer index = indexOf(groupId);
+        if (index == null) {
+            return Collections.emptySet();
+        }
+        return new LinkedHashSet<>(Arrays.asList(directVehicles[index]));
+    }
+
+    /**
+     * Get the number of vehicle memberships in the group's subtree
+     */
+    public long getSubtreeMembershipCount(UUID groupId) {
+        Integer index = indexOf(groupId);
+        return index != null ? membershipPrefix[subtreeEnds[index]] - membershipPrefix[index] : 0;
+    }
+
+    /**
+     * Get the number of vehicles directly assigned to the group
+     */
+    public int getDirectVehicleCount(UUID groupId) {
+        Integer index = indexOf(groupId);
+        return index != null ? directVehicles[index].length : 0;
+    }
+
+    /**
+     * Hierarchy rows ordered by level, then name
+     */
+    public List<VehicleGroupHierarchyResponse> toHierarchyResponses() {
+        List<VehicleGroupHierarchyResponse> responses = new ArrayList<>(levelOrder.length);
+        for (int index : levelOrder) {
+            responses.add(VehicleGroupHierarchyResponse.builder()
+                    .rootGroupId(ids[index])
+                    .rootGroupName(names[index])
+                    .parentGroupId(parentIds[index])
+                    .level(depths[index])
+                    .companyId(companyId)
+                    .totalVehicles((int) (membershipPrefix[subtreeEnds[index]] - membershipPrefix[index]))
+                    .build());
+        }
+        return responses;
+    }
+
+    /**
+     * Group statistics, computed once per snapshot
+     */
+    public VehicleGroupStatisticsResponse getStatistics() {
+        VehicleGroupStatisticsResponse result = statistics;
+        if (result == null) {
+            result = computeStatistics();
+            statistics = result;
+        }
+        return result;
+    }
+
+    private VehicleGroupStatisticsResponse computeStatistics() {
+        Map<GroupType, Integer> groupsByType = new EnumMap<>(GroupType.class);
+        Map<String, Integer> vehiclesByGroupType = new HashMap<>();
+        Map<String, Integer> vehiclesByGroup = new LinkedHashMap<>();
+        Set<UUID> assigned = new HashSet<>();
+        int activeGroups = 0;
+        int groupsWithVehicles = 0;
+
+        for (int i = 0; i < ids.length; i++) {
+            if (active[i]) {
+                activeGroups++;
+            }
+            int direct = directVehicles[i].length;
+            if (groupTypes[i] != null) {
+                groupsByType.merge(groupTypes[i], 1, Integer::sum);
+                vehiclesByGroupType.merge(groupTypes[i].name(), direct, Integer::sum);
+            }
+            if (direct > 0) {
+                groupsWithVehicles++;
+                Collections.addAll(assigned, directVehicles[i]);
+            }
+            vehiclesByGroup.put(names[i], (int) (membershipPrefix[subtreeEnds[i]] - membershipPrefix[i]));
+        }
+
+        long totalMemberships = membershipPrefix[ids.length];
+        return VehicleGroupStatisticsResponse.builder()
+                .companyId(companyId)
+                .totalGroups(ids.length)
+                .totalActiveGroups(activeGroups)
+                .rootGroups(rootCount)
+                .maxDepth(maxDepth)
+                .assignedVehicles(assigned.size())
+                .groupsWithVehicles(groupsWithVehicles)
+                .emptyGroups(ids.length - groupsWithVehicles)
+                .averageVehiclesPerGroup(ids.length > 0 ? (double) totalMemberships / ids.length : 0.0)
+                .groupsByType(groupsByType)
+                .vehiclesByGroupType(vehiclesByGroupType)
+                .vehiclesByGroup(vehiclesByGroup)
+                .generatedAt(builtAt)
+                .build();
+    }
+
+    private Integer indexOf(UUID groupId) {
+        return groupId != null ? indexById.get(groupId) : null;
+    }
+}
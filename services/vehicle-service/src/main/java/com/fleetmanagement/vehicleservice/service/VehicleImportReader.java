@@ -0,0 +1,260 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.vehicleservice.dto.request.CreateVehicleRequest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Vehicle Import Reader
+ *
+ * Streams CSV or NDJSON vehicle rows from a file one at a time, so uploads of
+ * any size are read with constant memory. CSV headers are matched to
+ * {@link CreateVehicleRequest} properties ignoring case, underscores, dashes
+ * and spaces ("license_plate", "License Plate" and "licensePlate" are all
+ * accepted). A row that cannot be converted is returned with an error rather
+ * than aborting the import.
+ */
+final class VehicleImportReader implements Closeable {
+
+    enum Format { CSV, NDJSON }
+
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW_TYPE = new TypeReference<>() {};
+    private static final Map<String, String> PROPERTIES = indexProperties();
+
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private final CountingInputStream input;
+    private final BufferedReader reader;
+    private List<String> header;
+    private long rowNumber;
+
+    private VehicleImportReader(Path file, Format format, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.input = new CountingInputStream(Files.newInputStream(file));
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    static VehicleImportReader open(Path file, Format format, ObjectMapper objectMapper) throws IOException {
+        VehicleImportReader importReader = new VehicleImportReader(file, format, objectMapper);
+        if (format == Format.CSV) {
+            List<String> columns = importReader.readRecord();
+            if (columns == null) {
+                importReader.header = List.of();
+            } else {
+                importReader.header = new ArrayList<>(columns.size());
+                for (String column : columns) {
+                    importReader.header.add(PROPERTIES.get(normalize(column)));
+                }
+            }
+        }
+        return importReader;
+    }
+
+    /**
+     * Read the next data row, or null at end of input
+     */
+    Row next() throws IOException {
+        Map<String, Object> values;
+        if (format == Format.CSV) {
+            List<String> record = readRecord();
+            while (record != null && isBlank(record)) {
+                record = readRecord();
+            }
+            if (record == null) {
+                return null;
+            }
+            rowNumber++;
+            values = toValues(record);
+        } else {
+            String line = reader.readLine();
+            while (line != null && line.isBlank()) {
+                line = reader.readLine();
+            }
+            if (line == null) {
+                return null;
+            }
+            rowNumber++;
+            try {
+                values = objectMapper.readValue(line, ROW_TYPE);
+            } catch (JsonProcessingException e) {
+                return new Row(rowNumber, null, null, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        String licensePlate = asString(values.get("licensePlate"));
+        String vin = asString(values.get("vin"));
+        try {
+            CreateVehicleRequest request = objectMapper.convertValue(values, CreateVehicleRequest.class);
+            return new Row(rowNumber, request, licensePlate, vin, null);
+        } catch (IllegalArgumentException e) {
+            return new Row(rowNumber, null, licensePlate, vin, "Invalid value: " + rootMessage(e));
+        }
+    }
+
+    long getBytesRead() {
+        return input.count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Map<String, Object> toValues(List<String> record) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < record.size() && i < header.size(); i++) {
+            String property = header.get(i);
+            String value = record.get(i).trim();
+            if (property != null && !value.isEmpty()) {
+                values.put(property, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Read one RFC 4180 record; quoted fields may contain separators, doubled quotes and line breaks
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int peek = reader.read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static boolean isBlank(List<String> record) {
+        return record.stream().allMatch(String::isBlank);
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        String message = cause.getMessage();
+        int newline = message != null ? message.indexOf('\n') : -1;
+        return newline > 0 ? message.substring(0, newline) : message;
+    }
+
+    private static String normalize(String column) {
+        StringBuilder normalized = new StringBuilder(column.length());
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static Map<String, String> indexProperties() {
+        Map<String, String> properties = new HashMap<>();
+        for (Field field : CreateVehicleRequest.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                properties.put(field.getName().toLowerCase(Locale.ROOT), field.getName());
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * A parsed input row; request is null when the row could not be converted
+     */
+    static final class Row {
+        final long number;
+        final CreateVehicleRequest request;
+        final String licensePlate;
+        final String vin;
+        final String error;
+
+        Row(long number, CreateVehicleRequest request, String licensePlate, String vin, String error) {
+            this.number = number;
+            this.request = request;
+            this.licensePlate = licensePlate;
+            this.vin = vin;
+            this.error = error;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,645 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.vehicleservice.client.CompanyServiceClient;
+import com.fleetmanagement.vehicleservice.client.CompanyServiceClient.VehicleSlotReservationResponse;
+import com.fleetmanagement.vehicleservice.domain.entity.Vehicle;
+import com.fleetmanagement.vehicleservice.domain.enums.VehicleImportStatus;
+import com.fleetmanagement.vehicleservice.domain.enums.VehicleStatus;
+import com.fleetmanagement.vehicleservice.dto.request.BulkVehicleRequest;
+import com.fleetmanagement.vehicleservice.dto.request.CreateVehicleRequest;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleImportStatusResponse;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleImportStatusResponse.RowError;
+import com.fleetmanagement.vehicleservice.repository.VehicleBatchRepository;
+import com.fleetmanagement.vehicleservice.repository.VehicleRepository;
+import com.fleetmanagement.vehicleservice.service.VehicleImportReader.Format;
+import com.fleetmanagement.vehicleservice.service.VehicleImportReader.Row;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Vehicle Import Service
+ *
+ * Bulk vehicle onboarding. Uploaded CSV/NDJSON files are streamed row by row
+ * on a small bounded worker pool and processed in batches: rows are bean
+ * validated, checked for licence plate and VIN uniqueness against in-memory
+ * sets (plates of the company loaded once, VINs checked per batch), the
+ * company quota is reserved with a single company-service call per batch and
+ * the accepted rows are written with one JDBC batch insert. Rejected rows are
+ * collected in a per-job error CSV. Caches are evicted and the due-date index
+ * updated once per job instead of once per vehicle.
+ *
+ * Job state is held in memory on the instance that accepted the upload.
+ */
+@Service
+public class VehicleImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleImportService.class);
+
+    private static final String ERROR_FILE_HEADER = "row,license_plate,vin,error";
+    private static final String QUOTA_EXHAUSTED = "Company vehicle limit reached";
+
+    private final VehicleRepository vehicleRepository;
+    private final VehicleBatchRepository vehicleBatchRepository;
+    private final CompanyServiceClient companyServiceClient;
+    private final VehicleDueDateService dueDateService;
+    private final CacheManager cacheManager;
+    private final Validator validator;
+    private final ObjectMapper importMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @Value("${app.vehicle.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.vehicle.import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${app.vehicle.import.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Value("${app.vehicle.import.job-retention-minutes:1440}")
+    private long jobRetentionMinutes;
+
+    @Value("${app.vehicle.import.work-dir:${java.io.tmpdir}/vehicle-imports}")
+    private String workDir;
+
+    @Value("${app.vehicle.bulk-operation-limit:1000}")
+    private int bulkOperationLimit;
+
+    @Autowired
+    public VehicleImportService(VehicleRepository vehicleRepository,
+                                VehicleBatchRepository vehicleBatchRepository,
+                                CompanyServiceClient companyServiceClient,
+                                VehicleDueDateService dueDateService,
+                                CacheManager cacheManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.vehicleRepository = vehicleRepository;
+        this.vehicleBatchRepository = vehicleBatchRepository;
+        this.companyServiceClient = companyServiceClient;
+        this.dueDateService = dueDateService;
+        this.cacheManager = cacheManager;
+        this.validator = validator;
+        this.importMapper = objectMapper.copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.importMapper.setConfig(this.importMapper.getDeserializationConfig()
+                .with(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "vehicle-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Accept an uploaded CSV/NDJSON file and import it in the background
+     */
+    public VehicleImportStatusResponse submitImport(MultipartFile file, String format, UUID companyId, UUID createdBy) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+        Format importFormat = resolveFormat(format, file.getOriginalFilename(), file.getContentType());
+
+        ImportJob job = registerJob(companyId, importFormat.name(), file.getOriginalFilename(), false);
+        Path input;
+        try {
+            Path directory = Files.createDirectories(Paths.get(workDir));
+            input = directory.resolve(job.id + "." + importFormat.name().toLowerCase(Locale.ROOT));
+            file.transferTo(input);
+            job.totalBytes = Files.size(input);
+            job.errorFile = directory.resolve(job.id + "-errors.csv");
+        } catch (IOException e) {
+            jobs.remove(job.id);
+            logger.error("Failed to store import upload for company: {}", companyId, e);
+            throw new IllegalStateException("Could not store import file", e);
+        }
+
+        try {
+            executor.execute(() -> runFileImport(job, input, importFormat, createdBy));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(input);
+            throw e;
+        }
+
+        logger.info("Vehicle import {} queued for company: {} ({} bytes, {})",
+                job.id, companyId, job.totalBytes, importFormat);
+        return toResponse(job);
+    }
+
+    /**
+     * Import a JSON list of vehicles synchronously, returning per-row errors inline
+     */
+    public VehicleImportStatusResponse importVehicles(BulkVehicleRequest request, UUID companyId, UUID createdBy) {
+        List<CreateVehicleRequest> vehicles = request.getVehicles();
+        if (vehicles.size() > bulkOperationLimit) {
+            throw new IllegalArgumentException("Bulk requests are limited to " + bulkOperationLimit
+                    + " vehicles; upload a file for larger imports");
+        }
+
+        ImportJob job = registerJob(companyId, "JSON", null, true);
+        job.totalRows = vehicles.size();
+        Iterator<CreateVehicleRequest> iterator = vehicles.iterator();
+        AtomicInteger index = new AtomicInteger();
+        run(job, createdBy, () -> {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            CreateVehicleRequest vehicle = iterator.next();
+            long number = index.incrementAndGet();
+            return vehicle == null
+                    ? new Row(number, null, null, null, "Vehicle entry is empty")
+                    : new Row(number, vehicle, vehicle.getLicensePlate(), vehicle.getVin(), null);
+        });
+
+        // Synchronous jobs are not kept for polling
+        jobs.remove(job.id);
+        return toResponse(job);
+    }
+
+    public VehicleImportStatusResponse getJobStatus(UUID jobId, UUID companyId) {
+        return toResponse(getJob(jobId, companyId));
+    }
+
+    /**
+     * Path of the per-row error CSV of a finished job, or null if no row failed
+     */
+    public Path getErrorFile(UUID jobId, UUID companyId) {
+        ImportJob job = getJob(jobId, companyId);
+        if (!job.status.isFinished()) {
+            throw new IllegalArgumentException("Import job " + jobId + " is still running");
+        }
+        return job.errorFile != null && Files.exists(job.errorFile) ? job.errorFile : null;
+    }
+
+    /**
+     * Drop finished jobs and their error files after the retention period
+     */
+    @Scheduled(fixedDelayString = "${app.vehicle.import.cleanup-interval-ms:3600000}")
+    public void cleanupFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.status.isFinished() && job.completedAt != null && job.completedAt.isBefore(cutoff)) {
+                deleteQuietly(job.errorFile);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // ===== PIPELINE =====
+
+    private void runFileImport(ImportJob job, Path input, Format format, UUID createdBy) {
+        try (VehicleImportReader reader = VehicleImportReader.open(input, format, importMapper)) {
+            job.reader = reader;
+            run(job, createdBy, reader::next);
+        } catch (IOException e) {
+            logger.error("Vehicle import {} could not read its input", job.id, e);
+            job.finish(VehicleImportStatus.FAILED, "Could not read import file: " + e.getMessage());
+        } finally {
+            job.reader = null;
+            job.closeErrorWriter();
+            deleteQuietly(input);
+        }
+    }
+
+    private void run(ImportJob job, UUID createdBy, RowSource source) {
+        job.status = VehicleImportStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        List<Vehicle> created = new ArrayList<>();
+        try {
+            ImportContext context = new ImportContext(job, createdBy,
+                    new HashSet<>(vehicleRepository.findLicensePlatesByCompanyId(job.companyId)));
+
+            List<Row> batch = new ArrayList<>(batchSize);
+            Row row;
+            while ((row = source.next()) != null) {
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    created.addAll(processBatch(context, batch));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                created.addAll(processBatch(context, batch));
+            }
+
+            job.finish(job.failedRows.get() > 0 ? VehicleImportStatus.COMPLETED_WITH_ERRORS : VehicleImportStatus.COMPLETED,
+                    job.createdRows.get() + " vehicles imported, " + job.failedRows.get() + " rows rejected");
+        } catch (Exception e) {
+            logger.error("Vehicle import {} failed for company: {}", job.id, job.companyId, e);
+            job.finish(VehicleImportStatus.FAILED, "Import aborted after " + job.processedRows.get()
+                    + " rows: " + e.getMessage());
+        } finally {
+            if (!created.isEmpty()) {
+                evictVehicleCaches();
+                created.forEach(dueDateService::onVehicleChanged);
+            }
+        }
+
+        logger.info("Vehicle import {} for company {} finished with status {}: {} created, {} failed, {} ms",
+                job.id, job.companyId, job.status, job.createdRows.get(), job.failedRows.get(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<Vehicle> processBatch(ImportContext context, List<Row> batch) {
+        ImportJob job = context.job;
+
+        // 1. Per-row validation and in-memory uniqueness
+        List<Row> candidates = new ArrayList<>(batch.size());
+        Set<String> batchPlates = new HashSet<>();
+        Set<String> batchVins = new HashSet<>();
+        for (Row row : batch) {
+            String problem = describeProblem(context, row, batchPlates, batchVins);
+            if (problem != null) {
+                job.recordError(row, problem);
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        // 2. VINs are unique across all companies; one query per batch
+        if (!batchVins.isEmpty()) {
+            Set<String> existingVins = new HashSet<>(vehicleRepository.findExistingVins(batchVins));
+            if (!existingVins.isEmpty()) {
+                candidates.removeIf(row -> {
+                    String vin = row.request.getVin();
+                    if (vin != null && existingVins.contains(vin)) {
+                        job.recordError(row, "Vehicle with VIN " + vin + " already exists");
+                        return true;
+                    }
+                    return false;
+                });
+            }
+        }
+
+        // 3. Reserve company quota for the whole batch
+        int granted = candidates.isEmpty() || context.quotaExhausted ? 0 : reserveSlots(job.companyId, candidates.size());
+        if (granted < candidates.size()) {
+            context.quotaExhausted = true;
+            for (Row row : candidates.subList(granted, candidates.size())) {
+                job.recordError(row, QUOTA_EXHAUSTED);
+            }
+        }
+
+        // 4. Single JDBC batch insert
+        List<Vehicle> vehicles = new ArrayList<>(granted);
+        LocalDateTime now = LocalDateTime.now();
+        for (Row row : candidates.subList(0, granted)) {
+            vehicles.add(buildVehicle(row.request, job.companyId, context.createdBy, now));
+        }
+        if (!vehicles.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> vehicleBatchRepository.insertAll(vehicles));
+            } catch (RuntimeException e) {
+                logger.error("Vehicle import {} batch insert of {} rows failed", job.id, vehicles.size(), e);
+                releaseSlots(job.companyId, granted);
+                for (Row row : candidates.subList(0, granted)) {
+                    job.recordError(row, "Insert failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+                vehicles.clear();
+            }
+        }
+
+        for (Vehicle vehicle : vehicles) {
+            context.existingPlates.add(vehicle.getLicensePlate());
+            if (vehicle.getVin() != null) {
+                context.seenVins.add(vehicle.getVin());
+            }
+        }
+        job.createdRows.addAndGet(vehicles.size());
+        job.processedRows.addAndGet(batch.size());
+        return vehicles;
+    }
+
+    private String describeProblem(ImportContext context, Row row, Set<String> batchPlates, Set<String> batchVins) {
+        if (row.error != null) {
+            return row.error;
+        }
+
+        CreateVehicleRequest request = row.request;
+        Set<ConstraintViolation<CreateVehicleRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        String licensePlate = request.getLicensePlate();
+        if (context.existingPlates.contains(licensePlate) || batchPlates.contains(licensePlate)) {
+            return "Vehicle with license plate " + licensePlate + " already exists";
+        }
+        String vin = request.getVin();
+        if (vin != null && (context.seenVins.contains(vin) || batchVins.contains(vin))) {
+            return "Vehicle with VIN " + vin + " already exists";
+        }
+
+        batchPlates.add(licensePlate);
+        if (vin != null) {
+            batchVins.add(vin);
+        }
+        return null;
+    }
+
+    private Vehicle buildVehicle(CreateVehicleRequest request, UUID companyId, UUID createdBy, LocalDateTime now) {
+        return Vehicle.builder()
+                .id(UUID.randomUUID())
+                .companyId(companyId)
+                .name(request.getName())
+                .licensePlate(request.getLicensePlate())
+                .vin(request.getVin())
+                .make(request.getMake())
+                .model(request.getModel())
+                .year(request.getYear())
+                .color(request.getColor())
+                .vehicleType(request.getVehicleType())
+                .vehicleCategory(request.getVehicleCategory())
+                .fuelType(request.getFuelType())
+                .status(VehicleStatus.ACTIVE)
+                .currentMileage(request.getCurrentMileage())
+                .purchaseDate(request.getPurchaseDate())
+                .purchasePrice(request.getPurchasePrice())
+                .insuranceExpiryDate(request.getInsuranceExpiryDate())
+                .registrationExpiryDate(request.getRegistrationExpiryDate())
+                .notes(request.getNotes())
+                .createdAt(now)
+                .updatedAt(now)
+                .createdBy(createdBy)
+                .updatedBy(createdBy)
+                .build();
+    }
+
+    private int reserveSlots(UUID companyId, int count) {
+        try {
+            VehicleApiResponse<VehicleSlotReservationResponse> body =
+                    companyServiceClient.reserveVehicleSlots(companyId, count).getBody();
+            VehicleSlotReservationResponse reservation = body != null ? body.getData() : null;
+            int granted = reservation != null ? Math.min(count, Math.max(0, reservation.getGranted())) : 0;
+            logger.debug("Reserved {} of {} vehicle slots for company: {}", granted, count, companyId);
+            return granted;
+        } catch (Exception e) {
+            logger.warn("Vehicle slot reservation failed for company: {} - {}", companyId, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void releaseSlots(UUID companyId, int count) {
+        try {
+            companyServiceClient.releaseVehicleSlots(companyId, count);
+        } catch (Exception e) {
+            logger.error("Failed to release {} vehicle slots for company: {}", count, companyId, e);
+        }
+    }
+
+    private void evictVehicleCaches() {
+        for (String cacheName : List.of("vehicles", "companyVehicles")) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    // ===== JOBS =====
+
+    private ImportJob registerJob(UUID companyId, String format, String fileName, boolean collectErrors) {
+        ImportJob job = new ImportJob(UUID.randomUUID(), companyId, format, fileName, collectErrors);
+        synchronized (jobs) {
+            // Plate uniqueness is checked against a per-job snapshot, so imports of one company must not overlap
+            boolean running = jobs.values().stream()
+                    .anyMatch(existing -> existing.companyId.equals(companyId) && !existing.status.isFinished());
+            if (running) {
+                throw new IllegalArgumentException("A vehicle import is already in progress for this company");
+            }
+            jobs.put(job.id, job);
+        }
+        return job;
+    }
+
+    private ImportJob getJob(UUID jobId, UUID companyId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.companyId.equals(companyId)) {
+            throw new IllegalArgumentException("Import job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    private VehicleImportStatusResponse toResponse(ImportJob job) {
+        return VehicleImportStatusResponse.builder()
+                .jobId(job.collectErrors ? null : job.id)
+                .companyId(job.companyId)
+                .status(job.status)
+                .format(job.format)
+                .fileName(job.fileName)
+                .processedRows(job.processedRows.get())
+                .createdRows(job.createdRows.get())
+                .failedRows(job.failedRows.get())
+                .percentComplete(job.percentComplete())
+                .errorFileAvailable(!job.collectErrors && job.failedRows.get() > 0 && job.status.isFinished())
+                .message(job.message)
+                .submittedAt(job.submittedAt)
+                .startedAt(job.startedAt)
+                .completedAt(job.completedAt)
+                .errors(job.collectErrors ? job.errors : null)
+                .build();
+    }
+
+    private static Format resolveFormat(String format, String fileName, String contentType) {
+        String hint = format != null ? format : fileName != null ? fileName : contentType != null ? contentType : "";
+        hint = hint.toLowerCase(Locale.ROOT);
+        if (hint.endsWith("csv")) {
+            return Format.CSV;
+        }
+        if (hint.endsWith("ndjson") || hint.endsWith("jsonl") || hint.endsWith("x-ndjson")) {
+            return Format.NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import format; use CSV or NDJSON");
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete import file {}", path, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        Row next() throws IOException;
+    }
+
+    private static final class ImportContext {
+        private final ImportJob job;
+        private final UUID createdBy;
+        private final Set<String> existingPlates;
+        private final Set<String> seenVins = new HashSet<>();
+        private boolean quotaExhausted;
+
+        private ImportContext(ImportJob job, UUID createdBy, Set<String> existingPlates) {
+            this.job = job;
+            this.createdBy = createdBy;
+            this.existingPlates = existingPlates;
+        }
+    }
+
+    private static final class ImportJob {
+        private final UUID id;
+        private final UUID companyId;
+        private final String format;
+        private final String fileName;
+        private final boolean collectErrors;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicInteger processedRows = new AtomicInteger();
+        private final AtomicInteger createdRows = new AtomicInteger();
+        private final AtomicInteger failedRows = new AtomicInteger();
+        private final List<RowError> errors = new ArrayList<>();
+
+        private volatile VehicleImportStatus status = VehicleImportStatus.QUEUED;
+        private volatile String message;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        private volatile VehicleImportReader reader;
+        private long totalBytes;
+        private int totalRows;
+        private Path errorFile;
+        private BufferedWriter errorWriter;
+
+        private ImportJob(UUID id, UUID companyId, String format, String fileName, boolean collectErrors) {
+            this.id = id;
+            this.companyId = companyId;
+            this.format = format;
+            this.fileName = fileName;
+            this.collectErrors = collectErrors;
+        }
+
+        private void recordError(Row row, String error) {
+            failedRows.incrementAndGet();
+            if (collectErrors) {
+                errors.add(RowError.builder()
+                        .row(row.number)
+                        .licensePlate(row.licensePlate)
+                        .vin(row.vin)
+                        .message(error)
+                        .build());
+                return;
+            }
+            try {
+                if (errorWriter == null) {
+                    errorWriter = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8);
+                    errorWriter.write(ERROR_FILE_HEADER);
+                    errorWriter.newLine();
+                }
+                errorWriter.write(row.number + "," + csv(row.licensePlate) + "," + csv(row.vin) + "," + csv(error));
+                errorWriter.newLine();
+            } catch (IOException e) {
+                logger.warn("Could not write import error for row {} of job {}", row.number, id, e);
+            }
+        }
+
+        private void closeErrorWriter() {
+            if (errorWriter != null) {
+                try {
+                    errorWriter.close();
+                } catch (IOException e) {
+                    logger.warn("Could not close error file of import job {}", id, e);
+                }
+            }
+        }
+
+        private void finish(VehicleImportStatus finalStatus, String finalMessage) {
+            // The error file must be complete before the job is reported as finished
+            closeErrorWriter();
+            message = finalMessage;
+            completedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private Integer percentComplete() {
+            if (status.isFinished()) {
+                return 100;
+            }
+            if (totalRows > 0) {
+                return (int) (processedRows.get() * 100L / totalRows);
+            }
+            VehicleImportReader current = reader;
+            if (current != null && totalBytes > 0) {
+                return (int) Math.min(99, current.getBytesRead() * 100 / totalBytes);
+            }
+            return 0;
+        }
+
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
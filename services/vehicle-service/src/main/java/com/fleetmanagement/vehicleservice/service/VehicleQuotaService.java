@@ -0,0 +1,386 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fleetmanagement.vehicleservice.client.CompanyServiceClient;
+import com.fleetmanagement.vehicleservice.client.CompanyServiceClient.CanAddVehicleResponse;
+import com.fleetmanagement.vehicleservice.client.CompanyServiceClient.QuotaLeaseBatchRequest;
+import com.fleetmanagement.vehicleservice.client.CompanyServiceClient.QuotaLeaseResponse;
+import com.fleetmanagement.vehicleservice.client.CompanyServiceClient.QuotaLeaseSyncRequest;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleApiResponse;
+import com.fleetmanagement.vehicleservice.exception.VehicleLimitExceededException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Vehicle Quota Service
+ *
+ * Admits vehicle creations against a block of company quota leased from
+ * company-service, so a create does not wait for a second service. Usage is
+ * accumulated per company and reported in one batched call on a short
+ * schedule, which also renews or tops up the leases. Each batch carries a
+ * sequence number and is resent unchanged until acknowledged, so retries
+ * never double count. A lease is only used until shortly before it expires
+ * at company-service, where it would be handed to other instances.
+ *
+ * With app.quota.lease-enabled=false every create and delete calls
+ * company-service directly, as before.
+ */
+@Service
+public class VehicleQuotaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleQuotaService.class);
+
+    private static final String RESOURCE_TYPE = "VEHICLE";
+
+    private final CompanyServiceClient companyServiceClient;
+
+    private final Map<UUID, CompanyLease> leases = new ConcurrentHashMap<>();
+
+    @Value("${app.quota.lease-enabled:true}")
+    private boolean leaseEnabled;
+
+    // company-service only accepts holder IDs prefixed with the calling service's name
+    @Value("${spring.application.name:vehicle-service}-${app.quota.holder-id:${random.uuid}}")
+    private String holderId;
+
+    @Value("${app.quota.lease-block-size:10}")
+    private int leaseBlockSize;
+
+    @Value("${app.quota.low-watermark:3}")
+    private int lowWatermark;
+
+    @Value("${app.quota.expiry-margin-seconds:30}")
+    private long expiryMarginSeconds;
+
+    @Value("${app.quota.idle-seconds:600}")
+    private long idleSeconds;
+
+    @Value("${app.quota.exhausted-backoff-seconds:30}")
+    private long exhaustedBackoffSeconds;
+
+    @Autowired
+    public VehicleQuotaService(CompanyServiceClient companyServiceClient) {
+        this.companyServiceClient = companyServiceClient;
+    }
+
+    /**
+     * Take one vehicle slot for the company, or throw if the company is at its limit.
+     * The slot is given back if the surrounding transaction rolls back.
+     */
+    public void acquire(UUID companyId) {
+        if (!leaseEnabled) {
+            acquireDirect(companyId);
+            return;
+        }
+
+        CompanyLease lease = leases.computeIfAbsent(companyId, id -> new CompanyLease());
+        if (!lease.tryTake(System.currentTimeMillis())) {
+            // Out of local quota: refill synchronously, unless another thread just did
+            lease.syncLock.lock();
+            try {
+                if (!lease.tryTake(System.currentTimeMillis())) {
+                    sync(Map.of(companyId, lease), true);
+                    if (!lease.tryTake(System.currentTimeMillis())) {
+                        throw new VehicleLimitExceededException(lease.lastSyncFailed
+                                ? "Unable to validate company vehicle limits"
+                                : "Company has reached maximum vehicle limit");
+                    }
+                }
+            } finally {
+                lease.syncLock.unlock();
+            }
+        }
+        giveBackOnRollback(lease);
+    }
+
+    /**
+     * Free one vehicle slot once the current transaction commits
+     */
+    public void release(UUID companyId) {
+        Runnable release = leaseEnabled
+                ? () -> leases.computeIfAbsent(companyId, id -> new CompanyLease()).addRelease()
+                : () -> releaseDirect(companyId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+    }
+
+    /**
+     * Unused slots this instance can hand out for a company right now, or -1 if unknown
+     */
+    public int getLocalAvailability(UUID companyId) {
+        CompanyLease lease = leaseEnabled ? leases.get(companyId) : null;
+        return lease != null ? lease.usableSlots(System.currentTimeMillis()) : -1;
+    }
+
+    /**
+     * Report accumulated usage and renew, top up or return leases in one batched call
+     */
+    @Scheduled(fixedDelayString = "${app.quota.flush-interval-ms:2000}")
+    public void flush() {
+        if (!leaseEnabled || leases.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<UUID, CompanyLease> due = new HashMap<>();
+        try {
+            for (Map.Entry<UUID, CompanyLease> entry : leases.entrySet()) {
+                CompanyLease lease = entry.getValue();
+                if (lease.isDue(now) && lease.syncLock.tryLock()) {
+                    due.put(entry.getKey(), lease);
+                }
+            }
+            if (!due.isEmpty()) {
+                sync(due, false);
+            }
+        } finally {
+            due.values().forEach(lease -> lease.syncLock.unlock());
+        }
+
+        // Forget companies that hold nothing and have nothing to report
+        leases.entrySet().removeIf(entry -> entry.getValue().isDrained(now));
+    }
+
+    /**
+     * Report outstanding usage and hand leased slots back on shutdown
+     */
+    @PreDestroy
+    public void returnLeases() {
+        if (!leaseEnabled || leases.isEmpty()) {
+            return;
+        }
+        leases.values().forEach(CompanyLease::close);
+        sync(new HashMap<>(leases), false);
+    }
+
+    // ===== LEASE SYNC =====
+
+    private void sync(Map<UUID, CompanyLease> due, boolean demand) {
+        long sentAt = System.currentTimeMillis();
+        List<QuotaLeaseSyncRequest> requests = new ArrayList<>(due.size());
+        due.forEach((companyId, lease) -> requests.add(lease.prepare(companyId, holderId, sentAt, demand)));
+
+        Map<UUID, QuotaLeaseResponse> responses = new HashMap<>();
+        try {
+            VehicleApiResponse<List<QuotaLeaseResponse>> body =
+                    companyServiceClient.syncQuotaLeases(new QuotaLeaseBatchRequest(requests)).getBody();
+            if (body != null && body.getData() != null) {
+                body.getData().forEach(response -> responses.put(response.getCompanyId(), response));
+            }
+        } catch (Exception e) {
+            logger.warn("Quota lease sync failed for {} companies: {}", requests.size(), e.getMessage());
+        }
+
+        due.forEach((companyId, lease) -> {
+            QuotaLeaseResponse response = responses.get(companyId);
+            if (response == null || response.getError() != null) {
+                lease.failed();
+                logger.debug("Quota lease for company {} not synced: {}", companyId,
+                        response != null ? response.getError() : "no response");
+            } else {
+                lease.apply(response, sentAt);
+            }
+        });
+    }
+
+    private void giveBackOnRollback(CompanyLease lease) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    lease.giveBack();
+                }
+            }
+        });
+    }
+
+    // ===== DIRECT MODE =====
+
+    private void acquireDirect(UUID companyId) {
+        try {
+            CanAddVehicleResponse validation = companyServiceClient.canAddVehicle(companyId).getBody();
+            if (validation == null || !validation.isCanAdd()) {
+                throw new VehicleLimitExceededException(validation != null ? validation.getReason() :
+                        "Company has reached maximum vehicle limit");
+            }
+        } catch (VehicleLimitExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to validate vehicle creation for company: {}", companyId, e);
+            throw new VehicleLimitExceededException("Unable to validate company vehicle limits");
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementDirect(companyId);
+                }
+            });
+        } else {
+            incrementDirect(companyId);
+        }
+    }
+
+    private void incrementDirect(UUID companyId) {
+        try {
+            companyServiceClient.incrementVehicleCount(companyId);
+        } catch (Exception e) {
+            logger.error("Failed to increment vehicle count for company: {}", companyId, e);
+        }
+    }
+
+    private void releaseDirect(UUID companyId) {
+        try {
+            companyServiceClient.decrementVehicleCount(companyId);
+        } catch (Exception e) {
+            logger.error("Failed to decrement vehicle count for company: {}", companyId, e);
+        }
+    }
+
+    /**
+     * Local view of one company's lease. Counters are guarded by the instance
+     * monitor; syncLock makes sure only one sync per company is in flight.
+     */
+    private final class CompanyLease {
+        private final ReentrantLock syncLock = new ReentrantLock();
+
+        private int available;
+        private long usableUntil;
+        private long renewAt;
+        private long refillBlockedUntil;
+        private int pendingConsumed;
+        private int pendingReleased;
+        private long nextSequence = 1;
+        private Batch inFlight;
+        private long lastActivity = System.currentTimeMillis();
+        private boolean lastSyncFailed;
+        private boolean closed;
+
+        private synchronized boolean tryTake(long now) {
+            lastActivity = now;
+            if (available <= 0 || now >= usableUntil || closed) {
+                return false;
+            }
+            available--;
+            pendingConsumed++;
+            return true;
+        }
+
+        private synchronized void giveBack() {
+            if (pendingConsumed > 0) {
+                // Not reported yet, so the slot is still part of the lease
+                pendingConsumed--;
+                available++;
+            } else {
+                pendingReleased++;
+            }
+        }
+
+        private synchronized void addRelease() {
+            pendingReleased++;
+        }
+
+        private synchronized int usableSlots(long now) {
+            return now < usableUntil ? available : 0;
+        }
+
+        private synchronized boolean isDue(long now) {
+            if (inFlight != null || pendingConsumed > 0 || pendingReleased > 0) {
+                return true;
+            }
+            boolean idle = now - lastActivity >= idleSeconds * 1000;
+            if (idle) {
+                // Hand back slots an idle company does not need
+                return available > 0;
+            }
+            return (available > 0 && now >= renewAt)
+                    || (available < lowWatermark && now >= refillBlockedUntil);
+        }
+
+        private synchronized boolean isDrained(long now) {
+            return available == 0 && inFlight == null && pendingConsumed == 0 && pendingReleased == 0
+                    && now - lastActivity >= idleSeconds * 1000;
+        }
+
+        private synchronized void close() {
+            closed = true;
+        }
+
+        private synchronized QuotaLeaseSyncRequest prepare(UUID companyId, String holderId, long now, boolean demand) {
+            if (inFlight == null) {
+                inFlight = new Batch(nextSequence++, pendingConsumed, pendingReleased);
+                pendingConsumed = 0;
+                pendingReleased = 0;
+            }
+            boolean idle = !demand && now - lastActivity >= idleSeconds * 1000;
+
+            QuotaLeaseSyncRequest request = new QuotaLeaseSyncRequest();
+            request.setCompanyId(companyId);
+            request.setResourceType(RESOURCE_TYPE);
+            request.setHolderId(holderId);
+            request.setSequence(inFlight.sequence);
+            request.setConsumed(inFlight.consumed);
+            request.setReleased(inFlight.released);
+            request.setDesiredSlots(closed || idle ? 0 : leaseBlockSize);
+            return request;
+        }
+
+        private synchronized void apply(QuotaLeaseResponse response, long sentAt) {
+            inFlight = null;
+            lastSyncFailed = false;
+
+            // Slots taken while the call was in flight came out of the lease the server just recomputed
+            available = Math.max(0, response.getLeasedSlots() - pendingConsumed);
+            long ttlMillis = response.getLeaseTtlSeconds() * 1000;
+            usableUntil = sentAt + ttlMillis - expiryMarginSeconds * 1000;
+            renewAt = sentAt + ttlMillis / 2;
+            if (response.getLeasedSlots() < lowWatermark) {
+                // Company is at or near its limit; do not poll for more on every flush
+                refillBlockedUntil = sentAt + exhaustedBackoffSeconds * 1000;
+            }
+        }
+
+        private synchronized void failed() {
+            lastSyncFailed = true;
+        }
+    }
+
+    private static final class Batch {
+        private final long sequence;
+        private final int consumed;
+        private final int released;
+
+        private Batch(long sequence, int consumed, int released) {
+            this.sequence = sequence;
+            this.consumed = consumed;
+            this.released = released;
+        }
+    }
+}
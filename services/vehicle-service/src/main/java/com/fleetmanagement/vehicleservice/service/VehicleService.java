@@ -6,28 +6,33 @@ import com.fleetmanagement.vehicleservice.domain.entity.Vehicle;
 import com.fleetmanagement.vehicleservice.domain.enums.VehicleStatus;
 import com.fleetmanagement.vehicleservice.domain.enums.VehicleType;
 import com.fleetmanagement.vehicleservice.dto.request.CreateVehicleRequest;
+import com.fleetmanagement.vehicleservice.dto.request.MileageIncrementRequest;
 import com.fleetmanagement.vehicleservice.dto.request.UpdateVehicleRequest;
 import com.fleetmanagement.vehicleservice.dto.response.VehicleResponse;
 import com.fleetmanagement.vehicleservice.dto.response.VehicleStatisticsResponse;
 import com.fleetmanagement.vehicleservice.controller.VehicleController;
-import com.fleetmanagement.vehicleservice.exception.VehicleLimitExceededException;
 import com.fleetmanagement.vehicleservice.exception.VehicleNotFoundException;
+import com.fleetmanagement.vehicleservice.repository.VehicleBatchRepository;
 import com.fleetmanagement.vehicleservice.repository.VehicleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -36,13 +41,25 @@ public class VehicleService {
     private static final Logger logger = LoggerFactory.getLogger(VehicleService.class);
 
     private final VehicleRepository vehicleRepository;
+    private final VehicleBatchRepository vehicleBatchRepository;
     private final CompanyServiceClient companyServiceClient;
+    private final VehicleDueDateService dueDateService;
+    private final VehicleQuotaService quotaService;
+
+    @Value("${app.vehicle.mileage.batch-retention:7d}")
+    private Duration mileageBatchRetention;
 
     @Autowired
     public VehicleService(VehicleRepository vehicleRepository,
-                          CompanyServiceClient companyServiceClient) {
+                          VehicleBatchRepository vehicleBatchRepository,
+                          CompanyServiceClient companyServiceClient,
+                          VehicleDueDateService dueDateService,
+                          VehicleQuotaService quotaService) {
         this.vehicleRepository = vehicleRepository;
+        this.vehicleBatchRepository = vehicleBatchRepository;
         this.companyServiceClient = companyServiceClient;
+        this.dueDateService = dueDateService;
+        this.quotaService = quotaService;
     }
 
     /**
@@ -53,12 +70,12 @@ public class VehicleService {
     public VehicleResponse createVehicle(CreateVehicleRequest request, UUID companyId, UUID createdBy) {
         logger.info("Creating vehicle: {} for company: {}", request.getName(), companyId);
 
-        // 1. VALIDATE COMPANY LIMITS FIRST
-        validateVehicleCreationLimits(companyId);
-
-        // 2. Validate uniqueness
+        // 1. Validate uniqueness
         validateVehicleUniqueness(request.getLicensePlate(), request.getVin(), companyId);
 
+        // 2. Take a slot from the company quota (returned if the transaction rolls back)
+        quotaService.acquire(companyId);
+
         // 3. Create vehicle entity using builder
         Vehicle vehicle = Vehicle.builder()
                 .name(request.getName())
@@ -79,16 +96,9 @@ public class VehicleService {
 
         // 4. Save vehicle
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        dueDateService.onVehicleChanged(savedVehicle);
         logger.info("Vehicle created successfully with ID: {}", savedVehicle.getId());
 
-        // 5. INCREMENT COMPANY VEHICLE COUNT
-        try {
-            companyServiceClient.incrementVehicleCount(companyId);
-            logger.info("Vehicle count incremented for company: {}", companyId);
-        } catch (Exception e) {
-            logger.error("Failed to increment vehicle count for company: {}", companyId, e);
-        }
-
         return mapToResponse(savedVehicle);
     }
 
@@ -149,9 +159,17 @@ public class VehicleService {
         if (request.getFuelType() != null) {
             vehicle.setFuelType(request.getFuelType());
         }
+        boolean mileageChanged = request.getCurrentMileage() != null &&
+                !request.getCurrentMileage().equals(vehicle.getCurrentMileage());
         if (request.getCurrentMileage() != null) {
             vehicle.setCurrentMileage(request.getCurrentMileage());
         }
+        if (request.getInsuranceExpiryDate() != null) {
+            vehicle.setInsuranceExpiryDate(request.getInsuranceExpiryDate());
+        }
+        if (request.getRegistrationExpiryDate() != null) {
+            vehicle.setRegistrationExpiryDate(request.getRegistrationExpiryDate());
+        }
         if (request.getStatus() != null) {
             vehicle.setStatus(request.getStatus());
         }
@@ -163,9 +181,59 @@ public class VehicleService {
         vehicle.setUpdatedAt(LocalDateTime.now());
 
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        if (mileageChanged) {
+            dueDateService.onMileageUpdated(savedVehicle);
+        } else {
+            dueDateService.onVehicleChanged(savedVehicle);
+        }
         return mapToResponse(savedVehicle);
     }
 
+    /**
+     * Add driven kilometers reported by the bridge to the vehicles' mileage.
+     * All increments are applied in one batch; unknown vehicles are skipped,
+     * and a batch id applied before is acknowledged without applying it again.
+     */
+    @Transactional
+    @CacheEvict(value = {"vehicles", "vehicleDetails"}, allEntries = true)
+    public int applyMileageIncrements(UUID batchId, List<MileageIncrementRequest> increments) {
+        if (!vehicleBatchRepository.recordMileageBatch(batchId)) {
+            logger.info("Mileage batch {} already applied, skipping", batchId);
+            return 0;
+        }
+
+        // One row per vehicle, so a batch never updates the same row twice
+        Map<UUID, MileageIncrementRequest> byVehicle = new LinkedHashMap<>();
+        for (MileageIncrementRequest increment : increments) {
+            byVehicle.merge(increment.getVehicleId(), increment, (a, b) -> MileageIncrementRequest.builder()
+                    .vehicleId(a.getVehicleId())
+                    .companyId(a.getCompanyId())
+                    .kilometers(a.getKilometers() + b.getKilometers())
+                    .build());
+        }
+
+        List<UUID> updated = vehicleBatchRepository.incrementMileage(List.copyOf(byVehicle.values()));
+        if (updated.size() < byVehicle.size()) {
+            logger.warn("Skipped mileage of {} unknown vehicles", byVehicle.size() - updated.size());
+        }
+
+        // Re-project mileage-based service dates from the new readings
+        for (Vehicle vehicle : vehicleRepository.findAllById(updated)) {
+            dueDateService.onMileageUpdated(vehicle);
+        }
+        return updated.size();
+    }
+
+    /**
+     * Forget applied mileage batch ids once the bridge can no longer resend them
+     */
+    @Scheduled(cron = "${app.vehicle.mileage.batch-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeMileageBatches() {
+        int purged = vehicleBatchRepository.purgeMileageBatches(LocalDateTime.now().minus(mileageBatchRetention));
+        logger.debug("Purged {} applied mileage batches", purged);
+    }
+
     /**
      * Delete vehicle
      */
@@ -183,14 +251,10 @@ public class VehicleService {
         vehicle.setUpdatedAt(LocalDateTime.now());
 
         vehicleRepository.save(vehicle);
+        dueDateService.onVehicleChanged(vehicle);
 
-        // DECREMENT COMPANY VEHICLE COUNT
-        try {
-            companyServiceClient.decrementVehicleCount(companyId);
-            logger.info("Vehicle count decremented for company: {}", companyId);
-        } catch (Exception e) {
-            logger.error("Failed to decrement vehicle count for company: {}", companyId, e);
-        }
+        // Free the company quota slot once the retirement is committed
+        quotaService.release(companyId);
 
         logger.info("Vehicle deleted successfully: {}", vehicleId);
     }
@@ -201,23 +265,24 @@ public class VehicleService {
     public VehicleStatisticsResponse getVehicleStatistics(UUID companyId) {
         logger.debug("Getting vehicle statistics for company: {}", companyId);
 
-        List<Vehicle> vehicles = vehicleRepository.findByCompanyId(companyId);
-
-        Map<String, Integer> vehiclesByType = vehicles.stream()
-                .collect(Collectors.groupingBy(
-                        v -> v.getVehicleType().getDisplayName(),
-                        Collectors.collectingAndThen(Collectors.counting(), Math::toIntExact)
-                ));
-
-        Map<String, Integer> vehiclesByStatus = vehicles.stream()
-                .collect(Collectors.groupingBy(
-                        v -> v.getStatus().getDisplayName(),
-                        Collectors.collectingAndThen(Collectors.counting(), Math::toIntExact)
-                ));
-
-        int totalVehicles = vehicles.size();
-        int activeVehicles = (int) vehicles.stream().filter(v -> v.getStatus() == VehicleStatus.ACTIVE).count();
-        int assignedVehicles = (int) vehicles.stream().filter(Vehicle::isAssigned).count();
+        // Aggregated in the database instead of loading every vehicle of the company
+        Map<String, Integer> vehiclesByType = new HashMap<>();
+        Map<String, Integer> vehiclesByStatus = new HashMap<>();
+        int totalVehicles = 0;
+        int activeVehicles = 0;
+        int assignedVehicles = 0;
+        for (Object[] row : vehicleRepository.countByCompanyIdGroupedByTypeAndStatus(companyId)) {
+            VehicleType type = (VehicleType) row[0];
+            VehicleStatus status = (VehicleStatus) row[1];
+            int count = ((Number) row[2]).intValue();
+            vehiclesByType.merge(type.getDisplayName(), count, Integer::sum);
+            vehiclesByStatus.merge(status.getDisplayName(), count, Integer::sum);
+            totalVehicles += count;
+            if (status == VehicleStatus.ACTIVE) {
+                activeVehicles += count;
+            }
+            assignedVehicles += row[3] != null ? ((Number) row[3]).intValue() : 0;
+        }
 
         return VehicleStatisticsResponse.builder()
                 .totalVehicles(totalVehicles)
@@ -268,6 +333,14 @@ public class VehicleService {
 
         VehicleController.VehicleCreationValidationResponse response = new VehicleController.VehicleCreationValidationResponse();
 
+        // Slots leased by this instance answer the question without a remote call
+        int localSlots = quotaService.getLocalAvailability(companyId);
+        if (localSlots > 0) {
+            response.setCanCreateVehicle(true);
+            response.setRemainingSlots(localSlots);
+            return response;
+        }
+
         try {
             CanAddVehicleResponse validation = companyServiceClient.canAddVehicle(companyId).getBody();
 
@@ -294,32 +367,6 @@ public class VehicleService {
         return response;
     }
 
-    /**
-     * Validate vehicle creation against company limits (private method)
-     */
-    private void validateVehicleCreationLimits(UUID companyId) {
-        try {
-            logger.debug("Validating vehicle limits for company: {}", companyId);
-
-            CanAddVehicleResponse validation = companyServiceClient.canAddVehicle(companyId).getBody();
-
-            if (validation == null || !validation.isCanAdd()) {
-                String message = validation != null ? validation.getReason() :
-                        "Company has reached maximum vehicle limit";
-                throw new VehicleLimitExceededException(message);
-            }
-
-            logger.info("Vehicle creation validated for company: {} (Remaining slots: {})",
-                    companyId, validation.getRemainingSlots());
-
-        } catch (VehicleLimitExceededException e) {
-            throw e; // Re-throw limit exceptions
-        } catch (Exception e) {
-            logger.error("Failed to validate vehicle creation for company: {}", companyId, e);
-            throw new VehicleLimitExceededException("Unable to validate company vehicle limits");
-        }
-    }
-
     /**
      * Validate vehicle uniqueness within company
      */
@@ -0,0 +1,127 @@
+-- Fleet analytics schema (ClickHouse, analytics_service_db)
+-- Applied at startup; every statement is idempotent.
+-- Raw facts keep a deduplication window so a Kafka batch retried after a failed
+-- insert is dropped as a duplicate block, in the rollups as well.
+
+CREATE TABLE IF NOT EXISTS trips
+(
+    event_id      String,
+    company_id    UUID,
+    vehicle_id    UUID,  -- zero UUID when the device had no vehicle; left out of the rollups
+    device_id     UUID,
+    start_time    DateTime64(3, 'UTC'),
+    end_time      DateTime64(3, 'UTC'),
+    distance_m    Float64,
+    trip_s        UInt32,
+    idle_s        UInt32,
+    max_speed_kmh Float32,
+    start_lat     Float64,
+    start_lon     Float64,
+    end_lat       Float64,
+    end_lon       Float64,
+    end_reason    LowCardinality(String)
+)
+ENGINE = MergeTree
+PARTITION BY toYYYYMM(start_time)
+ORDER BY (company_id, vehicle_id, start_time, device_id)
+SETTINGS non_replicated_deduplication_window = 1000;
+
+CREATE TABLE IF NOT EXISTS vehicle_usage_hourly
+(
+    company_id    UUID,
+    vehicle_id    UUID,
+    hour          DateTime('UTC'),
+    trips         SimpleAggregateFunction(sum, UInt64),
+    distance_m    SimpleAggregateFunction(sum, Float64),
+    trip_s        SimpleAggregateFunction(sum, UInt64),
+    idle_s        SimpleAggregateFunction(sum, UInt64),
+    max_speed_kmh SimpleAggregateFunction(max, Float32)
+)
+ENGINE = AggregatingMergeTree
+PARTITION BY toYYYYMM(hour)
+ORDER BY (company_id, vehicle_id, hour);
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS vehicle_usage_hourly_mv TO vehicle_usage_hourly AS
+SELECT company_id,
+       vehicle_id,
+       toStartOfHour(start_time) AS hour,
+       count()                   AS trips,
+       sum(distance_m)           AS distance_m,
+       sum(toUInt64(trip_s))     AS trip_s,
+       sum(toUInt64(idle_s))     AS idle_s,
+       max(max_speed_kmh)        AS max_speed_kmh
+FROM trips
+WHERE vehicle_id != toUUID('00000000-0000-0000-0000-000000000000')
+GROUP BY company_id, vehicle_id, hour;
+
+CREATE TABLE IF NOT EXISTS vehicle_usage_daily
+(
+    company_id    UUID,
+    vehicle_id    UUID,
+    day           Date,
+    trips         SimpleAggregateFunction(sum, UInt64),
+    distance_m    SimpleAggregateFunction(sum, Float64),
+    trip_s        SimpleAggregateFunction(sum, UInt64),
+    idle_s        SimpleAggregateFunction(sum, UInt64),
+    max_speed_kmh SimpleAggregateFunction(max, Float32)
+)
+ENGINE = AggregatingMergeTree
+PARTITION BY toYear(day)
+ORDER BY (company_id, vehicle_id, day);
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS vehicle_usage_daily_mv TO vehicle_usage_daily AS
+SELECT company_id,
+       vehicle_id,
+       toDate(start_time)    AS day,
+       count()               AS trips,
+       sum(distance_m)       AS distance_m,
+       sum(toUInt64(trip_s)) AS trip_s,
+       sum(toUInt64(idle_s)) AS idle_s,
+       max(max_speed_kmh)    AS max_speed_kmh
+FROM trips
+WHERE vehicle_id != toUUID('00000000-0000-0000-0000-000000000000')
+GROUP BY company_id, vehicle_id, day;
+
+CREATE TABLE IF NOT EXISTS device_positions
+(
+    company_id UUID,
+    device_id  UUID,
+    fix_time   DateTime64(3, 'UTC'),
+    latitude   Float64,
+    longitude  Float64,
+    speed_kmh  Float32,
+    course     Float32,
+    altitude   Nullable(Float32),
+    ignition   Nullable(Bool),
+    odometer_m Nullable(Float64)
+)
+ENGINE = MergeTree
+PARTITION BY toYYYYMM(fix_time)
+ORDER BY (company_id, device_id, fix_time)
+TTL toDateTime(fix_time) + INTERVAL 13 MONTH
+SETTINGS non_replicated_deduplication_window = 1000;
+
+CREATE TABLE IF NOT EXISTS device_activity_hourly
+(
+    company_id       UUID,
+    device_id        UUID,
+    hour             DateTime('UTC'),
+    fixes            SimpleAggregateFunction(sum, UInt64),
+    moving_fixes     SimpleAggregateFunction(sum, UInt64),
+    ignition_fixes   SimpleAggregateFunction(sum, UInt64),
+    max_speed_kmh    SimpleAggregateFunction(max, Float32)
+)
+ENGINE = AggregatingMergeTree
+PARTITION BY toYYYYMM(hour)
+ORDER BY (company_id, device_id, hour);
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS device_activity_hourly_mv TO device_activity_hourly AS
+SELECT company_id,
+       device_id,
+       toStartOfHour(fix_time)          AS hour,
+       count()                          AS fixes,
+       countIf(speed_kmh > 5)           AS moving_fixes,
+       countIf(ignition = true)         AS ignition_fixes,
+       max(speed_kmh)                   AS max_speed_kmh
+FROM device_positions
+GROUP BY company_id, device_id, hour;
@@ -0,0 +1,108 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the interval tree behind the in-memory assignment schedule
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Assignment Interval Tree Tests")
+class AssignmentIntervalTreeTest {
+
+    private final AssignmentIntervalTree<String> tree = new AssignmentIntervalTree<>();
+
+    @Test
+    @DisplayName("Closed ranges overlap when they share only an edge day")
+    void shouldOverlapAtEdges() {
+        tree.insert(10, 20, "a");
+
+        assertThat(tree.hasOverlap(20, 25)).isTrue();
+        assertThat(tree.hasOverlap(5, 10)).isTrue();
+        assertThat(tree.findOverlapping(20, 20)).containsExactly("a");
+        assertThat(tree.findOverlapping(10, 10)).containsExactly("a");
+    }
+
+    @Test
+    @DisplayName("Adjacent ranges do not overlap")
+    void shouldNotOverlapAdjacentRanges() {
+        tree.insert(10, 20, "a");
+
+        assertThat(tree.hasOverlap(21, 30)).isFalse();
+        assertThat(tree.hasOverlap(0, 9)).isFalse();
+        assertThat(tree.findOverlapping(21, 30)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Open-ended ranges overlap everything on their open side")
+    void shouldHandleOpenEndedRanges() {
+        tree.insert(100, Long.MAX_VALUE, "open-end");
+        tree.insert(Long.MIN_VALUE, 5, "open-start");
+
+        assertThat(tree.findOverlapping(1_000_000, 1_000_001)).containsExactly("open-end");
+        assertThat(tree.findOverlapping(-1_000_000, -999_999)).containsExactly("open-start");
+        assertThat(tree.hasOverlap(50, 60)).isFalse();
+        assertThat(tree.findOverlapping(Long.MIN_VALUE, Long.MAX_VALUE))
+                .containsExactlyInAnyOrder("open-end", "open-start");
+    }
+
+    @Test
+    @DisplayName("Remove matches value by identity and range")
+    void shouldRemoveByIdentityAndRange() {
+        String first = new String("slot");
+        String second = new String("slot");
+        tree.insert(10, 20, first);
+        tree.insert(10, 20, second);
+
+        assertThat(tree.remove(10, 21, first)).isFalse();
+        assertThat(tree.remove(10, 20, new String("slot"))).isFalse();
+        assertThat(tree.remove(10, 20, first)).isTrue();
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.findOverlapping(15, 15)).singleElement().isSameAs(second);
+        assertThat(tree.remove(10, 20, second)).isTrue();
+        assertThat(tree.isEmpty()).isTrue();
+        assertThat(tree.hasOverlap(Long.MIN_VALUE, Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Queries match a linear scan after random inserts and removes")
+    void shouldMatchLinearScan() {
+        Random random = new Random(42);
+        List<long[]> ranges = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long start = random.nextInt(1000);
+            long end = start + random.nextInt(30);
+            String value = "v" + i;
+            tree.insert(start, end, value);
+            ranges.add(new long[]{start, end});
+            values.add(value);
+        }
+        for (int i = 0; i < 500; i += 3) {
+            assertThat(tree.remove(ranges.get(i)[0], ranges.get(i)[1], values.get(i))).isTrue();
+            values.set(i, null);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            long start = random.nextInt(1050);
+            long end = start + random.nextInt(10);
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < ranges.size(); i++) {
+                if (values.get(i) != null && ranges.get(i)[0] <= end && start <= ranges.get(i)[1]) {
+                    expected.add(values.get(i));
+                }
+            }
+            assertThat(tree.findOverlapping(start, end)).containsExactlyInAnyOrderElementsOf(expected);
+            assertThat(tree.hasOverlap(start, end)).isEqualTo(!expected.isEmpty());
+        }
+        assertThat(tree.size()).isEqualTo(500 - 167);
+    }
+}
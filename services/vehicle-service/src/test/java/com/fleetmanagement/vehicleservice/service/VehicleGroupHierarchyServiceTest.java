@@ -0,0 +1,131 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fleetmanagement.vehicleservice.domain.entity.VehicleGroup;
+import com.fleetmanagement.vehicleservice.dto.request.UpdateVehicleGroupRequest;
+import com.fleetmanagement.vehicleservice.exception.VehicleGroupValidationException;
+import com.fleetmanagement.vehicleservice.repository.VehicleGroupClosureRepository;
+import com.fleetmanagement.vehicleservice.repository.VehicleGroupRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for closure table maintenance and cycle rejection on group moves
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Vehicle Group Hierarchy Service Tests")
+class VehicleGroupHierarchyServiceTest {
+
+    private final VehicleGroupRepository groupRepository = mock(VehicleGroupRepository.class);
+    private final VehicleGroupClosureRepository closureRepository = mock(VehicleGroupClosureRepository.class);
+    private final VehicleGroupHierarchyService hierarchyService =
+            new VehicleGroupHierarchyService(groupRepository, closureRepository);
+    private final VehicleGroupService groupService =
+            new VehicleGroupService(groupRepository, hierarchyService, mock(CacheService.class));
+
+    private final UUID companyId = UUID.randomUUID();
+    private final UUID groupId = UUID.randomUUID();
+    private final UUID parentId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Created groups get a self path and the parent's ancestor paths under the company lock")
+    void shouldRecordPathsOnCreate() {
+        hierarchyService.onGroupCreated(groupId, parentId, companyId);
+
+        InOrder order = inOrder(closureRepository);
+        order.verify(closureRepository).lockHierarchy("vehicle_group_closure:" + companyId);
+        order.verify(closureRepository).insertSelfPath(companyId, groupId);
+        order.verify(closureRepository).insertAncestorPaths(groupId, parentId);
+    }
+
+    @Test
+    @DisplayName("Root groups get only their self path")
+    void shouldRecordOnlySelfPathForRoot() {
+        hierarchyService.onGroupCreated(groupId, null, companyId);
+
+        verify(closureRepository).insertSelfPath(companyId, groupId);
+        verify(closureRepository, never()).insertAncestorPaths(any(), any());
+    }
+
+    @Test
+    @DisplayName("Moves detach the subtree before attaching it under the new parent")
+    void shouldDetachThenAttachOnMove() {
+        hierarchyService.onGroupMoved(groupId, parentId, companyId);
+
+        InOrder order = inOrder(closureRepository);
+        order.verify(closureRepository).lockHierarchy("vehicle_group_closure:" + companyId);
+        order.verify(closureRepository).detachSubtree(groupId);
+        order.verify(closureRepository).attachSubtree(groupId, parentId);
+    }
+
+    @Test
+    @DisplayName("Moving to the root level only detaches")
+    void shouldOnlyDetachOnMoveToRoot() {
+        hierarchyService.onGroupMoved(groupId, null, companyId);
+
+        verify(closureRepository).detachSubtree(groupId);
+        verify(closureRepository, never()).attachSubtree(any(), any());
+    }
+
+    @Test
+    @DisplayName("A move under one of the group's own descendants is a cycle")
+    void shouldDetectCycleFromClosurePath() {
+        UUID descendantId = UUID.randomUUID();
+        when(closureRepository.existsPath(groupId, descendantId)).thenReturn(true);
+
+        assertThat(hierarchyService.wouldCreateCycle(groupId, descendantId)).isTrue();
+        assertThat(hierarchyService.wouldCreateCycle(groupId, parentId)).isFalse();
+        assertThat(hierarchyService.wouldCreateCycle(groupId, null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Updates that would create a cycle are rejected before anything is written")
+    void shouldRejectCyclicMove() {
+        UUID descendantId = UUID.randomUUID();
+        VehicleGroup group = VehicleGroup.builder().id(groupId).companyId(companyId).name("East").build();
+        when(groupRepository.findByIdAndCompanyId(groupId, companyId)).thenReturn(Optional.of(group));
+        when(closureRepository.existsPath(groupId, descendantId)).thenReturn(true);
+
+        UpdateVehicleGroupRequest request = UpdateVehicleGroupRequest.builder().parentGroupId(descendantId).build();
+
+        assertThatThrownBy(() -> groupService.updateVehicleGroup(groupId, request, companyId, UUID.randomUUID()))
+                .isInstanceOf(VehicleGroupValidationException.class)
+                .hasMessageContaining("circular");
+
+        InOrder order = inOrder(closureRepository);
+        order.verify(closureRepository).lockHierarchy(anyString());
+        order.verify(closureRepository).existsPath(groupId, descendantId);
+        verify(groupRepository, never()).save(any());
+        verify(closureRepository, never()).detachSubtree(any());
+        verify(closureRepository, never()).attachSubtree(any(), any());
+    }
+
+    @Test
+    @DisplayName("Cached trees are rebuilt after a hierarchy change")
+    void shouldEvictTreeOnChange() {
+        when(groupRepository.findTreeNodesByCompany(companyId)).thenReturn(List.of());
+        when(groupRepository.findMembershipPairsByCompany(companyId)).thenReturn(List.of());
+
+        VehicleGroupTree first = hierarchyService.getTree(companyId);
+        assertThat(hierarchyService.getTree(companyId)).isSameAs(first);
+
+        hierarchyService.onGroupCreated(groupId, null, companyId);
+
+        assertThat(hierarchyService.getTree(companyId)).isNotSameAs(first);
+    }
+}
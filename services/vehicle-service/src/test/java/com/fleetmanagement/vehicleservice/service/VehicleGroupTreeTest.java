@@ -0,0 +1,122 @@
+package com.fleetmanagement.vehicleservice.service;
+
+import com.fleetmanagement.vehicleservice.domain.enums.GroupType;
+import com.fleetmanagement.vehicleservice.dto.response.VehicleGroupStatisticsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the flattened per-company group tree snapshot
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Vehicle Group Tree Tests")
+class VehicleGroupTreeTest {
+
+    private final UUID companyId = UUID.randomUUID();
+
+    // root -> (east -> depot), west; depot sorts before nothing, east before west by sort order
+    private final UUID root = UUID.randomUUID();
+    private final UUID east = UUID.randomUUID();
+    private final UUID west = UUID.randomUUID();
+    private final UUID depot = UUID.randomUUID();
+
+    private final UUID truck = UUID.randomUUID();
+    private final UUID van = UUID.randomUUID();
+    private final UUID car = UUID.randomUUID();
+
+    private final List<Object[]> nodes = new ArrayList<>(List.of(
+            node(depot, east, "Depot", 10),
+            node(west, root, "West", 20),
+            node(east, root, "East", 10),
+            node(root, null, "Fleet", 0)));
+
+    private final List<Object[]> memberships = new ArrayList<>(List.of(
+            new Object[]{root, car},
+            new Object[]{east, van},
+            new Object[]{depot, truck},
+            new Object[]{depot, van},
+            new Object[]{west, car}));
+
+    @Test
+    @DisplayName("Ancestor checks follow the hierarchy, not insertion order")
+    void shouldAnswerAncestorQueries() {
+        VehicleGroupTree tree = VehicleGroupTree.build(companyId, nodes, memberships);
+
+        assertThat(tree.size()).isEqualTo(4);
+        assertThat(tree.isAncestor(root, depot)).isTrue();
+        assertThat(tree.isAncestor(east, depot)).isTrue();
+        assertThat(tree.isAncestor(west, depot)).isFalse();
+        assertThat(tree.isAncestor(depot, depot)).isFalse();
+        assertThat(tree.isAncestor(depot, root)).isFalse();
+
+        assertThat(tree.getDepth(root)).isZero();
+        assertThat(tree.getDepth(depot)).isEqualTo(2);
+        assertThat(tree.getDepth(UUID.randomUUID())).isEqualTo(-1);
+        assertThat(tree.getMaxDepth()).isEqualTo(2);
+
+        assertThat(tree.getDescendantIds(root)).containsExactly(east, depot, west);
+        assertThat(tree.getDescendantIds(depot)).isEmpty();
+        assertThat(tree.getAncestorIds(depot)).containsExactly(east, root);
+    }
+
+    @Test
+    @DisplayName("Subtree rollups count memberships and distinct vehicles")
+    void shouldRollUpSubtreeVehicles() {
+        VehicleGroupTree tree = VehicleGroupTree.build(companyId, nodes, memberships);
+
+        assertThat(tree.getSubtreeMembershipCount(root)).isEqualTo(5);
+        assertThat(tree.getSubtreeVehicleIds(root)).containsExactlyInAnyOrder(car, van, truck);
+        assertThat(tree.getSubtreeMembershipCount(east)).isEqualTo(3);
+        assertThat(tree.getSubtreeVehicleIds(east)).containsExactlyInAnyOrder(van, truck);
+        assertThat(tree.getDirectVehicleIds(east)).containsExactly(van);
+        assertThat(tree.getDirectVehicleCount(depot)).isEqualTo(2);
+
+        VehicleGroupStatisticsResponse statistics = tree.getStatistics();
+        assertThat(statistics.getTotalGroups()).isEqualTo(4);
+        assertThat(statistics.getRootGroups()).isEqualTo(1);
+        assertThat(statistics.getAssignedVehicles()).isEqualTo(3);
+        assertThat(statistics.getMaxDepth()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Groups on a corrupt parent cycle are left out of the snapshot")
+    void shouldDropGroupsOnParentCycle() {
+        UUID loopA = UUID.randomUUID();
+        UUID loopB = UUID.randomUUID();
+        nodes.add(node(loopA, loopB, "Loop A", 0));
+        nodes.add(node(loopB, loopA, "Loop B", 0));
+        memberships.add(new Object[]{loopA, truck});
+
+        VehicleGroupTree tree = VehicleGroupTree.build(companyId, nodes, memberships);
+
+        assertThat(tree.size()).isEqualTo(4);
+        assertThat(tree.contains(loopA)).isFalse();
+        assertThat(tree.contains(loopB)).isFalse();
+        assertThat(tree.getAncestorIds(loopA)).isEmpty();
+        assertThat(tree.getSubtreeMembershipCount(root)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Groups whose parent is missing become roots")
+    void shouldTreatOrphansAsRoots() {
+        UUID orphan = UUID.randomUUID();
+        nodes.add(node(orphan, UUID.randomUUID(), "Orphan", 0));
+
+        VehicleGroupTree tree = VehicleGroupTree.build(companyId, nodes, memberships);
+
+        assertThat(tree.getDepth(orphan)).isZero();
+        assertThat(tree.getAncestorIds(orphan)).isEmpty();
+        assertThat(tree.getStatistics().getRootGroups()).isEqualTo(2);
+    }
+
+    private static Object[] node(UUID id, UUID parentId, String name, int sortOrder) {
+        return new Object[]{id, parentId, name, GroupType.FLEET, Boolean.TRUE, sortOrder};
+    }
+}
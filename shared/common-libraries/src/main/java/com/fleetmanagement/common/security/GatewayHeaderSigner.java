@@ -0,0 +1,131 @@
+package com.fleetmanagement.common.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Gateway Header Signer
+ *
+ * HMAC-SHA256 signature over the identity headers the API gateway forwards
+ * after verifying a token. Services that share the secret can trust signed
+ * headers instead of parsing the token again. The signature covers the
+ * identity values, the token type and the token's expiry (X-Gateway-Expires,
+ * epoch seconds), so the gateway signs once per token and services reject
+ * headers once the token they came from has expired.
+ *
+ * @author Fleet Management Team
+ */
+public final class GatewayHeaderSigner {
+
+    public static final String USER_ID = "X-User-ID";
+    public static final String USERNAME = "X-Username";
+    public static final String COMPANY_ID = "X-Company-ID";
+    public static final String ROLE = "X-User-Role";
+    public static final String EMAIL = "X-User-Email";
+    public static final String SESSION_ID = "X-Session-ID";
+    public static final String TOKEN_TYPE = "X-Token-Type";
+    public static final String EXPIRES = "X-Gateway-Expires";
+    public static final String SIGNATURE = "X-Gateway-Signature";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    public GatewayHeaderSigner(String secret) {
+        if (secret == null || secret.length() < 32) {
+            throw new IllegalArgumentException("Gateway header secret must be at least 32 characters");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Signature for the given header values; null values are signed as empty strings
+     */
+    public String sign(String userId, String username, String companyId, String role, String email,
+                       String sessionId, String tokenType, long expiresAtSeconds) {
+        byte[] payload = canonical(userId, username, companyId, role, email, sessionId, tokenType,
+                String.valueOf(expiresAtSeconds));
+        return ENCODER.encodeToString(mac.get().doFinal(payload));
+    }
+
+    /**
+     * Principal from signed headers, or null if they are missing, tampered with or expired
+     *
+     * @param headers header lookup by name (e.g. HttpServletRequest::getHeader)
+     */
+    public VerifiedPrincipal verify(Function<String, String> headers, long nowMillis) {
+        String signature = headers.apply(SIGNATURE);
+        String expires = headers.apply(EXPIRES);
+        if (signature == null || expires == null) {
+            return null;
+        }
+
+        long expiresAtSeconds;
+        byte[] presented;
+        try {
+            expiresAtSeconds = Long.parseLong(expires);
+            presented = DECODER.decode(signature);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (nowMillis / 1000 >= expiresAtSeconds) {
+            return null;
+        }
+
+        String userId = headers.apply(USER_ID);
+        String username = headers.apply(USERNAME);
+        String companyId = headers.apply(COMPANY_ID);
+        String role = headers.apply(ROLE);
+        String email = headers.apply(EMAIL);
+        String sessionId = headers.apply(SESSION_ID);
+        String tokenType = headers.apply(TOKEN_TYPE);
+
+        byte[] expected = mac.get().doFinal(canonical(userId, username, companyId, role, email, sessionId, tokenType,
+                expires));
+        if (!MessageDigest.isEqual(expected, presented)) {
+            return null;
+        }
+
+        return new VerifiedPrincipal(
+                VerifiedPrincipal.parseUuid(userId),
+                username,
+                emptyToNull(email),
+                role,
+                VerifiedPrincipal.parseUuid(companyId),
+                emptyToNull(sessionId),
+                emptyToNull(tokenType),
+                0L,
+                expiresAtSeconds * 1000,
+                VerifiedPrincipal.Source.GATEWAY);
+    }
+
+    private static byte[] canonical(String... values) {
+        StringBuilder builder = new StringBuilder(256);
+        for (String value : values) {
+            builder.append(value != null ? value : "").append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance("HmacSHA256");
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.fleetmanagement.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtParserBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JWT Verifier
+ *
+ * Verifies HMAC-signed access and refresh tokens issued by the user service.
+ * The signing key and parser are built once and shared; the parser is
+ * thread-safe. Issuer and audience are only enforced when configured.
+ *
+ * @author Fleet Management Team
+ */
+public final class JwtVerifier {
+
+    private final JwtParser parser;
+
+    public JwtVerifier(String secret) {
+        this(secret, null, null);
+    }
+
+    public JwtVerifier(String secret, String issuer, String audience) {
+        JwtParserBuilder builder = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
+        if (issuer != null && !issuer.isEmpty()) {
+            builder.requireIssuer(issuer);
+        }
+        if (audience != null && !audience.isEmpty()) {
+            builder.requireAudience(audience);
+        }
+        this.parser = builder.build();
+    }
+
+    /**
+     * Verify the signature and expiry of a token and read its claims
+     *
+     * @throws JwtException if the token is invalid or expired
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public Claims verifyClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Verify a token and read its identity in one parse
+     *
+     * @throws JwtException if the token is invalid or expired
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public VerifiedPrincipal verify(String token) {
+        return VerifiedPrincipal.fromClaims(verifyClaims(token));
+    }
+}
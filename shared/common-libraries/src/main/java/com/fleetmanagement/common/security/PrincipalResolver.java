@@ -0,0 +1,59 @@
+package com.fleetmanagement.common.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Principal Resolver
+ *
+ * Resolves the caller of a servlet request once: from the request cache if
+ * already resolved, from identity headers signed by the gateway when a
+ * signer is configured, otherwise by verifying the bearer token. The result
+ * is cached on the request.
+ *
+ * @author Fleet Management Team
+ */
+public final class PrincipalResolver {
+
+    private final JwtVerifier verifier;
+    private final GatewayHeaderSigner gatewaySigner;
+
+    /**
+     * @param gatewaySigner verifier for signed gateway headers, or null to always parse the token
+     */
+    public PrincipalResolver(JwtVerifier verifier, GatewayHeaderSigner gatewaySigner) {
+        this.verifier = verifier;
+        this.gatewaySigner = gatewaySigner;
+    }
+
+    /**
+     * Principal of the request, or null if it carries neither signed headers nor a token
+     *
+     * @throws JwtException if the token is invalid or expired
+     */
+    public VerifiedPrincipal resolve(HttpServletRequest request, String token) {
+        VerifiedPrincipal principal = RequestPrincipalCache.current(request);
+        if (principal != null) {
+            return principal;
+        }
+
+        if (gatewaySigner != null) {
+            principal = gatewaySigner.verify(request::getHeader, System.currentTimeMillis());
+            if (principal != null) {
+                RequestPrincipalCache.put(request, null, principal);
+                return principal;
+            }
+        }
+
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        principal = verifier.verify(token);
+        RequestPrincipalCache.put(request, token, principal);
+        return principal;
+    }
+
+    public boolean isGatewayHeadersTrusted() {
+        return gatewaySigner != null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.fleetmanagement.common.security;
+
+import jakarta.servlet.ServletRequest;
+
+/**
+ * Request Principal Cache
+ *
+ * Keeps the principal resolved for a request as a request attribute, so the
+ * authentication filter, services and controllers handling the same request
+ * share one verification. Entries resolved from a token only answer lookups
+ * for that same token.
+ *
+ * @author Fleet Management Team
+ */
+public final class RequestPrincipalCache {
+
+    private static final String ATTRIBUTE = RequestPrincipalCache.class.getName();
+
+    private RequestPrincipalCache() {
+    }
+
+    /**
+     * Principal resolved for this request, whichever way it was verified
+     */
+    public static VerifiedPrincipal current(ServletRequest request) {
+        Entry entry = entry(request);
+        return entry != null ? entry.principal() : null;
+    }
+
+    /**
+     * Principal previously verified from exactly this token in this request
+     */
+    public static VerifiedPrincipal get(ServletRequest request, String token) {
+        Entry entry = entry(request);
+        return entry != null && token != null && token.equals(entry.token()) ? entry.principal() : null;
+    }
+
+    /**
+     * Remember the principal for this request; token is null for signed gateway headers
+     */
+    public static void put(ServletRequest request, String token, VerifiedPrincipal principal) {
+        request.setAttribute(ATTRIBUTE, new Entry(token, principal));
+    }
+
+    private static Entry entry(ServletRequest request) {
+        return request != null && request.getAttribute(ATTRIBUTE) instanceof Entry entry ? entry : null;
+    }
+
+    private record Entry(String token, VerifiedPrincipal principal) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.fleetmanagement.common.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Verified Principal
+ *
+ * Identity of an authenticated caller, taken from a token whose signature has
+ * been checked or from identity headers signed by the API gateway. Built once
+ * per request and immutable, so callers read fields instead of re-parsing the
+ * token for every claim.
+ *
+ * @author Fleet Management Team
+ */
+public final class VerifiedPrincipal {
+
+    public enum Source { TOKEN, GATEWAY }
+
+    public static final String ACCESS_TOKEN = "ACCESS";
+    public static final String REFRESH_TOKEN = "REFRESH";
+
+    private final UUID userId;
+    private final String username;
+    private final String email;
+    private final String role;
+    private final UUID companyId;
+    private final String sessionId;
+    private final String tokenType;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+    private final Source source;
+
+    VerifiedPrincipal(UUID userId, String username, String email, String role, UUID companyId, String sessionId,
+                      String tokenType, long issuedAtMillis, long expiresAtMillis, Source source) {
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+        this.companyId = companyId;
+        this.sessionId = sessionId;
+        this.tokenType = tokenType;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+        this.source = source;
+    }
+
+    /**
+     * Read the claims of a verified token. The user ID and username fall back to the subject.
+     */
+    public static VerifiedPrincipal fromClaims(Claims claims) {
+        String subject = claims.getSubject();
+        String userId = claims.get("userId", String.class);
+        String username = claims.get("username", String.class);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+
+        return new VerifiedPrincipal(
+                parseUuid(userId != null ? userId : subject),
+                username != null ? username : subject,
+                claims.get("email", String.class),
+                claims.get("role", String.class),
+                parseUuid(claims.get("companyId", String.class)),
+                claims.get("sessionId", String.class),
+                claims.get("tokenType", String.class),
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE,
+                Source.TOKEN);
+    }
+
+    static UUID parseUuid(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public boolean isAccessToken() {
+        return ACCESS_TOKEN.equals(tokenType);
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH_TOKEN.equals(tokenType);
+    }
+
+    public boolean isExpiredAt(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    public UUID getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+    public UUID getCompanyId() { return companyId; }
+    public String getSessionId() { return sessionId; }
+    public String getTokenType() { return tokenType; }
+    public long getIssuedAtMillis() { return issuedAtMillis; }
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+
+    /**
+     * Whether the identity came from a parsed token or from signed gateway headers
+     */
+    public Source getSource() { return source; }
+
+    @Override
+    public String toString() {
+        return "VerifiedPrincipal{userId=" + userId + ", username=" + username + ", role=" + role
+                + ", companyId=" + companyId + ", source=" + source + "}";
+    }
+}
@@ -0,0 +1,136 @@
+package com.fleetmanagement.common.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for signing and verifying the gateway's identity headers
+ *
+ * @author Fleet Management Team
+ */
+@DisplayName("Gateway Header Signer Tests")
+class GatewayHeaderSignerTest {
+
+    private static final String SECRET = "gateway-header-secret-for-unit-tests-0123456789";
+
+    private final GatewayHeaderSigner signer = new GatewayHeaderSigner(SECRET);
+    private final String userId = UUID.randomUUID().toString();
+    private final String companyId = UUID.randomUUID().toString();
+    private final long now = System.currentTimeMillis();
+    private final long expiresAtSeconds = now / 1000 + 3600;
+
+    private Map<String, String> headers;
+
+    @BeforeEach
+    void setUp() {
+        headers = signedHeaders(VerifiedPrincipal.ACCESS_TOKEN, expiresAtSeconds);
+    }
+
+    @Test
+    @DisplayName("Signed headers verify into the principal they were built from")
+    void shouldVerifySignedHeaders() {
+        VerifiedPrincipal principal = signer.verify(headers::get, now);
+
+        assertThat(principal).isNotNull();
+        assertThat(principal.getUserId()).hasToString(userId);
+        assertThat(principal.getCompanyId()).hasToString(companyId);
+        assertThat(principal.getUsername()).isEqualTo("driver");
+        assertThat(principal.getRole()).isEqualTo("DRIVER");
+        assertThat(principal.getSessionId()).isEqualTo("session-1");
+        assertThat(principal.isAccessToken()).isTrue();
+        assertThat(principal.getSource()).isEqualTo(VerifiedPrincipal.Source.GATEWAY);
+    }
+
+    @Test
+    @DisplayName("Any changed header value breaks the signature")
+    void shouldRejectTamperedHeaders() {
+        headers.put(GatewayHeaderSigner.ROLE, "SUPER_ADMIN");
+        assertThat(signer.verify(headers::get, now)).isNull();
+
+        setUp();
+        headers.put(GatewayHeaderSigner.COMPANY_ID, UUID.randomUUID().toString());
+        assertThat(signer.verify(headers::get, now)).isNull();
+
+        setUp();
+        headers.put(GatewayHeaderSigner.EXPIRES, String.valueOf(expiresAtSeconds + 3600));
+        assertThat(signer.verify(headers::get, now)).isNull();
+    }
+
+    @Test
+    @DisplayName("Headers are rejected from the second the token expires")
+    void shouldRejectExpiredHeaders() {
+        assertThat(signer.verify(headers::get, expiresAtSeconds * 1000 - 1)).isNotNull();
+        assertThat(signer.verify(headers::get, expiresAtSeconds * 1000)).isNull();
+    }
+
+    @Test
+    @DisplayName("Headers signed for a refresh token verify as a refresh token only")
+    void shouldKeepRefreshTokenType() {
+        headers = signedHeaders(VerifiedPrincipal.REFRESH_TOKEN, expiresAtSeconds);
+
+        VerifiedPrincipal principal = signer.verify(headers::get, now);
+        assertThat(principal).isNotNull();
+        assertThat(principal.isRefreshToken()).isTrue();
+        assertThat(principal.isAccessToken()).isFalse();
+
+        headers.put(GatewayHeaderSigner.TOKEN_TYPE, VerifiedPrincipal.ACCESS_TOKEN);
+        assertThat(signer.verify(headers::get, now)).isNull();
+
+        headers.remove(GatewayHeaderSigner.TOKEN_TYPE);
+        assertThat(signer.verify(headers::get, now)).isNull();
+    }
+
+    @Test
+    @DisplayName("Missing or malformed signature headers are rejected")
+    void shouldRejectMissingOrMalformedSignature() {
+        Map<String, String> unsigned = new HashMap<>(headers);
+        unsigned.remove(GatewayHeaderSigner.SIGNATURE);
+        assertThat(signer.verify(unsigned::get, now)).isNull();
+
+        headers.put(GatewayHeaderSigner.SIGNATURE, "not base64!");
+        assertThat(signer.verify(headers::get, now)).isNull();
+
+        setUp();
+        headers.put(GatewayHeaderSigner.EXPIRES, "soon");
+        assertThat(signer.verify(headers::get, now)).isNull();
+    }
+
+    @Test
+    @DisplayName("Headers signed with another secret are rejected")
+    void shouldRejectOtherSecret() {
+        GatewayHeaderSigner other = new GatewayHeaderSigner(SECRET + "-other");
+        assertThat(other.verify(headers::get, now)).isNull();
+    }
+
+    @Test
+    @DisplayName("Short secrets are refused")
+    void shouldRefuseShortSecret() {
+        assertThatThrownBy(() -> new GatewayHeaderSigner("too-short"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GatewayHeaderSigner(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Map<String, String> signedHeaders(String tokenType, long expiresAt) {
+        Map<String, String> signed = new HashMap<>();
+        signed.put(GatewayHeaderSigner.USER_ID, userId);
+        signed.put(GatewayHeaderSigner.USERNAME, "driver");
+        signed.put(GatewayHeaderSigner.COMPANY_ID, companyId);
+        signed.put(GatewayHeaderSigner.ROLE, "DRIVER");
+        signed.put(GatewayHeaderSigner.EMAIL, "driver@example.com");
+        signed.put(GatewayHeaderSigner.SESSION_ID, "session-1");
+        signed.put(GatewayHeaderSigner.TOKEN_TYPE, tokenType);
+        signed.put(GatewayHeaderSigner.EXPIRES, String.valueOf(expiresAt));
+        signed.put(GatewayHeaderSigner.SIGNATURE, signer.sign(userId, "driver", companyId, "DRIVER",
+                "driver@example.com", "session-1", tokenType, expiresAt));
+        return signed;
+    }
+}